@@ -54,4 +54,9 @@ public class ClientProxy extends CommonProxy{
 	public void addVehicleEngineSound(EntityVehicleE_Powered vehicle, APartEngine engine){
 		VehicleSoundSystem.addVehicleEngineSound(vehicle, engine);
 	}
+	
+	@Override
+	public void releaseVehicleSounds(EntityVehicleE_Powered vehicle){
+		VehicleSoundSystem.releaseVehicleSounds(vehicle);
+	}
 }
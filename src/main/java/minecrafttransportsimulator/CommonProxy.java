@@ -16,4 +16,5 @@ public class CommonProxy{
 	public void openGUI(Object clicked, EntityPlayer clicker){}
 	public void playSound(Vec3d soundPosition, String soundName, float volume, float pitch, EntityVehicleE_Powered optionalVehicle){}
 	public void addVehicleEngineSound(EntityVehicleE_Powered vehicle, APartEngine engine){}
+	public void releaseVehicleSounds(EntityVehicleE_Powered vehicle){}
 }
@@ -5,7 +5,10 @@ import java.io.File;
 import org.apache.logging.log4j.Logger;
 
 import minecrafttransportsimulator.dataclasses.MTSRegistry;
+import minecrafttransportsimulator.dataclasses.PackItemCatalog;
+import minecrafttransportsimulator.dataclasses.PackRecipeCache;
 import minecrafttransportsimulator.systems.ConfigSystem;
+import minecrafttransportsimulator.systems.LoadTimingSystem;
 import minecrafttransportsimulator.systems.PackParserSystem;
 import minecrafttransportsimulator.wrappers.WrapperNetwork;
 import net.minecraftforge.fluids.FluidRegistry;
@@ -28,6 +31,7 @@ public class MTS {
 	public static MTS instance;
 	public static Logger MTSLog;
 	public static File minecraftDir;
+	public static File configDir;
 	public static final SimpleNetworkWrapper MTSNet = NetworkRegistry.INSTANCE.newSimpleChannel("MTSNet");
 	@SidedProxy(clientSide="minecrafttransportsimulator.ClientProxy", serverSide="minecrafttransportsimulator.CommonProxy")
 	public static CommonProxy proxy;
@@ -38,18 +42,31 @@ public class MTS {
 
 	@EventHandler
 	public void preInit(FMLPreInitializationEvent event){
+		LoadTimingSystem.Timer preInitTimer = LoadTimingSystem.start("preInit");
 		MTSLog = event.getModLog();
+		minecraftDir = new File(event.getModConfigurationDirectory().getParent());
+		configDir = event.getModConfigurationDirectory();
+		PackParserSystem.finishPackLoading();
 		for(String logEntry : PackParserSystem.logEntries){
 			MTSLog.error(logEntry);
 		}
+		LoadTimingSystem.Timer configTimer = LoadTimingSystem.start("configLoad");
 		ConfigSystem.loadFromDisk(new File(event.getSuggestedConfigurationFile().getParent(), "mtsconfig.json"));
+		configTimer.stop();
 		proxy.initControls();
-		minecraftDir = new File(event.getModConfigurationDirectory().getParent());
+		preInitTimer.stop();
 	}
 	
 	@EventHandler
 	public void init(FMLInitializationEvent event){
+		LoadTimingSystem.Timer initTimer = LoadTimingSystem.start("init");
 		MTSRegistry.init();
+		PackItemCatalog.build();
+		PackRecipeCache.compile();
 		WrapperNetwork.init();
+		initTimer.stop();
+		
+		//Write out the load times now that we're done loading.
+		LoadTimingSystem.writeReport("startup");
 	}
 }
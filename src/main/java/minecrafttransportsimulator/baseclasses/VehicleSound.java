@@ -14,6 +14,8 @@ public final class VehicleSound{
 	private final EntityPlayer player;
 	private final SoundTypes soundType;
 	
+	private final String uniqueName;
+	
 	private Vec3d playerPos;
 	private Vec3d sourcePos;
 	
@@ -25,6 +27,8 @@ public final class VehicleSound{
 		
 		this.playerPos = new Vec3d(player.posX, player.posY, player.posZ);
 		this.sourcePos = optionalPart != null ? optionalPart.partPos : vehicle.getPositionVector();
+		//Unique name is used as the SoundSystem source ID every frame, so build it once here.
+		this.uniqueName = vehicle.getEntityId() + "_" + (optionalPart != null ? getSoundName() + String.valueOf(optionalPart.offset.x) + String.valueOf(optionalPart.offset.y) + String.valueOf(optionalPart.offset.z) : getSoundName());
 	}
 	
 	public double getPosX(){
@@ -78,7 +82,15 @@ public final class VehicleSound{
 	}
 	
 	public String getSoundUniqueName(){
-		return vehicle.getEntityId() + "_" + (optionalPart != null ? getSoundName() + String.valueOf(optionalPart.offset.x) + String.valueOf(optionalPart.offset.y) + String.valueOf(optionalPart.offset.z) : getSoundName());
+		return uniqueName;
+	}
+	
+	public SoundTypes getSoundType(){
+		return soundType;
+	}
+	
+	public boolean isPlayerRidingSource(){
+		return vehicle.equals(player.getRidingEntity());
 	}
 	
 	public boolean isSoundSourceActive(){
@@ -0,0 +1,91 @@
+package minecrafttransportsimulator.dataclasses;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import minecrafttransportsimulator.jsondefs.JSONVehicle;
+import minecrafttransportsimulator.jsondefs.JSONVehicle.VehicleCollisionBox;
+import minecrafttransportsimulator.jsondefs.JSONVehicle.VehiclePart;
+import net.minecraft.util.math.Vec3d;
+
+/**Data derived from a {@link JSONVehicle} that vehicles would otherwise have to work out from the JSON
+ * every time they need it.  This is built once when the definition is registered by the pack parser,
+ * and is shared by all sub-definitions of a vehicle and all vehicles that use them.  As such, nothing in here
+ * may depend on the state of a single vehicle, and nothing in here should be modified after it is built.
+ * <br><br>
+ * Positions are used as keys for most of the data in here.  Use {@link #getSlotKey(double, double, double)} to
+ * make them, as this makes sure -0.0 and 0.0 are treated as the same position like they are in the JSON checks.
+ *
+ * @author don_bruce
+ */
+public final class CompiledVehicleDefinition{
+	/**All main and additional part slots, keyed by position.  Main slots come before their additional slots.**/
+	public final Map<Vec3d, VehiclePart> slots;
+	/**Engine number for each slot that can hold an engine, keyed by position.**/
+	public final Map<Vec3d, Byte> engineNumbers;
+	/**Offset of each collision box, in the same order as {@link JSONVehicle#collision}.**/
+	public final Vec3d[] collisionOffsets;
+	/**Width and height of the box that encompasses all collision boxes.**/
+	public final float collisionFrameWidth;
+	public final float collisionFrameHeight;
+
+	public CompiledVehicleDefinition(JSONVehicle definition){
+		//Get all main and additional slots.  If two slots share a position, the first one wins
+		//as that's the one that the old linear searches would have returned.
+		Map<Vec3d, VehiclePart> slotMap = new LinkedHashMap<Vec3d, VehiclePart>();
+		Map<Vec3d, Byte> engineMap = new HashMap<Vec3d, Byte>();
+		//Because parts is a list, the #1 engine will always come before the #2 engine.
+		//Every engine type counts towards the number, so slots with multiple engine types use up multiple numbers.
+		byte engineNumber = 0;
+		for(VehiclePart packPart : definition.parts){
+			Vec3d partPos = getSlotKey(packPart.pos[0], packPart.pos[1], packPart.pos[2]);
+			if(!slotMap.containsKey(partPos)){
+				slotMap.put(partPos, packPart);
+			}
+			for(String type : packPart.types){
+				if(type.startsWith("engine")){
+					if(!engineMap.containsKey(partPos)){
+						engineMap.put(partPos, engineNumber);
+					}
+					++engineNumber;
+				}
+			}
+
+			VehiclePart additionalPart = packPart.additionalPart;
+			while(additionalPart != null){
+				Vec3d additionalPos = getSlotKey(additionalPart.pos[0], additionalPart.pos[1], additionalPart.pos[2]);
+				if(!slotMap.containsKey(additionalPos)){
+					slotMap.put(additionalPos, additionalPart);
+				}
+				additionalPart = additionalPart.additionalPart;
+			}
+		}
+		this.slots = Collections.unmodifiableMap(slotMap);
+		this.engineNumbers = Collections.unmodifiableMap(engineMap);
+
+		//Get the collision box offsets, and the size of the frame that holds all the boxes.
+		//These don't depend on the vehicle's rotation as the frame is sized from the un-rotated offsets.
+		this.collisionOffsets = new Vec3d[definition.collision.size()];
+		double furthestWidth = 0;
+		double furthestHeight = 0;
+		for(int i=0; i<collisionOffsets.length; ++i){
+			VehicleCollisionBox box = definition.collision.get(i);
+			collisionOffsets[i] = new Vec3d(box.pos[0], box.pos[1], box.pos[2]);
+			furthestWidth = (float) Math.max(furthestWidth, Math.abs(collisionOffsets[i].x) + box.width/2F);
+			furthestHeight = (float) Math.max(furthestHeight, Math.abs(collisionOffsets[i].y) + box.height/2F);
+			furthestWidth = (float) Math.max(furthestWidth, Math.abs(collisionOffsets[i].z) + box.width/2F);
+		}
+		this.collisionFrameWidth = (float) furthestWidth*2F+0.5F;
+		this.collisionFrameHeight = (float) furthestHeight*2F+0.5F;
+	}
+
+	/**
+	 *  Returns the key for the slot at the passed-in position.
+	 */
+	public static Vec3d getSlotKey(double x, double y, double z){
+		//Adding 0 turns -0.0 into 0.0, which Vec3d#equals would otherwise treat as different.
+		return new Vec3d(x + 0D, y + 0D, z + 0D);
+	}
+}
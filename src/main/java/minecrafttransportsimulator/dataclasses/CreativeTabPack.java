@@ -1,6 +1,5 @@
 package minecrafttransportsimulator.dataclasses;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import minecrafttransportsimulator.items.packs.AItemPack;
@@ -38,7 +37,7 @@ public final class CreativeTabPack extends CreativeTabs{
 	@Override
 	public ItemStack getIconItemStack(){
 		//Render cycling items.
-		List<AItemPack<? extends AJSONItem<?>>> packItems = new ArrayList<AItemPack<? extends AJSONItem<?>>>(MTSRegistry.packItemMap.get(getTabLabel()).values());
+		List<AItemPack<? extends AJSONItem<?>>> packItems = PackItemCatalog.getPackItems(getTabLabel());
 		return new ItemStack(packItems.get((int) (Minecraft.getMinecraft().world.getTotalWorldTime()/20%packItems.size())));
 	}
 
@@ -49,7 +48,7 @@ public final class CreativeTabPack extends CreativeTabs{
 		//internal list with our own, which ensures that the order is the order
 		//we did registration in.
 		givenList.clear();
-		for(Item item : MTSRegistry.packItemMap.get(getTabLabel()).values()){
+		for(Item item : PackItemCatalog.getPackItems(getTabLabel())){
 			for(CreativeTabs tab : item.getCreativeTabs()){
 				if(tab.equals(this)){
 					item.getSubItems(tab, givenList);
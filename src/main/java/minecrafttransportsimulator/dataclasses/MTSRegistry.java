@@ -55,6 +55,7 @@ import minecrafttransportsimulator.packets.vehicles.PacketVehicleInteract;
 import minecrafttransportsimulator.packets.vehicles.PacketVehicleJerrycan;
 import minecrafttransportsimulator.packets.vehicles.PacketVehicleKey;
 import minecrafttransportsimulator.packets.vehicles.PacketVehicleNameTag;
+import minecrafttransportsimulator.systems.LoadTimingSystem;
 import minecrafttransportsimulator.systems.PackParserSystem;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleG_Blimp;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleG_Boat;
@@ -158,8 +159,10 @@ public final class MTSRegistry{
 	
 	/**All run-time things go here.**/
 	public static void init(){
+		LoadTimingSystem.Timer timer = LoadTimingSystem.start("registryInit");
 		initEntities();
 		initPackets();
+		timer.stop();
 	}
 	
 	/**
@@ -169,6 +172,7 @@ public final class MTSRegistry{
 	 * the packloader is expecting.
 	 */
 	public static List<Item> getItemsForPack(String packID){
+		PackParserSystem.finishPackLoading();
 		List<Item> items = new ArrayList<Item>();
 		for(AItemPack<? extends AJSONItem<?>> packItem : packItemMap.get(packID).values()){
 			items.add(packItem);
@@ -180,23 +184,11 @@ public final class MTSRegistry{
 	 * This method returns a list of ItemStacks that are required
 	 * to craft the passed-in pack item.  Used by {@link GUIPartBench}
 	 * amd {@link PacketPlayerCrafting} as well as any other systems that 
-	 * need to know what materials make up pack items.
+	 * need to know what materials make up pack items.  The list comes
+	 * from {@link PackRecipeCache}, and is a new copy every call.
 	 */
     public static List<ItemStack> getMaterials(AItemPack<? extends AJSONItem<?>> item){
-    	final List<ItemStack> materialList = new ArrayList<ItemStack>();
-		try{
-	    	for(String itemText : MTSRegistry.packCraftingMap.get(item)){
-				int itemQty = Integer.valueOf(itemText.substring(itemText.lastIndexOf(':') + 1));
-				itemText = itemText.substring(0, itemText.lastIndexOf(':'));
-				
-				int itemMetadata = Integer.valueOf(itemText.substring(itemText.lastIndexOf(':') + 1));
-				itemText = itemText.substring(0, itemText.lastIndexOf(':'));
-				materialList.add(new ItemStack(Item.getByNameOrId(itemText), itemQty, itemMetadata));
-			}
-		}catch(Exception e){
-			throw new NullPointerException("ERROR: Could not parse crafting ingredients for item: " + item.definition.packID + item.definition.systemName + ".  Report this to the pack author!");
-		}
-    	return materialList;
+    	return PackRecipeCache.getMaterials(item);
     }
 	
 	/**
@@ -205,6 +197,7 @@ public final class MTSRegistry{
 	 */
 	@SubscribeEvent
 	public static void registerBlocks(RegistryEvent.Register<Block> event){
+		LoadTimingSystem.Timer timer = LoadTimingSystem.start("registerBlocks");
 		//Need to keep track of which TE classes we've registered so we don't double-register them for blocks that use the same TE.
 		List<Class<? extends TileEntity>> registeredTileEntityClasses = new ArrayList<Class<? extends TileEntity>>();
 		for(Field field : MTSRegistry.class.getFields()){
@@ -225,6 +218,7 @@ public final class MTSRegistry{
 				}
 			}
 		}
+		timer.stop();
 	}
 	
 	/**
@@ -238,12 +232,14 @@ public final class MTSRegistry{
 	 */
 	@SubscribeEvent
 	public static void registerItems(RegistryEvent.Register<Item> event){
+		LoadTimingSystem.Timer timer = LoadTimingSystem.start("registerItems");
 		//Before doing any item registration, create the pack handbooks.
 		//These are special, as they don't come from any packs, yet they use the booklet code.
 		//This is done to avoid the need to make a new GUI.
 		try {
 			PackParserSystem.addBookletDefinition(new InputStreamReader(MTSRegistry.class.getResourceAsStream("/assets/" + MTS.MODID + "/jsondefs/booklets/handbook_en.json"), "UTF-8"), "handbook_en", MTS.MODID);
 			PackParserSystem.addBookletDefinition(new InputStreamReader(MTSRegistry.class.getResourceAsStream("/assets/" + MTS.MODID + "/jsondefs/booklets/handbook_ru.json"), "UTF-8"), "handbook_ru", MTS.MODID);
+			PackParserSystem.finishPackLoading();
 			handbook_en = MTSRegistry.packItemMap.get(MTS.MODID).get("handbook_en").setUnlocalizedName("mts:handbook_en");
 			handbook_ru = MTSRegistry.packItemMap.get(MTS.MODID).get("handbook_ru").setUnlocalizedName("mts:handbook_ru");
 		}catch(Exception e){
@@ -281,6 +277,7 @@ public final class MTSRegistry{
 				}
 			}
 		}
+		timer.stop();
 	}
 
 	/**
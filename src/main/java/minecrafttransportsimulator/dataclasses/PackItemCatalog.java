@@ -0,0 +1,201 @@
+package minecrafttransportsimulator.dataclasses;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+import minecrafttransportsimulator.blocks.core.BlockBench;
+import minecrafttransportsimulator.items.packs.AItemPack;
+import minecrafttransportsimulator.jsondefs.AJSONItem;
+import minecrafttransportsimulator.jsondefs.JSONPart;
+import minecrafttransportsimulator.systems.LoadTimingSystem;
+
+/**Index of all pack items, built once from {@link MTSRegistry#packItemMap} after all packs are loaded.
+ * Systems that need to find pack items of a given kind, such as benches and creative tabs, should use
+ * this rather than looping over every item in every pack.
+ * <br><br>
+ * All lists returned by this class are in a stable order: packs are in the order of {@link MTSRegistry#packItemMap},
+ * and items in each pack are in the order they were registered.  The returned lists are shared, so they should
+ * NOT be modified.
+ *
+ * @author don_bruce
+ */
+public final class PackItemCatalog{
+	private static final List<AItemPack<? extends AJSONItem<?>>> EMPTY_LIST = Collections.<AItemPack<? extends AJSONItem<?>>>emptyList();
+
+	private static boolean built;
+	/**All pack items, in catalog order.**/
+	private static List<AItemPack<? extends AJSONItem<?>>> allItems;
+	/**Position of each item in {@link #allItems}.  Used to sort search results.**/
+	private static Map<AItemPack<? extends AJSONItem<?>>, Integer> itemOrder;
+	/**Items keyed by packID.**/
+	private static Map<String, List<AItemPack<? extends AJSONItem<?>>>> packItems;
+	/**Items keyed by definition class.**/
+	private static Map<Class<?>, List<AItemPack<? extends AJSONItem<?>>>> classItems;
+	/**Part items keyed by part type.**/
+	private static Map<String, List<AItemPack<? extends AJSONItem<?>>>> partTypeItems;
+	/**Items keyed by the lower-case words in their names.  Sorted so we can look up prefixes.**/
+	private static TreeMap<String, List<AItemPack<? extends AJSONItem<?>>>> wordItems;
+	/**Items each bench can craft, keyed by packID.  Populated the first time a bench asks for its items.**/
+	private static Map<BlockBench, Map<String, List<AItemPack<? extends AJSONItem<?>>>>> benchItems;
+
+	/**
+	 *  Builds the catalog from {@link MTSRegistry#packItemMap}.  This must be called after all packs are loaded.
+	 *  Calling it again re-builds the catalog.
+	 */
+	public static synchronized void build(){
+		LoadTimingSystem.Timer timer = LoadTimingSystem.start("itemCatalog");
+		allItems = new ArrayList<AItemPack<? extends AJSONItem<?>>>();
+		itemOrder = new HashMap<AItemPack<? extends AJSONItem<?>>, Integer>();
+		packItems = new LinkedHashMap<String, List<AItemPack<? extends AJSONItem<?>>>>();
+		classItems = new HashMap<Class<?>, List<AItemPack<? extends AJSONItem<?>>>>();
+		partTypeItems = new HashMap<String, List<AItemPack<? extends AJSONItem<?>>>>();
+		wordItems = new TreeMap<String, List<AItemPack<? extends AJSONItem<?>>>>();
+		benchItems = new HashMap<BlockBench, Map<String, List<AItemPack<? extends AJSONItem<?>>>>>();
+
+		for(Entry<String, LinkedHashMap<String, AItemPack<? extends AJSONItem<?>>>> packEntry : MTSRegistry.packItemMap.entrySet()){
+			List<AItemPack<? extends AJSONItem<?>>> itemsInPack = new ArrayList<AItemPack<? extends AJSONItem<?>>>(packEntry.getValue().values());
+			packItems.put(packEntry.getKey(), Collections.unmodifiableList(itemsInPack));
+			for(AItemPack<? extends AJSONItem<?>> packItem : itemsInPack){
+				itemOrder.put(packItem, allItems.size());
+				allItems.add(packItem);
+				addToIndex(classItems, packItem.definition.getClass(), packItem);
+				if(packItem.definition instanceof JSONPart){
+					addToIndex(partTypeItems, ((JSONPart) packItem.definition).general.type, packItem);
+				}
+				String name = packItem.definition.general.name != null ? packItem.definition.general.name : packItem.definition.systemName;
+				for(String word : (name + " " + packItem.definition.systemName).toLowerCase().split("[^\\p{L}\\p{N}]+")){
+					if(!word.isEmpty()){
+						addToIndex(wordItems, word, packItem);
+					}
+				}
+			}
+		}
+		allItems = Collections.unmodifiableList(allItems);
+		built = true;
+		timer.stop();
+	}
+
+	/**
+	 *  Returns all items in the catalog.
+	 */
+	public static synchronized List<AItemPack<? extends AJSONItem<?>>> getAllItems(){
+		checkBuilt();
+		return allItems;
+	}
+
+	/**
+	 *  Returns all items in the passed-in pack.
+	 */
+	public static synchronized List<AItemPack<? extends AJSONItem<?>>> getPackItems(String packID){
+		checkBuilt();
+		return getFromIndex(packItems, packID);
+	}
+
+	/**
+	 *  Returns all items whose definitions are of the passed-in class, such as JSONVehicle.
+	 */
+	public static synchronized List<AItemPack<? extends AJSONItem<?>>> getItemsOfClass(Class<? extends AJSONItem<?>> definitionClass){
+		checkBuilt();
+		return getFromIndex(classItems, definitionClass);
+	}
+
+	/**
+	 *  Returns all part items of the passed-in part type.
+	 */
+	public static synchronized List<AItemPack<? extends AJSONItem<?>>> getPartsOfType(String partType){
+		checkBuilt();
+		return getFromIndex(partTypeItems, partType);
+	}
+
+	/**
+	 *  Returns the items the passed-in bench can craft, keyed by packID.  Packs with no items for the bench are not included.
+	 */
+	public static synchronized Map<String, List<AItemPack<? extends AJSONItem<?>>>> getBenchItems(BlockBench bench){
+		checkBuilt();
+		Map<String, List<AItemPack<? extends AJSONItem<?>>>> itemsForBench = benchItems.get(bench);
+		if(itemsForBench == null){
+			itemsForBench = new LinkedHashMap<String, List<AItemPack<? extends AJSONItem<?>>>>();
+			for(Entry<String, List<AItemPack<? extends AJSONItem<?>>>> packEntry : packItems.entrySet()){
+				List<AItemPack<? extends AJSONItem<?>>> validItems = new ArrayList<AItemPack<? extends AJSONItem<?>>>();
+				for(AItemPack<? extends AJSONItem<?>> packItem : packEntry.getValue()){
+					if(bench.isJSONValid(packItem.definition)){
+						validItems.add(packItem);
+					}
+				}
+				if(!validItems.isEmpty()){
+					itemsForBench.put(packEntry.getKey(), Collections.unmodifiableList(validItems));
+				}
+			}
+			itemsForBench = Collections.unmodifiableMap(itemsForBench);
+			benchItems.put(bench, itemsForBench);
+		}
+		return itemsForBench;
+	}
+
+	/**
+	 *  Returns all items with names or systemNames that match the passed-in text.  Each word in the text must be
+	 *  the start of a word in the item's name or systemName.  Case is ignored.  Returns an empty list for empty text.
+	 */
+	public static synchronized List<AItemPack<? extends AJSONItem<?>>> search(String text){
+		checkBuilt();
+		Set<AItemPack<? extends AJSONItem<?>>> matchingItems = null;
+		for(String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")){
+			if(word.isEmpty()){
+				continue;
+			}
+			Set<AItemPack<? extends AJSONItem<?>>> wordMatches = new LinkedHashSet<AItemPack<? extends AJSONItem<?>>>();
+			for(List<AItemPack<? extends AJSONItem<?>>> items : wordItems.subMap(word, true, word + Character.MAX_VALUE, false).values()){
+				wordMatches.addAll(items);
+			}
+			if(matchingItems == null){
+				matchingItems = wordMatches;
+			}else{
+				matchingItems.retainAll(wordMatches);
+			}
+		}
+		if(matchingItems == null || matchingItems.isEmpty()){
+			return EMPTY_LIST;
+		}
+
+		List<AItemPack<? extends AJSONItem<?>>> results = new ArrayList<AItemPack<? extends AJSONItem<?>>>(matchingItems);
+		Collections.sort(results, new Comparator<AItemPack<? extends AJSONItem<?>>>(){
+			@Override
+			public int compare(AItemPack<? extends AJSONItem<?>> item1, AItemPack<? extends AJSONItem<?>> item2){
+				return itemOrder.get(item1) - itemOrder.get(item2);
+			}
+		});
+		return Collections.unmodifiableList(results);
+	}
+
+	private static void checkBuilt(){
+		if(!built){
+			build();
+		}
+	}
+
+	private static <K> void addToIndex(Map<K, List<AItemPack<? extends AJSONItem<?>>>> index, K key, AItemPack<? extends AJSONItem<?>> packItem){
+		List<AItemPack<? extends AJSONItem<?>>> items = index.get(key);
+		if(items == null){
+			items = new ArrayList<AItemPack<? extends AJSONItem<?>>>();
+			index.put(key, items);
+		}
+		//Items are added one at a time, so if this item is already in the list it will be at the end.
+		if(items.isEmpty() || items.get(items.size() - 1) != packItem){
+			items.add(packItem);
+		}
+	}
+
+	private static <K> List<AItemPack<? extends AJSONItem<?>>> getFromIndex(Map<K, List<AItemPack<? extends AJSONItem<?>>>> index, K key){
+		List<AItemPack<? extends AJSONItem<?>>> items = index.get(key);
+		return items != null ? Collections.unmodifiableList(items) : EMPTY_LIST;
+	}
+}
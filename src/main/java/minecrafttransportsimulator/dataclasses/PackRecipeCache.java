@@ -0,0 +1,123 @@
+package minecrafttransportsimulator.dataclasses;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import minecrafttransportsimulator.MTS;
+import minecrafttransportsimulator.items.packs.AItemPack;
+import minecrafttransportsimulator.jsondefs.AJSONItem;
+import minecrafttransportsimulator.systems.LoadTimingSystem;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+/**Cache of the crafting materials for all pack items.  The materials in {@link MTSRegistry#packCraftingMap}
+ * are strings in the format of modID:name:metadata:quantity, and turning them into ItemStacks requires a
+ * registry lookup for every material.  Rather than do this every time the materials are needed, all recipes
+ * are resolved once in {@link #compile()} after all items have been registered.  Any errors in the recipes
+ * are logged at that point, rather than when a player tries to craft the item.  Recipes with errors, including
+ * ones that use items that don't exist, can't be crafted at all, as leaving out materials would make them cheaper.
+ * <br><br>
+ * This class also keeps a reverse index of materials to the pack items that use them.
+ *
+ * @author don_bruce
+ */
+public final class PackRecipeCache{
+	/**Resolved materials for all pack items.  Items with invalid recipes map to null.**/
+	private static volatile Map<AItemPack<? extends AJSONItem<?>>, List<ItemStack>> materialMap;
+	/**Pack items that use each material item.**/
+	private static Map<Item, List<AItemPack<? extends AJSONItem<?>>>> usageMap;
+
+	/**
+	 *  Resolves the materials for all items in {@link MTSRegistry#packCraftingMap}.  This must be called after
+	 *  all items are registered and all crafting overrides are applied.  Calling it again re-compiles all recipes.
+	 */
+	public static synchronized void compile(){
+		LoadTimingSystem.Timer timer = LoadTimingSystem.start("recipeCache");
+		Map<AItemPack<? extends AJSONItem<?>>, List<ItemStack>> newMaterialMap = new HashMap<AItemPack<? extends AJSONItem<?>>, List<ItemStack>>();
+		Map<Item, List<AItemPack<? extends AJSONItem<?>>>> newUsageMap = new HashMap<Item, List<AItemPack<? extends AJSONItem<?>>>>();
+		for(Entry<AItemPack<? extends AJSONItem<?>>, String[]> craftingEntry : MTSRegistry.packCraftingMap.entrySet()){
+			AItemPack<? extends AJSONItem<?>> packItem = craftingEntry.getKey();
+			List<ItemStack> materials = new ArrayList<ItemStack>();
+			try{
+				for(String itemText : craftingEntry.getValue()){
+					int itemQty = Integer.valueOf(itemText.substring(itemText.lastIndexOf(':') + 1));
+					String itemName = itemText.substring(0, itemText.lastIndexOf(':'));
+
+					int itemMetadata = Integer.valueOf(itemName.substring(itemName.lastIndexOf(':') + 1));
+					itemName = itemName.substring(0, itemName.lastIndexOf(':'));
+
+					//If the item doesn't exist, the recipe can't be crafted.  This is normally due to a pack
+					//referencing an item from a mod that isn't installed.
+					Item item = Item.getByNameOrId(itemName);
+					if(item == null){
+						MTS.MTSLog.warn("WARNING: Unknown item: " + itemName + " in crafting ingredients for item: " + packItem.definition.packID + ":" + packItem.definition.systemName + ".  This item cannot be crafted.  Report this to the pack author!");
+						materials = null;
+						break;
+					}
+					materials.add(new ItemStack(item, itemQty, itemMetadata));
+				}
+				
+				//Only index the materials of recipes that can be crafted.
+				if(materials != null){
+					for(ItemStack material : materials){
+						Item item = material.getItem();
+						if(!newUsageMap.containsKey(item)){
+							newUsageMap.put(item, new ArrayList<AItemPack<? extends AJSONItem<?>>>());
+						}
+						if(!newUsageMap.get(item).contains(packItem)){
+							newUsageMap.get(item).add(packItem);
+						}
+					}
+					newMaterialMap.put(packItem, Collections.unmodifiableList(materials));
+				}else{
+					newMaterialMap.put(packItem, null);
+				}
+			}catch(Exception e){
+				MTS.MTSLog.error("ERROR: Could not parse crafting ingredients for item: " + packItem.definition.packID + ":" + packItem.definition.systemName + ".  This item cannot be crafted.  Report this to the pack author!");
+				newMaterialMap.put(packItem, null);
+			}
+		}
+
+		for(Entry<Item, List<AItemPack<? extends AJSONItem<?>>>> usageEntry : newUsageMap.entrySet()){
+			usageEntry.setValue(Collections.unmodifiableList(usageEntry.getValue()));
+		}
+		usageMap = newUsageMap;
+		materialMap = newMaterialMap;
+		timer.stop();
+	}
+
+	/**
+	 *  Returns the materials required to craft the passed-in pack item.  The returned list and stacks are copies,
+	 *  so callers may modify them without changing the cached recipe.  Throws a NullPointerException if the item's
+	 *  recipe is invalid or the item has no recipe.
+	 */
+	public static List<ItemStack> getMaterials(AItemPack<? extends AJSONItem<?>> item){
+		if(materialMap == null){
+			compile();
+		}
+		List<ItemStack> materials = materialMap.get(item);
+		if(materials == null){
+			throw new NullPointerException("ERROR: Could not parse crafting ingredients for item: " + item.definition.packID + ":" + item.definition.systemName + ".  Report this to the pack author!");
+		}
+		List<ItemStack> materialCopies = new ArrayList<ItemStack>(materials.size());
+		for(ItemStack material : materials){
+			materialCopies.add(material.copy());
+		}
+		return materialCopies;
+	}
+
+	/**
+	 *  Returns all pack items that need the passed-in item to be crafted.  Returns an empty list if there are none.
+	 */
+	public static List<AItemPack<? extends AJSONItem<?>>> getItemsUsingMaterial(Item material){
+		if(materialMap == null){
+			compile();
+		}
+		List<AItemPack<? extends AJSONItem<?>>> packItems = usageMap.get(material);
+		return packItems != null ? packItems : Collections.<AItemPack<? extends AJSONItem<?>>>emptyList();
+	}
+}
@@ -6,7 +6,6 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.lwjgl.input.Mouse;
 import org.lwjgl.opengl.GL11;
@@ -14,15 +13,15 @@ import org.lwjgl.opengl.GL11;
 import minecrafttransportsimulator.MTS;
 import minecrafttransportsimulator.blocks.core.BlockBench;
 import minecrafttransportsimulator.dataclasses.MTSRegistry;
+import minecrafttransportsimulator.dataclasses.PackItemCatalog;
 import minecrafttransportsimulator.items.packs.AItemPack;
-import minecrafttransportsimulator.items.packs.ItemVehicle;
 import minecrafttransportsimulator.items.packs.parts.AItemPart;
 import minecrafttransportsimulator.jsondefs.AJSONItem;
 import minecrafttransportsimulator.jsondefs.AJSONMultiModel;
 import minecrafttransportsimulator.jsondefs.JSONVehicle;
 import minecrafttransportsimulator.jsondefs.JSONVehicle.VehiclePart;
 import minecrafttransportsimulator.packets.general.PacketPlayerCrafting;
-import minecrafttransportsimulator.systems.OBJParserSystem;
+import minecrafttransportsimulator.systems.OBJModelRepository;
 import net.minecraft.client.gui.GuiButton;
 import net.minecraft.client.gui.GuiScreen;
 import net.minecraft.client.renderer.RenderHelper;
@@ -78,17 +77,10 @@ public class GUIPartBench extends GuiScreen{
 			currentItem = lastOpenedItem.get(bench);
 			currentPack = currentItem.definition.packID;
 		}else{
-			//Find a pack that has the item we are supposed to craft and set it.
-			//If we are for vehicles, make sure to set the next subItem if we can.
-			for(String packID : MTSRegistry.packItemMap.keySet()){
-				if(currentPack == null){
-					for(AItemPack<? extends AJSONItem<?>> packItem : MTSRegistry.packItemMap.get(packID).values()){
-						if(bench.isJSONValid(packItem.definition)){
-							currentPack = packID;
-							break;
-						}
-					}
-				}
+			//Set the pack to the first pack that has items we can craft.
+			for(String packID : PackItemCatalog.getBenchItems(bench).keySet()){
+				currentPack = packID;
+				break;
 			}
 		}
 		updatePartNames();
@@ -202,41 +194,25 @@ public class GUIPartBench extends GuiScreen{
 			return;
 		}
 		
-		//Parse the model if we haven't already.
+		//Get the model if we haven't already.  Models are parsed in the background,
+		//so don't render anything until the model is ready.
 		if(!partDisplayLists.containsKey(currentItem)){
+			final String modelLocation;
 			if(bench.renderType.isForVehicles){
-				String genericName = ((JSONVehicle) currentItem.definition).genericName;
-				//Check to make sure we haven't parsed this model for another item with another texture but same model.
-				for(AItemPack<? extends AJSONItem<?>> parsedItem : partDisplayLists.keySet()){
-					if(parsedItem instanceof ItemVehicle){
-						if(((ItemVehicle) parsedItem).definition.genericName.equals(genericName)){
-							partDisplayLists.put(currentItem, partDisplayLists.get(parsedItem));
-							partScalingFactors.put(currentItem, partScalingFactors.get(parsedItem));
-							break;
-						}
-					}
-				}
-				
-				//If we didn't find an existing model, parse one now.
-				if(!partDisplayLists.containsKey(currentItem)){
-					parseModel(currentItem.definition.packID, "objmodels/vehicles/" + genericName + ".obj");
-				}
-			}else if(bench.renderType.isFor3DModels){
+				modelLocation = "objmodels/vehicles/" + ((JSONVehicle) currentItem.definition).genericName + ".obj";
+			}else{
 				String customModel = ((AJSONMultiModel<?>.General) currentItem.definition.general).modelName;
-				if(customModel != null){
-					if(currentItem instanceof AItemPart){
-						parseModel(currentItem.definition.packID, "objmodels/parts/" + customModel + ".obj");
-					}else{
-						parseModel(currentItem.definition.packID, "objmodels/decors/" + customModel + ".obj");
-					}
+				String modelName = customModel != null ? customModel : currentItem.definition.systemName;
+				if(currentItem instanceof AItemPart){
+					modelLocation = "objmodels/parts/" + modelName + ".obj";
 				}else{
-					if(currentItem instanceof AItemPart){
-						parseModel(currentItem.definition.packID, "objmodels/parts/" + currentItem.definition.systemName + ".obj");
-					}else{
-						parseModel(currentItem.definition.packID, "objmodels/decors/" + currentItem.definition.systemName + ".obj");
-					}
+					modelLocation = "objmodels/decors/" + modelName + ".obj";
 				}
 			}
+			if(!OBJModelRepository.isModelReady(currentItem.definition.packID, modelLocation)){
+				return;
+			}
+			loadModel(currentItem.definition.packID, modelLocation);
 		}
 		
 		//Cache the texture mapping if we haven't seen this part before.
@@ -377,35 +353,11 @@ public class GUIPartBench extends GuiScreen{
 		}
 	}
     
-	private void parseModel(String partPack, String partModelLocation){
-		float minX = 999;
-		float maxX = -999;
-		float minY = 999;
-		float maxY = -999;
-		float minZ = 999;
-		float maxZ = -999;
-		Map<String, Float[][]> parsedModel = OBJParserSystem.parseOBJModel(partPack, partModelLocation);
-		int displayListIndex = GL11.glGenLists(1);
-		GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
-		GL11.glBegin(GL11.GL_TRIANGLES);
-		for(Entry<String, Float[][]> entry : parsedModel.entrySet()){
-			for(Float[] vertex : entry.getValue()){
-				GL11.glTexCoord2f(vertex[3], vertex[4]);
-				GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-				GL11.glVertex3f(-vertex[0], vertex[1], vertex[2]);
-				minX = Math.min(minX, vertex[0]);
-				maxX = Math.max(maxX, vertex[0]);
-				minY = Math.min(minY, vertex[1]);
-				maxY = Math.max(maxY, vertex[1]);
-				minZ = Math.min(minZ, vertex[2]);
-				maxZ = Math.max(maxZ, vertex[2]);
-			}
-		}
-		float globalMax = Math.max(Math.max(maxX - minX, maxY - minY), maxZ - minZ);
+	private void loadModel(String partPack, String partModelLocation){
+		float[] bounds = OBJModelRepository.getBounds(partPack, partModelLocation);
+		float globalMax = Math.max(Math.max(bounds[3] - bounds[0], bounds[4] - bounds[1]), bounds[5] - bounds[2]);
 		partScalingFactors.put(currentItem, globalMax > 1.5 ? 1.5F/globalMax : 1.0F);
-		GL11.glEnd();
-		GL11.glEndList();
-		partDisplayLists.put(currentItem, displayListIndex);
+		partDisplayLists.put(currentItem, OBJModelRepository.acquireDisplayList(partPack, partModelLocation, true));
 	}
 	
 	@Override
@@ -451,9 +403,9 @@ public class GUIPartBench extends GuiScreen{
 	
 	@Override
     public void onGuiClosed(){
-		//Clear out the displaylists to free RAM once we no longer need them here.
+		//Release the displaylists to free RAM once we no longer need them here.
 		for(int displayListID : partDisplayLists.values()){
-			GL11.glDeleteLists(displayListID, 1);
+			OBJModelRepository.releaseDisplayList(displayListID);
 		}
 		
 		//Save the last clicked part for reference later.
@@ -485,64 +437,25 @@ public class GUIPartBench extends GuiScreen{
 	 */
 	private void updatePartNames(){
 		//Set back indexes.
-		List<String> packIDs = new ArrayList<String>(MTSRegistry.packItemMap.keySet());
+		//The catalog only contains packs with items that match our bench's parameters, so we can just use the packs on either side of ours.
+		Map<String, List<AItemPack<? extends AJSONItem<?>>>> benchItems = PackItemCatalog.getBenchItems(bench);
+		List<String> packIDs = new ArrayList<String>(benchItems.keySet());
 		int currentPackIndex = packIDs.indexOf(currentPack);
-		
-		//Loop forwards to find a pack that has the items we need and set that as the next pack.
-		//Only set the pack if it has items in it that match our bench's parameters.
-		nextPack = null;
-		if(currentPackIndex < packIDs.size()){
-			for(int i=currentPackIndex+1; i<packIDs.size() && nextPack == null; ++i){
-				for(AItemPack<? extends AJSONItem<?>> packItem : MTSRegistry.packItemMap.get(packIDs.get(i)).values()){
-					if(bench.isJSONValid(packItem.definition)){
-						nextPack = packIDs.get(i);
-						break;
-					}
-				}
-			}
-		}
-		
-		//Loop backwards to find a pack that has the items we need and set that as the prev pack.
-		//Only set the pack if it has items in it that match our bench's parameters.
-		prevPack = null;
-		if(currentPackIndex > 0){
-			for(int i=currentPackIndex-1; i>=0 && prevPack == null; --i){
-				for(AItemPack<? extends AJSONItem<?>> packItem : MTSRegistry.packItemMap.get(packIDs.get(i)).values()){
-					if(bench.isJSONValid(packItem.definition)){
-						prevPack = packIDs.get(i);
-						break;
-					}
-				}
-			}
-		}
-		
+		nextPack = currentPackIndex + 1 < packIDs.size() ? packIDs.get(currentPackIndex + 1) : null;
+		prevPack = currentPackIndex > 0 ? packIDs.get(currentPackIndex - 1) : null;
 		
 		//Set item indexes.
 		//If we don't have a pack, it means we don't have any items that are for this bench, so we shouldn't do anything else.
 		if(currentPack == null){
 			return;
 		}
-		List<AItemPack<? extends AJSONItem<?>>> packItems = new ArrayList<AItemPack<? extends AJSONItem<?>>>(MTSRegistry.packItemMap.get(currentPack).values());
+		List<AItemPack<? extends AJSONItem<?>>> packItems = benchItems.get(currentPack);
 		int currentItemIndex = packItems.indexOf(currentItem);
 		//If currentItem is null, it means we swtiched packs and need to re-set it to the first item of the new pack.
 		//Do so now before we do looping to prevent crashes.
-		//Find a pack that has the item we are supposed to craft and set it.
-		//If we are for vehicles, make sure to set the next subItem if we can.
 		if(currentItem == null){
-			for(AItemPack<? extends AJSONItem<?>> packItem : MTSRegistry.packItemMap.get(currentPack).values()){
-				if(currentItem == null || (bench.renderType.isForVehicles && nextSubItem == null)){
-					if(bench.isJSONValid(packItem.definition)){
-						if(currentItem == null){
-							currentItem = packItem;
-							currentItemIndex = packItems.indexOf(currentItem);
-						}else if(bench.renderType.isForVehicles && nextSubItem == null){
-							if(((JSONVehicle) packItem.definition).genericName.equals(((JSONVehicle) currentItem.definition).genericName)){
-								nextSubItem = packItem;
-							}
-						}
-					}
-				}
-			}
+			currentItem = packItems.get(0);
+			currentItemIndex = 0;
 		}
 
 		//Loop forwards in our pack to find the next item in that pack.
@@ -551,20 +464,18 @@ public class GUIPartBench extends GuiScreen{
 		nextSubItem = null;
 		if(currentItemIndex < packItems.size()){
 			for(int i=currentItemIndex+1; i<packItems.size() && nextItem == null; ++i){
-				if(bench.isJSONValid(packItems.get(i).definition)){
-					//If we are for vehicles, and this item is the same sub-item classification, 
-					//set nextSubItem and continue on.
-					if(bench.renderType.isForVehicles){
-						if(((JSONVehicle) packItems.get(i).definition).genericName.equals(((JSONVehicle) currentItem.definition).genericName)){
-							if(nextSubItem == null){
-								nextSubItem = packItems.get(i);
-							}
-							continue;
+				//If we are for vehicles, and this item is the same sub-item classification, 
+				//set nextSubItem and continue on.
+				if(bench.renderType.isForVehicles){
+					if(((JSONVehicle) packItems.get(i).definition).genericName.equals(((JSONVehicle) currentItem.definition).genericName)){
+						if(nextSubItem == null){
+							nextSubItem = packItems.get(i);
 						}
+						continue;
 					}
-					nextItem = packItems.get(i);
-					break;
 				}
+				nextItem = packItems.get(i);
+				break;
 			}
 		}
 		
@@ -574,28 +485,26 @@ public class GUIPartBench extends GuiScreen{
 		prevSubItem = null;
 		if(currentItemIndex > 0){
 			for(int i=currentItemIndex-1; i>=0 && (prevItem == null || bench.renderType.isForVehicles); --i){
-				if(bench.isJSONValid(packItems.get(i).definition)){
-					//If we are for vehicles, and we didn't switch items, and this item
-					//is the same sub-item classification, set prevSubItem and continue on.
-					//If we did switch, we want the first subItem in the set of items to
-					//be the prevItem we pick.  This ensures when we switch we'll be on the 
-					//same subItem each time we switch items.
-					if(bench.renderType.isForVehicles){
-						if(((JSONVehicle) packItems.get(i).definition).genericName.equals(((JSONVehicle) currentItem.definition).genericName)){
-							if(prevSubItem == null){
-								prevSubItem = packItems.get(i);
-							}
-						}else{
-							if(prevItem == null){
-								prevItem = packItems.get(i);
-							}else if(((JSONVehicle) packItems.get(i).definition).genericName.equals(((JSONVehicle) prevItem.definition).genericName)){
-								prevItem = packItems.get(i);
-							}
+				//If we are for vehicles, and we didn't switch items, and this item
+				//is the same sub-item classification, set prevSubItem and continue on.
+				//If we did switch, we want the first subItem in the set of items to
+				//be the prevItem we pick.  This ensures when we switch we'll be on the 
+				//same subItem each time we switch items.
+				if(bench.renderType.isForVehicles){
+					if(((JSONVehicle) packItems.get(i).definition).genericName.equals(((JSONVehicle) currentItem.definition).genericName)){
+						if(prevSubItem == null){
+							prevSubItem = packItems.get(i);
 						}
 					}else{
-						prevItem = packItems.get(i);
-						break;
+						if(prevItem == null){
+							prevItem = packItems.get(i);
+						}else if(((JSONVehicle) packItems.get(i).definition).genericName.equals(((JSONVehicle) prevItem.definition).genericName)){
+							prevItem = packItems.get(i);
+						}
 					}
+				}else{
+					prevItem = packItems.get(i);
+					break;
 				}
 			}
 		}
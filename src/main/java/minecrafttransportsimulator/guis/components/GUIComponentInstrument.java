@@ -4,7 +4,7 @@ import org.lwjgl.opengl.GL11;
 
 import minecrafttransportsimulator.items.packs.ItemInstrument;
 import minecrafttransportsimulator.jsondefs.JSONVehicle.PackInstrument;
-import minecrafttransportsimulator.rendering.vehicles.RenderInstrument;
+import minecrafttransportsimulator.rendering.vehicles.RenderInstrumentAtlas;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
 
 /**Custom instrument render class.  This class is designed to render an instrument into
@@ -33,7 +33,7 @@ public class GUIComponentInstrument{
 
 	
 	/**
-	 *  Renders the instrument.  Instruments use the code in {@link RenderInstrument}, so this call
+	 *  Renders the instrument.  Instruments use the code in {@link RenderInstrumentAtlas}, so this call
 	 *  is really just a forwarding call that applies a few GUI-specific transforms prior to calling
 	 *  that function.
 	 */
@@ -41,7 +41,7 @@ public class GUIComponentInstrument{
     	GL11.glPushMatrix();
 		GL11.glTranslated(x, y, 0);
 		GL11.glScalef(packInstrument.hudScale, packInstrument.hudScale, packInstrument.hudScale);
-		RenderInstrument.drawInstrument(itemInstrument, packInstrument.optionalPartNumber, vehicle);
+		RenderInstrumentAtlas.drawInstrument(vehicle, instrumentPackIndex);
 		GL11.glPopMatrix();
     }
 }
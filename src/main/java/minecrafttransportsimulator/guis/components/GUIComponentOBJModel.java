@@ -2,16 +2,15 @@ package minecrafttransportsimulator.guis.components;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.lwjgl.opengl.GL11;
 
-import minecrafttransportsimulator.systems.OBJParserSystem;
+import minecrafttransportsimulator.systems.OBJModelRepository;
 
 /**Custom OBJ render class.  This allows for rendering an OBJ model into a GUI.
  * Mainly used to render vehicles, though can be used for any OBJ model.
- * This class keeps a list of all parsed models as DisplayLists for caching, which
- * are cleared when the GUI containing this component is un-loaded.  Note that the
+ * This class gets its DisplayLists from the {@link OBJModelRepository}, and releases
+ * them when the GUI containing this component is un-loaded.  Note that the
  * model and texture associated with this component may change while this component
  * is still active.  This is to allows us to use one component to render changing
  * OBJ models, say in a crafting bench for instance.  The same reasoning applies
@@ -52,7 +51,11 @@ public class GUIComponentOBJModel{
 			if(!modelDomain.isEmpty()){
 				String modelFile = modelDomain + ":" + modelLocation;
 				if(!modelDisplayLists.containsKey(modelFile)){
-					parseModel(modelDomain, modelLocation);
+					//Models are parsed in the background, so don't render anything until ours is ready.
+					if(!OBJModelRepository.isModelReady(modelDomain, modelLocation)){
+						return;
+					}
+					loadModel(modelDomain, modelLocation);
 				}
 				GL11.glPushMatrix();
 				//FIXME see if we need this.
@@ -80,37 +83,13 @@ public class GUIComponentOBJModel{
     }
     
     /**
-	 *  Parses the OBJ model.  This also gets centering information for rendering.
+	 *  Gets the DisplayList for the OBJ model.  This also gets centering information for rendering.
 	 */
-    private static void parseModel(String modelDomain, String modelLocation){
-		float minX = 999;
-		float maxX = -999;
-		float minY = 999;
-		float maxY = -999;
-		float minZ = 999;
-		float maxZ = -999;
-		Map<String, Float[][]> parsedModel = OBJParserSystem.parseOBJModel(modelDomain, modelLocation);
-		int displayListIndex = GL11.glGenLists(1);
-		GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
-		GL11.glBegin(GL11.GL_TRIANGLES);
-		for(Entry<String, Float[][]> entry : parsedModel.entrySet()){
-			for(Float[] vertex : entry.getValue()){
-				GL11.glTexCoord2f(vertex[3], vertex[4]);
-				GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-				GL11.glVertex3f(-vertex[0], vertex[1], vertex[2]);
-				minX = Math.min(minX, vertex[0]);
-				maxX = Math.max(maxX, vertex[0]);
-				minY = Math.min(minY, vertex[1]);
-				maxY = Math.max(maxY, vertex[1]);
-				minZ = Math.min(minZ, vertex[2]);
-				maxZ = Math.max(maxZ, vertex[2]);
-			}
-		}
-		float globalMax = Math.max(Math.max(maxX - minX, maxY - minY), maxZ - minZ);
+    private static void loadModel(String modelDomain, String modelLocation){
+		float[] bounds = OBJModelRepository.getBounds(modelDomain, modelLocation);
+		float globalMax = Math.max(Math.max(bounds[3] - bounds[0], bounds[4] - bounds[1]), bounds[5] - bounds[2]);
 		modelScalingFactors.put(modelDomain + ":" + modelLocation, globalMax > 1.5 ? 1.5F/globalMax : 1.0F);
-		GL11.glEnd();
-		GL11.glEndList();
-		modelDisplayLists.put(modelDomain + ":" + modelLocation, displayListIndex);
+		modelDisplayLists.put(modelDomain + ":" + modelLocation, OBJModelRepository.acquireDisplayList(modelDomain, modelLocation, true));
 	}
     
     /**
@@ -118,7 +97,9 @@ public class GUIComponentOBJModel{
 	 */
     public static void clearDisplayListCaches(){
     	for(int displayListID : modelDisplayLists.values()){
-			GL11.glDeleteLists(displayListID, 1);
+    		OBJModelRepository.releaseDisplayList(displayListID);
 		}
+    	modelDisplayLists.clear();
+    	modelScalingFactors.clear();
     }
 }
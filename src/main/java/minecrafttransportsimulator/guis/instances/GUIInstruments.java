@@ -7,7 +7,7 @@ import java.util.TreeMap;
 
 import org.lwjgl.opengl.GL11;
 
-import minecrafttransportsimulator.dataclasses.MTSRegistry;
+import minecrafttransportsimulator.dataclasses.PackItemCatalog;
 import minecrafttransportsimulator.guis.components.AGUIBase;
 import minecrafttransportsimulator.guis.components.GUIComponentButton;
 import minecrafttransportsimulator.guis.components.GUIComponentInstrument;
@@ -16,9 +16,10 @@ import minecrafttransportsimulator.guis.components.GUIComponentLabel;
 import minecrafttransportsimulator.items.packs.AItemPack;
 import minecrafttransportsimulator.items.packs.ItemInstrument;
 import minecrafttransportsimulator.jsondefs.AJSONItem;
+import minecrafttransportsimulator.jsondefs.JSONInstrument;
 import minecrafttransportsimulator.jsondefs.JSONVehicle.PackInstrument;
 import minecrafttransportsimulator.packets.instances.PacketVehicleInstruments;
-import minecrafttransportsimulator.rendering.vehicles.RenderInstrument;
+import minecrafttransportsimulator.rendering.vehicles.RenderInstrumentAtlas;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleF_Air;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleF_Ground;
@@ -68,22 +69,19 @@ public class GUIInstruments extends AGUIBase{
 		
 		//Add all packs that have instruments in them.
 		//This depends on if the player has the instruments, or if they are in creative.
-		for(String packID : MTSRegistry.packItemMap.keySet()){
-			for(AItemPack<? extends AJSONItem<?>> packItem : MTSRegistry.packItemMap.get(packID).values()){
-				if(packItem instanceof ItemInstrument){
-					if(player.isCreative() || player.hasItem(packItem, 1, 0)){
-						//Player has this instrument, but can it go on this vehicle?
-						if(((ItemInstrument) packItem).definition.general.validVehicles.contains(vehicle.definition.general.type)){
-							//Add the instrument to the list of instruments the player has.
-							if(!playerInstruments.containsKey(packID)){
-								playerInstruments.put(packID, new ArrayList<ItemInstrument>());
-								if(currentPack == null){
-									currentPack = packID;
-								}
-							}
-							playerInstruments.get(packID).add((ItemInstrument) packItem);
+		for(AItemPack<? extends AJSONItem<?>> packItem : PackItemCatalog.getItemsOfClass(JSONInstrument.class)){
+			if(player.isCreative() || player.hasItem(packItem, 1, 0)){
+				//Player has this instrument, but can it go on this vehicle?
+				if(((ItemInstrument) packItem).definition.general.validVehicles.contains(vehicle.definition.general.type)){
+					//Add the instrument to the list of instruments the player has.
+					String packID = packItem.definition.packID;
+					if(!playerInstruments.containsKey(packID)){
+						playerInstruments.put(packID, new ArrayList<ItemInstrument>());
+						if(currentPack == null){
+							currentPack = packID;
 						}
 					}
+					playerInstruments.get(packID).add((ItemInstrument) packItem);
 				}
 			}
 		}
@@ -226,7 +224,7 @@ public class GUIInstruments extends AGUIBase{
 							GL11.glPushMatrix();
 							GL11.glTranslated(x, y, 0);
 							GL11.glScalef(packInstrument.hudScale, packInstrument.hudScale, packInstrument.hudScale);
-							RenderInstrument.drawInstrument(vehicle.instruments.get(this.instrumentPackIndex), packInstrument.optionalPartNumber, vehicle);
+							RenderInstrumentAtlas.drawInstrument(vehicle, this.instrumentPackIndex);
 							GL11.glPopMatrix();
 						}
 					}
@@ -22,6 +22,7 @@ import minecrafttransportsimulator.jsondefs.JSONVehicle.VehicleDisplayText;
 import minecrafttransportsimulator.jsondefs.JSONVehicle.VehicleRotatableModelObject;
 import minecrafttransportsimulator.jsondefs.JSONVehicle.VehicleTranslatableModelObject;
 import minecrafttransportsimulator.rendering.vehicles.RenderVehicle;
+import minecrafttransportsimulator.systems.LoadTimingSystem;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
 import minecrafttransportsimulator.vehicles.parts.APart;
 
@@ -167,6 +168,7 @@ public class GUIVehicleEditor extends AGUIBase{
 				
 				//Reset the rendering system to update rendering caches.
 				RenderVehicle.clearVehicleCaches(vehicle);
+				LoadTimingSystem.writeReport("devModeReload");
 			}
 		});
 		
@@ -19,13 +19,25 @@ import net.minecraftforge.fml.relauncher.SideOnly;
  * @author don_bruce
  */
 public abstract class AItemPack<JSONDefinition extends AJSONItem<? extends AJSONItem<?>.General>> extends Item{
-	public final JSONDefinition definition;
+	/**Definition for this item.  Not final, as dev-mode reloading swaps in new definitions.
+	 * Volatile to make sure the server thread sees new definitions right away.**/
+	public volatile JSONDefinition definition;
 	
 	public AItemPack(JSONDefinition definition){
 		super();
 		this.definition = definition;
 	}
 	
+	/**Swaps in a new definition for this item.  Used by dev-mode reloading.
+	 * The new definition must be the same class as the current one.**/
+	@SuppressWarnings("unchecked")
+	public void setDefinition(AJSONItem<?> newDefinition){
+		if(!newDefinition.getClass().equals(definition.getClass())){
+			throw new IllegalArgumentException("ERROR: Attempted to set the definition of " + definition.packID + ":" + definition.systemName + " to a " + newDefinition.getClass().getSimpleName() + ", but it is a " + definition.getClass().getSimpleName() + ".");
+		}
+		definition = (JSONDefinition) newDefinition;
+	}
+	
 	@Override
 	public String getItemStackDisplayName(ItemStack stack){
         return definition.general.name != null ? definition.general.name : definition.systemName;
@@ -164,11 +164,16 @@ public class JSONConfig{
 		public ConfigBoolean fullHUD_3P = new ConfigBoolean(false, "If true, the full-size HUD will render in 3rd-person rather than the half-size HUD.");
 		public ConfigBoolean transpHUD_1P = new ConfigBoolean(false, "If true, the background textures for the HUD will not be rendered in 1st-person.");
 		public ConfigBoolean transpHUD_3P = new ConfigBoolean(false, "If true, the background textures for the HUD will not be rendered in 1st-person.");
+		public ConfigBoolean instrumentAtlas = new ConfigBoolean(true, "If true, instruments will be cached in a texture and only re-rendered when they change.  Turn this off if instruments render oddly with shaders.");
+		public ConfigBoolean renderProfiler = new ConfigBoolean(false, "If true, MTS will time each stage of vehicle rendering and show the results in an overlay.  When turned off, the recorded timings are saved to a CSV file in the game folder.");
+		public ConfigBoolean modelCache = new ConfigBoolean(true, "If true, parsed OBJ models will be saved to a cache in the config folder.  Models are only re-parsed when they change, which speeds up loading.  Turn this off if models don't update when changed.");
 		
 		public ConfigInteger renderReductionHeight = new ConfigInteger(250, "When riding in a vehicle above this height MTS will reduce the render distance to 1.  This provides a significant speedup for worldgen and render lag.  Note that this is only active on Singleplayer.");
 		public ConfigInteger controlSurfaceCooldown = new ConfigInteger(4, "How long (in ticks) it takes before control surfaces try to return to their natural angle.  This is not used when using a joystick.");
 		public ConfigInteger steeringIncrement = new ConfigInteger(20, "How many units (1/10 of a degree) to turn the wheels on vehicles for every tick the button is held down.  This is not used when using a joystick.");
 		public ConfigInteger flightIncrement = new ConfigInteger(6, "How many units (1/10 of a degree) to move the elevators and ailerons on aircraft for every tick the button is held down.  This is not used when using a joystick.");
+		public ConfigInteger radioBufferSize = new ConfigInteger(256, "How much of an internet radio stream to buffer ahead, in KB.  Larger values ride out longer network hiccups, but take longer to fill.");
+		public ConfigInteger radioTimeout = new ConfigInteger(5000, "How long (in ms) to wait for data from an internet radio stream before re-connecting.");
 		public ConfigDouble joystickDeadZone = new ConfigDouble(0.03D, "Dead zone for joystick axis.  This is NOT joystick specific.");
 	}
 	
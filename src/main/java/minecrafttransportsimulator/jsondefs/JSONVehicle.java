@@ -3,6 +3,8 @@ package minecrafttransportsimulator.jsondefs;
 import java.util.ArrayList;
 import java.util.List;
 
+import minecrafttransportsimulator.dataclasses.CompiledVehicleDefinition;
+
 public class JSONVehicle extends AJSONCraftable<JSONVehicle.VehicleGeneral>{
 	/**A generic name for this vehicle.  This is simply the {@link AJSONItem#systemName}, minus
 	 * the {@link VehicleDefinition#subName}.  Set after JSON is parsed into an object and
@@ -20,6 +22,11 @@ public class JSONVehicle extends AJSONCraftable<JSONVehicle.VehicleGeneral>{
     public List<VehicleCollisionBox> collision = new ArrayList<VehicleCollisionBox>();
     public VehicleRendering rendering;
     
+    /**Data derived from this definition.  Set when the definition is registered.  Transient
+     * as it's not part of the JSON and shouldn't be written out with it.
+     */
+    public transient CompiledVehicleDefinition compiled;
+    
     public class VehicleGeneral extends AJSONCraftable<JSONVehicle.VehicleGeneral>.General{
     	public boolean openTop;
     	public int emptyMass;
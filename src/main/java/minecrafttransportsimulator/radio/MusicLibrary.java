@@ -0,0 +1,320 @@
+package minecrafttransportsimulator.radio;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**In-memory index of the mts_music folder and the radio station presets.  Music folders can be large,
+ * or on slow network drives, so listing them every time a preset is pressed can freeze the client.
+ * Instead, the folder is indexed once on a background thread, and then kept current by watching it
+ * for changes.  Station presets are read once, and written back on a background thread when changed.
+ * <br><br>
+ * The index is published as a whole once it's done, so callers never see one that's part-way through
+ * being built.  Until the first index is done, there are no directories or songs, as listing the folder
+ * on the client thread is what this class is here to avoid.  Some network drives don't report changes,
+ * so on those new songs show up after a restart.
+ *
+ * @author don_bruce
+ */
+public final class MusicLibrary{
+	/**Time to wait for more changes after getting one, so copying a folder of songs only re-indexes once.**/
+	private static final long CHANGE_SETTLE_TIME = 250;
+
+	private static File musicDir;
+	private static File radioStationsFile;
+	private static boolean started;
+
+	/**Current index of the music folder.  Replaced as a whole by the index thread, never modified.**/
+	private static volatile LibraryIndex index = new LibraryIndex(Collections.<String>emptyList(), Collections.<String, List<File>>emptyMap());
+
+	/**Station presets, in the order the user put them in.  Only accessed when holding the lock on this class.**/
+	private static final List<String> stations = new ArrayList<String>();
+	/**Number of preset writes that haven't finished.  While there are some, changes to the file are ours, so we don't re-load it.**/
+	private static final AtomicInteger pendingWrites = new AtomicInteger();
+	private static ExecutorService stationWriter;
+
+	/**Starts indexing the passed-in music directory and loads the presets.  Only the first call does anything.**/
+	public static synchronized void init(File musicDirectory, File stationsFile){
+		if(!started){
+			musicDir = musicDirectory;
+			radioStationsFile = stationsFile;
+			stations.addAll(readStations());
+			stationWriter = Executors.newSingleThreadExecutor(new ThreadFactory(){
+				@Override
+				public Thread newThread(Runnable runnable){
+					Thread thread = new Thread(runnable, "MTS Radio Presets");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			Thread indexThread = new Thread("MTS Music Library"){
+				@Override
+				public void run(){
+					watchLibrary();
+				}
+			};
+			indexThread.setDaemon(true);
+			indexThread.start();
+			started = true;
+		}
+	}
+
+	/**Returns the sorted names of all directories in the music folder.  This is empty until the first index is done.**/
+	public static List<String> getDirectories(){
+		return index.directoryNames;
+	}
+
+	/**Returns the songs in the passed-in directory, sorted by name.  This is empty until the first index is done.
+	 * The returned list may not be modified.**/
+	public static List<File> getSongs(String directoryName){
+		List<File> directorySongs = index.songs.get(directoryName);
+		return directorySongs != null ? directorySongs : Collections.<File>emptyList();
+	}
+
+	/**Returns a copy of the station presets.**/
+	public static synchronized List<String> getStations(){
+		return new ArrayList<String>(stations);
+	}
+
+	/**Sets the passed-in preset to the passed-in station.  The presets are saved on a background thread.**/
+	public static synchronized void setStation(String station, int presetPressed){
+		stations.set(presetPressed, station);
+		final List<String> stationsToWrite = new ArrayList<String>(stations);
+		pendingWrites.incrementAndGet();
+		stationWriter.execute(new Runnable(){
+			@Override
+			public void run(){
+				try{
+					writeStations(stationsToWrite);
+				}finally{
+					pendingWrites.decrementAndGet();
+				}
+			}
+		});
+	}
+
+	/**Indexes the music folder, then re-indexes the parts that change until the thread dies.**/
+	private static void watchLibrary(){
+		WatchService watchService;
+		try{
+			watchService = FileSystems.getDefault().newWatchService();
+		}catch(IOException e){
+			System.err.println("ERROR: UNABLE TO WATCH MTS_MUSIC FOLDER.  NEW SONGS WILL NOT SHOW UP UNTIL RESTART.");
+			System.err.println(e.getMessage());
+			e.printStackTrace();
+			indexAll(null, null);
+			return;
+		}
+
+		//Keys for the sub-directories map to their names.  The key for the music folder itself is kept separately.
+		Map<WatchKey, String> directoryKeys = new HashMap<WatchKey, String>();
+		WatchKey rootKey = register(watchService, musicDir);
+		indexAll(watchService, directoryKeys);
+		while(!Thread.currentThread().isInterrupted()){
+			try{
+				boolean reindexAll = false;
+				boolean reloadStations = false;
+				Set<String> changedDirectories = new HashSet<String>();
+
+				//Wait for a change, then keep getting changes until they stop coming.
+				WatchKey key = watchService.take();
+				while(key != null){
+					for(WatchEvent<?> event : key.pollEvents()){
+						if(event.kind() == StandardWatchEventKinds.OVERFLOW){
+							reindexAll = true;
+						}else if(key.equals(rootKey)){
+							//Changes in the music folder are either the presets file, or directories being added or removed.
+							if(radioStationsFile.getName().equals(((Path) event.context()).toString())){
+								reloadStations = true;
+							}else{
+								reindexAll = true;
+							}
+						}else if(directoryKeys.containsKey(key)){
+							changedDirectories.add(directoryKeys.get(key));
+						}
+					}
+					if(!key.reset()){
+						//Directory was deleted or can't be watched anymore.
+						if(key.equals(rootKey)){
+							rootKey = register(watchService, musicDir);
+						}
+						reindexAll = true;
+					}
+					key = watchService.poll(CHANGE_SETTLE_TIME, TimeUnit.MILLISECONDS);
+				}
+
+				if(reindexAll){
+					indexAll(watchService, directoryKeys);
+				}else if(!changedDirectories.isEmpty()){
+					indexDirectories(changedDirectories);
+				}
+				if(reloadStations && pendingWrites.get() == 0){
+					List<String> loadedStations = readStations();
+					synchronized(MusicLibrary.class){
+						if(pendingWrites.get() == 0){
+							stations.clear();
+							stations.addAll(loadedStations);
+						}
+					}
+				}
+			}catch(InterruptedException e){
+				break;
+			}
+		}
+		try{
+			watchService.close();
+		}catch(IOException e){
+			//Nothing to do, we're stopping anyways.
+		}
+	}
+
+	/**Indexes all directories in the music folder, and publishes the new index once it's done.  If a WatchService
+	 * is passed-in, any new directories are registered with it, and keys for removed directories are cancelled.
+	 * This is done before the directories are listed, so songs added while listing them still cause a re-index.**/
+	private static void indexAll(WatchService watchService, Map<WatchKey, String> directoryKeys){
+		List<String> names = new ArrayList<String>();
+		File[] files = musicDir.listFiles();
+		if(files != null){
+			for(File file : files){
+				if(file.isDirectory()){
+					names.add(file.getName());
+				}
+			}
+		}
+		Collections.sort(names);
+
+		if(watchService != null){
+			Iterator<Map.Entry<WatchKey, String>> keyIterator = directoryKeys.entrySet().iterator();
+			while(keyIterator.hasNext()){
+				Map.Entry<WatchKey, String> keyEntry = keyIterator.next();
+				if(!keyEntry.getKey().isValid() || !names.contains(keyEntry.getValue())){
+					keyEntry.getKey().cancel();
+					keyIterator.remove();
+				}
+			}
+			for(String directoryName : names){
+				if(!directoryKeys.containsValue(directoryName)){
+					WatchKey key = register(watchService, new File(musicDir, directoryName));
+					if(key != null){
+						directoryKeys.put(key, directoryName);
+					}
+				}
+			}
+		}
+
+		Map<String, List<File>> songs = new HashMap<String, List<File>>();
+		for(String directoryName : names){
+			songs.put(directoryName, Collections.unmodifiableList(listSongs(new File(musicDir, directoryName))));
+		}
+		index = new LibraryIndex(Collections.unmodifiableList(names), songs);
+	}
+
+	/**Re-lists the songs in the passed-in directories, and publishes a new index with them once they're all done.
+	 * Directories that are gone lose their songs here, and are removed from the directory list on the next full index.**/
+	private static void indexDirectories(Set<String> directoryNames){
+		LibraryIndex oldIndex = index;
+		Map<String, List<File>> songs = new HashMap<String, List<File>>(oldIndex.songs);
+		for(String directoryName : directoryNames){
+			File directory = new File(musicDir, directoryName);
+			if(directory.isDirectory()){
+				songs.put(directoryName, Collections.unmodifiableList(listSongs(directory)));
+			}else{
+				songs.remove(directoryName);
+			}
+		}
+		index = new LibraryIndex(oldIndex.directoryNames, songs);
+	}
+
+	private static List<File> listSongs(File directory){
+		List<File> musicFiles = new ArrayList<File>();
+		File[] files = directory.listFiles();
+		if(files != null){
+			for(File musicFile : files){
+				if(!musicFile.isDirectory()){
+					musicFiles.add(musicFile);
+				}
+			}
+		}
+		Collections.sort(musicFiles);
+		return musicFiles;
+	}
+
+	private static WatchKey register(WatchService watchService, File directory){
+		try{
+			return directory.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+		}catch(IOException e){
+			System.err.println("ERROR: UNABLE TO WATCH MUSIC DIRECTORY: " + directory.getName());
+			System.err.println(e.getMessage());
+			return null;
+		}
+	}
+
+	private static List<String> readStations(){
+		List<String> loadedStations = new ArrayList<String>();
+		try{
+			BufferedReader radioStationFileReader = new BufferedReader(new FileReader(radioStationsFile));
+			while(radioStationFileReader.ready()){
+				loadedStations.add(radioStationFileReader.readLine());
+			}
+			radioStationFileReader.close();
+		}catch(IOException e){
+			System.err.println("ERROR: UNABLE TO PARSE RADIO STATION FILE.");
+			System.err.println(e.getMessage());
+			e.printStackTrace();
+		}
+		//If we have no stations, make 6 blanks ones to avoid crashes.
+		if(loadedStations.size() == 0){
+			for(byte i=0; i<6; ++i){
+				loadedStations.add("");
+			}
+		}
+		return loadedStations;
+	}
+
+	private static void writeStations(List<String> stationsToWrite){
+		try{
+			BufferedWriter radioStationFileWriter = new BufferedWriter(new FileWriter(radioStationsFile));
+			for(String stationToWrite : stationsToWrite){
+				radioStationFileWriter.write(stationToWrite + "\n");
+			}
+			radioStationFileWriter.close();
+		}catch(IOException e){
+			System.err.println("ERROR: UNABLE TO SAVE RADIO STATION FILE.");
+			System.err.println(e.getMessage());
+			e.printStackTrace();
+		}
+	}
+
+	/**Snapshot of the music folder.  Directory names are sorted, and song lists are sorted by name.**/
+	private static final class LibraryIndex{
+		private final List<String> directoryNames;
+		private final Map<String, List<File>> songs;
+
+		private LibraryIndex(List<String> directoryNames, Map<String, List<File>> songs){
+			this.directoryNames = directoryNames;
+			this.songs = songs;
+		}
+	}
+}
@@ -1,56 +1,57 @@
 package minecrafttransportsimulator.radio;
 
-import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.List;
 
-import javazoom.jlgui.basicplayer.BasicPlayer;
+import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**Base class for radios.  Used to provide a common set of tools for all radio implementations.
+* Radios don't decode audio themselves.  Instead, they listen to a {@link RadioStream}, which
+* may be shared with other radios tuned to the same source.
 *
 * @author don_bruce
 */
 public class Radio{
 	/**Reference to the RadioContainer that this player is for.**/
 	private final RadioContainer container;
-	/**Instance of the player associated with this container.**/
-	private final BasicPlayer player;
-	/**Songs this player will play.**/
-	private List<File> songsToPlay = new ArrayList<File>();
-	/**Directory or URL this player is playing from.**/
-	private String selectedSource = "";
+	/**Stream this radio is listening to, or null if it's off.**/
+	private volatile RadioStream stream;
 	/**Selected preset of this player.**/
-	private int selectedPreset = -1;
-	/**Current radio volume.**/
-	private byte volume = 10;
+	private volatile int selectedPreset = -1;
+	/**Current radio volume.  Set by the GUI and read by the radio thread.**/
+	private volatile byte volume = 10;
 	
 	public Radio(RadioContainer container){
 		this.container = container;
-		this.player = new BasicPlayer();
 	}
 	
 	/**Sets the player to play sound files from a directory in the mts_music folder.
+	 * If another radio is already playing this directory in the same order, we listen to its stream.
 	 * Actual play code is done during the update loop as it's sequential.**/
-	public void playLocal(String directoryName, int presetPressed, boolean sorted){
+	public synchronized void playLocal(String directoryName, int presetPressed, boolean sorted){
 		//Stop playing and reset if we are currently playing songs.
-		if(!(player.getStatus() == BasicPlayer.STOPPED || player.getStatus() == BasicPlayer.UNKNOWN)){
+		if(stream != null){
 			stopPlaying();
 		}
-		songsToPlay = RadioManager.getMusicFiles(directoryName, sorted);
+		stream = RadioManager.joinLocalStream(this, directoryName, sorted);
 		selectedPreset = presetPressed;
-		selectedSource = directoryName;
 	}
 	
-	/**Plays a sound file or stream from the web.  Returns true if the URL is able to be played.**/
+	/**Plays a sound file or stream from the web.  If another radio is already playing this URL,
+	 * we listen to its stream.  Returns true if the URL is able to be played.**/
 	public boolean playInternet(URL url, int presetPressed){
-		songsToPlay.clear();
+		return playInternet(url, presetPressed, Math.max(ConfigSystem.configObject.client.radioBufferSize.value, 16)*1024, Math.max(ConfigSystem.configObject.client.radioTimeout.value, 500));
+	}
+	
+	/**Like {@link #playInternet(URL, int)}, but with the passed-in buffer size, in bytes, and timeout, in milliseconds,
+	 * for the stream if one has to be made.  The public method gets these from the config.  This one lets tests run without loading it.**/
+	synchronized boolean playInternet(URL url, int presetPressed, int bufferSize, int timeout){
+		if(stream != null){
+			stopPlaying();
+		}
 		try{
-			player.open(url);
-			player.play();
+			stream = RadioManager.joinInternetStream(this, url, bufferSize, timeout);
 			selectedPreset = presetPressed;
-			selectedSource = url.toString();
 			return true;
 		}catch(Exception e){
 			System.err.println("ERROR: BASICPLAYER URL PLAY CODE HAS FAULTED.");
@@ -61,12 +62,13 @@ public class Radio{
 	}
 	
 	/**Plays a sound file from an InputStream.  Is a generic method for use with un-specified objects.
-	 * Could be used for MC sounds in a jar, or music disks from other mods.**/
-	public boolean playGeneric(InputStream stream){
+	 * Could be used for MC sounds in a jar, or music disks from other mods.  These streams are never shared.**/
+	public synchronized boolean playGeneric(InputStream inputStream){
+		if(stream != null){
+			stopPlaying();
+		}
 		try{
-			player.open(stream);
-			player.play();
-			selectedSource = "Streaming";
+			stream = RadioManager.joinGenericStream(this, inputStream);
 			return true;
 		}catch(Exception e){
 			System.err.println("ERROR: BASICPLAYER INTERNAL PLAY CODE HAS FAULTED.");
@@ -81,8 +83,9 @@ public class Radio{
 	 * Returns 1-10 for playing from the internet.
 	 * Returns 11-20 for playing from a folder.**/
 	public int getPlayState(){
-		if(player.getStatus() == BasicPlayer.PLAYING){
-			return songsToPlay.isEmpty() ? selectedPreset + 10 : selectedPreset;
+		RadioStream currentStream = stream;
+		if(currentStream != null && currentStream.isPlaying()){
+			return currentStream.hasQueuedSongs() ? selectedPreset : selectedPreset + 10;
 		}
 		return -1;
 	}
@@ -96,71 +99,65 @@ public class Radio{
 	 * be the URL.  If we are playing from a directory, it will be the directory name with
 	 * the file name of the current song after a newline.**/
 	public String getSource(){
-		return selectedSource;
+		RadioStream currentStream = stream;
+		return currentStream != null ? currentStream.getSource() : "";
 	}
 	
 	/**Stops all playing music.  Should be called when the class containing this RadioContainer is destroyed.
 	 * If it's not, then the radio won't stop even if the thing is gone!**/
-	public void stopPlaying(){
-		songsToPlay.clear();
+	public synchronized void stopPlaying(){
+		RadioStream currentStream = stream;
+		stream = null;
 		selectedPreset = -1;
-		selectedSource = "";
-		try{
-			player.stop();
-		}catch(Exception e){
-			System.err.println("ERROR: BASICPLAYER STOP CODE HAS FAULTED.");
-			System.err.println(e.getMessage());
-			e.printStackTrace();
+		if(currentStream != null){
+			RadioManager.leaveStream(this, currentStream);
 		}
 	}
 	
-	/**Should be called every tick to update the volume and play/pause status.
-	 * Return false if we need to remove this radio because it's invalid.
-	 * Passed-in coords are where the listener is located.**/
-	public boolean update(double x, double y, double z, boolean enablePlayback){
-		try{
-			if(container.isValid()){
-				if(player.getStatus() == BasicPlayer.PLAYING){
-					if(enablePlayback){
-						//Set the volume to the player distance.
-						double dist = container.getDistanceTo(x, y, z);
-						if(dist > 0){
-							player.setGain(Math.min(2F*(volume/10F), 1.0F)/dist);
-						}else{
-							player.setGain(volume/10F);
-						}
-					}else{
-						player.pause();
-					}
-				}else if(player.getStatus() == BasicPlayer.STOPPED || player.getStatus() == BasicPlayer.UNKNOWN){
-					//If we are stopped, and we are have music files to play, go to the next song.
-					//Otherwise, clear out our variables.
-					if(!songsToPlay.isEmpty()){
-						player.open(songsToPlay.get(0));
-						player.play();
-						selectedSource = "Station:  " + songsToPlay.get(0).getParentFile().getName() + "\nPlaying:  " + songsToPlay.get(0).getName() + "\nUp Next: " + (songsToPlay.size() > 1 ? songsToPlay.get(1).getName() : ""); 
-						songsToPlay.remove(0);
-					}else{
-						if(selectedPreset != -1){
-							songsToPlay.clear();
-							selectedPreset = -1;
-							selectedSource = "";
-						}
-					}
-				}else if(enablePlayback && player.getStatus() == BasicPlayer.PAUSED){
-					player.resume();
-				}
-			}else{
+	/**Should be called every tick to check if we are still valid, and if our stream is done.
+	 * Return false if we need to remove this radio because it's invalid.**/
+	public synchronized boolean update(){
+		if(container.isValid()){
+			if(stream != null && stream.isFinished()){
 				stopPlaying();
-				return false;
 			}
-		}catch(Exception e){
-			System.err.println("ERROR: BASICPLAYER INTERNAL UPDATED CODE HAS FAULTED.");
-			System.err.println(e.getMessage());
-			e.printStackTrace();
+			return true;
+		}else{
 			stopPlaying();
+			return false;
+		}
+	}
+	
+	/**Returns the gain this radio should have for the passed-in listener position.
+	 * This is the player volume, scaled by the distance to the listener.
+	 * Like vehicle sounds, this is halved if the radio is muffled by the listener's vehicle.**/
+	public double getGain(double x, double y, double z, boolean enclosed){
+		if(!container.isValid()){
+			return 0;
 		}
-		return true;
+		if(container.isListenerRiding()){
+			return volume/10F;
+		}
+		//Keep radios right on top of the listener from dividing by zero.
+		double dist = Math.max(container.getDistanceTo(x, y, z), 1.0D);
+		return Math.min(2F*(volume/10F), 1.0F)/dist*(enclosed ? 0.5F : 1.0F);
+	}
+	
+	/**Returns the pan of this radio for the passed-in listener position and yaw.
+	 * -1 is fully left, 1 is fully right.  Radios the listener is riding in, and radios in containers
+	 * that don't know their direction, are centered.**/
+	public double getPan(double x, double y, double z, float yaw){
+		if(!container.isValid() || container.isListenerRiding()){
+			return 0;
+		}
+		double yawFrom = container.getYawFrom(x, z);
+		return Double.isNaN(yawFrom) ? 0 : Math.sin(Math.toRadians(yawFrom - yaw));
+	}
+	
+	/**Returns true if this radio should be muffled.  This happens if the listener is in an
+	 * enclosed vehicle, and this radio isn't the one in that vehicle.**/
+	public boolean isOccluded(double x, double y, double z, boolean enclosed){
+		return enclosed && container.isValid() && !container.isListenerRiding();
 	}
 	
 	/**Sets the player volume.  Parameter should be from 0-10, but can be greater and will be clamped.**/
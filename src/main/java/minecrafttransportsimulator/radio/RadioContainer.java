@@ -13,6 +13,22 @@ public interface RadioContainer{
 	/**Gets the distance between this object and the passed-in point.**/
 	public abstract double getDistanceTo(double x, double y, double z);
 	
+	/**Gets the yaw, in degrees, that something at the passed-in point would have to face to look
+	 * at this object.  Uses the same convention as entity yaw, so 0 is +Z and 90 is -X.
+	 * Returns NaN if this container doesn't know its direction, in which case its radio isn't panned.
+	 * This is a default method so containers made before radios had panning still work.**/
+	public default double getYawFrom(double x, double z){
+		return Double.NaN;
+	}
+	
+	/**Returns true if the listener is riding this container.  Radios the listener is riding play at full
+	 * volume, centered, and are never muffled, no matter where the listener is sitting.  Don't go by
+	 * {@link #getDistanceTo(double, double, double)} for this, as seats are rarely where the container is.
+	 * This is a default method so containers that can't be ridden don't need to implement it.**/
+	public default boolean isListenerRiding(){
+		return false;
+	}
+	
 	/**Return true if this container is still valid.  If false, the radio system will stop and delete this
 	 * container to keep the audio from playing when this container is removed from the world.**/
 	public abstract boolean isValid();
@@ -0,0 +1,91 @@
+package minecrafttransportsimulator.radio;
+
+/**Audio filter for radio streams.  This is run on the decoded PCM data of a stream right before it's
+ * sent to the sound card, on the thread that's decoding the stream.  It applies three things:
+ * <ul>
+ * <li>Gain.  Changes are ramped over a few milliseconds, so volume doesn't jump when the gain is updated.</li>
+ * <li>Occlusion.  A low-pass filter that muffles the stream when the listener is in an enclosed vehicle
+ * and the radio isn't in that vehicle.  This is faded in and out like the gain.</li>
+ * <li>Pan.  Stereo balance based on where the radio is relative to where the listener is looking.
+ * Mono streams can't be panned, so they only get gain and occlusion.</li>
+ * </ul>
+ * Targets are set by the radio thread, and the filter moves towards them as it processes data.
+ * Processing is done in-place on the passed-in buffer, so nothing is allocated while playing.
+ *
+ * @author don_bruce
+ */
+public class RadioFilter{
+	/**Time it takes gain, pan, and occlusion to get most of the way to a new value, in seconds.**/
+	private static final float RAMP_TIME = 0.05F;
+	/**Cutoff frequency of the low-pass filter when fully occluded, in Hz.**/
+	private static final float OCCLUSION_CUTOFF = 800F;
+	/**Max channels we can filter.  Streams with more channels are passed through as-is.**/
+	private static final int MAX_CHANNELS = 8;
+
+	//Targets.  Set by the radio thread.
+	private volatile float targetGain;
+	private volatile float targetPan;
+	private volatile float targetOcclusion;
+
+	//Current state.  Only accessed by the decode thread.
+	private float gain;
+	private float pan;
+	private float occlusion;
+	private final float[] lowPassState = new float[MAX_CHANNELS];
+	private float sampleRate;
+	private float rampCoefficient;
+	private float lowPassCoefficient;
+
+	/**Sets the values the filter should move towards.  Gain is from 0-1, pan is from -1 (left) to 1 (right),
+	 * and occlusion is from 0 (none) to 1 (fully muffled).**/
+	public void setTargets(float gain, float pan, float occlusion){
+		targetGain = Math.max(0, Math.min(gain, 1));
+		targetPan = Math.max(-1, Math.min(pan, 1));
+		targetOcclusion = Math.max(0, Math.min(occlusion, 1));
+	}
+
+	/**Filters signed 16-bit little-endian PCM data in-place.  Length should be a whole number of frames.**/
+	public void process(byte[] data, int offset, int length, float sampleRate, int channels){
+		if(channels > MAX_CHANNELS || sampleRate <= 0){
+			return;
+		}
+		if(sampleRate != this.sampleRate){
+			this.sampleRate = sampleRate;
+			this.rampCoefficient = (float) (1 - Math.exp(-1D/(RAMP_TIME*sampleRate)));
+			this.lowPassCoefficient = (float) (1 - Math.exp(-2D*Math.PI*OCCLUSION_CUTOFF/sampleRate));
+		}
+
+		//Get the targets once so they don't change part-way through a buffer.
+		float currentTargetGain = targetGain;
+		float currentTargetPan = targetPan;
+		float currentTargetOcclusion = targetOcclusion;
+		int frameSize = channels*2;
+		int end = offset + length - frameSize;
+		for(int frameIndex=offset; frameIndex<=end; frameIndex+=frameSize){
+			gain += (currentTargetGain - gain)*rampCoefficient;
+			pan += (currentTargetPan - pan)*rampCoefficient;
+			occlusion += (currentTargetOcclusion - occlusion)*rampCoefficient;
+			for(int channel=0; channel<channels; ++channel){
+				int sampleIndex = frameIndex + channel*2;
+				float sample = (short) ((data[sampleIndex] & 0xFF) | (data[sampleIndex + 1] << 8));
+
+				//Always run the low-pass so it's ready when occlusion fades in.
+				lowPassState[channel] += (sample - lowPassState[channel])*lowPassCoefficient;
+				sample += (lowPassState[channel] - sample)*occlusion;
+				sample *= gain;
+				if(channels == 2){
+					sample *= channel == 0 ? Math.min(1 - pan, 1) : Math.min(1 + pan, 1);
+				}
+
+				int output = Math.round(sample);
+				if(output > Short.MAX_VALUE){
+					output = Short.MAX_VALUE;
+				}else if(output < Short.MIN_VALUE){
+					output = Short.MIN_VALUE;
+				}
+				data[sampleIndex] = (byte) output;
+				data[sampleIndex + 1] = (byte) (output >> 8);
+			}
+		}
+	}
+}
@@ -0,0 +1,256 @@
+package minecrafttransportsimulator.radio;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+
+/**InputStream for internet radio.  A background thread reads the stream from the network into a
+ * fixed-size buffer, and the decoder reads from that buffer.  This keeps network hiccups from
+ * stalling the decoder until the buffer runs dry.  If the connection times out or drops, it's
+ * re-opened with an increasing delay between attempts.  If we can't re-connect after
+ * {@link #MAX_RECONNECTS} tries, the stream ends.
+ * <br><br>
+ * Streams with a known length, such as a single file on a web server, end when all bytes are read.
+ * If they drop part-way, we ask the server for the rest with a Range header.  If the server can't
+ * send the rest, the stream ends, as the decoder can't take the start of the file again.
+ * Streams without a length are assumed to be live, so the end of the stream is treated as a dropped connection.
+ *
+ * @author don_bruce
+ */
+public class RadioInputStream extends InputStream{
+	private static final int MAX_RECONNECTS = 6;
+	private static final long FIRST_RECONNECT_DELAY = 500;
+	private static final long MAX_RECONNECT_DELAY = 16000;
+
+	private final URL url;
+	private final int timeout;
+	private final byte[] buffer;
+	private final Thread prefetchThread;
+	private final long startTime = System.currentTimeMillis();
+
+	//Buffer state.  Only accessed when holding the lock on this object.
+	private int readIndex;
+	private int bufferedBytes;
+	private boolean ended;
+	private boolean closed;
+
+	//Stats.
+	private volatile long bytesReceived;
+	private volatile int underruns;
+	private volatile int reconnects;
+
+	private volatile InputStream networkStream;
+	private long contentLength;
+	private long contentRead;
+
+	/**Opens the passed-in URL.  Throws an exception if it can't be opened, so bad URLs fail right away.
+	 * Buffer size is in bytes, and the timeout is in milliseconds.**/
+	public RadioInputStream(URL url, int bufferSize, int timeout) throws IOException{
+		this.url = url;
+		this.timeout = timeout;
+		this.buffer = new byte[bufferSize];
+		connect();
+		this.prefetchThread = new Thread("MTS Radio Prefetch"){
+			@Override
+			public void run(){
+				prefetch();
+			}
+		};
+		prefetchThread.setDaemon(true);
+		prefetchThread.start();
+	}
+
+	/**Connects to the URL.  If we already read part of a stream with a known length, we ask the server for
+	 * the rest of it with a Range header.  Returns false if the server won't send the rest, as playing the
+	 * stream from the start again would splice the start of the file onto the part we already played.**/
+	private boolean connect() throws IOException{
+		URLConnection connection = url.openConnection();
+		connection.setConnectTimeout(timeout);
+		connection.setReadTimeout(timeout);
+		boolean resuming = contentLength >= 0 && contentRead > 0;
+		if(resuming){
+			connection.setRequestProperty("Range", "bytes=" + contentRead + "-");
+		}
+		InputStream newStream = connection.getInputStream();
+		if(resuming){
+			String contentRange = connection.getHeaderField("Content-Range");
+			if(!(connection instanceof HttpURLConnection) || ((HttpURLConnection) connection).getResponseCode() != HttpURLConnection.HTTP_PARTIAL || contentRange == null || !contentRange.startsWith("bytes " + contentRead + "-")){
+				newStream.close();
+				return false;
+			}
+		}else{
+			contentLength = connection.getContentLengthLong();
+			contentRead = 0;
+		}
+		networkStream = newStream;
+		return true;
+	}
+
+	/**Reads from the network into the buffer until the stream ends or is closed.**/
+	private void prefetch(){
+		byte[] readBuffer = new byte[4096];
+		int failedReconnects = 0;
+		while(!isClosed()){
+			try{
+				int bytesRead = networkStream.read(readBuffer);
+				if(bytesRead == -1){
+					if(contentLength >= 0 && contentRead >= contentLength){
+						//We read the whole thing.  We're done.
+						break;
+					}else{
+						throw new IOException("Stream ended.");
+					}
+				}
+				contentRead += bytesRead;
+				bytesReceived += bytesRead;
+				failedReconnects = 0;
+				if(!write(readBuffer, bytesRead)){
+					break;
+				}
+			}catch(IOException e){
+				//Connection dropped or timed out.  Try to re-connect, waiting longer after each failure.
+				closeNetworkStream();
+				boolean connected = false;
+				while(!connected && !isClosed() && failedReconnects < MAX_RECONNECTS){
+					try{
+						//Attempts only count as successful once we get data, so servers that
+						//accept connections but never send anything still run out of attempts.
+						Thread.sleep(Math.min(FIRST_RECONNECT_DELAY << failedReconnects, MAX_RECONNECT_DELAY));
+						++failedReconnects;
+						++reconnects;
+						if(!connect()){
+							System.err.println("ERROR: RADIO STREAM CAN'T BE RESUMED AS THE SERVER DOESN'T SUPPORT RANGE REQUESTS: " + url.toString());
+							break;
+						}
+						connected = true;
+					}catch(InterruptedException e2){
+						break;
+					}catch(IOException e2){
+						//Try again after the next delay.
+					}
+				}
+				if(!connected){
+					if(!isClosed() && failedReconnects == MAX_RECONNECTS){
+						System.err.println("ERROR: LOST CONNECTION TO RADIO STREAM: " + url.toString());
+					}
+					break;
+				}
+			}
+		}
+		closeNetworkStream();
+		synchronized(this){
+			ended = true;
+			notifyAll();
+		}
+	}
+
+	/**Writes bytes to the buffer, waiting for space if it's full.  Returns false if the stream was closed.**/
+	private synchronized boolean write(byte[] bytes, int length){
+		int offset = 0;
+		while(offset < length){
+			while(bufferedBytes == buffer.length && !closed){
+				try{
+					wait();
+				}catch(InterruptedException e){
+					return false;
+				}
+			}
+			if(closed){
+				return false;
+			}
+			int writeIndex = (readIndex + bufferedBytes)%buffer.length;
+			int bytesToWrite = Math.min(length - offset, Math.min(buffer.length - bufferedBytes, buffer.length - writeIndex));
+			System.arraycopy(bytes, offset, buffer, writeIndex, bytesToWrite);
+			bufferedBytes += bytesToWrite;
+			offset += bytesToWrite;
+			notifyAll();
+		}
+		return true;
+	}
+
+	@Override
+	public int read() throws IOException{
+		byte[] singleByte = new byte[1];
+		return read(singleByte, 0, 1) == -1 ? -1 : singleByte[0] & 0xFF;
+	}
+
+	@Override
+	public synchronized int read(byte[] bytes, int offset, int length) throws IOException{
+		if(length == 0){
+			return 0;
+		}
+		if(bufferedBytes == 0 && !ended && !closed){
+			//Decoder is reading faster than the network.
+			++underruns;
+			while(bufferedBytes == 0 && !ended && !closed){
+				try{
+					wait();
+				}catch(InterruptedException e){
+					throw new IOException("Interrupted while waiting for radio stream.");
+				}
+			}
+		}
+		if(bufferedBytes == 0){
+			return -1;
+		}
+		int bytesToRead = Math.min(length, Math.min(bufferedBytes, buffer.length - readIndex));
+		System.arraycopy(buffer, readIndex, bytes, offset, bytesToRead);
+		readIndex = (readIndex + bytesToRead)%buffer.length;
+		bufferedBytes -= bytesToRead;
+		notifyAll();
+		return bytesToRead;
+	}
+
+	@Override
+	public synchronized int available(){
+		return bufferedBytes;
+	}
+
+	@Override
+	public void close(){
+		synchronized(this){
+			closed = true;
+			notifyAll();
+		}
+		//Closing the network stream un-blocks the prefetch thread if it's waiting on the network.
+		prefetchThread.interrupt();
+		closeNetworkStream();
+	}
+
+	private synchronized boolean isClosed(){
+		return closed;
+	}
+
+	private void closeNetworkStream(){
+		try{
+			if(networkStream != null){
+				networkStream.close();
+			}
+		}catch(IOException e){
+			//Already closed or broken.  Nothing to do.
+		}
+	}
+
+	/**Returns how many times the decoder had to wait for the network.**/
+	public int getUnderruns(){
+		return underruns;
+	}
+
+	/**Returns how many times we tried to re-connect to the stream.**/
+	public int getReconnects(){
+		return reconnects;
+	}
+
+	/**Returns the average rate data has come in from the network, in kbit/s.**/
+	public int getBitrate(){
+		long elapsedTime = System.currentTimeMillis() - startTime;
+		return elapsedTime > 0 ? (int) (bytesReceived*8/elapsedTime) : 0;
+	}
+
+	/**Returns how full the buffer is, from 0 to 1.**/
+	public synchronized float getBufferFill(){
+		return bufferedBytes/(float) buffer.length;
+	}
+}
@@ -1,17 +1,15 @@
 package minecrafttransportsimulator.radio;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**Manager class for all radio operations.  This class is responsible for
  * handling all requests from the radio GUI for file operations, and holds
@@ -25,7 +23,11 @@ public class RadioManager{
 	private static File musicDir;
 	private static File radioStationsFile;
 	
-	private static Map<RadioContainer, Radio> radios = new HashMap<RadioContainer, Radio>();
+	/**Radios are added by the client thread and updated and removed by the {@link RadioScheduler}, so this must be concurrent.**/
+	private static final Map<RadioContainer, Radio> radios = new ConcurrentHashMap<RadioContainer, Radio>();
+	/**Streams radios are listening to, keyed by their source.  Only changed when holding the lock on this class.**/
+	private static final Map<String, RadioStream> streams = new ConcurrentHashMap<String, RadioStream>();
+	private static int genericStreams;
 	
 	/**Called to init the manager.  Should be called before any GUI operations are performed.**/
 	public static void init(File minecraftDir){
@@ -42,33 +44,100 @@ public class RadioManager{
 					e.printStackTrace();
 				}
 			}
+			MusicLibrary.init(musicDir, radioStationsFile);
 			ready = true;
 		}
 	}
 	
-	/**Called to update all radios.  Should be called at the end of the tick on the client-side.
+	/**Called to update all radios.  Called by the {@link RadioScheduler}.
 	 * Passed-in coords are the location of the listener.**/
 	public static void updateRadios(double x, double y, double z, boolean enablePlayback){
+		for(RadioStream stream : streams.values()){
+			stream.update(enablePlayback);
+		}
 		Iterator<Radio> radioIterator = radios.values().iterator();
 		while(radioIterator.hasNext()){
 			Radio radio = radioIterator.next();
-			if(!radio.update(x, y, z, enablePlayback)){
+			if(!radio.update()){
 				radioIterator.remove();
 			}
 		}
 	}
 	
+	/**Called to update the gain, pan, and occlusion of all playing radios.  Called by the {@link RadioScheduler}
+	 * more often than {@link #updateRadios(double, double, double, boolean)} to keep the listener's movement smooth.
+	 * Passed-in yaw is where the listener is looking, and enclosed is true if they are in an enclosed vehicle.**/
+	public static void updateRadioGains(double x, double y, double z, float yaw, boolean enclosed, boolean enablePlayback){
+		if(enablePlayback){
+			for(RadioStream stream : streams.values()){
+				stream.updateGain(x, y, z, yaw, enclosed);
+			}
+		}
+	}
+	
+	/**Stops and removes all radios.  Called when the world is unloaded.**/
+	public static void stopAllRadios(){
+		Iterator<Radio> radioIterator = radios.values().iterator();
+		while(radioIterator.hasNext()){
+			radioIterator.next().stopPlaying();
+			radioIterator.remove();
+		}
+	}
+	
+	/**Adds the passed-in radio as a listener to the stream for the passed-in directory.
+	 * If there isn't a stream for the directory in the passed-in order, one is made.**/
+	public static synchronized RadioStream joinLocalStream(Radio radio, String directoryName, boolean sorted){
+		String key = "folder:" + directoryName + (sorted ? ":sorted" : ":random");
+		RadioStream stream = streams.get(key);
+		if(stream == null || stream.isFinished()){
+			stream = new RadioStream(key, getMusicFiles(directoryName, sorted), directoryName);
+			streams.put(key, stream);
+		}
+		stream.addListener(radio);
+		return stream;
+	}
+	
+	/**Adds the passed-in radio as a listener to the stream for the passed-in URL.  If there isn't a stream for the URL,
+	 * one is made with the passed-in buffer size and timeout.  Throws an exception if the URL can't be played.**/
+	public static synchronized RadioStream joinInternetStream(Radio radio, URL url, int bufferSize, int timeout) throws Exception{
+		String key = "url:" + url.toString();
+		RadioStream stream = streams.get(key);
+		if(stream == null || stream.isFinished()){
+			stream = new RadioStream(key, url, bufferSize, timeout);
+			streams.put(key, stream);
+		}
+		stream.addListener(radio);
+		return stream;
+	}
+	
+	/**Makes a new stream for the passed-in InputStream, and adds the passed-in radio as a listener.
+	 * As we can't tell if two InputStreams are the same, these are never shared.**/
+	public static synchronized RadioStream joinGenericStream(Radio radio, InputStream inputStream) throws Exception{
+		String key = "generic:" + (++genericStreams);
+		RadioStream stream = new RadioStream(key, inputStream);
+		streams.put(key, stream);
+		stream.addListener(radio);
+		return stream;
+	}
+	
+	/**Removes the passed-in radio as a listener of the passed-in stream.  If the stream has no
+	 * more listeners, it's stopped and removed.**/
+	public static synchronized void leaveStream(Radio radio, RadioStream stream){
+		stream.removeListener(radio);
+		if(!stream.hasListeners()){
+			stream.stop();
+			if(streams.get(stream.key) == stream){
+				streams.remove(stream.key);
+			}
+		}
+	}
+	
 	/**Gets the directories from the mts_music folder.  Used to tell the radio which directory
 	 * it will need to get music from.  Actual music files are gotten once the directory is selected.
+	 * Directories come from the {@link MusicLibrary}, so this doesn't touch the disk.
 	 **/
 	public static List<String> getMusicDirectories(){
-		List<String> musicDirectories = new ArrayList<String>();
-		for(File file : musicDir.listFiles()){
-			if(file.isDirectory()){
-				musicDirectories.add(file.getName());
-			}
-		}
-		Collections.sort(musicDirectories);
+		List<String> musicDirectories = new ArrayList<String>(MusicLibrary.getDirectories());
 		//Pad out to 6 entries for the radio selection.
 		while(musicDirectories.size() < 6){
 			musicDirectories.add("");
@@ -78,68 +147,36 @@ public class RadioManager{
 	
 	/**Gets the files from the specified directory in the mts_music folder. **/
 	public static List<File> getMusicFiles(String directoryName, boolean sorted){
-		List<File> musicFiles = new ArrayList<File>();
-		for(File musicFile : new File(musicDir.getAbsolutePath() + File.separator + directoryName).listFiles()){
-			if(!musicFile.isDirectory()){
-				musicFiles.add(musicFile);
-			}
-		}
-		if(sorted){
-			Collections.sort(musicFiles);
-		}else{
+		List<File> musicFiles = new ArrayList<File>(MusicLibrary.getSongs(directoryName));
+		if(!sorted){
 			Collections.shuffle(musicFiles);
 		}
 		return musicFiles;
 	}
 	
 	/**Gets the list of radio stations present in the radio_stations.txt file in the mts_music directory.
-	 * This should be done every time the GUI is opened to allow new stations to propagate.
+	 * These are cached by the {@link MusicLibrary}, which re-loads them if the file is changed outside the game.
 	**/
 	public static List<String> getRadioStations(){
-		List<String> stations = new ArrayList<String>();
-		try{
-			BufferedReader radioStationFileReader = new BufferedReader(new FileReader(radioStationsFile));
-			while(radioStationFileReader.ready()){
-				stations.add(radioStationFileReader.readLine());
-			}
-			radioStationFileReader.close();
-			//If we have no stations, make 6 blanks ones to avoid crashes.
-			if(stations.size() == 0){
-				for(byte i=0; i<6; ++i){
-					stations.add("");
-				}
-			}
-		}catch(IOException e){
-			System.err.println("ERROR: UNABLE TO PARSE RADIO STATION FILE.");
-			System.err.println(e.getMessage());
-			e.printStackTrace();
-		}
 		//Don't sort the stations, as we want the order the user put them in.
-		return stations;
+		return MusicLibrary.getStations();
 	}
 	
-	/**Sets the radio station to the passed-in value and saves it to the radio_stations.txt file.*/
+	/**Sets the radio station to the passed-in value.  The radio_stations.txt file is saved in the background.*/
 	public static void setRadioStation(String station, int presetPressed){
-		try{
-			List<String> stations = getRadioStations();
-			stations.set(presetPressed, station);
-			BufferedWriter radioStationFileWriter = new BufferedWriter(new FileWriter(radioStationsFile));
-			for(String stationToWrite : stations){
-				radioStationFileWriter.write(stationToWrite + "\n");
-			}
-			radioStationFileWriter.close();
-		}catch(IOException e){
-			System.err.println("ERROR: UNABLE TO SAVE RADIO STATION FILE.");
-			System.err.println(e.getMessage());
-			e.printStackTrace();
-		}
+		MusicLibrary.setStation(station, presetPressed);
 	}
 	
 	/**Called to get the radio for a container.  If the radio is not found, one is created, cached, and returned.*/
 	public static Radio getRadio(RadioContainer container){
-		if(!radios.containsKey(container)){
-			radios.put(container, new Radio(container));
+		Radio radio = radios.get(container);
+		if(radio == null){
+			radio = new Radio(container);
+			Radio existingRadio = radios.putIfAbsent(container, radio);
+			if(existingRadio != null){
+				radio = existingRadio;
+			}
 		}
-		return radios.get(container);
+		return radio;
 	}
 }
@@ -0,0 +1,72 @@
+package minecrafttransportsimulator.radio;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.LineUnavailableException;
+
+import javazoom.jlgui.basicplayer.BasicPlayer;
+
+/**BasicPlayer that runs decoded audio through a {@link RadioFilter} before it's played.
+ * BasicPlayer converts every stream it opens to PCM when it makes its line.  We wrap that
+ * converted stream, so the filter runs on the player's own thread as it reads each buffer.
+ *
+ * @author don_bruce
+ */
+public class RadioPlayer extends BasicPlayer{
+	public final RadioFilter filter = new RadioFilter();
+
+	@Override
+	protected void createLine() throws LineUnavailableException{
+		super.createLine();
+		AudioFormat format = m_audioInputStream.getFormat();
+		if(AudioFormat.Encoding.PCM_SIGNED.equals(format.getEncoding()) && format.getSampleSizeInBits() == 16 && !format.isBigEndian()){
+			m_audioInputStream = new AudioInputStream(new FilteredStream(m_audioInputStream), format, m_audioInputStream.getFrameLength());
+		}
+	}
+
+	/**Stream that filters PCM data as it's read.  The AudioInputStream that wraps this only reads
+	 * whole frames, so the filter never sees part of a sample.**/
+	private class FilteredStream extends InputStream{
+		private final AudioInputStream source;
+		private final float sampleRate;
+		private final int channels;
+
+		private FilteredStream(AudioInputStream source){
+			this.source = source;
+			this.sampleRate = source.getFormat().getSampleRate();
+			this.channels = source.getFormat().getChannels();
+		}
+
+		@Override
+		public int read() throws IOException{
+			throw new IOException("Cannot read single bytes from a 16-bit stream.");
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException{
+			int bytesRead = source.read(bytes, offset, length);
+			if(bytesRead > 0){
+				filter.process(bytes, offset, bytesRead, sampleRate, channels);
+			}
+			return bytesRead;
+		}
+
+		@Override
+		public long skip(long bytes) throws IOException{
+			return source.skip(bytes);
+		}
+
+		@Override
+		public int available() throws IOException{
+			return source.available();
+		}
+
+		@Override
+		public void close() throws IOException{
+			source.close();
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package minecrafttransportsimulator.radio;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**Scheduler that updates the {@link RadioManager}.  This is used in place
+ * of Forge events to keep the radio's update logic from blocking client events and
+ * hurting FPS.  The only thing we need to worry about is the location of the listener.
+ * This can be set from anywhere, though it's preferred to set it at the end of the
+ * tick as that's when their position will set in stone and no longer modified.
+ * <br><br>
+ * Both radio tasks run on the same thread, so radios never update from two threads at once.
+ * Radio state, such as going to the next song, is updated once a second.  Radio gain is
+ * updated ten times a second.  The {@link RadioFilter} ramps between these updates, so volume doesn't jump as the listener moves.
+ *
+ * @author don_bruce
+ */
+public final class RadioScheduler{
+	private static final long STATE_PERIOD = 1000;
+	private static final long GAIN_PERIOD = 100;
+
+	/**Current listener.  Replaced as a whole so the radio thread never sees a half-set position.**/
+	private static volatile Listener listener = new Listener(0, 0, 0, 0, false, false);
+	private static ScheduledExecutorService executor;
+
+	/**Starts the scheduler if it isn't running.**/
+	public static synchronized void start(){
+		if(executor == null){
+			executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory(){
+				@Override
+				public Thread newThread(Runnable runnable){
+					Thread thread = new Thread(runnable, "MTS Radio");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			executor.scheduleAtFixedRate(new Runnable(){
+				@Override
+				public void run(){
+					try{
+						Listener currentListener = listener;
+						RadioManager.updateRadios(currentListener.x, currentListener.y, currentListener.z, currentListener.enablePlayback);
+					}catch(Exception e){
+						//Don't let one bad update kill the task, as it won't be re-scheduled.
+						System.err.println("ERROR: RADIO UPDATE CODE HAS FAULTED.");
+						e.printStackTrace();
+					}
+				}
+			}, 0, STATE_PERIOD, TimeUnit.MILLISECONDS);
+			executor.scheduleAtFixedRate(new Runnable(){
+				@Override
+				public void run(){
+					try{
+						Listener currentListener = listener;
+						RadioManager.updateRadioGains(currentListener.x, currentListener.y, currentListener.z, currentListener.yaw, currentListener.enclosed, currentListener.enablePlayback);
+					}catch(Exception e){
+						System.err.println("ERROR: RADIO GAIN CODE HAS FAULTED.");
+						e.printStackTrace();
+					}
+				}
+			}, GAIN_PERIOD, GAIN_PERIOD, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**Returns true if the scheduler is running.**/
+	public static synchronized boolean isRunning(){
+		return executor != null;
+	}
+
+	/**Stops the scheduler and all radios.  Should be called when the world is unloaded.
+	 * The scheduler can be started again with {@link #start()}.**/
+	public static synchronized void shutdown(){
+		if(executor != null){
+			executor.shutdownNow();
+			try{
+				executor.awaitTermination(1, TimeUnit.SECONDS);
+			}catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+			executor = null;
+		}
+		RadioManager.stopAllRadios();
+	}
+
+	/**Sets the listener's position and yaw.  Enclosed should be true if the listener is in an enclosed vehicle.**/
+	public static void setListenerPosition(double x, double y, double z, float yaw, boolean enclosed, boolean enabled){
+		listener = new Listener(x, y, z, yaw, enclosed, enabled);
+	}
+
+	private static final class Listener{
+		private final double x;
+		private final double y;
+		private final double z;
+		private final float yaw;
+		private final boolean enclosed;
+		private final boolean enablePlayback;
+
+		private Listener(double x, double y, double z, float yaw, boolean enclosed, boolean enablePlayback){
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.yaw = yaw;
+			this.enclosed = enclosed;
+			this.enablePlayback = enablePlayback;
+		}
+	}
+}
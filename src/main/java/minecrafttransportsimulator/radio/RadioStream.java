@@ -0,0 +1,190 @@
+package minecrafttransportsimulator.radio;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javazoom.jlgui.basicplayer.BasicPlayer;
+
+/**A single decoded source of radio audio.  All {@link Radio}s tuned to the same source share one
+ * stream, so ten cars on the same station only open one connection and run one decoder.
+ * Streams are made and removed by the {@link RadioManager}, and are keyed by their source.
+ * <br><br>
+ * Each radio has a gain, pan, and occlusion from where it is relative to the listener.  As all radios
+ * on a stream play the same audio at the same time, we play the stream once at the sum of their gains.
+ * Pan and occlusion are averaged over all radios, weighted by their gain, so the loudest radios decide
+ * where the stream sounds like it's coming from.  Radios that join a stream part-way through hear it
+ * from where it is, like a real radio station.
+ *
+ * @author don_bruce
+ */
+public class RadioStream{
+	/**Key of this stream in the {@link RadioManager}.**/
+	public final String key;
+	/**Instance of the player that decodes and filters this stream.**/
+	private final RadioPlayer player;
+	/**Radios listening to this stream.  Changed by the client thread and read by the radio thread.**/
+	private final List<Radio> listeners = new CopyOnWriteArrayList<Radio>();
+	/**Songs this stream will play, if it's playing from a directory.**/
+	private final List<File> songsToPlay;
+	/**Description of what this stream is playing.**/
+	private volatile String source;
+	/**Network stream for internet streams, or null if this isn't one.**/
+	private final RadioInputStream internetStream;
+	/**True once this stream has nothing left to play.**/
+	private volatile boolean finished;
+
+	/**Creates a stream that plays all songs in a directory.**/
+	public RadioStream(String key, List<File> songsToPlay, String directoryName){
+		this.key = key;
+		this.player = new RadioPlayer();
+		this.songsToPlay = new ArrayList<File>(songsToPlay);
+		this.internetStream = null;
+		this.source = directoryName;
+	}
+
+	/**Creates a stream that plays a URL.  The URL is read through a {@link RadioInputStream} to buffer it
+	 * and re-connect if the connection drops.  The passed-in buffer size is in bytes, and the timeout for
+	 * re-connecting is in milliseconds.  Throws an exception if the URL can't be played.**/
+	public RadioStream(String key, URL url, int bufferSize, int timeout) throws Exception{
+		this.key = key;
+		this.player = new RadioPlayer();
+		this.songsToPlay = new ArrayList<File>();
+		this.internetStream = new RadioInputStream(url, bufferSize, timeout);
+		try{
+			//Decoders need mark and reset to read the stream format, which the buffered stream provides.
+			player.open(new BufferedInputStream(internetStream));
+			player.play();
+		}catch(Exception e){
+			internetStream.close();
+			throw e;
+		}
+		this.source = url.toString();
+	}
+
+	/**Creates a stream that plays an InputStream.  Throws an exception if the stream can't be played.**/
+	public RadioStream(String key, InputStream stream) throws Exception{
+		this.key = key;
+		this.player = new RadioPlayer();
+		this.songsToPlay = new ArrayList<File>();
+		this.internetStream = null;
+		player.open(stream);
+		player.play();
+		this.source = "Streaming";
+	}
+
+	public void addListener(Radio radio){
+		listeners.add(radio);
+	}
+
+	public void removeListener(Radio radio){
+		listeners.remove(radio);
+	}
+
+	public boolean hasListeners(){
+		return !listeners.isEmpty();
+	}
+
+	/**Returns true if this stream is playing.**/
+	public boolean isPlaying(){
+		return player.getStatus() == BasicPlayer.PLAYING;
+	}
+
+	/**Returns true if this stream has more songs queued after the current one.**/
+	public synchronized boolean hasQueuedSongs(){
+		return !songsToPlay.isEmpty();
+	}
+
+	/**Returns true if this stream has nothing left to play.**/
+	public boolean isFinished(){
+		return finished;
+	}
+
+	/**Gets the current source for this stream.  If we are playing from the internet, it will
+	 * be the URL.  If we are playing from a directory, it will be the directory name with
+	 * the file name of the current song after a newline.**/
+	public String getSource(){
+		return source;
+	}
+
+	/**Returns the network stream if this is an internet stream, or null if it isn't.
+	 * Used to get the stream's underrun and bitrate counters.**/
+	public RadioInputStream getInternetStream(){
+		return internetStream;
+	}
+	
+	/**Stops this stream.  Called by the {@link RadioManager} once it has no listeners.**/
+	public synchronized void stop(){
+		songsToPlay.clear();
+		finished = true;
+		try{
+			player.stop();
+		}catch(Exception e){
+			System.err.println("ERROR: BASICPLAYER STOP CODE HAS FAULTED.");
+			System.err.println(e.getMessage());
+			e.printStackTrace();
+		}
+		if(internetStream != null){
+			internetStream.close();
+		}
+	}
+
+	/**Updates the play/pause status, and goes to the next song if the current one is done.
+	 * Called by the radio thread.**/
+	public synchronized void update(boolean enablePlayback){
+		if(finished){
+			return;
+		}
+		try{
+			if(player.getStatus() == BasicPlayer.PLAYING){
+				if(!enablePlayback){
+					player.pause();
+				}
+			}else if(player.getStatus() == BasicPlayer.STOPPED || player.getStatus() == BasicPlayer.UNKNOWN){
+				//If we are stopped, and we are have music files to play, go to the next song.
+				//Otherwise, we are done.
+				if(!songsToPlay.isEmpty()){
+					player.open(songsToPlay.get(0));
+					player.play();
+					source = "Station:  " + songsToPlay.get(0).getParentFile().getName() + "\nPlaying:  " + songsToPlay.get(0).getName() + "\nUp Next: " + (songsToPlay.size() > 1 ? songsToPlay.get(1).getName() : "");
+					songsToPlay.remove(0);
+				}else{
+					finished = true;
+				}
+			}else if(enablePlayback && player.getStatus() == BasicPlayer.PAUSED){
+				player.resume();
+			}
+		}catch(Exception e){
+			System.err.println("ERROR: BASICPLAYER INTERNAL UPDATED CODE HAS FAULTED.");
+			System.err.println(e.getMessage());
+			e.printStackTrace();
+			stop();
+		}
+	}
+
+	/**Sets the filter targets of the player from all radios listening to it.  Passed-in coords and yaw
+	 * are where the listener is located and looking, and enclosed is true if they are in an enclosed vehicle.
+	 * Called by the radio thread.**/
+	public void updateGain(double x, double y, double z, float yaw, boolean enclosed){
+		if(player.getStatus() == BasicPlayer.PLAYING){
+			double gain = 0;
+			double pan = 0;
+			double occlusion = 0;
+			for(Radio radio : listeners){
+				double radioGain = radio.getGain(x, y, z, enclosed);
+				gain += radioGain;
+				pan += radio.getPan(x, y, z, yaw)*radioGain;
+				occlusion += radio.isOccluded(x, y, z, enclosed) ? radioGain : 0;
+			}
+			if(gain > 0){
+				player.filter.setTargets((float) gain, (float) (pan/gain), (float) (occlusion/gain));
+			}else{
+				player.filter.setTargets(0, 0, 0);
+			}
+		}
+	}
+}
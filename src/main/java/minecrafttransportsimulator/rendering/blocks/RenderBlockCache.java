@@ -0,0 +1,237 @@
+package minecrafttransportsimulator.rendering.blocks;
+
+import java.nio.FloatBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.GlStateManager;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.tileentity.TileEntity;
+
+/**Cache of baked geometry for block TESRs.  Each tile entity gets a displayList that contains its static
+ * geometry and any text, along with the state that list was built with.  The TESR passes in an object holding
+ * the state that affects its rendering every frame: if it equals the cached state the list is simply
+ * called, otherwise the TESR re-renders the geometry while the list is compiled.  This way things like
+ * sign text are only laid out when the text changes, not every frame.  State objects are kept, so they
+ * must not be changed after they are passed in.  Copy things like lists of text rather than passing them.
+ * Geometry that only depends on its state, and not on the tile it's for, can use a shared list instead.
+ * These are keyed by their state, so all tiles with the same state call the same list.
+ * <br><br>
+ * Lists push the GL attributes they may change at their start and pop them at their end, so calling a list
+ * leaves the GL state just as it was, and the state cached by {@link GlStateManager} stays correct.
+ * Compiling is different, as the TESR's calls through the {@link GlStateManager} update its cache, while the
+ * pop at the end of the list changes the actual state back.  So the state the TESRs change is read before
+ * compiling, and the {@link GlStateManager} is set back to it after.  Lists for tile entities that are no
+ * longer in the world are freed periodically.
+ *
+ * @author don_bruce
+ */
+public final class RenderBlockCache{
+	private static final Minecraft minecraft = Minecraft.getMinecraft();
+	/**Ticks between checks for lists belonging to removed tile entities.**/
+	private static final int SWEEP_INTERVAL = 100;
+	/**GL attributes lists push and pop.  Covers the color, textures, enables, and blending.**/
+	private static final int LIST_ATTRIB_BITS = GL11.GL_CURRENT_BIT | GL11.GL_ENABLE_BIT | GL11.GL_TEXTURE_BIT | GL11.GL_COLOR_BUFFER_BIT;
+
+	private static final Map<TileEntity, CachedList> cachedLists = new HashMap<TileEntity, CachedList>();
+	/**Lists shared by all tiles, keyed by the state they were built with.**/
+	private static final Map<Object, Integer> sharedLists = new HashMap<Object, Integer>();
+	private static long lastSweepTime;
+	
+	//State read before compiling a list.  Only one list is compiled at a time, so these are shared.
+	private static final FloatBuffer savedColor = BufferUtils.createFloatBuffer(16);
+	private static int savedActiveTexture;
+	private static int savedBoundTexture;
+	private static boolean savedTexture;
+	private static boolean savedLightmap;
+	private static boolean savedAlpha;
+	private static boolean savedBlend;
+	private static boolean savedLighting;
+
+	/**
+	 *  Renders the cached list for the passed-in tile if it was built with a state equal to the passed-in state.
+	 *  Returns true if the list was rendered.  If false is returned, the caller should call
+	 *  {@link #startList(TileEntity, Object)}, render the tile, then call {@link #endList()}.
+	 */
+	public static boolean renderList(TileEntity tile, Object state){
+		sweepLists();
+		CachedList cachedList = cachedLists.get(tile);
+		if(cachedList != null && cachedList.state.equals(state)){
+			GL11.glCallList(cachedList.displayListIndex);
+			return true;
+		}else{
+			return false;
+		}
+	}
+
+	/**
+	 *  Starts compiling the list for the passed-in tile.  Any existing list for the tile is re-used.
+	 */
+	public static void startList(TileEntity tile, Object state){
+		CachedList cachedList = cachedLists.get(tile);
+		if(cachedList == null){
+			cachedList = new CachedList(GL11.glGenLists(1));
+			cachedLists.put(tile, cachedList);
+		}
+		cachedList.state = state;
+		beginList(cachedList.displayListIndex);
+	}
+
+	/**
+	 *  Renders the shared list built with a state equal to the passed-in state.  Returns true if there was one.
+	 *  If false is returned, the caller should call {@link #startSharedList(Object)}, render the geometry,
+	 *  then call {@link #endList()}.
+	 */
+	public static boolean renderSharedList(Object state){
+		Integer displayListIndex = sharedLists.get(state);
+		if(displayListIndex != null){
+			GL11.glCallList(displayListIndex);
+			return true;
+		}else{
+			return false;
+		}
+	}
+
+	/**
+	 *  Starts compiling a shared list for the passed-in state.
+	 */
+	public static void startSharedList(Object state){
+		int displayListIndex = GL11.glGenLists(1);
+		sharedLists.put(state, displayListIndex);
+		beginList(displayListIndex);
+	}
+
+	/**
+	 *  Ends compiling the list started in {@link #startList(TileEntity, Object)} or {@link #startSharedList(Object)}.
+	 */
+	public static void endList(){
+		GL11.glPopAttrib();
+		GL11.glEndList();
+		restoreState();
+	}
+
+	/**
+	 *  Frees all cached and shared lists.  Used in dev mode when models are re-loaded.
+	 */
+	public static void clearCaches(){
+		for(CachedList cachedList : cachedLists.values()){
+			GL11.glDeleteLists(cachedList.displayListIndex, 1);
+		}
+		cachedLists.clear();
+		for(int displayListIndex : sharedLists.values()){
+			GL11.glDeleteLists(displayListIndex, 1);
+		}
+		sharedLists.clear();
+	}
+
+	/**
+	 *  Saves the GL state and starts compiling the passed-in list.
+	 */
+	private static void beginList(int displayListIndex){
+		saveState();
+		//Reset the texture before compiling, otherwise binds of the texture that's already bound would be skipped
+		//by the GlStateManager and never make it into the list.  Color is set in the list for the same reason.
+		GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+		GlStateManager.bindTexture(0);
+		GL11.glNewList(displayListIndex, GL11.GL_COMPILE_AND_EXECUTE);
+		GL11.glPushAttrib(LIST_ATTRIB_BITS);
+		GL11.glColor4f(1, 1, 1, 1);
+		GlStateManager.color(1, 1, 1, 1);
+	}
+
+	/**
+	 *  Reads the GL state that TESRs change through the {@link GlStateManager} while compiling.  The lightmap unit is
+	 *  selected directly, not through the {@link GlStateManager}, so its cache isn't changed here.  These reads stall
+	 *  the pipeline, but lists are only compiled when the state of a tile changes.
+	 */
+	private static void saveState(){
+		savedColor.clear();
+		GL11.glGetFloat(GL11.GL_CURRENT_COLOR, savedColor);
+		savedActiveTexture = GL11.glGetInteger(GL13.GL_ACTIVE_TEXTURE);
+		GL13.glActiveTexture(OpenGlHelper.lightmapTexUnit);
+		savedLightmap = GL11.glIsEnabled(GL11.GL_TEXTURE_2D);
+		GL13.glActiveTexture(OpenGlHelper.defaultTexUnit);
+		savedTexture = GL11.glIsEnabled(GL11.GL_TEXTURE_2D);
+		savedBoundTexture = GL11.glGetInteger(GL11.GL_TEXTURE_BINDING_2D);
+		GL13.glActiveTexture(savedActiveTexture);
+		savedAlpha = GL11.glIsEnabled(GL11.GL_ALPHA_TEST);
+		savedBlend = GL11.glIsEnabled(GL11.GL_BLEND);
+		savedLighting = GL11.glIsEnabled(GL11.GL_LIGHTING);
+	}
+	
+	/**
+	 *  Sets the {@link GlStateManager} back to the state read by {@link #saveState()}.  The actual GL state is already
+	 *  back to it from the pop at the end of the list.  Where the {@link GlStateManager} cache still matches, its setters
+	 *  do nothing.  Where the TESR changed it, the setters make the GL call, which sets a state that's already set.
+	 *  Either way, the cache and the GL state end up the same.  The active texture is done first, as the texture
+	 *  setters act on whatever unit the {@link GlStateManager} thinks is active.
+	 */
+	private static void restoreState(){
+		GlStateManager.setActiveTexture(savedActiveTexture);
+		GlStateManager.setActiveTexture(OpenGlHelper.lightmapTexUnit);
+		if(savedLightmap){
+			GlStateManager.enableTexture2D();
+		}else{
+			GlStateManager.disableTexture2D();
+		}
+		GlStateManager.setActiveTexture(OpenGlHelper.defaultTexUnit);
+		if(savedTexture){
+			GlStateManager.enableTexture2D();
+		}else{
+			GlStateManager.disableTexture2D();
+		}
+		GlStateManager.bindTexture(savedBoundTexture);
+		GlStateManager.setActiveTexture(savedActiveTexture);
+		if(savedAlpha){
+			GlStateManager.enableAlpha();
+		}else{
+			GlStateManager.disableAlpha();
+		}
+		if(savedBlend){
+			GlStateManager.enableBlend();
+		}else{
+			GlStateManager.disableBlend();
+		}
+		if(savedLighting){
+			GlStateManager.enableLighting();
+		}else{
+			GlStateManager.disableLighting();
+		}
+		GlStateManager.color(savedColor.get(0), savedColor.get(1), savedColor.get(2), savedColor.get(3));
+	}
+
+	/**
+	 *  Frees the lists of any tile entities that have been removed from the world, or that are
+	 *  in a world other than the one the player is in.  Only done every {@link #SWEEP_INTERVAL} ticks.
+	 */
+	private static void sweepLists(){
+		long currentTime = minecraft.world.getTotalWorldTime();
+		if(currentTime < lastSweepTime || currentTime > lastSweepTime + SWEEP_INTERVAL){
+			lastSweepTime = currentTime;
+			Iterator<Map.Entry<TileEntity, CachedList>> iterator = cachedLists.entrySet().iterator();
+			while(iterator.hasNext()){
+				Map.Entry<TileEntity, CachedList> entry = iterator.next();
+				TileEntity tile = entry.getKey();
+				if(tile.isInvalid() || tile.getWorld() != minecraft.world || minecraft.world.getTileEntity(tile.getPos()) != tile){
+					GL11.glDeleteLists(entry.getValue().displayListIndex, 1);
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	private static final class CachedList{
+		private final int displayListIndex;
+		private Object state;
+
+		private CachedList(int displayListIndex){
+			this.displayListIndex = displayListIndex;
+		}
+	}
+}
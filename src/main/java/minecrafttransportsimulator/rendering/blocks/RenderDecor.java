@@ -2,7 +2,6 @@ package minecrafttransportsimulator.rendering.blocks;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.lwjgl.opengl.GL11;
 
@@ -10,7 +9,7 @@ import minecrafttransportsimulator.MTS;
 import minecrafttransportsimulator.blocks.core.BlockDecor;
 import minecrafttransportsimulator.blocks.core.TileEntityDecor;
 import minecrafttransportsimulator.jsondefs.JSONDecor;
-import minecrafttransportsimulator.systems.OBJParserSystem;
+import minecrafttransportsimulator.systems.OBJModelRepository;
 import net.minecraft.client.renderer.tileentity.TileEntitySpecialRenderer;
 import net.minecraft.util.ResourceLocation;
 
@@ -20,6 +19,16 @@ public class RenderDecor extends TileEntitySpecialRenderer<TileEntityDecor>{
 	private static final Map<JSONDecor, ResourceLocation> textureMap = new HashMap<JSONDecor, ResourceLocation>();
 	
 	public RenderDecor(){}
+
+	/**Used to clear out the rendering caches of all decors in dev mode to allow the re-loading of models and definitions.**/
+	public static void clearCaches(){
+		for(int displayListID : displayListMap.values()){
+			OBJModelRepository.releaseDisplayList(displayListID);
+		}
+		displayListMap.clear();
+		textureMap.clear();
+		RenderBlockCache.clearCaches();
+	}
 	
 	@Override
 	public void render(TileEntityDecor decor, double x, double y, double z, float partialTicks, int destroyStage, float alpha){
@@ -55,22 +64,14 @@ public class RenderDecor extends TileEntitySpecialRenderer<TileEntityDecor>{
 				GL11.glPopMatrix();
 				return;
 			}else{
+				//Models are parsed in the background, so don't render anything until ours is ready.
 				String optionalModelName = decor.definition.general.modelName;
-				Map<String, Float[][]> parsedModel = OBJParserSystem.parseOBJModel(decor.definition.packID, "objmodels/decors/" + (optionalModelName != null ? optionalModelName : decor.definition.systemName) + ".obj");
-				int displayListIndex = GL11.glGenLists(1);
-				
-				GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
-				GL11.glBegin(GL11.GL_TRIANGLES);
-				for(Entry<String, Float[][]> entry : parsedModel.entrySet()){
-					for(Float[] vertex : entry.getValue()){
-						GL11.glTexCoord2f(vertex[3], vertex[4]);
-						GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-						GL11.glVertex3f(vertex[0], vertex[1], vertex[2]);
-					}
+				String modelLocation = "objmodels/decors/" + (optionalModelName != null ? optionalModelName : decor.definition.systemName) + ".obj";
+				if(!OBJModelRepository.isModelReady(decor.definition.packID, modelLocation)){
+					GL11.glPopMatrix();
+					return;
 				}
-				GL11.glEnd();
-				GL11.glEndList();
-				displayListMap.put(decor.definition, displayListIndex);
+				displayListMap.put(decor.definition, OBJModelRepository.acquireDisplayList(decor.definition.packID, modelLocation, false));
 				textureMap.put(decor.definition, new ResourceLocation(decor.definition.packID, "textures/decors/" + decor.definition.systemName + ".png"));
 			}
 		}
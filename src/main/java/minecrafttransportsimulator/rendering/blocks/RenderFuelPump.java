@@ -1,6 +1,8 @@
 package minecrafttransportsimulator.rendering.blocks;
 
 import java.awt.Color;
+import java.util.Arrays;
+import java.util.List;
 
 import org.lwjgl.opengl.GL11;
 
@@ -29,6 +31,20 @@ public class RenderFuelPump extends TileEntitySpecialRenderer<TileEntityFuelPump
 		GL11.glTranslatef(0.5F, 0F, 0.5F);
 		GL11.glRotatef(-pump.getWorld().getBlockState(pump.getPos()).getValue(BlockFuelPump.FACING).getHorizontalAngle(), 0, 1, 0);
 		
+		//Text only changes when the fluid or amounts change, so render from the
+		//cached list for this pump if they haven't changed.
+		List<Object> state;
+		if(pump.getFluid() != null){
+			state = Arrays.<Object>asList(pump.totalTransfered, pump.getFluid().getFluid().getName(), pump.getFluid().amount);
+		}else{
+			state = Arrays.<Object>asList(pump.totalTransfered);
+		}
+		if(RenderBlockCache.renderList(pump, state)){
+			GL11.glPopMatrix();
+			return;
+		}
+		RenderBlockCache.startList(pump, state);
+		
 		GL11.glPushMatrix();
 		GL11.glScalef(0.0625F, 0.0625F, 0.0625F);
 		GL11.glRotatef(180, 1, 0, 0);
@@ -59,6 +75,7 @@ public class RenderFuelPump extends TileEntitySpecialRenderer<TileEntityFuelPump
 		Minecraft.getMinecraft().entityRenderer.enableLightmap();
 		GL11.glEnable(GL11.GL_LIGHTING);
 		GL11.glPopMatrix();
+		RenderBlockCache.endList();
 		
 		GL11.glPopMatrix();
 	}
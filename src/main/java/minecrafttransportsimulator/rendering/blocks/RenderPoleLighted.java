@@ -1,7 +1,9 @@
 package minecrafttransportsimulator.rendering.blocks;
 
 import java.awt.Color;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.lwjgl.opengl.GL11;
@@ -11,22 +13,22 @@ import minecrafttransportsimulator.blocks.core.TileEntityTrafficSignalController
 import minecrafttransportsimulator.blocks.pole.BlockPoleAttachment;
 import minecrafttransportsimulator.blocks.pole.TileEntityPoleAttachment;
 import minecrafttransportsimulator.dataclasses.MTSRegistry;
+import minecrafttransportsimulator.rendering.vehicles.RenderLightGeometry;
 import net.minecraft.block.Block;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.tileentity.TileEntitySpecialRenderer;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.BlockPos;
-import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.math.Vec3i;
 import net.minecraft.world.EnumSkyBlock;
 
 public class RenderPoleLighted extends TileEntitySpecialRenderer<TileEntityPoleAttachment>{
 	private static final ResourceLocation lensFlareTexture = new ResourceLocation(MTS.MODID, "textures/rendering/lensflare.png");
 	private static final ResourceLocation lightTexture = new ResourceLocation(MTS.MODID, "textures/rendering/light.png");
-	private static final ResourceLocation lightBeamTexture = new ResourceLocation(MTS.MODID, "textures/rendering/lightbeam.png");
 	private static final ResourceLocation walkTexture = new ResourceLocation(MTS.MODID, "textures/rendering/walk.png");
 	private static final ResourceLocation dontwalkTexture = new ResourceLocation(MTS.MODID, "textures/rendering/dontwalk.png");
+	private static final float BRIGHTNESS_STEPS = 32F;
 		
 	public RenderPoleLighted(){}
 	
@@ -73,6 +75,16 @@ public class RenderPoleLighted extends TileEntitySpecialRenderer<TileEntityPoleA
 	}
 	
 	private void renderLightedSquare(float lightSize, float lightBrightness, Color lightColor, ResourceLocation texture){
+		//The square and flare only depend on the light, not the pole it's on, so all poles share lists.
+		//Brightness is quantized so there's only a few lists per light, and so they aren't re-built
+		//every frame as the sun moves.
+		lightBrightness = Math.round(lightBrightness*BRIGHTNESS_STEPS)/BRIGHTNESS_STEPS;
+		List<Object> state = Arrays.<Object>asList(lightSize, lightBrightness, lightColor, texture);
+		if(RenderBlockCache.renderSharedList(state)){
+			return;
+		}
+		RenderBlockCache.startSharedList(state);
+		
 		final float flareSize = lightSize*4F;
 		bindTexture(texture);
 		GL11.glColor3f(lightColor.getRed()/255F, lightColor.getGreen()/255F, lightColor.getBlue()/255F);
@@ -85,8 +97,6 @@ public class RenderPoleLighted extends TileEntitySpecialRenderer<TileEntityPoleA
 		GL11.glVertex3f(lightSize/2F, -lightSize/2F, 0);
 		GL11.glTexCoord2f(1, 0);
 		GL11.glVertex3f(lightSize/2F, lightSize/2F, 0);
-		
-		
 		GL11.glEnd();
 		
 		GL11.glTranslatef(0, 0, -0.001F);
@@ -105,6 +115,7 @@ public class RenderPoleLighted extends TileEntitySpecialRenderer<TileEntityPoleA
 		GL11.glVertex3f(-flareSize/2F, flareSize/2F, 0);
 		GL11.glEnd();
 		GL11.glDisable(GL11.GL_BLEND);
+		RenderBlockCache.endList();
 	}
 	
 
@@ -283,49 +294,12 @@ public class RenderPoleLighted extends TileEntitySpecialRenderer<TileEntityPoleA
 		//Render light square
 		GL11.glTranslatef(0, 6.45F/16F, 6F/16F);
 		GL11.glRotatef(90, 1, 0, 0);
-		renderLightedSquare(4F/16F, lightBrightness,  Color.WHITE, lightTexture);
-		
-		//Render light beam
-		GL11.glPushMatrix();
-    	GL11.glDisable(GL11.GL_LIGHTING);
-    	GL11.glEnable(GL11.GL_BLEND);
-		bindTexture(lightBeamTexture);
-    	GL11.glColor4f(1, 1, 1, Math.min(1.0F, lightBrightness/2F));
-    	//Allows making things brighter by using alpha blending.
-    	GL11.glDepthMask(false);
-    	GL11.glBlendFunc(GL11.GL_DST_COLOR, GL11.GL_SRC_ALPHA);
+		renderLightedSquare(4F/16F, lightBrightness, Color.WHITE, lightTexture);
 		
+		//Queue light beam.
 		GL11.glPushMatrix();
 		GL11.glTranslatef(0, 0, -0.15F);
-		Vec3d endpointVec = new Vec3d(0, 0, 6);
-		GL11.glDepthMask(false);
-		for(byte j=0; j<=2; ++j){
-			drawLightCone(endpointVec, false);
-    	}
-		drawLightCone(endpointVec, true);
-		GL11.glPopMatrix();
-		
-    	GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
-    	GL11.glDepthMask(true);
-		GL11.glDisable(GL11.GL_BLEND);
+		RenderLightGeometry.queueBeam(3.0F, 6.0F, Math.min(1.0F, lightBrightness/2F));
 		GL11.glPopMatrix();
 	}
-	
-	private static void drawLightCone(Vec3d endPoint, boolean reverse){
-		GL11.glBegin(GL11.GL_TRIANGLE_FAN);
-		GL11.glTexCoord2f(0, 0);
-		GL11.glVertex3d(0, 0, 0);
-		if(reverse){
-			for(float theta=0; theta < 2*Math.PI + 0.1; theta += 2F*Math.PI/40F){
-				GL11.glTexCoord2f(theta, 1);
-				GL11.glVertex3d(endPoint.x + 3.0F*Math.cos(theta), endPoint.y + 3.0F*Math.sin(theta), endPoint.z);
-			}
-		}else{
-			for(float theta=(float) (2*Math.PI); theta>=0 - 0.1; theta -= 2F*Math.PI/40F){
-				GL11.glTexCoord2f(theta, 1);
-				GL11.glVertex3d(endPoint.x + 3.0F*Math.cos(theta), endPoint.y + 3.0F*Math.sin(theta), endPoint.z);
-			}
-		}
-		GL11.glEnd();
-	}
 }
@@ -1,7 +1,9 @@
 package minecrafttransportsimulator.rendering.blocks;
 
 import java.awt.Color;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.lwjgl.opengl.GL11;
@@ -30,6 +32,19 @@ public class RenderPoleSign extends TileEntitySpecialRenderer<TileEntityPoleSign
 			GL11.glRotatef(-sign.getWorld().getBlockState(sign.getPos()).getValue(BlockPoleSign.FACING).getHorizontalAngle(), 0, 1, 0);
 		}
 		GL11.glTranslatef(0F, 0F, 0.0635F);
+		
+		//Sign geometry and text only change when the sign or its text changes, so
+		//render from the cached list for this sign if the state hasn't changed.
+		//Text is copied, as the sign's list is changed in place when the text is edited.
+		List<Object> state = new ArrayList<Object>(sign.text.size() + 1);
+		state.add(sign.definition);
+		state.addAll(sign.text);
+		if(RenderBlockCache.renderList(sign, state)){
+			GL11.glPopMatrix();
+			return;
+		}
+		RenderBlockCache.startList(sign, state);
+		
 		//Bind the sign texture.
 		if(sign.definition == null){
 			bindTexture(defaultSignTexture);
@@ -93,6 +108,7 @@ public class RenderPoleSign extends TileEntitySpecialRenderer<TileEntityPoleSign
 				}
 			}
 		}
+		RenderBlockCache.endList();
 		GL11.glPopMatrix();
 	}
 }
@@ -19,25 +19,103 @@ import net.minecraft.util.ResourceLocation;
  */
 public final class RenderInstrument{	
 	private static Map<String, ResourceLocation> instrumentTextureSheets = new HashMap<String, ResourceLocation>();
+	private static Map<ItemInstrument, Map<Byte, String[]>> instrumentVariables = new HashMap<ItemInstrument, Map<Byte, String[]>>();
+	/**Scratch array for component values when rendering directly.  Grown as needed so we don't allocate every frame.**/
+	private static float[] componentValues = new float[0];
+	
+	/**Used to clear out the cached component variables of all instruments in dev mode to allow the re-loading of definitions.**/
+	public static void clearCaches(){
+		instrumentVariables.clear();
+	}
 	
     /**
      * Renders the passed-in instrument using the vehicle's current state.  Note that this method does NOT take any 
      * vehicle JSON parameters into account as it does not know which instrument is being rendered.  This means that 
      * any transformations that need to be applied for translation or scaling should be applied prior to calling this
      * method.  Such transformations will, of course, differ between applications, so care should be taken to ensure
-     * OpenGL states are not left out-of-whack after rendering is complete.
+     * OpenGL states are not left out-of-whack after rendering is complete.  If the instrument is in a slot on the
+     * vehicle, {@link RenderInstrumentAtlas#drawInstrument(EntityVehicleE_Powered, byte)} should be used instead.
      */
 	public static void drawInstrument(ItemInstrument instrument, byte partNumber, EntityVehicleE_Powered vehicle){
 		//First get the appropriate texture file for this instrument combination.
-		if(!instrumentTextureSheets.containsKey(instrument.definition.packID)){
-			instrumentTextureSheets.put(instrument.definition.packID, new ResourceLocation(instrument.definition.packID, "textures/instruments.png"));
-		}
-		Minecraft.getMinecraft().getTextureManager().bindTexture(instrumentTextureSheets.get(instrument.definition.packID));
+		bindInstrumentTexture(instrument);
 		
 		//Check if the lights are on.  If so, disable the lightmap.
 		boolean lightsOn = RenderVehicle.isVehicleIlluminated(vehicle);
 		
-		//Finally, render the instrument based on the JSON definitions.
+		//Get the current values for the instrument and render it based on the JSON definitions.
+		if(componentValues.length < 2*instrument.definition.components.size()){
+			componentValues = new float[2*instrument.definition.components.size()];
+		}
+		getComponentValues(instrument, getComponentVariables(instrument, partNumber), vehicle, componentValues);
+		renderComponents(instrument, componentValues, lightsOn, true);
+		
+		//Reset lightmap if we had previously disabled it.
+		if(lightsOn){
+			Minecraft.getMinecraft().entityRenderer.enableLightmap();
+		}
+	}
+	
+	/**
+	 *  Binds the texture sheet for the passed-in instrument.
+	 */
+	static void bindInstrumentTexture(ItemInstrument instrument){
+		if(!instrumentTextureSheets.containsKey(instrument.definition.packID)){
+			instrumentTextureSheets.put(instrument.definition.packID, new ResourceLocation(instrument.definition.packID, "textures/instruments.png"));
+		}
+		Minecraft.getMinecraft().getTextureManager().bindTexture(instrumentTextureSheets.get(instrument.definition.packID));
+	}
+	
+	/**
+	 *  Returns the variables for all components of the passed-in instrument.  The array has two entries per component:
+	 *  the rotation variable, and the translation variable.  These are null if the component doesn't use them.
+	 *  If the partNumber is non-zero, or we are applying a part-based animation, the part suffix is added to the variable.
+	 *  Otherwise, as we don't pass-in the part, it will assume it's a vehicle variable.  Variables are cached per instrument
+	 *  and part number to avoid re-creating the suffixed strings every frame.
+	 */
+	static String[] getComponentVariables(ItemInstrument instrument, byte partNumber){
+		if(!instrumentVariables.containsKey(instrument)){
+			instrumentVariables.put(instrument, new HashMap<Byte, String[]>());
+		}
+		Map<Byte, String[]> partVariables = instrumentVariables.get(instrument);
+		if(!partVariables.containsKey(partNumber)){
+			String[] variables = new String[2*instrument.definition.components.size()];
+			byte suffixNumber = partNumber;
+			for(byte i=0; i<instrument.definition.components.size(); ++i){
+				Component section = instrument.definition.components.get(i);
+				//We need to set the partNumber to 1 if we have a part number of 0 and we're
+				//doing a part-specific animation.
+				final boolean addRotationSuffix = section.rotationVariable != null && (section.rotationVariable.startsWith("engine_") || section.rotationVariable.startsWith("propeller_") || section.rotationVariable.startsWith("gun_"));
+				final boolean addTranslationSuffix = section.translationVariable != null && (section.translationVariable.startsWith("engine_") || section.translationVariable.startsWith("propeller_") || section.translationVariable.startsWith("gun_"));
+				if(suffixNumber == 0 && (addRotationSuffix || addTranslationSuffix)){
+					suffixNumber = 1;
+				}
+				variables[2*i] = addRotationSuffix ? section.rotationVariable + "_" + suffixNumber : section.rotationVariable;
+				variables[2*i + 1] = addTranslationSuffix ? section.translationVariable + "_" + suffixNumber : section.translationVariable;
+			}
+			partVariables.put(partNumber, variables);
+		}
+		return partVariables.get(partNumber);
+	}
+	
+	/**
+	 *  Gets the current values for all components of the passed-in instrument and stores them in the passed-in array.
+	 *  The array has the same layout as the one returned from {@link #getComponentVariables(ItemInstrument, byte)}.
+	 */
+	static void getComponentValues(ItemInstrument instrument, String[] variables, EntityVehicleE_Powered vehicle, float[] values){
+		for(byte i=0; i<instrument.definition.components.size(); ++i){
+			Component section = instrument.definition.components.get(i);
+			values[2*i] = section.rotationVariable != null ? (float) RenderAnimations.getVariableValue(variables[2*i], section.rotationFactor, section.rotationOffset, section.rotationClampMin, section.rotationClampMax, 0, vehicle, null) : 0;
+			values[2*i + 1] = section.translationVariable != null ? (float) RenderAnimations.getVariableValue(variables[2*i + 1], section.translationFactor, 0, section.translationClampMin, section.translationClampMax, 0, vehicle, null) : 0;
+		}
+	}
+	
+	/**
+	 *  Renders all components of the passed-in instrument using the passed-in component values.  The instrument texture
+	 *  should be bound prior to calling this method.  If toggleLightmap is true, the lightmap will be disabled if the lights
+	 *  are on, and enabled if they are off.  Otherwise the lightmap state is left as-is.
+	 */
+	static void renderComponents(ItemInstrument instrument, float[] values, boolean lightsOn, boolean toggleLightmap){
 		for(byte i=0; i<instrument.definition.components.size(); ++i){
 			Component section = instrument.definition.components.get(i);
 			GL11.glPushMatrix();
@@ -45,24 +123,14 @@ public final class RenderInstrument{
 			GL11.glTranslatef(section.xCenter, section.yCenter, i*0.1F);
 			
 			//If the vehicle lights are on, disable the lightmap.
-			if(lightsOn){
-				Minecraft.getMinecraft().entityRenderer.disableLightmap();
-			}else{
-				Minecraft.getMinecraft().entityRenderer.enableLightmap();
-			}
-			
-			//If the partNumber is non-zero, we need to check if we are applying a part-based animation.
-			//If so, we need to let the animation system know by adding a suffix to the variable.
-			//Otherwise, as we don't pass-in the part, it will assume it's a vehicle variable.
-			//We also need to set the partNumber to 1 if we have a part number of 0 and we're
-			//doing a part-specific animation.
-			final boolean addRotationSuffix = section.rotationVariable != null && (section.rotationVariable.startsWith("engine_") || section.rotationVariable.startsWith("propeller_") || section.rotationVariable.startsWith("gun_"));
-			final boolean addTranslationSuffix = section.translationVariable != null && (section.translationVariable.startsWith("engine_") || section.translationVariable.startsWith("propeller_") || section.translationVariable.startsWith("gun_"));
-			if(partNumber == 0 && (addRotationSuffix || addTranslationSuffix)){
-				partNumber = 1;
+			if(toggleLightmap){
+				if(lightsOn){
+					Minecraft.getMinecraft().entityRenderer.disableLightmap();
+				}else{
+					Minecraft.getMinecraft().entityRenderer.enableLightmap();
+				}
 			}
 			
-			
 			//Init variables.
 			float layerUStart;
 			float layerUEnd;
@@ -73,7 +141,7 @@ public final class RenderInstrument{
 			//If we are rotating the window, but not the texture we should initialize the texture points to that rotated point.
 			//Otherwise, set the points to their normal location.
 			if(section.rotationVariable != null && section.rotateWindow){
-				double rotation = RenderAnimations.getVariableValue(addRotationSuffix ? section.rotationVariable + "_" + partNumber : section.rotationVariable, section.rotationFactor, section.rotationOffset, section.rotationClampMin, section.rotationClampMax, 0, vehicle, null);
+				double rotation = values[2*i];
 				double sin = Math.sin(Math.toRadians(rotation));
 				double cos = Math.sin(Math.toRadians(rotation));
 				layerUStart = (float) ((-section.textureWidth/2F)*cos - (-section.textureHeight/2F)*sin);
@@ -90,7 +158,7 @@ public final class RenderInstrument{
 			//If we are translating, offset the coords based on the translated amount.
 			//Adjust the window to either move or scale depending on settings.
 			if(section.translationVariable != null){
-				double translation = RenderAnimations.getVariableValue(addTranslationSuffix ? section.translationVariable + "_" + partNumber : section.translationVariable, section.translationFactor, 0, section.translationClampMin, section.translationClampMax, 0, vehicle, null);
+				double translation = values[2*i + 1];
 				if(section.extendWindow){
 					//We need to add to the edge of the window in this case rather than move the entire window.
 					if(section.translateHorizontal){
@@ -112,8 +180,7 @@ public final class RenderInstrument{
 			
 			//If we are rotating the texture, and not the window, apply the rotation here after the translation.
 			if(section.rotationVariable != null && !section.rotateWindow){
-				double rotation = RenderAnimations.getVariableValue(addRotationSuffix ? section.rotationVariable + "_" + partNumber : section.rotationVariable, section.rotationFactor, section.rotationOffset, section.rotationClampMin, section.rotationClampMax, 0, vehicle, null);
-				GL11.glRotated(rotation, 0, 0, 1);
+				GL11.glRotated(values[2*i], 0, 0, 1);
 			}
 			
 			//Now that all transforms are done, render the instrument shape.
@@ -129,18 +196,13 @@ public final class RenderInstrument{
 			}
 			GL11.glPopMatrix();
 		}
-		
-		//Reset lightmap if we had previously disabled it.
-		if(lightsOn){
-			Minecraft.getMinecraft().entityRenderer.enableLightmap();
-		}
 	}
 	
     /**
      * Renders a textured quad from the current bound texture of a specific width and height.
      * Used for rendering instrument textures off their texture sheets.
      */
-	private static void renderSquareUV(float width, float height, float u, float U, float v, float V){
+	static void renderSquareUV(float width, float height, float u, float U, float v, float V){
 		GL11.glBegin(GL11.GL_QUADS);
 		GL11.glTexCoord2f(u, v);
 		GL11.glNormal3f(0, 0, 1);
@@ -0,0 +1,249 @@
+package minecrafttransportsimulator.rendering.vehicles;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+
+import minecrafttransportsimulator.items.packs.ItemInstrument;
+import minecrafttransportsimulator.jsondefs.JSONInstrument.Component;
+import minecrafttransportsimulator.systems.ConfigSystem;
+import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.OpenGlHelper;
+import net.minecraft.client.shader.Framebuffer;
+
+/**Render-to-texture cache for instruments.  Every instrument in a vehicle's instrument slots gets a cell in a
+ * shared framebuffer atlas.  The instrument is only re-rendered into its cell when its quantized component values,
+ * or the vehicle's lighting state, change.  Both the vehicle model and the HUD then draw the instrument as a single
+ * textured quad from the atlas.  If framebuffers are not supported, or the atlas is disabled in the config, this
+ * class falls back to {@link RenderInstrument#drawInstrument(ItemInstrument, byte, EntityVehicleE_Powered)}.
+ *
+ * @author don_bruce
+ */
+public final class RenderInstrumentAtlas{
+	private static final Minecraft minecraft = Minecraft.getMinecraft();
+	private static final int ATLAS_SIZE = 2048;
+	private static final int CELL_SIZE = 256;
+	private static final int CELLS_PER_ROW = ATLAS_SIZE/CELL_SIZE;
+	/**Steps values are quantized to.  Changes smaller than this won't cause a re-render of the cell.**/
+	private static final float ROTATION_STEP = 0.25F;
+	private static final float TRANSLATION_STEP = 0.25F;
+
+	private static Framebuffer atlas;
+	private static final InstrumentCell[] cells = new InstrumentCell[CELLS_PER_ROW*CELLS_PER_ROW];
+	/**Cells for each vehicle.  Weak keys so vehicles that are unloaded without dying don't stay in memory with their worlds.**/
+	private static final Map<EntityVehicleE_Powered, InstrumentCell[]> vehicleCells = new WeakHashMap<EntityVehicleE_Powered, InstrumentCell[]>();
+
+	/**
+	 *  Draws the instrument in the passed-in slot of the passed-in vehicle.  Like {@link RenderInstrument#drawInstrument(ItemInstrument, byte, EntityVehicleE_Powered)},
+	 *  any transformations for translation or scaling should be applied prior to calling this method.  The instrument
+	 *  is re-rendered into its atlas cell if required, and then drawn as a single quad from the atlas.
+	 */
+	public static void drawInstrument(EntityVehicleE_Powered vehicle, byte instrumentIndex){
+		ItemInstrument instrument = vehicle.instruments.get(instrumentIndex);
+		byte partNumber = vehicle.definition.motorized.instruments.get(instrumentIndex).optionalPartNumber;
+		if(!ConfigSystem.configObject.client.instrumentAtlas.value || !OpenGlHelper.isFramebufferEnabled()){
+			RenderInstrument.drawInstrument(instrument, partNumber, vehicle);
+			return;
+		}
+
+		//Get the cell for this instrument.  If we can't get one, the atlas is full, so render the instrument directly.
+		InstrumentCell cell = getCell(vehicle, instrumentIndex, instrument, partNumber);
+		if(cell == null){
+			RenderInstrument.drawInstrument(instrument, partNumber, vehicle);
+			return;
+		}
+
+		//Get the current values and quantize them.  If they differ from what's in the cell, re-render it.
+		boolean lightsOn = RenderVehicle.isVehicleIlluminated(vehicle);
+		RenderInstrument.getComponentValues(instrument, cell.variables, vehicle, cell.currentValues);
+		boolean valuesChanged = !cell.rendered || cell.lightsOn != lightsOn;
+		for(int i=0; i<cell.currentValues.length; ++i){
+			float step = i%2 == 0 ? ROTATION_STEP : TRANSLATION_STEP;
+			cell.currentValues[i] = Math.round(cell.currentValues[i]/step)*step;
+			if(cell.currentValues[i] != cell.renderedValues[i]){
+				valuesChanged = true;
+			}
+		}
+		if(valuesChanged){
+			renderCell(cell, lightsOn);
+		}
+
+		//Now draw the cell from the atlas.  If the vehicle lights are on, disable the lightmap.
+		//Texture V values are inverted as framebuffers are stored bottom-up.
+		if(lightsOn){
+			minecraft.entityRenderer.disableLightmap();
+		}else{
+			minecraft.entityRenderer.enableLightmap();
+		}
+		atlas.bindFramebufferTexture();
+		GL11.glEnable(GL11.GL_BLEND);
+		GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+		RenderInstrument.renderSquareUV(2*cell.halfSize, 2*cell.halfSize, cell.cellX/(float) ATLAS_SIZE, (cell.cellX + CELL_SIZE)/(float) ATLAS_SIZE, (cell.cellY + CELL_SIZE)/(float) ATLAS_SIZE, cell.cellY/(float) ATLAS_SIZE);
+		GL11.glDisable(GL11.GL_BLEND);
+		if(lightsOn){
+			minecraft.entityRenderer.enableLightmap();
+		}
+	}
+
+	/**
+	 *  Clears all cells in the atlas.  Used when the world is unloaded, and in dev mode when instruments are re-loaded.
+	 */
+	public static void clearCaches(){
+		for(int i=0; i<cells.length; ++i){
+			cells[i] = null;
+		}
+		vehicleCells.clear();
+	}
+
+	/**
+	 *  Returns the cell for the passed-in instrument, allocating a new one if required.
+	 *  Returns null if all cells are in use this tick.
+	 */
+	private static InstrumentCell getCell(EntityVehicleE_Powered vehicle, byte instrumentIndex, ItemInstrument instrument, byte partNumber){
+		long currentTick = vehicle.world.getTotalWorldTime();
+		InstrumentCell[] instrumentCells = vehicleCells.get(vehicle);
+		if(instrumentCells == null){
+			instrumentCells = new InstrumentCell[vehicle.definition.motorized.instruments.size()];
+			vehicleCells.put(vehicle, instrumentCells);
+		}
+
+		//If we have a cell, make sure it's still ours and for the same instrument.
+		//It may have been given to another instrument, or the instrument in the slot may have changed.
+		InstrumentCell cell = instrumentCells[instrumentIndex];
+		if(cell != null && cells[cell.index] == cell && cell.instrument.equals(instrument)){
+			cell.lastUsedTick = currentTick;
+			return cell;
+		}
+
+		//Need a new cell.  Use a free one if we have it, otherwise take the one that's been unused the longest.
+		int freeIndex = -1;
+		long oldestTick = currentTick;
+		for(int i=0; i<cells.length; ++i){
+			if(cells[i] == null){
+				freeIndex = i;
+				break;
+			}else if(cells[i].lastUsedTick < oldestTick){
+				freeIndex = i;
+				oldestTick = cells[i].lastUsedTick;
+			}
+		}
+		if(freeIndex == -1){
+			return null;
+		}
+
+		//If we are taking a cell from a vehicle that's gone, remove it from the map.
+		if(cells[freeIndex] != null){
+			Iterator<EntityVehicleE_Powered> iterator = vehicleCells.keySet().iterator();
+			while(iterator.hasNext()){
+				if(iterator.next().isDead){
+					iterator.remove();
+				}
+			}
+		}
+		cell = new InstrumentCell(freeIndex, instrument, RenderInstrument.getComponentVariables(instrument, partNumber));
+		cell.lastUsedTick = currentTick;
+		cells[freeIndex] = cell;
+		instrumentCells[instrumentIndex] = cell;
+		return cell;
+	}
+
+	/**
+	 *  Renders the instrument in the passed-in cell into the atlas using the cell's current values.
+	 *  All matrix, viewport, and framebuffer states are restored after rendering.
+	 */
+	private static void renderCell(InstrumentCell cell, boolean lightsOn){
+		int priorFramebuffer = GL11.glGetInteger(GL30.GL_FRAMEBUFFER_BINDING);
+		if(atlas == null){
+			atlas = new Framebuffer(ATLAS_SIZE, ATLAS_SIZE, false);
+			atlas.setFramebufferColor(0, 0, 0, 0);
+			atlas.setFramebufferFilter(GL11.GL_LINEAR);
+		}
+
+		//Disable the lightmap prior to saving states, as it's not saved by the attribute stack.
+		minecraft.entityRenderer.disableLightmap();
+		GL11.glPushAttrib(GL11.GL_ENABLE_BIT | GL11.GL_COLOR_BUFFER_BIT | GL11.GL_VIEWPORT_BIT | GL11.GL_SCISSOR_BIT);
+		atlas.bindFramebuffer(false);
+
+		//Clear only our cell, and set the viewport to it.
+		GL11.glViewport(cell.cellX, cell.cellY, CELL_SIZE, CELL_SIZE);
+		GL11.glEnable(GL11.GL_SCISSOR_TEST);
+		GL11.glScissor(cell.cellX, cell.cellY, CELL_SIZE, CELL_SIZE);
+		GL11.glClearColor(0, 0, 0, 0);
+		GL11.glClear(GL11.GL_COLOR_BUFFER_BIT);
+		GL11.glDisable(GL11.GL_SCISSOR_TEST);
+
+		//Set up an orthographic projection that covers the instrument, using the same
+		//Y-down coordinate system that instruments are defined in.
+		GL11.glMatrixMode(GL11.GL_PROJECTION);
+		GL11.glPushMatrix();
+		GL11.glLoadIdentity();
+		GL11.glOrtho(-cell.halfSize, cell.halfSize, cell.halfSize, -cell.halfSize, -100, 100);
+		GL11.glMatrixMode(GL11.GL_MODELVIEW);
+		GL11.glPushMatrix();
+		GL11.glLoadIdentity();
+
+		//Render the instrument.  Lighting is applied when the cell is drawn, not here.
+		GL11.glDisable(GL11.GL_LIGHTING);
+		GL11.glDisable(GL11.GL_DEPTH_TEST);
+		GL11.glDisable(GL11.GL_FOG);
+		GL11.glDisable(GL11.GL_CULL_FACE);
+		GL11.glColor4f(1, 1, 1, 1);
+		RenderInstrument.bindInstrumentTexture(cell.instrument);
+		RenderInstrument.renderComponents(cell.instrument, cell.currentValues, lightsOn, false);
+
+		//Restore states.
+		GL11.glMatrixMode(GL11.GL_PROJECTION);
+		GL11.glPopMatrix();
+		GL11.glMatrixMode(GL11.GL_MODELVIEW);
+		GL11.glPopMatrix();
+		OpenGlHelper.glBindFramebuffer(OpenGlHelper.GL_FRAMEBUFFER, priorFramebuffer);
+		GL11.glPopAttrib();
+
+		//Save the values we rendered with.
+		System.arraycopy(cell.currentValues, 0, cell.renderedValues, 0, cell.currentValues.length);
+		cell.lightsOn = lightsOn;
+		cell.rendered = true;
+	}
+
+	private static final class InstrumentCell{
+		private final int index;
+		private final int cellX;
+		private final int cellY;
+		private final ItemInstrument instrument;
+		private final String[] variables;
+		private final float halfSize;
+		private final float[] currentValues;
+		private final float[] renderedValues;
+		private boolean lightsOn;
+		private boolean rendered;
+		private long lastUsedTick;
+
+		private InstrumentCell(int index, ItemInstrument instrument, String[] variables){
+			this.index = index;
+			this.cellX = (index%CELLS_PER_ROW)*CELL_SIZE;
+			this.cellY = (index/CELLS_PER_ROW)*CELL_SIZE;
+			this.instrument = instrument;
+			this.variables = variables;
+			this.currentValues = new float[variables.length];
+			this.renderedValues = new float[variables.length];
+
+			//The cell needs to cover the furthest extent of any component.
+			//Components that rotate their shape can extend to their diagonal.
+			float maxExtent = 1;
+			for(Component section : instrument.definition.components){
+				float extentX = section.textureWidth/2F;
+				float extentY = section.textureHeight/2F;
+				if(section.rotationVariable != null && !section.rotateWindow){
+					extentX = (float) Math.hypot(section.textureWidth, section.textureHeight)/2F;
+					extentY = extentX;
+				}
+				maxExtent = Math.max(maxExtent, Math.max(Math.abs(section.xCenter) + extentX, Math.abs(section.yCenter) + extentY));
+			}
+			this.halfSize = maxExtent;
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package minecrafttransportsimulator.rendering.vehicles;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+
+import minecrafttransportsimulator.MTS;
+import minecrafttransportsimulator.systems.ClientEventSystem;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.client.event.RenderWorldLastEvent;
+
+/**This class contains the cached geometry for light beams on vehicles and poles.  Beam cones are
+ * built once into a unit-sized displayList and scaled when rendered.  Beams are not rendered when
+ * requested.  Rather, they are queued with the current transform and rendered all at once in a single
+ * blended pass, sorted back-to-front by distance, from {@link ClientEventSystem#on(RenderWorldLastEvent)}.  The queue re-uses its entries between frames,
+ * so queuing beams doesn't allocate anything once the queue has grown to size.
+ *
+ * @author don_bruce
+ */
+public final class RenderLightGeometry{
+	private static final ResourceLocation lightBeamTexture = new ResourceLocation(MTS.MODID, "textures/rendering/lightbeam.png");
+	/**Number of segments in the beam cones.**/
+	private static final int BEAM_SEGMENTS = 40;
+
+	private static int beamDisplayList = -1;
+
+	private static final List<QueuedBeam> beamQueue = new ArrayList<QueuedBeam>();
+	private static int queuedBeams = 0;
+
+	/**
+	 *  Queues a beam to be rendered at the current transform.  The beam is a cone with a
+	 *  radius of radius, and a length of length, that starts at the origin and points in +Z.
+	 *  Beams are rendered with {@link #renderBeams()} at the end of the frame.
+	 */
+	public static void queueBeam(float radius, float length, float alphaValue){
+		if(queuedBeams == beamQueue.size()){
+			beamQueue.add(new QueuedBeam());
+		}
+		QueuedBeam beam = beamQueue.get(queuedBeams++);
+		beam.transform.clear();
+		GL11.glGetFloat(GL11.GL_MODELVIEW_MATRIX, beam.transform);
+		beam.radius = radius;
+		beam.length = length;
+		beam.alphaValue = alphaValue;
+		//Distance is from the camera, which is the origin of the modelview matrix.
+		beam.distance = beam.transform.get(12)*beam.transform.get(12) + beam.transform.get(13)*beam.transform.get(13) + beam.transform.get(14)*beam.transform.get(14);
+	}
+
+	/**
+	 *  Renders all queued beams in one pass and clears the queue.  Beams are sorted so the furthest
+	 *  beam is rendered first.  This should be called once per frame after all lights have been rendered.
+	 */
+	public static void renderBeams(){
+		if(queuedBeams == 0){
+			return;
+		}
+
+		//Sort beams by distance, furthest first.  Insertion sort is used as it doesn't allocate
+		//and the beams are mostly in the same order frame-to-frame.
+		for(int i=1; i<queuedBeams; ++i){
+			QueuedBeam beam = beamQueue.get(i);
+			int j = i - 1;
+			while(j >= 0 && beamQueue.get(j).distance < beam.distance){
+				beamQueue.set(j + 1, beamQueue.get(j));
+				--j;
+			}
+			beamQueue.set(j + 1, beam);
+		}
+
+		if(beamDisplayList == -1){
+			beamDisplayList = createBeamDisplayList();
+		}
+		Minecraft.getMinecraft().entityRenderer.disableLightmap();
+		Minecraft.getMinecraft().getTextureManager().bindTexture(lightBeamTexture);
+		GL11.glPushMatrix();
+		GL11.glDisable(GL11.GL_LIGHTING);
+		GL11.glEnable(GL11.GL_BLEND);
+		//Allows making things brighter by using alpha blending.
+		GL11.glDepthMask(false);
+		GL11.glBlendFunc(GL11.GL_DST_COLOR, GL11.GL_SRC_ALPHA);
+		for(int i=0; i<queuedBeams; ++i){
+			QueuedBeam beam = beamQueue.get(i);
+			GL11.glLoadMatrix(beam.transform);
+			GL11.glScalef(beam.radius, beam.radius, beam.length);
+			GL11.glColor4f(1, 1, 1, beam.alphaValue);
+			GL11.glCallList(beamDisplayList);
+		}
+		GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+		GL11.glDepthMask(true);
+		GL11.glDisable(GL11.GL_BLEND);
+		GL11.glPopMatrix();
+		GL11.glEnable(GL11.GL_LIGHTING);
+		GL11.glColor4f(1, 1, 1, 1);
+		Minecraft.getMinecraft().entityRenderer.enableLightmap();
+		queuedBeams = 0;
+	}
+
+	/**
+	 *  Creates the displayList for the beam.  The beam is made of three front-facing unit
+	 *  cones and one back-facing unit cone.  The cones have a radius and length of 1.
+	 */
+	private static int createBeamDisplayList(){
+		int displayListIndex = GL11.glGenLists(1);
+		GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
+		for(byte j=0; j<=2; ++j){
+			drawUnitCone(false);
+		}
+		drawUnitCone(true);
+		GL11.glEndList();
+		return displayListIndex;
+	}
+
+	/**
+	 *  Helper method to draw a unit cone for the beam rendering.
+	 */
+	private static void drawUnitCone(boolean reverse){
+		GL11.glBegin(GL11.GL_TRIANGLE_FAN);
+		GL11.glTexCoord2f(0, 0);
+		GL11.glVertex3d(0, 0, 0);
+		if(reverse){
+			for(float theta=0; theta < 2*Math.PI + 0.1; theta += 2F*Math.PI/BEAM_SEGMENTS){
+				GL11.glTexCoord2f(theta, 1);
+				GL11.glVertex3d(Math.cos(theta), Math.sin(theta), 1);
+			}
+		}else{
+			for(float theta=(float) (2*Math.PI); theta>=0 - 0.1; theta -= 2F*Math.PI/BEAM_SEGMENTS){
+				GL11.glTexCoord2f(theta, 1);
+				GL11.glVertex3d(Math.cos(theta), Math.sin(theta), 1);
+			}
+		}
+		GL11.glEnd();
+	}
+
+	private static final class QueuedBeam{
+		private final FloatBuffer transform = BufferUtils.createFloatBuffer(16);
+		private float radius;
+		private float length;
+		private float alphaValue;
+		private float distance;
+	}
+}
@@ -0,0 +1,217 @@
+package minecrafttransportsimulator.rendering.vehicles;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import minecrafttransportsimulator.MTS;
+import minecrafttransportsimulator.systems.ConfigSystem;
+import minecrafttransportsimulator.systems.OBJModelRepository;
+import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
+import net.minecraft.client.Minecraft;
+
+/**Profiler for vehicle rendering.  When enabled in the config, the time spent in each {@link Stage} of
+ * {@link RenderVehicle} is recorded per-vehicle into a ring buffer of the last {@link #FRAMES} frames.
+ * Times are taken with {@link System#nanoTime()} and stored in primitive arrays, so recording doesn't
+ * allocate anything once a vehicle has a profile.  Averages are shown in an overlay, and the buffer is
+ * written to a CSV file in the game folder when the profiler is turned off.
+ *
+ * @author don_bruce
+ */
+public final class RenderProfiler{
+	private static final Minecraft minecraft = Minecraft.getMinecraft();
+	/**Number of frames kept in the ring buffer.**/
+	private static final int FRAMES = 128;
+	private static final int STAGES = Stage.values().length;
+	/**Number of vehicles to show in the overlay.**/
+	private static final int OVERLAY_VEHICLES = 5;
+
+	private static final Map<EntityVehicleE_Powered, VehicleProfile> profiles = new HashMap<EntityVehicleE_Powered, VehicleProfile>();
+	private static final long[] stageStarts = new long[STAGES];
+	private static int frameIndex;
+	private static int framesRecorded;
+	private static boolean enabled;
+
+	/**
+	 *  Marks the start of the passed-in stage.  Does nothing if the profiler is disabled.
+	 */
+	public static void startStage(Stage stage){
+		if(enabled){
+			stageStarts[stage.ordinal()] = System.nanoTime();
+		}
+	}
+
+	/**
+	 *  Marks the end of the passed-in stage, and adds the time since {@link #startStage(Stage)}
+	 *  to the current frame of the vehicle's profile.  Does nothing if the profiler is disabled.
+	 */
+	public static void endStage(EntityVehicleE_Powered vehicle, Stage stage){
+		if(enabled){
+			long time = System.nanoTime() - stageStarts[stage.ordinal()];
+			VehicleProfile profile = profiles.get(vehicle);
+			if(profile == null){
+				profile = new VehicleProfile(vehicle);
+				profiles.put(vehicle, profile);
+			}
+			profile.times[frameIndex*STAGES + stage.ordinal()] += time;
+		}
+	}
+
+	/**
+	 *  Ends the current frame and advances the ring buffer.  This should be called once per frame
+	 *  after all vehicles have rendered.  The config state is checked here, so the profiler is only
+	 *  ever turned on or off between frames.  If the profiler was just turned off, the CSV file is written.
+	 */
+	public static void endFrame(){
+		if(enabled){
+			frameIndex = (frameIndex + 1)%FRAMES;
+			if(framesRecorded < FRAMES - 1){
+				++framesRecorded;
+			}
+
+			//Clear the new frame for all vehicles, and remove any vehicles that are gone.
+			Iterator<VehicleProfile> iterator = profiles.values().iterator();
+			while(iterator.hasNext()){
+				VehicleProfile profile = iterator.next();
+				if(profile.vehicle.isDead){
+					iterator.remove();
+				}else{
+					for(int i=0; i<STAGES; ++i){
+						profile.times[frameIndex*STAGES + i] = 0;
+					}
+				}
+			}
+		}
+
+		boolean wasEnabled = enabled;
+		enabled = ConfigSystem.configObject.client.renderProfiler.value;
+		if(wasEnabled && !enabled){
+			writeCSV();
+			profiles.clear();
+			frameIndex = 0;
+			framesRecorded = 0;
+		}
+	}
+
+	/**
+	 *  Renders the profiler overlay in the top-left of the screen.  This shows the average time
+	 *  for each stage for all vehicles, the total average time for the most expensive vehicles,
+	 *  and the stats of the {@link OBJModelRepository}.
+	 */
+	public static void renderOverlay(){
+		if(!enabled || framesRecorded == 0){
+			return;
+		}
+
+		//Get the total for all vehicles, and find the most expensive ones.
+		long[] stageTotals = new long[STAGES];
+		VehicleProfile[] topProfiles = new VehicleProfile[OVERLAY_VEHICLES];
+		long[] topTotals = new long[OVERLAY_VEHICLES];
+		for(VehicleProfile profile : profiles.values()){
+			long vehicleTotal = 0;
+			for(int i=0; i<framesRecorded; ++i){
+				int frame = getRecordedFrame(i);
+				for(int j=0; j<STAGES; ++j){
+					stageTotals[j] += profile.times[frame*STAGES + j];
+					vehicleTotal += profile.times[frame*STAGES + j];
+				}
+			}
+			for(int i=0; i<OVERLAY_VEHICLES; ++i){
+				if(topProfiles[i] == null || vehicleTotal > topTotals[i]){
+					for(int j=OVERLAY_VEHICLES - 1; j>i; --j){
+						topProfiles[j] = topProfiles[j - 1];
+						topTotals[j] = topTotals[j - 1];
+					}
+					topProfiles[i] = profile;
+					topTotals[i] = vehicleTotal;
+					break;
+				}
+			}
+		}
+
+		//Now render the text.  Times are averaged over the recorded frames and shown in microseconds.
+		int lineY = 2;
+		minecraft.fontRenderer.drawStringWithShadow("MTS render profile (us/frame, " + framesRecorded + " frames, " + profiles.size() + " vehicles)", 2, lineY, 0xFFFFFF);
+		for(Stage stage : Stage.values()){
+			lineY += 10;
+			minecraft.fontRenderer.drawStringWithShadow(stage.name().toLowerCase() + ": " + getAverageMicros(stageTotals[stage.ordinal()]), 2, lineY, 0xFFFFFF);
+		}
+		for(int i=0; i<OVERLAY_VEHICLES && topProfiles[i] != null; ++i){
+			lineY += 10;
+			minecraft.fontRenderer.drawStringWithShadow(topProfiles[i].name + ": " + getAverageMicros(topTotals[i]), 2, lineY, 0xFFFF00);
+		}
+		lineY += 10;
+		minecraft.fontRenderer.drawStringWithShadow(OBJModelRepository.getStats(), 2, lineY, 0x00FFFF);
+	}
+
+	/**
+	 *  Writes the ring buffer to a CSV file in the game folder.  One line is written for every
+	 *  vehicle for every recorded frame, oldest frames first.  Times are in nanoseconds.
+	 */
+	private static void writeCSV(){
+		File outputFile = new File(MTS.minecraftDir, "mts_renderprofile_" + System.currentTimeMillis() + ".csv");
+		try{
+			FileWriter writer = new FileWriter(outputFile);
+			writer.write("frame,vehicle");
+			for(Stage stage : Stage.values()){
+				writer.write("," + stage.name().toLowerCase());
+			}
+			writer.write("\n");
+			for(int i=0; i<framesRecorded; ++i){
+				int frame = getRecordedFrame(i);
+				for(Entry<EntityVehicleE_Powered, VehicleProfile> profileEntry : profiles.entrySet()){
+					writer.write(i + "," + profileEntry.getValue().name);
+					for(int j=0; j<STAGES; ++j){
+						writer.write("," + profileEntry.getValue().times[frame*STAGES + j]);
+					}
+					writer.write("\n");
+				}
+			}
+			writer.close();
+			MTS.MTSLog.info("Wrote MTS render profile to " + outputFile.getAbsolutePath());
+		}catch(IOException e){
+			MTS.MTSLog.error("ERROR: Could not write MTS render profile to " + outputFile.getAbsolutePath());
+			MTS.MTSLog.error(e.getMessage());
+		}
+	}
+
+	/**
+	 *  Returns the ring buffer index of the passed-in completed frame, where 0 is the oldest frame.
+	 *  The current frame is still being recorded, so it's never returned.
+	 */
+	private static int getRecordedFrame(int frame){
+		return (frameIndex - framesRecorded + frame + FRAMES)%FRAMES;
+	}
+
+	private static long getAverageMicros(long totalNanos){
+		return totalNanos/framesRecorded/1000;
+	}
+
+	/**Stages of vehicle rendering that are profiled.**/
+	public enum Stage{
+		MODELS,
+		ROTATABLES,
+		TRANSLATABLES,
+		WINDOWS,
+		LIGHTS,
+		INSTRUMENTS,
+		TREADS,
+		SOUNDS,
+		FX;
+	}
+
+	private static final class VehicleProfile{
+		private final String name;
+		private final long[] times = new long[FRAMES*STAGES];
+		private final EntityVehicleE_Powered vehicle;
+
+		private VehicleProfile(EntityVehicleE_Powered vehicle){
+			this.vehicle = vehicle;
+			this.name = vehicle.definition.packID + ":" + vehicle.definition.systemName + "#" + vehicle.getEntityId();
+		}
+	}
+}
@@ -10,11 +10,15 @@ import java.util.Map.Entry;
 import org.lwjgl.opengl.GL11;
 
 import minecrafttransportsimulator.baseclasses.VehicleAxisAlignedBB;
+import minecrafttransportsimulator.dataclasses.CompiledVehicleDefinition;
 import minecrafttransportsimulator.items.packs.parts.AItemPart;
 import minecrafttransportsimulator.jsondefs.JSONVehicle.PackInstrument;
 import minecrafttransportsimulator.jsondefs.JSONVehicle.VehicleDisplayText;
 import minecrafttransportsimulator.jsondefs.JSONVehicle.VehiclePart;
+import minecrafttransportsimulator.rendering.vehicles.RenderProfiler.Stage;
 import minecrafttransportsimulator.systems.ClientEventSystem;
+import minecrafttransportsimulator.systems.LoadTimingSystem;
+import minecrafttransportsimulator.systems.OBJModelRepository;
 import minecrafttransportsimulator.systems.OBJParserSystem;
 import minecrafttransportsimulator.systems.RotationSystem;
 import minecrafttransportsimulator.systems.VehicleEffectsSystem.FXPart;
@@ -54,14 +58,15 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 	private static final Map<String, List<RenderVehicle_TranslatablePart>> vehicleTranslatableLists = new HashMap<String, List<RenderVehicle_TranslatablePart>>();
 	private static final Map<String, List<RenderVehicle_LightPart>> vehicleLightLists = new HashMap<String, List<RenderVehicle_LightPart>>();
 	private static final Map<String, List<WindowPart>> vehicleWindowLists = new HashMap<String, List<WindowPart>>();
-	private static final Map<String, List<Float[]>> treadDeltas = new HashMap<String, List<Float[]>>();
-	private static final Map<String, List<Double[]>> treadPoints = new HashMap<String, List<Double[]>>();
+	private static final Map<String, ModelAnimations> vehicleAnimations = new HashMap<String, ModelAnimations>();
+	private static final Map<String, Map<String, RenderVehicle_TreadPath>> vehicleTreadPaths = new HashMap<String, Map<String, RenderVehicle_TreadPath>>();
 	
 	//PART MAPS.  Maps are keyed by the part model location.
 	private static final Map<ResourceLocation, Integer> partDisplayLists = new HashMap<ResourceLocation, Integer>();
 	private static final Map<ResourceLocation, List<RenderVehicle_RotatablePart>> partRotatableLists = new HashMap<ResourceLocation, List<RenderVehicle_RotatablePart>>();
 	private static final Map<ResourceLocation, List<RenderVehicle_TranslatablePart>> partTranslatableLists = new HashMap<ResourceLocation, List<RenderVehicle_TranslatablePart>>();
 	private static final Map<ResourceLocation, List<RenderVehicle_LightPart>> partLightLists = new HashMap<ResourceLocation, List<RenderVehicle_LightPart>>();
+	private static final Map<ResourceLocation, ModelAnimations> partAnimations = new HashMap<ResourceLocation, ModelAnimations>();
 	
 	//COMMON MAPS.  Keyed by systemName.
 	private static final Map<String, ResourceLocation> textureMap = new HashMap<String, ResourceLocation>();
@@ -85,20 +90,67 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 	
 	/**Used to clear out the rendering caches of the passed-in vehicle in dev mode to allow the re-loading of models.**/
 	public static void clearVehicleCaches(EntityVehicleE_Powered vehicle){
-		vehicleDisplayLists.remove(vehicle.definition.genericName);
-		for(RenderVehicle_RotatablePart rotatable : vehicleRotatableLists.get(vehicle.definition.genericName)){
-			rotatable.clearCaches();
+		LoadTimingSystem.Timer timer = LoadTimingSystem.start("devModeReload", vehicle.definition.packID);
+		if(vehicleDisplayLists.containsKey(vehicle.definition.genericName)){
+			GL11.glDeleteLists(vehicleDisplayLists.remove(vehicle.definition.genericName), 1);
+		}
+		if(vehicleModelOverrides.containsKey(vehicle.definition.genericName)){
+			OBJModelRepository.invalidateModel(null, vehicleModelOverrides.get(vehicle.definition.genericName));
+		}
+		OBJModelRepository.invalidateModel(vehicle.definition.packID, "objmodels/vehicles/" + vehicle.definition.genericName + ".obj");
+		if(vehicleRotatableLists.containsKey(vehicle.definition.genericName)){
+			for(RenderVehicle_RotatablePart rotatable : vehicleRotatableLists.remove(vehicle.definition.genericName)){
+				rotatable.clearCaches();
+			}
 		}
-		vehicleRotatableLists.remove(vehicle.definition.genericName);
 		
-		for(RenderVehicle_TranslatablePart translatable : vehicleTranslatableLists.get(vehicle.definition.genericName)){
-			translatable.clearCaches();
+		if(vehicleTranslatableLists.containsKey(vehicle.definition.genericName)){
+			for(RenderVehicle_TranslatablePart translatable : vehicleTranslatableLists.remove(vehicle.definition.genericName)){
+				translatable.clearCaches();
+			}
+		}
+		if(vehicleLightLists.containsKey(vehicle.definition.genericName)){
+			for(RenderVehicle_LightPart lightPart : vehicleLightLists.remove(vehicle.definition.genericName)){
+				lightPart.clearCaches();
+			}
 		}
-		vehicleTranslatableLists.remove(vehicle.definition.genericName);
-		vehicleLightLists.remove(vehicle.definition.genericName);
 		vehicleWindowLists.remove(vehicle.definition.genericName);
-		treadDeltas.remove(vehicle.definition.genericName);
-		treadPoints.remove(vehicle.definition.genericName);
+		vehicleAnimations.remove(vehicle.definition.genericName);
+		if(vehicleTreadPaths.containsKey(vehicle.definition.genericName)){
+			for(RenderVehicle_TreadPath treadPath : vehicleTreadPaths.remove(vehicle.definition.genericName).values()){
+				treadPath.clearCaches();
+			}
+		}
+		for(APart part : vehicle.getVehicleParts()){
+			if(part instanceof PartGroundDeviceTread){
+				OBJModelRepository.invalidateModel(part.getModelLocation().getResourceDomain(), part.getModelLocation().getResourcePath());
+			}
+		}
+		timer.stop();
+	}
+	
+	/**Used to clear out the rendering caches of the passed-in part model in dev mode to allow the re-loading of models.**/
+	public static void clearPartCaches(ResourceLocation partModelLocation){
+		if(partDisplayLists.containsKey(partModelLocation)){
+			GL11.glDeleteLists(partDisplayLists.remove(partModelLocation), 1);
+		}
+		if(partRotatableLists.containsKey(partModelLocation)){
+			for(RenderVehicle_RotatablePart rotatable : partRotatableLists.remove(partModelLocation)){
+				rotatable.clearCaches();
+			}
+		}
+		if(partTranslatableLists.containsKey(partModelLocation)){
+			for(RenderVehicle_TranslatablePart translatable : partTranslatableLists.remove(partModelLocation)){
+				translatable.clearCaches();
+			}
+		}
+		if(partLightLists.containsKey(partModelLocation)){
+			for(RenderVehicle_LightPart lightPart : partLightLists.remove(partModelLocation)){
+				lightPart.clearCaches();
+			}
+		}
+		partAnimations.remove(partModelLocation);
+		OBJModelRepository.invalidateModel(partModelLocation.getResourceDomain(), partModelLocation.getResourcePath());
 	}
 	
 	/**
@@ -242,10 +294,14 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 			renderMainModel(vehicle, partialTicks);
 			renderParts(vehicle, partialTicks);
 			GL11.glEnable(GL11.GL_NORMALIZE);
+			RenderProfiler.startStage(Stage.WINDOWS);
 			renderWindows(vehicle, partialTicks);
+			RenderProfiler.endStage(vehicle, Stage.WINDOWS);
 			GL11.glDisable(GL11.GL_NORMALIZE);
 			renderTextMarkings(vehicle);
+			RenderProfiler.startStage(Stage.INSTRUMENTS);
 			renderInstruments(vehicle);
+			RenderProfiler.endStage(vehicle, Stage.INSTRUMENTS);
 			GL11.glShadeModel(GL11.GL_FLAT);
 			GL11.glPopMatrix();
 			
@@ -277,7 +333,9 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 	        GL11.glRotated(rotateYaw, 0, 1, 0);
 	        GL11.glRotated(rotatePitch, 1, 0, 0);
 	        GL11.glRotated(rotateRoll, 0, 0, 1);
+	        RenderProfiler.startStage(Stage.LIGHTS);
 	        renderLights(vehicle, wasRenderedPrior, partialTicks);
+	        RenderProfiler.endStage(vehicle, Stage.LIGHTS);
 			GL11.glDisable(GL11.GL_NORMALIZE);
 			GL11.glPopMatrix();
 		}
@@ -299,13 +357,17 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 		
 		//Update SFX, but only once per render cycle.
 		if(MinecraftForgeClient.getRenderPass() == -1){
+			RenderProfiler.startStage(Stage.SOUNDS);
 			VehicleSoundSystem.updateVehicleSounds(vehicle);
+			RenderProfiler.endStage(vehicle, Stage.SOUNDS);
 			if(!minecraft.isGamePaused()){
+				RenderProfiler.startStage(Stage.FX);
 				for(APart part : vehicle.getVehicleParts()){
 					if(part instanceof FXPart){
 						((FXPart) part).spawnParticles();
 					}
 				}
+				RenderProfiler.endStage(vehicle, Stage.FX);
 			}
 		}
 	}
@@ -324,35 +386,34 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 		//Normally we use the pack name, but since all displaylists
 		//are the same for all models, this is more appropriate.
 		if(vehicleDisplayLists.containsKey(vehicle.definition.genericName)){
+			RenderProfiler.startStage(Stage.MODELS);
 			GL11.glCallList(vehicleDisplayLists.get(vehicle.definition.genericName));
+			RenderProfiler.endStage(vehicle, Stage.MODELS);
 			
 			//The display list only renders static parts.  We need to render dynamic ones manually.
 			//If this is a window, don't render it as that gets done all at once later.
 			//First render all rotatable parts.  If they are also translatable, translate first.
-			for(RenderVehicle_RotatablePart rotatable : vehicleRotatableLists.get(vehicle.definition.genericName)){
-				if(!rotatable.name.toLowerCase().contains("window")){
-					GL11.glPushMatrix();
-					if(rotatable.name.contains("%")){
-						for(RenderVehicle_TranslatablePart translatable : vehicleTranslatableLists.get(vehicle.definition.genericName)){
-							if(translatable.name.equals(rotatable.name)){
-								translatable.translate(vehicle, null, partialTicks);
-								break;
-							}
-						}
-					}
-					rotatable.render(vehicle, null, partialTicks);
-					GL11.glPopMatrix();
+			ModelAnimations animations = vehicleAnimations.get(vehicle.definition.genericName);
+			RenderProfiler.startStage(Stage.ROTATABLES);
+			for(int i=0; i<animations.rotatables.size(); ++i){
+				GL11.glPushMatrix();
+				RenderVehicle_TranslatablePart translatable = animations.rotatableTranslatables.get(i);
+				if(translatable != null){
+					translatable.translate(vehicle, null, partialTicks);
 				}
+				animations.rotatables.get(i).render(vehicle, null, partialTicks);
+				GL11.glPopMatrix();
 			}
+			RenderProfiler.endStage(vehicle, Stage.ROTATABLES);
 			
 			//Now render all translatable parts that don't rotate.
-			for(RenderVehicle_TranslatablePart translatable : vehicleTranslatableLists.get(vehicle.definition.genericName)){
-				if(!translatable.name.toLowerCase().contains("window") && !translatable.name.contains("$")){
-					GL11.glPushMatrix();
-					translatable.render(vehicle, null, partialTicks);
-					GL11.glPopMatrix();
-				}
+			RenderProfiler.startStage(Stage.TRANSLATABLES);
+			for(RenderVehicle_TranslatablePart translatable : animations.translatables){
+				GL11.glPushMatrix();
+				translatable.render(vehicle, null, partialTicks);
+				GL11.glPopMatrix();
 			}
+			RenderProfiler.endStage(vehicle, Stage.TRANSLATABLES);
 		}else{
 			List<RenderVehicle_RotatablePart> rotatableParts = new ArrayList<RenderVehicle_RotatablePart>();
 			List<RenderVehicle_TranslatablePart> translatableParts = new ArrayList<RenderVehicle_TranslatablePart>();
@@ -360,16 +421,16 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 			List<WindowPart> windows = new ArrayList<WindowPart>();
 			
 			ResourceLocation vehicleModelLocation = new ResourceLocation(vehicle.definition.packID, "objmodels/vehicles/" + vehicle.definition.genericName + ".obj");
-			Map<String, Float[][]> parsedModel;
+			Map<String, float[]> parsedModel;
 			if(vehicleModelOverrides.containsKey(vehicle.definition.genericName)){
-				parsedModel = OBJParserSystem.parseOBJModel(null, vehicleModelOverrides.get(vehicle.definition.genericName));
+				parsedModel = OBJModelRepository.getModel(null, vehicleModelOverrides.get(vehicle.definition.genericName));
 			}else{
-				parsedModel = OBJParserSystem.parseOBJModel(vehicleModelLocation.getResourceDomain(), vehicleModelLocation.getResourcePath());
+				parsedModel = OBJModelRepository.getModel(vehicleModelLocation.getResourceDomain(), vehicleModelLocation.getResourcePath());
 			}
 			int displayListIndex = GL11.glGenLists(1);
 			GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
 			GL11.glBegin(GL11.GL_TRIANGLES);
-			for(Entry<String, Float[][]> entry : parsedModel.entrySet()){
+			for(Entry<String, float[]> entry : parsedModel.entrySet()){
 				//Don't add rotatable model parts or windows to the display list.
 				//Those go in separate maps, with windows going into both a rotatable and window mapping.
 				//Do add lights, as they will be rendered both as part of the model and with special things.
@@ -399,10 +460,11 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 					shouldShapeBeInDL = false;
 				}
 				if(shouldShapeBeInDL){
-					for(Float[] vertex : entry.getValue()){
-						GL11.glTexCoord2f(vertex[3], vertex[4]);
-						GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-						GL11.glVertex3f(vertex[0], vertex[1], vertex[2]);
+					float[] vertices = entry.getValue();
+					for(int i=0; i<vertices.length; i+=OBJParserSystem.VERTEX_SIZE){
+						GL11.glTexCoord2f(vertices[i + 3], vertices[i + 4]);
+						GL11.glNormal3f(vertices[i + 5], vertices[i + 6], vertices[i + 7]);
+						GL11.glVertex3f(vertices[i], vertices[i + 1], vertices[i + 2]);
 					}
 				}
 			}
@@ -415,6 +477,7 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 			vehicleTranslatableLists.put(vehicle.definition.genericName, translatableParts);
 			vehicleLightLists.put(vehicle.definition.genericName, lightParts);
 			vehicleWindowLists.put(vehicle.definition.genericName, windows);
+			vehicleAnimations.put(vehicle.definition.genericName, new ModelAnimations(rotatableParts, translatableParts, lightParts, windows));
 		}
 		GL11.glPopMatrix();
 	}
@@ -437,11 +500,11 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 				List<RenderVehicle_TranslatablePart> translatableParts = new ArrayList<RenderVehicle_TranslatablePart>();
     			List<RenderVehicle_LightPart> lightParts = new ArrayList<RenderVehicle_LightPart>();
 				
-    			Map<String, Float[][]> parsedModel = OBJParserSystem.parseOBJModel(partModelLocation.getResourceDomain(), partModelLocation.getResourcePath());
+    			Map<String, float[]> parsedModel = OBJModelRepository.getModel(partModelLocation.getResourceDomain(), partModelLocation.getResourcePath());
     			int displayListIndex = GL11.glGenLists(1);
     			GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
     			GL11.glBegin(GL11.GL_TRIANGLES);
-    			for(Entry<String, Float[][]> entry : parsedModel.entrySet()){
+    			for(Entry<String, float[]> entry : parsedModel.entrySet()){
     				boolean shouldShapeBeInDL = true;
     				if(entry.getKey().contains("$")){
     					if(part.definition.rendering.rotatableModelObjects != null){
@@ -464,10 +527,11 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
     					shouldShapeBeInDL = !lightParts.get(lightParts.size() - 1).isLightupTexture;
     				}
     				if(shouldShapeBeInDL){
-    					for(Float[] vertex : entry.getValue()){
-    						GL11.glTexCoord2f(vertex[3], vertex[4]);
-    						GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-    						GL11.glVertex3f(vertex[0], vertex[1], vertex[2]);
+    					float[] vertices = entry.getValue();
+    					for(int i=0; i<vertices.length; i+=OBJParserSystem.VERTEX_SIZE){
+    						GL11.glTexCoord2f(vertices[i + 3], vertices[i + 4]);
+    						GL11.glNormal3f(vertices[i + 5], vertices[i + 6], vertices[i + 7]);
+    						GL11.glVertex3f(vertices[i], vertices[i + 1], vertices[i + 2]);
     					}
     				}
     			}
@@ -479,6 +543,7 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
     			partRotatableLists.put(partModelLocation, rotatableParts);
     			partTranslatableLists.put(partModelLocation, translatableParts);
     			partLightLists.put(partModelLocation, lightParts);
+    			partAnimations.put(partModelLocation, new ModelAnimations(rotatableParts, translatableParts, lightParts, new ArrayList<WindowPart>()));
     		}else{
     			//If we aren't using the vehicle texture, bind the texture for this part.
     			//Otherwise, bind the vehicle texture as it may have been un-bound prior to this.
@@ -501,11 +566,26 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
         			//We need to manually do x translation here before rotating to prevent incorrect translation.
         			GL11.glTranslated(part.offset.x, 0, 0);
         			rotatePart(part, actionRotation, true);
-        			if(part.packVehicleDef.treadZPoints != null){
-        				doManualTreadRender((PartGroundDeviceTread) part, partialTicks, partDisplayLists.get(partModelLocation));	
-        			}else{
-        				doAutomaticTreadRender((PartGroundDeviceTread) part, partialTicks, partDisplayLists.get(partModelLocation));
+        			//Tread paths are baked once per vehicle and tread type, so get the path or bake it if needed.
+        			//Paths are keyed by generic name, then by tread systemName.
+        			Map<String, RenderVehicle_TreadPath> treadPaths = vehicleTreadPaths.get(vehicle.definition.genericName);
+        			if(treadPaths == null){
+        				treadPaths = new HashMap<String, RenderVehicle_TreadPath>();
+        				vehicleTreadPaths.put(vehicle.definition.genericName, treadPaths);
         			}
+        			RenderVehicle_TreadPath treadPath = treadPaths.get(part.definition.systemName);
+        			if(treadPath == null){
+        				Map<String, float[]> parsedLinkModel = OBJModelRepository.getModel(partModelLocation.getResourceDomain(), partModelLocation.getResourcePath());
+        				if(part.packVehicleDef.treadZPoints != null){
+        					treadPath = RenderVehicle_TreadPath.createManualPath((PartGroundDeviceTread) part, parsedLinkModel);
+        				}else{
+        					treadPath = RenderVehicle_TreadPath.createAutomaticPath((PartGroundDeviceTread) part, vehicleRotatableLists.get(vehicle.definition.genericName), parsedLinkModel);
+        				}
+        				treadPaths.put(part.definition.systemName, treadPath);
+        			}
+        			RenderProfiler.startStage(Stage.TREADS);
+        			treadPath.render((PartGroundDeviceTread) part, partialTicks);
+        			RenderProfiler.endStage(vehicle, Stage.TREADS);
         		}else{
 	    			//Rotate and translate the part prior to rendering the displayList.
 	    			//Note that if the part's parent has a rotation, use that to transform
@@ -523,14 +603,18 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 	    				GL11.glTranslated(part.offset.x, part.offset.y, part.offset.z);
 	    				rotatePart(part, actionRotation, true);
 	    			}
+	    			RenderProfiler.startStage(Stage.MODELS);
 	        		GL11.glCallList(partDisplayLists.get(partModelLocation));
+	        		RenderProfiler.endStage(vehicle, Stage.MODELS);
 	    			
 	    			//The display list only renders static parts.  We need to render dynamic ones manually.
+	        		RenderProfiler.startStage(Stage.ROTATABLES);
 	    			for(RenderVehicle_RotatablePart rotatable : partRotatableLists.get(partModelLocation)){
 	    				GL11.glPushMatrix();
 	    				rotatable.render(vehicle, part, partialTicks);
 	    				GL11.glPopMatrix();
 	    			}
+	    			RenderProfiler.endStage(vehicle, Stage.ROTATABLES);
     			}
         		GL11.glCullFace(GL11.GL_BACK);
         		GL11.glPopMatrix();
@@ -586,354 +670,6 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 		}
 	}
 	
-	/**
-	 *  Renders the treads using a manual system.  Points are defined by pack authors and are located in the
-	 *  vehicle JSON.  This method is more cumbersome for the authors, but allows for precise path control.
-	 */
-	private static void doManualTreadRender(PartGroundDeviceTread treadPart, float partialTicks, int displayListIndex){
-		List<Float[]> deltas = treadDeltas.get(treadPart.vehicle.definition.genericName);
-		if(deltas == null){
-			//First calculate the total distance the treads need to be rendered.
-			float totalDistance = 0;
-			float lastY = treadPart.packVehicleDef.treadYPoints[0];
-			float lastZ = treadPart.packVehicleDef.treadZPoints[0];
-			for(byte i=1; i<treadPart.packVehicleDef.treadYPoints.length; ++i){
-				totalDistance += Math.hypot((treadPart.packVehicleDef.treadYPoints[i] - lastY), (treadPart.packVehicleDef.treadYPoints[i] - lastZ));
-				lastY = treadPart.packVehicleDef.treadYPoints[i];
-				lastZ = treadPart.packVehicleDef.treadZPoints[i];
-			}
-			
-			//Now that we have the total distance, generate a set of points for the path.
-			//These points should be as far apart as the spacing parameter.
-			deltas = new ArrayList<Float[]>();
-			final float spacing = treadPart.definition.tread.spacing;
-			byte pointIndex = 0;
-			float currentY = treadPart.packVehicleDef.treadYPoints[pointIndex];
-			float currentZ = treadPart.packVehicleDef.treadZPoints[pointIndex];
-			float nextY = treadPart.packVehicleDef.treadYPoints[pointIndex + 1];
-			float nextZ = treadPart.packVehicleDef.treadZPoints[pointIndex + 1];
-			float deltaYBeforeSegment = 0;
-			float deltaZBeforeSegment = 0;
-			float deltaBeforeSegment = 0;
-			float segmentDeltaY = (nextY - currentY);
-			float segmentDeltaZ = (nextZ - currentZ);
-			float segmentDeltaTotal = (float) Math.hypot(segmentDeltaY, segmentDeltaZ);
-			float angle = treadPart.packVehicleDef.treadAngles[pointIndex];
-			float currentAngle = 0;
-			
-			//Keep moving along the sets of points, making another set of evenly-spaced points.
-			//This set of points will be used for rendering.
-			while(totalDistance > 0){
-				//If we are further than the delta between points, go to the next one.
-				//Set the points to the next index set and increment delta and angle.
-				while(deltaBeforeSegment + segmentDeltaTotal < spacing){
-					++pointIndex;
-					//If we run out of points go back to the start of the point set.
-					//If we are out again, exit the loop.
-					if(pointIndex + 1 == treadPart.packVehicleDef.treadYPoints.length){
-						currentY = treadPart.packVehicleDef.treadYPoints[pointIndex];
-						currentZ = treadPart.packVehicleDef.treadZPoints[pointIndex];
-						nextY = treadPart.packVehicleDef.treadYPoints[0];
-						nextZ = treadPart.packVehicleDef.treadZPoints[0];
-						//Ensure we rotate the angle by the correct amount for the joint.
-						//It's possible that we will add a negative angle here due to going from something like 270 to 0.
-						//This will cause a -270 rotation rather than the +30 we want.
-						float angleToAdd = treadPart.packVehicleDef.treadAngles[0] - treadPart.packVehicleDef.treadAngles[pointIndex];
-						while(angleToAdd < 0){
-							angleToAdd += 360; 
-						}
-						angle += angleToAdd;
-					}else if(pointIndex + 1 > treadPart.packVehicleDef.treadYPoints.length){
-						break;
-					}else{
-						currentY = treadPart.packVehicleDef.treadYPoints[pointIndex];
-						currentZ = treadPart.packVehicleDef.treadZPoints[pointIndex];
-						nextY = treadPart.packVehicleDef.treadYPoints[pointIndex + 1];
-						nextZ = treadPart.packVehicleDef.treadZPoints[pointIndex + 1];
-						angle += treadPart.packVehicleDef.treadAngles[pointIndex] - treadPart.packVehicleDef.treadAngles[pointIndex - 1];
-					}
-					
-					//Update deltas.
-					deltaBeforeSegment += segmentDeltaTotal;
-					deltaYBeforeSegment += segmentDeltaY;
-					deltaZBeforeSegment += segmentDeltaZ;
-					segmentDeltaY = nextY - currentY;
-					segmentDeltaZ = nextZ - currentZ;
-					segmentDeltaTotal = (float) Math.hypot(segmentDeltaY, segmentDeltaZ);
-				}
-				
-				//If we have enough distance for a segment, make one.
-				//Otherwise add the end distance and set the total to 0.
-				if(deltaBeforeSegment + segmentDeltaTotal >= spacing){
-					//We are now at a point where the distance between the current point and the next point
-					//are greater than the inter-point distance.  Use the slope of these two points to make a delta.
-					//If we have any delta before the point, make sure we take that into account when getting the new point.
-					float segmentPercentage = (spacing - deltaBeforeSegment)/segmentDeltaTotal;
-					float segmentY = deltaYBeforeSegment + segmentDeltaY*segmentPercentage;
-					float segmentZ = deltaZBeforeSegment + segmentDeltaZ*segmentPercentage;
-					
-					//Normally we could add the point now, but since OpenGL rotation changes the coordinate system
-					//we need to correct for that here.  Use trigonometry to rotate the segment before adding it.
-					currentAngle += angle;
-					float correctedZ = (float) (Math.cos(Math.toRadians(currentAngle))*segmentZ - Math.sin(Math.toRadians(currentAngle))*segmentY);
-					float correctedY = (float) (Math.sin(Math.toRadians(currentAngle))*segmentZ + Math.cos(Math.toRadians(currentAngle))*segmentY);
-					deltas.add(new Float[]{correctedY, correctedZ, angle});
-					//Decrement distance traveled off the variables.
-					totalDistance -= spacing;
-					segmentDeltaTotal -= spacing;
-					segmentDeltaY -= segmentDeltaY*segmentPercentage;
-					segmentDeltaZ -= segmentDeltaZ*segmentPercentage;
-					deltaBeforeSegment = 0;
-					deltaYBeforeSegment = 0;
-					deltaZBeforeSegment = 0;
-					angle = 0;
-				}else{
-					//If we have half or more a link left, make an extra one before exiting.
-					if(deltaBeforeSegment + segmentDeltaTotal > spacing/2F){
-						deltas.add(deltas.get(deltas.size() - 1));
-					}
-					totalDistance = 0;
-				}
-			}
-			//Add the finalized delta list to the map.
-			treadDeltas.put(treadPart.vehicle.definition.genericName, deltas);
-		}
-		
-		
-		float treadMovementPercentage = (float) ((treadPart.angularPosition + treadPart.angularVelocity*partialTicks)*treadPart.getHeight()/Math.PI%treadPart.definition.tread.spacing/treadPart.definition.tread.spacing);
-		GL11.glPushMatrix();
-		//First translate to the initial point.
-		GL11.glTranslated(0, treadPart.offset.y + treadPart.packVehicleDef.treadYPoints[0], treadPart.offset.z + treadPart.packVehicleDef.treadZPoints[0]);
-		//Next use the deltas to get the amount needed to translate and rotate each link.
-		for(Float[] point : deltas){
-			if(point[2] != 0){
-				GL11.glRotatef(point[2], 1, 0, 0);
-				GL11.glTranslatef(0, point[0]*treadMovementPercentage, point[1]*treadMovementPercentage);
-				GL11.glRotatef(-point[2]*(1 - treadMovementPercentage), 1, 0, 0);
-				GL11.glCallList(displayListIndex);
-				GL11.glRotatef(point[2]*(1 - treadMovementPercentage), 1, 0, 0);
-				GL11.glTranslatef(0, point[0]*(1 - treadMovementPercentage), point[1]*( 1 - treadMovementPercentage));
-			}else{
-				GL11.glTranslatef(0, point[0]*treadMovementPercentage, point[1]*treadMovementPercentage);
-				GL11.glCallList(displayListIndex);
-				GL11.glTranslatef(0, point[0]*(1 - treadMovementPercentage), point[1]*( 1 - treadMovementPercentage));
-			}
-			
-		}
-		GL11.glPopMatrix();
-	}
-	
-	/**
-	 *  Renders the treads using an automatic calculation system.  This system is good for simple treads,
-	 *  though will render oddly on complex paths.
-	 */
-	private static void doAutomaticTreadRender(PartGroundDeviceTread treadPart, float partialTicks, int displayListIndex){
-		List<Double[]> points = treadPoints.get(treadPart.vehicle.definition.genericName);
-		if(points == null){
-			//If we don't have the deltas, calculate them based on the points of the rollers on the vehicle.			
-			//Search through rotatable parts on the vehicle and grab the rollers.
-			Map<Integer, RenderVehicle_TreadRoller> parsedRollers = new HashMap<Integer, RenderVehicle_TreadRoller>();
-			for(RenderVehicle_RotatablePart rotatable : vehicleRotatableLists.get(treadPart.vehicle.definition.genericName)){
-				if(rotatable.name.contains("roller")){
-					parsedRollers.put(Integer.valueOf(rotatable.name.substring(rotatable.name.lastIndexOf('_') + 1)), rotatable.createTreadRoller());
-				}
-			}
-			
-			//Now that we have all the rollers, we can start calculating points.
-			//First calculate the endpoints on the rollers by calling the calculation method.
-			//We also transfer the rollers to an ordered array for convenience later.
-			RenderVehicle_TreadRoller[] rollers = new RenderVehicle_TreadRoller[parsedRollers.size()];
-			for(int i=0; i<parsedRollers.size(); ++ i){
-				if(i < parsedRollers.size() - 1){
-					parsedRollers.get(i).calculateEndpoints(parsedRollers.get(i + 1));
-				}else{
-					parsedRollers.get(i).calculateEndpoints(parsedRollers.get(0));
-				}
-				rollers[i] = parsedRollers.get(i);
-			}
-			
-			//We need to ensure the endpoints are all angle-aligned.
-			//It's possible to have a start angle of -181 and end angle of
-			//181, which is really just 2 degress of angle (179-181).
-			//To do this, we set the end angle of roller 0 and start
-			//angle of roller 1 to be around 180, or downward-facing.
-			//From there, we add angles to align things.
-			//At the end, we should have an end angle of 540, or 180 + 360.
-			rollers[0].endAngle = 180;
-			for(int i=1; i<rollers.length; ++i){
-				RenderVehicle_TreadRoller roller = rollers[i];
-				roller.startAngle = rollers[i - 1].endAngle;
-				//End angle should be 0-360 greater than start angle, or within
-				//10 degrees less, as is the case for concave rollers. 
-				while(roller.endAngle < roller.startAngle - 10){
-					roller.endAngle += 360;
-				}
-				while(roller.endAngle > roller.startAngle + 360){
-					roller.endAngle += 360;
-				}
-			}
-			//Set the end angle of the last roller, or start angle of the first roller, manually.
-			//Need to get it between the value of 360 + 0-180 as that's where we will connect.
-			while(rollers[0].startAngle < 0){
-				rollers[0].startAngle += 360;
-			}
-			if(rollers[0].startAngle > 180){
-				rollers[0].startAngle -= 360;
-			}
-			rollers[0].startAngle += 360;
-			rollers[rollers.length - 1].endAngle = rollers[0].startAngle;
-			
-			
-			//Now that the endpoints are set, we can calculate the path.
-			//Do this by following the start and end points at small increments.
-			points = new ArrayList<Double[]>();
-			double deltaDist = treadPart.definition.tread.spacing;
-			double leftoverPathLength = 0;
-			for(int i=0; i<rollers.length; ++i){
-				RenderVehicle_TreadRoller roller = rollers[i];
-				//Follow the curve of the roller from the start and end point.
-				//Do this until we don't have enough roller path left to make a point.
-				//If we have any remaining path from a prior operation, we
-				//need to offset our first point on the roller path to account for it.
-				//It can very well be that this remainder will be more than the path length
-				//of the roller.  If so, we just skip the roller entirely.
-				//For the first roller we need to do some special math, as the angles will be inverted
-				//For start and end due to the tread making a full 360 path.				
-				double rollerPathLength = 2*Math.PI*roller.radius*Math.abs(roller.endAngle - (i == 0 ? roller.startAngle - 360 : roller.startAngle))/360D;
-				double currentAngle = roller.startAngle;
-				
-				//Add the first point here, and add more as we follow the path.
-				if(i == 0){
-					double yPoint = roller.yPos + roller.radius*Math.cos(Math.toRadians(currentAngle));
-					double zPoint = roller.zPos + roller.radius*Math.sin(Math.toRadians(currentAngle));
-					points.add(new Double[]{yPoint, zPoint, currentAngle + 180});
-				}
-				
-				//If we have any leftover straight path, account for it here to keep spacing consistent.
-				//We will need to interpolate the point that the straight path would have gone to, but
-				//take our rotation angle into account.  Only do this if we have enough of a path to do so.
-				//If not, we should just skip this roller as we can't put any points on it.
-				if(deltaDist - leftoverPathLength < rollerPathLength){
-					if(leftoverPathLength > 0){
-						//Make a new point that's along a line from the last point and the start of this roller.
-						//Then increment currentAngle to account for the new point made.
-						//Add an angle relative to the point on the roller.
-						Double[] lastPoint = points.get(points.size() - 1);
-						double yPoint = roller.yPos + roller.radius*Math.cos(Math.toRadians(currentAngle));
-						double zPoint = roller.zPos + roller.radius*Math.sin(Math.toRadians(currentAngle));
-						double pointDist = Math.hypot(yPoint - lastPoint[0], zPoint - lastPoint[1]);
-						double normalizedY = (yPoint - lastPoint[0])/pointDist;
-						double normalizedZ = (zPoint - lastPoint[1])/pointDist;
-						double rollerAngleSpan = 360D*((deltaDist - leftoverPathLength)/roller.circumference);
-						
-						points.add(new Double[]{lastPoint[0] + deltaDist*normalizedY, lastPoint[1] + deltaDist*normalizedZ, lastPoint[2] + rollerAngleSpan});
-						lastPoint = points.get(points.size() - 1);						
-						currentAngle += rollerAngleSpan;
-						leftoverPathLength = 0;
-					}
-					
-					while(rollerPathLength > deltaDist){
-						//Go to and add the next point on the roller path.
-						rollerPathLength -= deltaDist;
-						currentAngle += 360D*(deltaDist/roller.circumference);
-						double yPoint = roller.yPos + roller.radius*Math.cos(Math.toRadians(currentAngle));
-						double zPoint = roller.zPos + roller.radius*Math.sin(Math.toRadians(currentAngle));
-						points.add(new Double[]{yPoint, zPoint, currentAngle + 180});
-					}
-					
-					//Done following roller.  Set angle to end angle.
-					currentAngle = roller.endAngle;
-				}
-				
-				//If we have any leftover roller path, account for it here to keep spacing consistent.
-				//We may also have leftover straight path length if we didn't do anything on a roller.
-				//If we are on the last roller, we need to get the first roller to complete the loop.
-				RenderVehicle_TreadRoller nextRoller = i == rollers.length - 1 ? rollers[0] : rollers[i + 1];
-				double straightPathLength = Math.hypot(nextRoller.startY - roller.endY, nextRoller.startZ - roller.endZ);
-				double normalizedY = (nextRoller.startY - roller.endY)/straightPathLength;
-				double normalizedZ = (nextRoller.startZ - roller.endZ)/straightPathLength;
-				double currentY = roller.endY - normalizedY*(leftoverPathLength + rollerPathLength);
-				double currentZ = roller.endZ - normalizedZ*(leftoverPathLength + rollerPathLength);
-				straightPathLength += leftoverPathLength + rollerPathLength;
-				while(straightPathLength > deltaDist){
-					//Go to and add the next point on the straight path.
-					straightPathLength -= deltaDist;
-					currentY += normalizedY*deltaDist;
-					currentZ += normalizedZ*deltaDist;
-					points.add(new Double[]{currentY, currentZ, roller.endAngle + 180});
-				}
-				leftoverPathLength = straightPathLength;
-			}
-			
-			//Add a final point to the list to account for the tread gap.
-			//This point is in the middle of the first and last point.
-			Double[] firstPoint = points.get(0);
-			Double[] lastPoint = points.get(points.size() - 1);
-			points.add(new Double[]{lastPoint[0] + (firstPoint[0] - lastPoint[0])/2D, lastPoint[1] + (firstPoint[1] - lastPoint[1])/2D, lastPoint[2]});
-			treadPoints.put(treadPart.vehicle.definition.genericName, points);
-		}
-				
-		//Render the treads along their points.
-		//We manually set point 0 here due to the fact it's a joint between two differing angles.
-		//We also need to translate to that point to start rendering as we're currently at 0,0,0.
-		//For each remaining point, we only translate the delta of the point.
-		float treadMovementPercentage = (float) ((treadPart.angularPosition + treadPart.angularVelocity*partialTicks)*treadPart.getHeight()/Math.PI%treadPart.definition.tread.spacing/treadPart.definition.tread.spacing);
-		Double[] priorPoint = points.get(points.size() - 1);
-		Double[] point = points.get(0);
-		double yDelta = point[0] - priorPoint[0];
-		double zDelta = point[1] - priorPoint[1];
-		double angleDelta = point[2] - priorPoint[2];
-		
-		GL11.glPushMatrix();
-		GL11.glTranslated(0, point[0] - yDelta, point[1] - zDelta);
-		for(int i=0; i<points.size() - 1; ++i){
-			//Update variables, except for point 0 as we've already calculated it.
-			if(i != 0){
-				point = points.get(i);
-				yDelta = point[0] - priorPoint[0];
-				zDelta = point[1] - priorPoint[1];
-				angleDelta = point[2] - priorPoint[2];
-			}
-			
-			//If our angle delta is greater than 180, we can assume that we're inverted.
-			//This happens when we cross the 360 degree rotation barrier.
-			if(angleDelta > 180){
-				angleDelta -= 360;
-			}else if(angleDelta < -180){
-				angleDelta += 360;
-			}
-			//If there's no rotation to the point, and no delta between points, don't do rotation.
-			//That's an expensive operation due to sin and cos operations.
-			//Do note that the model needs to be flipped 180 on the X-axis due to all our points
-			//assuming a YZ coordinate system with 0 degrees rotation being in +Y.
-			//This is why 180 is added to all points cached in the operations above.
-			if(priorPoint[2] != 0 || angleDelta != 0){
-				//We can't use a running rotation here as we'll end up translating in the rotated
-				//coordinate system.  To combat this, we translate like normal, but then push a
-				//stack and rotate prior to rendering.  This keeps us from having to do another
-				//rotation to get the old coordinate system back.
-				GL11.glPushMatrix();
-				GL11.glTranslated(0, yDelta*treadMovementPercentage, zDelta*treadMovementPercentage);
-				GL11.glRotated(priorPoint[2] + angleDelta*treadMovementPercentage, 1, 0, 0);
-				GL11.glCallList(displayListIndex);
-				GL11.glPopMatrix();
-				GL11.glTranslated(0, yDelta, zDelta);
-			}else{
-				//Translate to the current position of the tread based on the percent it has moved.
-				//This is determined by partial ticks and actual tread position.
-				//Once there, render the tread.  Then translate the remainder of the way to prepare
-				//to render the next tread.
-				GL11.glTranslated(0, yDelta*treadMovementPercentage, zDelta*treadMovementPercentage);
-				GL11.glCallList(displayListIndex);
-				GL11.glTranslated(0, yDelta*(1 - treadMovementPercentage), zDelta*(1 - treadMovementPercentage));
-			}
-			
-			//Set prior point to current point.
-			priorPoint = point;
-		}
-		GL11.glPopMatrix();
-	}
-	
 	/**
 	 *  Renders all windows in this vehicle.  Windows may rotate or translate like
 	 *  regular rotatable or translatable parts.  This allows for placement on doors
@@ -943,26 +679,24 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 	private static void renderWindows(EntityVehicleE_Powered vehicle, float partialTicks){
 		minecraft.getTextureManager().bindTexture(vanillaGlassTexture);
 		//Iterate through all windows.
-		for(byte i=0; i<vehicleWindowLists.get(vehicle.definition.genericName).size(); ++i){
+		List<WindowPart> windows = vehicleWindowLists.get(vehicle.definition.genericName);
+		ModelAnimations animations = vehicleAnimations.get(vehicle.definition.genericName);
+		for(int i=0; i<windows.size(); ++i){
 			GL11.glPushMatrix();
 			//This is a window or set of windows.  Like the model, it will be triangle-based.
-			//However, windows may be rotatable or translatable.  Check this before continuing.
-			WindowPart window = vehicleWindowLists.get(vehicle.definition.genericName).get(i);
-			for(RenderVehicle_RotatablePart rotatable : vehicleRotatableLists.get(vehicle.definition.genericName)){
-				if(rotatable.name.equals(window.name)){
-					rotatable.rotate(vehicle, null, partialTicks);
-				}
+			//However, windows may be rotatable or translatable.  Apply those first if so.
+			WindowPart window = windows.get(i);
+			if(animations.windowRotatables.get(i) != null){
+				animations.windowRotatables.get(i).rotate(vehicle, null, partialTicks);
 			}
-			for(RenderVehicle_TranslatablePart translatable : vehicleTranslatableLists.get(vehicle.definition.genericName)){
-				if(translatable.name.equals(window.name)){
-					translatable.translate(vehicle, null, partialTicks);
-				}
+			if(animations.windowTranslatables.get(i) != null){
+				animations.windowTranslatables.get(i).translate(vehicle, null, partialTicks);
 			}
 			GL11.glBegin(GL11.GL_TRIANGLES);
-			for(Float[] vertex : window.vertices){
-				GL11.glTexCoord2f(vertex[3], vertex[4]);
-				GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-				GL11.glVertex3f(vertex[0], vertex[1], vertex[2]);
+			for(int j=0; j<window.vertices.length; j+=OBJParserSystem.VERTEX_SIZE){
+				GL11.glTexCoord2f(window.vertices[j + 3], window.vertices[j + 4]);
+				GL11.glNormal3f(window.vertices[j + 5], window.vertices[j + 6], window.vertices[j + 7]);
+				GL11.glVertex3f(window.vertices[j], window.vertices[j + 1], window.vertices[j + 2]);
 			}
 			GL11.glEnd();
 			GL11.glPopMatrix();
@@ -1016,46 +750,35 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 	 *  Renders all lights for this vehicle.  
 	 */
 	private static void renderLights(EntityVehicleE_Powered vehicle, boolean wasRenderedPrior, float partialTicks){
-		//Get all the lights for the vehicle and parts and put them into one common list.
+		//Render all the lights for the vehicle.  These may be rotatable based on a vehicle rotation variable.
+		ResourceLocation vehicleTexture = textureMap.get(vehicle.definition.systemName);
 		List<RenderVehicle_LightPart> vehicleLights = vehicleLightLists.get(vehicle.definition.genericName);
-		Map<Integer, APart> lightIndexToParts = new HashMap<Integer, APart>();
-		List<RenderVehicle_LightPart> allLights = new ArrayList<RenderVehicle_LightPart>();
-		allLights.addAll(vehicleLights);
-		for(APart part : vehicle.getVehicleParts()){
-			if(partLightLists.containsKey(part.getModelLocation())){
-				for(RenderVehicle_LightPart partLight : partLightLists.get(part.getModelLocation())){
-					lightIndexToParts.put(allLights.size(), part);
-					allLights.add(partLight);
-				}
+		List<RenderVehicle_RotatablePart> vehicleLightRotatables = vehicleAnimations.get(vehicle.definition.genericName).lightRotatables;
+		for(int i=0; i<vehicleLights.size(); ++i){
+			GL11.glPushMatrix();
+			if(vehicleLightRotatables.get(i) != null){
+				vehicleLightRotatables.get(i).rotate(vehicle, null, partialTicks);
 			}
+			vehicleLights.get(i).render(vehicle, wasRenderedPrior, vehicleTexture);
+			GL11.glPopMatrix();
 		}
 		
-		//Iterate through the common light list to render all the lights.
-		for(int lightIndex=0; lightIndex<allLights.size(); ++lightIndex){
-			RenderVehicle_LightPart light = allLights.get(lightIndex);
-			GL11.glPushMatrix();
-			//This light may be rotateable.  Check this before continuing.
-			//It could rotate based on a vehicle rotation variable, or a part rotation.
-			if(vehicleLights.contains(light)){
-				for(RenderVehicle_RotatablePart rotatable : vehicleRotatableLists.get(vehicle.definition.genericName)){
-					if(rotatable.name.equals(light.name)){
-						rotatable.rotate(vehicle, null, partialTicks);
-					}
-				}
-			}else{
-				APart part = lightIndexToParts.get(lightIndex);
-				GL11.glTranslated(part.offset.x, part.offset.y, part.offset.z);
-				rotatePart(part, part.getActionRotation(partialTicks), false);
-				for(RenderVehicle_RotatablePart rotatable : partRotatableLists.get(part.getModelLocation())){
-					if(rotatable.name.equals(light.name)){
-						rotatable.rotate(vehicle, part, partialTicks);
+		//Now render all the lights for the parts.  These may rotate based on the part rotation, or a part rotation variable.
+		for(APart part : vehicle.getVehicleParts()){
+			List<RenderVehicle_LightPart> partLights = partLightLists.get(part.getModelLocation());
+			if(partLights != null){
+				List<RenderVehicle_RotatablePart> partLightRotatables = partAnimations.get(part.getModelLocation()).lightRotatables;
+				for(int i=0; i<partLights.size(); ++i){
+					GL11.glPushMatrix();
+					GL11.glTranslated(part.offset.x, part.offset.y, part.offset.z);
+					rotatePart(part, part.getActionRotation(partialTicks), false);
+					if(partLightRotatables.get(i) != null){
+						partLightRotatables.get(i).rotate(vehicle, part, partialTicks);
 					}
+					partLights.get(i).render(vehicle, wasRenderedPrior, vehicleTexture);
+					GL11.glPopMatrix();
 				}
 			}
-
-			//Render the light.
-			light.render(vehicle, wasRenderedPrior, textureMap.get(vehicle.definition.systemName));
-			GL11.glPopMatrix();
 		}
 	}
 	
@@ -1074,7 +797,7 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 			//Need to scale by -1 to get the coordinate system to behave and align to the texture-based coordinate system.
 			GL11.glScalef(-packInstrument.scale/16F, -packInstrument.scale/16F, -packInstrument.scale/16F);
 			if(vehicle.instruments.containsKey(i)){
-				RenderInstrument.drawInstrument(vehicle.instruments.get(i), packInstrument.optionalPartNumber, vehicle);
+				RenderInstrumentAtlas.drawInstrument(vehicle, i);
 			}
 			GL11.glPopMatrix();
 		}
@@ -1231,11 +954,55 @@ public final class RenderVehicle extends Render<EntityVehicleE_Powered>{
 	
 	private static final class WindowPart{
 		private final String name;
-		private final Float[][] vertices;
+		private final float[] vertices;
 		
-		private WindowPart(String name, Float[][] vertices){
+		private WindowPart(String name, float[] vertices){
 			this.name = name;
 			this.vertices = vertices;
 		}
 	}
+	
+	/**
+	 *  Animations of a model, matched up by name with the model objects they move.  Object names come from the
+	 *  model file, so this is built along with the model's display list, not with the {@link CompiledVehicleDefinition}.
+	 *  Lists of windows and lights line up with the window and light lists they were built from, with null
+	 *  where an object has no animation.  This saves the render loop from comparing names every frame.
+	 */
+	private static final class ModelAnimations{
+		/**Rotatables that aren't windows, and the translatable with the same name for each.**/
+		private final List<RenderVehicle_RotatablePart> rotatables = new ArrayList<RenderVehicle_RotatablePart>();
+		private final List<RenderVehicle_TranslatablePart> rotatableTranslatables = new ArrayList<RenderVehicle_TranslatablePart>();
+		/**Translatables that don't rotate and aren't windows.**/
+		private final List<RenderVehicle_TranslatablePart> translatables = new ArrayList<RenderVehicle_TranslatablePart>();
+		private final List<RenderVehicle_RotatablePart> windowRotatables = new ArrayList<RenderVehicle_RotatablePart>();
+		private final List<RenderVehicle_TranslatablePart> windowTranslatables = new ArrayList<RenderVehicle_TranslatablePart>();
+		private final List<RenderVehicle_RotatablePart> lightRotatables = new ArrayList<RenderVehicle_RotatablePart>();
+		
+		private ModelAnimations(List<RenderVehicle_RotatablePart> rotatableParts, List<RenderVehicle_TranslatablePart> translatableParts, List<RenderVehicle_LightPart> lightParts, List<WindowPart> windows){
+			Map<String, RenderVehicle_RotatablePart> rotatablesByName = new HashMap<String, RenderVehicle_RotatablePart>();
+			Map<String, RenderVehicle_TranslatablePart> translatablesByName = new HashMap<String, RenderVehicle_TranslatablePart>();
+			for(RenderVehicle_RotatablePart rotatable : rotatableParts){
+				rotatablesByName.put(rotatable.name, rotatable);
+				if(!rotatable.name.toLowerCase().contains("window")){
+					rotatables.add(rotatable);
+				}
+			}
+			for(RenderVehicle_TranslatablePart translatable : translatableParts){
+				translatablesByName.put(translatable.name, translatable);
+				if(!translatable.name.toLowerCase().contains("window") && !translatable.name.contains("$")){
+					translatables.add(translatable);
+				}
+			}
+			for(RenderVehicle_RotatablePart rotatable : rotatables){
+				rotatableTranslatables.add(translatablesByName.get(rotatable.name));
+			}
+			for(WindowPart window : windows){
+				windowRotatables.add(rotatablesByName.get(window.name));
+				windowTranslatables.add(translatablesByName.get(window.name));
+			}
+			for(RenderVehicle_LightPart light : lightParts){
+				lightRotatables.add(rotatablesByName.get(light.name));
+			}
+		}
+	}
 }
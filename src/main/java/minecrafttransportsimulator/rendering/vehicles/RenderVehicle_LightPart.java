@@ -5,6 +5,7 @@ import java.awt.Color;
 import org.lwjgl.opengl.GL11;
 
 import minecrafttransportsimulator.MTS;
+import minecrafttransportsimulator.systems.OBJParserSystem;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered.LightType;
 import net.minecraft.client.Minecraft;
@@ -22,7 +23,6 @@ public final class RenderVehicle_LightPart{
 	private static final ResourceLocation vanillaGlassTexture = new ResourceLocation("minecraft", "textures/blocks/glass.png");
 	private static final ResourceLocation lensFlareTexture = new ResourceLocation(MTS.MODID, "textures/rendering/lensflare.png");
 	private static final ResourceLocation lightTexture = new ResourceLocation(MTS.MODID, "textures/rendering/light.png");
-	private static final ResourceLocation lightBeamTexture = new ResourceLocation(MTS.MODID, "textures/rendering/lightbeam.png");
 	
 	public final String name;
 	public final LightType type;
@@ -34,14 +34,17 @@ public final class RenderVehicle_LightPart{
 	private final boolean renderColor;
 	private final boolean renderCover;
 	
-	private final Float[][] vertices;
+	private final float[] vertices;
 	private final Vec3d[] centerPoints;
 	private final Float[] size;
 	
-	//This can't be final as we'll do a double-display-list if we try to do this on construction.
+	//These can't be final as we'll do a double-display-list if we try to do this on construction.
 	private int displayListIndex = -1;
+	private int colorDisplayListIndex = -1;
+	private int coverDisplayListIndex = -1;
+	private int flareDisplayListIndex = -1;
 	
-	public RenderVehicle_LightPart(String name, Float[][] masterVertices){
+	public RenderVehicle_LightPart(String name, float[] masterVertices){
 		this.name = name;
 		this.type = getTypeFromName(name);
 		//Lights are in the format of "&NAME_XXXXXX_YYYYY_ZZZ"
@@ -62,9 +65,9 @@ public final class RenderVehicle_LightPart{
 		
 		//If we need to render a flare, cover, or beam, calculate the center points and re-calculate the UV points.
 		if(renderFlare || renderCover || type.hasBeam){
-			this.vertices = new Float[masterVertices.length][];
-			this.centerPoints = new Vec3d[masterVertices.length/6];
-			this.size = new Float[masterVertices.length/6];
+			this.vertices = new float[masterVertices.length];
+			this.centerPoints = new Vec3d[masterVertices.length/OBJParserSystem.VERTEX_SIZE/6];
+			this.size = new Float[centerPoints.length];
 			for(short i=0; i<centerPoints.length; ++i){
 				double minX = 999;
 				double maxX = -999;
@@ -73,32 +76,24 @@ public final class RenderVehicle_LightPart{
 				double minZ = 999;
 				double maxZ = -999;
 				for(byte j=0; j<6; ++j){
-					Float[] masterVertex = masterVertices[i*6 + j];
-					minX = Math.min(masterVertex[0], minX);
-					maxX = Math.max(masterVertex[0], maxX);
-					minY = Math.min(masterVertex[1], minY);
-					maxY = Math.max(masterVertex[1], maxY);
-					minZ = Math.min(masterVertex[2], minZ);
-					maxZ = Math.max(masterVertex[2], maxZ);
+					int offset = (i*6 + j)*OBJParserSystem.VERTEX_SIZE;
+					minX = Math.min(masterVertices[offset], minX);
+					maxX = Math.max(masterVertices[offset], maxX);
+					minY = Math.min(masterVertices[offset + 1], minY);
+					maxY = Math.max(masterVertices[offset + 1], maxY);
+					minZ = Math.min(masterVertices[offset + 2], minZ);
+					maxZ = Math.max(masterVertices[offset + 2], maxZ);
 					
-					Float[] newVertex = new Float[masterVertex.length];
-					newVertex[0] = masterVertex[0];
-					newVertex[1] = masterVertex[1];
-					newVertex[2] = masterVertex[2];
+					System.arraycopy(masterVertices, offset, vertices, offset, OBJParserSystem.VERTEX_SIZE);
 					//Adjust UV point here to change this to glass coords.
 					switch(j){
-						case(0): newVertex[3] = 0.0F; newVertex[4] = 0.0F; break;
-						case(1): newVertex[3] = 0.0F; newVertex[4] = 1.0F; break;
-						case(2): newVertex[3] = 1.0F; newVertex[4] = 1.0F; break;
-						case(3): newVertex[3] = 0.0F; newVertex[4] = 0.0F; break;
-						case(4): newVertex[3] = 1.0F; newVertex[4] = 1.0F; break;
-						case(5): newVertex[3] = 1.0F; newVertex[4] = 0.0F; break;
+						case(0): vertices[offset + 3] = 0.0F; vertices[offset + 4] = 0.0F; break;
+						case(1): vertices[offset + 3] = 0.0F; vertices[offset + 4] = 1.0F; break;
+						case(2): vertices[offset + 3] = 1.0F; vertices[offset + 4] = 1.0F; break;
+						case(3): vertices[offset + 3] = 0.0F; vertices[offset + 4] = 0.0F; break;
+						case(4): vertices[offset + 3] = 1.0F; vertices[offset + 4] = 1.0F; break;
+						case(5): vertices[offset + 3] = 1.0F; vertices[offset + 4] = 0.0F; break;
 					}
-					newVertex[5] = masterVertex[5];
-					newVertex[6] = masterVertex[6];
-					newVertex[7] = masterVertex[7];
-					
-					this.vertices[(i)*6 + j] = newVertex;
 				}
 				this.centerPoints[i] = new Vec3d(minX + (maxX - minX)/2D, minY + (maxY - minY)/2D, minZ + (maxZ - minZ)/2D);
 				this.size[i] = (float) Math.max(Math.max(maxX - minX, maxZ - minZ), maxY - minY)*32F;
@@ -162,6 +157,19 @@ public final class RenderVehicle_LightPart{
 		}
 	}
 	
+	/**Used to clear out the rendering caches in dev mode to allow the re-loading of models.**/
+	public void clearCaches(){
+		for(int displayList : new int[]{displayListIndex, colorDisplayListIndex, coverDisplayListIndex, flareDisplayListIndex}){
+			if(displayList != -1){
+				GL11.glDeleteLists(displayList, 1);
+			}
+		}
+		displayListIndex = -1;
+		colorDisplayListIndex = -1;
+		coverDisplayListIndex = -1;
+		flareDisplayListIndex = -1;
+	}
+	
 	/**
 	 *  Returns true if this light is actually on.  This takes into account the flashing
 	 *  bit portion of the light as well as if the light is set to be on in the vehicle.
@@ -188,10 +196,10 @@ public final class RenderVehicle_LightPart{
 			displayListIndex = GL11.glGenLists(1);
 			GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
 			GL11.glBegin(GL11.GL_TRIANGLES);
-			for(Float[] vertex : vertices){
-				GL11.glTexCoord2f(vertex[3], vertex[4]);
-				GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-				GL11.glVertex3f(vertex[0], vertex[1], vertex[2]);	
+			for(int i=0; i<vertices.length; i+=OBJParserSystem.VERTEX_SIZE){
+				GL11.glTexCoord2f(vertices[i + 3], vertices[i + 4]);
+				GL11.glNormal3f(vertices[i + 5], vertices[i + 6], vertices[i + 7]);
+				GL11.glVertex3f(vertices[i], vertices[i + 1], vertices[i + 2]);	
 			}
 			GL11.glEnd();
 			GL11.glEndList();
@@ -213,15 +221,21 @@ public final class RenderVehicle_LightPart{
 		Minecraft.getMinecraft().entityRenderer.disableLightmap();
 		GL11.glColor4f(color.getRed()/255F, color.getGreen()/255F, color.getBlue()/255F, alphaValue);
 		GL11.glDisable(GL11.GL_LIGHTING);
-		GL11.glBegin(GL11.GL_TRIANGLES);
-		for(Float[] vertex : vertices){
-			//Add a slight translation and scaling to the light coords based on the normals to make the light
-			//a little bit off of the main shape.  Prevents z-fighting.
-			GL11.glTexCoord2f(vertex[3], vertex[4]);
-			GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-			GL11.glVertex3f(vertex[0]+vertex[5]*0.0001F, vertex[1]+vertex[6]*0.0001F, vertex[2]+vertex[7]*0.0001F);	
+		if(colorDisplayListIndex == -1){
+			colorDisplayListIndex = GL11.glGenLists(1);
+			GL11.glNewList(colorDisplayListIndex, GL11.GL_COMPILE);
+			GL11.glBegin(GL11.GL_TRIANGLES);
+			for(int i=0; i<vertices.length; i+=OBJParserSystem.VERTEX_SIZE){
+				//Add a slight translation and scaling to the light coords based on the normals to make the light
+				//a little bit off of the main shape.  Prevents z-fighting.
+				GL11.glTexCoord2f(vertices[i + 3], vertices[i + 4]);
+				GL11.glNormal3f(vertices[i + 5], vertices[i + 6], vertices[i + 7]);
+				GL11.glVertex3f(vertices[i]+vertices[i + 5]*0.0001F, vertices[i + 1]+vertices[i + 6]*0.0001F, vertices[i + 2]+vertices[i + 7]*0.0001F);	
+			}
+			GL11.glEnd();
+			GL11.glEndList();
 		}
-		GL11.glEnd();
+		GL11.glCallList(colorDisplayListIndex);
 		GL11.glEnable(GL11.GL_LIGHTING);
 		GL11.glColor4f(1, 1, 1, 1);
 		Minecraft.getMinecraft().entityRenderer.enableLightmap();
@@ -238,15 +252,21 @@ public final class RenderVehicle_LightPart{
 			Minecraft.getMinecraft().entityRenderer.disableLightmap();
 		}
 		GL11.glColor4f(1.0F, 1.0F, 1.0F, 1.0F);
-		GL11.glBegin(GL11.GL_TRIANGLES);
-		for(Float[] vertex : vertices){
-			//Add a slight translation and scaling to the cover coords based on the normals to make the light
-			//a little bit off of the main shape.  Prevents z-fighting.
-			GL11.glTexCoord2f(vertex[3], vertex[4]);
-			GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-			GL11.glVertex3f(vertex[0]+vertex[5]*0.0003F, vertex[1]+vertex[6]*0.0003F, vertex[2]+vertex[7]*0.0003F);	
+		if(coverDisplayListIndex == -1){
+			coverDisplayListIndex = GL11.glGenLists(1);
+			GL11.glNewList(coverDisplayListIndex, GL11.GL_COMPILE);
+			GL11.glBegin(GL11.GL_TRIANGLES);
+			for(int i=0; i<vertices.length; i+=OBJParserSystem.VERTEX_SIZE){
+				//Add a slight translation and scaling to the cover coords based on the normals to make the light
+				//a little bit off of the main shape.  Prevents z-fighting.
+				GL11.glTexCoord2f(vertices[i + 3], vertices[i + 4]);
+				GL11.glNormal3f(vertices[i + 5], vertices[i + 6], vertices[i + 7]);
+				GL11.glVertex3f(vertices[i]+vertices[i + 5]*0.0003F, vertices[i + 1]+vertices[i + 6]*0.0003F, vertices[i + 2]+vertices[i + 7]*0.0003F);	
+			}
+			GL11.glEnd();
+			GL11.glEndList();
 		}
-		GL11.glEnd();
+		GL11.glCallList(coverDisplayListIndex);
 		if(disableLighting){
 			GL11.glEnable(GL11.GL_LIGHTING);
 			Minecraft.getMinecraft().entityRenderer.enableLightmap();
@@ -263,87 +283,52 @@ public final class RenderVehicle_LightPart{
 		Minecraft.getMinecraft().entityRenderer.disableLightmap();
 		GL11.glColor4f(color.getRed()/255F, color.getGreen()/255F, color.getBlue()/255F, alphaValue);
 		GL11.glDisable(GL11.GL_LIGHTING);
-		GL11.glBegin(GL11.GL_TRIANGLES);
-		for(byte i=0; i<centerPoints.length; ++i){
-			for(byte j=0; j<6; ++j){
-				Float[] vertex = vertices[(i)*6+j];
-				//Add a slight translation to the light size to make the flare move off it.
-				//Then apply scaling factor to make the flare larger than the light.
-				GL11.glTexCoord2f(vertex[3], vertex[4]);
-				GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-				GL11.glVertex3d(vertex[0]+vertex[5]*0.0002F + (vertex[0] - centerPoints[i].x)*(2 + size[i]*0.25F), 
-						vertex[1]+vertex[6]*0.0002F + (vertex[1] - centerPoints[i].y)*(2 + size[i]*0.25F), 
-						vertex[2]+vertex[7]*0.0002F + (vertex[2] - centerPoints[i].z)*(2 + size[i]*0.25F));	
+		if(flareDisplayListIndex == -1){
+			flareDisplayListIndex = GL11.glGenLists(1);
+			GL11.glNewList(flareDisplayListIndex, GL11.GL_COMPILE);
+			GL11.glBegin(GL11.GL_TRIANGLES);
+			for(short i=0; i<centerPoints.length; ++i){
+				for(byte j=0; j<6; ++j){
+					int offset = (i*6 + j)*OBJParserSystem.VERTEX_SIZE;
+					//Add a slight translation to the light size to make the flare move off it.
+					//Then apply scaling factor to make the flare larger than the light.
+					GL11.glTexCoord2f(vertices[offset + 3], vertices[offset + 4]);
+					GL11.glNormal3f(vertices[offset + 5], vertices[offset + 6], vertices[offset + 7]);
+					GL11.glVertex3d(vertices[offset]+vertices[offset + 5]*0.0002F + (vertices[offset] - centerPoints[i].x)*(2 + size[i]*0.25F), 
+							vertices[offset + 1]+vertices[offset + 6]*0.0002F + (vertices[offset + 1] - centerPoints[i].y)*(2 + size[i]*0.25F), 
+							vertices[offset + 2]+vertices[offset + 7]*0.0002F + (vertices[offset + 2] - centerPoints[i].z)*(2 + size[i]*0.25F));	
+				}
 			}
+			GL11.glEnd();
+			GL11.glEndList();
 		}
-		GL11.glEnd();
+		GL11.glCallList(flareDisplayListIndex);
 		GL11.glEnable(GL11.GL_LIGHTING);
 		GL11.glColor4f(1, 1, 1, 1);
 		Minecraft.getMinecraft().entityRenderer.enableLightmap();
 	}
 	
 	/**
-	 *  Renders the beam portion of this light, if so configured.
-	 *  Parameter is the alpha value for the light.
+	 *  Queues the beam portion of this light for rendering, if so configured.
+	 *  Parameter is the alpha value for the light.  Beams are rendered in a
+	 *  single pass for all lights by {@link RenderLightGeometry#renderBeams()}.
 	 */
 	private void renderBeam(float alphaValue){
 		if(type.hasBeam){
-			Minecraft.getMinecraft().entityRenderer.disableLightmap();
-			Minecraft.getMinecraft().getTextureManager().bindTexture(lightBeamTexture);
-			GL11.glPushMatrix();
-	    	GL11.glDisable(GL11.GL_LIGHTING);
-	    	GL11.glEnable(GL11.GL_BLEND);
-	    	GL11.glColor4f(1, 1, 1, alphaValue);
-	    	//Allows making things brighter by using alpha blending.
-	    	GL11.glDepthMask(false);
-	    	GL11.glBlendFunc(GL11.GL_DST_COLOR, GL11.GL_SRC_ALPHA);
-			
 			//As we can have more than one light per definition, we will only render 6 vertices at a time.
 			//Use the center point arrays for this; normals are the same for all 6 vertex sets so use whichever.
-			for(byte i=0; i<centerPoints.length; ++i){
+			for(short i=0; i<centerPoints.length; ++i){
 				GL11.glPushMatrix();
 				//Translate light to the center of the cone beam.
-				GL11.glTranslated(centerPoints[i].x - vertices[i*6][5]*0.15F, centerPoints[i].y - vertices[i*6][6]*0.15F, centerPoints[i].z - vertices[i*6][7]*0.15F);
+				GL11.glTranslated(centerPoints[i].x - vertices[i*6*OBJParserSystem.VERTEX_SIZE + 5]*0.15F, centerPoints[i].y - vertices[i*6*OBJParserSystem.VERTEX_SIZE + 6]*0.15F, centerPoints[i].z - vertices[i*6*OBJParserSystem.VERTEX_SIZE + 7]*0.15F);
 				//Rotate beam to the normal face.
-				GL11.glRotatef((float) Math.toDegrees(Math.atan2(vertices[i*6][6], vertices[i*6][5])), 0, 0, 1);
-				GL11.glRotatef((float) Math.toDegrees(Math.acos(vertices[i*6][7])), 0, 1, 0);
-				//Now draw the beam
-				GL11.glDepthMask(false);
-				for(byte j=0; j<=2; ++j){
-		    		drawLightCone(size[i], false);
-		    	}
-				drawLightCone(size[i], true);
+				GL11.glRotatef((float) Math.toDegrees(Math.atan2(vertices[i*6*OBJParserSystem.VERTEX_SIZE + 6], vertices[i*6*OBJParserSystem.VERTEX_SIZE + 5])), 0, 0, 1);
+				GL11.glRotatef((float) Math.toDegrees(Math.acos(vertices[i*6*OBJParserSystem.VERTEX_SIZE + 7])), 0, 1, 0);
+				//Now queue the beam.
+				RenderLightGeometry.queueBeam(size[i], size[i]*3F, alphaValue);
 				GL11.glPopMatrix();
 			}
-	    	GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
-	    	GL11.glDepthMask(true);
-			GL11.glDisable(GL11.GL_BLEND);
-			GL11.glPopMatrix();
-			GL11.glEnable(GL11.GL_LIGHTING);
-			GL11.glColor4f(1, 1, 1, 1);
-			Minecraft.getMinecraft().entityRenderer.enableLightmap();
-		}
-	}
-	
-	/**
-	 *  Helper method to draw a light cone for the beam rendering.
-	 */
-	private static void drawLightCone(double radius, boolean reverse){
-		GL11.glBegin(GL11.GL_TRIANGLE_FAN);
-		GL11.glTexCoord2f(0, 0);
-		GL11.glVertex3d(0, 0, 0);
-		if(reverse){
-			for(float theta=0; theta < 2*Math.PI + 0.1; theta += 2F*Math.PI/40F){
-				GL11.glTexCoord2f(theta, 1);
-				GL11.glVertex3d(radius*Math.cos(theta), radius*Math.sin(theta), radius*3F);
-			}
-		}else{
-			for(float theta=(float) (2*Math.PI); theta>=0 - 0.1; theta -= 2F*Math.PI/40F){
-				GL11.glTexCoord2f(theta, 1);
-				GL11.glVertex3d(radius*Math.cos(theta), radius*Math.sin(theta), radius*3F);
-			}
 		}
-		GL11.glEnd();
 	}
 	
 	/**
@@ -8,6 +8,7 @@ import java.util.Map;
 import org.lwjgl.opengl.GL11;
 
 import minecrafttransportsimulator.jsondefs.JSONVehicle.VehicleRotatableModelObject;
+import minecrafttransportsimulator.systems.OBJParserSystem;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
 import minecrafttransportsimulator.vehicles.parts.APart;
 import net.minecraft.util.math.Vec3d;
@@ -22,7 +23,7 @@ public final class RenderVehicle_RotatablePart{
 	public final String name;
 	
 	private final String uniqueModelName;
-	private final Float[][] vertices;
+	private final float[] vertices;
 	private final Vec3d[] rotationPoints;
 	private final Vec3d[] rotationAxis;
 	private final Float[] rotationMagnitudes;
@@ -32,7 +33,7 @@ public final class RenderVehicle_RotatablePart{
 	
 	private static final Map<String, Integer> partDisplayLists = new HashMap<String, Integer>();
 	
-	public RenderVehicle_RotatablePart(String name, Float[][] vertices, String modelName, List<VehicleRotatableModelObject> rotatableModelObjects){
+	public RenderVehicle_RotatablePart(String name, float[] vertices, String modelName, List<VehicleRotatableModelObject> rotatableModelObjects){
 		this.name = name;
 		this.uniqueModelName = modelName + "_" + name;
 		this.vertices = vertices;
@@ -131,10 +132,10 @@ public final class RenderVehicle_RotatablePart{
 			int displayListIndex = GL11.glGenLists(1);
 			GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
 			GL11.glBegin(GL11.GL_TRIANGLES);
-			for(Float[] vertex : vertices){
-				GL11.glTexCoord2f(vertex[3], vertex[4]);
-				GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-				GL11.glVertex3f(vertex[0], vertex[1], vertex[2]);
+			for(int i=0; i<vertices.length; i+=OBJParserSystem.VERTEX_SIZE){
+				GL11.glTexCoord2f(vertices[i + 3], vertices[i + 4]);
+				GL11.glNormal3f(vertices[i + 5], vertices[i + 6], vertices[i + 7]);
+				GL11.glVertex3f(vertices[i], vertices[i + 1], vertices[i + 2]);
 			}
 			GL11.glEnd();
 			GL11.glEndList();
@@ -160,11 +161,11 @@ public final class RenderVehicle_RotatablePart{
 		double maxY = -999;
 		double minZ = 999;
 		double maxZ = -999;
-		for(Float[] point : vertices){
-			minY = Math.min(minY, point[1]);
-			maxY = Math.max(maxY, point[1]);
-			minZ = Math.min(minZ, point[2]);
-			maxZ = Math.max(maxZ, point[2]);
+		for(int i=0; i<vertices.length; i+=OBJParserSystem.VERTEX_SIZE){
+			minY = Math.min(minY, vertices[i + 1]);
+			maxY = Math.max(maxY, vertices[i + 1]);
+			minZ = Math.min(minZ, vertices[i + 2]);
+			maxZ = Math.max(maxZ, vertices[i + 2]);
 		}
 		return new RenderVehicle_TreadRoller(this, minY, maxY, minZ, maxZ);
 	}
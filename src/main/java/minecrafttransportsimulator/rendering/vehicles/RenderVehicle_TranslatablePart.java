@@ -8,6 +8,7 @@ import java.util.Map;
 import org.lwjgl.opengl.GL11;
 
 import minecrafttransportsimulator.jsondefs.JSONVehicle.VehicleTranslatableModelObject;
+import minecrafttransportsimulator.systems.OBJParserSystem;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
 import minecrafttransportsimulator.vehicles.parts.APart;
 import net.minecraft.util.math.Vec3d;
@@ -22,7 +23,7 @@ public final class RenderVehicle_TranslatablePart{
 	public final String name;
 	
 	private final String uniqueModelName;
-	private final Float[][] vertices;
+	private final float[] vertices;
 	private final Vec3d[] translationAxis;
 	private final Float[] translationMagnitudes;
 	private final String[] translationVariables;
@@ -31,7 +32,7 @@ public final class RenderVehicle_TranslatablePart{
 	
 	private static final Map<String, Integer> partDisplayLists = new HashMap<String, Integer>();
 	
-	public RenderVehicle_TranslatablePart(String name, Float[][] vertices, String modelName, List<VehicleTranslatableModelObject> translatableModelObjects){
+	public RenderVehicle_TranslatablePart(String name, float[] vertices, String modelName, List<VehicleTranslatableModelObject> translatableModelObjects){
 		this.name = name;
 		this.uniqueModelName = modelName + "_" + name;
 		this.vertices = vertices;
@@ -102,10 +103,10 @@ public final class RenderVehicle_TranslatablePart{
 			int displayListIndex = GL11.glGenLists(1);
 			GL11.glNewList(displayListIndex, GL11.GL_COMPILE);
 			GL11.glBegin(GL11.GL_TRIANGLES);
-			for(Float[] vertex : vertices){
-				GL11.glTexCoord2f(vertex[3], vertex[4]);
-				GL11.glNormal3f(vertex[5], vertex[6], vertex[7]);
-				GL11.glVertex3f(vertex[0], vertex[1], vertex[2]);
+			for(int i=0; i<vertices.length; i+=OBJParserSystem.VERTEX_SIZE){
+				GL11.glTexCoord2f(vertices[i + 3], vertices[i + 4]);
+				GL11.glNormal3f(vertices[i + 5], vertices[i + 6], vertices[i + 7]);
+				GL11.glVertex3f(vertices[i], vertices[i + 1], vertices[i + 2]);
 			}
 			GL11.glEnd();
 			GL11.glEndList();
@@ -0,0 +1,426 @@
+package minecrafttransportsimulator.rendering.vehicles;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.lwjgl.opengl.GL11;
+
+import minecrafttransportsimulator.systems.OBJParserSystem;
+import minecrafttransportsimulator.vehicles.parts.PartGroundDeviceTread;
+
+/**This class represents a baked tread path for a vehicle.  The path is calculated once per vehicle
+ * definition and tread part type, either from the manual points in the vehicle JSON, or automatically
+ * from the rollers on the vehicle model.  Once the path is known, every link of the tread is transformed
+ * to its place on the path and written into a single mesh.  As OpenGL 1.x has no uniforms to shift links
+ * along the path, this mesh is baked for a set of evenly-spaced movement phases, each in its own displayList.
+ * Animation is then just a matter of picking the phase that matches the tread's movement, so rendering a tread
+ * is a single displayList call rather than a transform and call for every link.
+ *
+ * @author don_bruce
+ */
+public final class RenderVehicle_TreadPath{
+	/**Number of movement phases baked between two consecutive link positions.**/
+	private static final int MOVEMENT_PHASES = 20;
+
+	/**Positions of the links on the path, in the format {Y, Z, angle} per movement phase and link.**/
+	private final float[][][] linkTransforms;
+	/**Vertices of a single tread link, in the same format as returned by the OBJParserSystem.**/
+	private final float[] linkVertices;
+	/**Set to true for manual paths, as they are relative to the tread part's offset rather than the vehicle.**/
+	private final boolean relativeToPart;
+	private final int[] phaseDisplayLists = new int[MOVEMENT_PHASES];
+
+	private RenderVehicle_TreadPath(float[][][] linkTransforms, Map<String, float[]> parsedLinkModel, boolean relativeToPart){
+		this.linkTransforms = linkTransforms;
+		this.relativeToPart = relativeToPart;
+
+		//Combine all static objects in the link model into one vertex array.
+		//Animated objects aren't supported on treads, so don't bake them.
+		int vertexCount = 0;
+		for(Entry<String, float[]> entry : parsedLinkModel.entrySet()){
+			if(!entry.getKey().contains("$") && !entry.getKey().contains("%")){
+				vertexCount += entry.getValue().length;
+			}
+		}
+		this.linkVertices = new float[vertexCount];
+		vertexCount = 0;
+		for(Entry<String, float[]> entry : parsedLinkModel.entrySet()){
+			if(!entry.getKey().contains("$") && !entry.getKey().contains("%")){
+				System.arraycopy(entry.getValue(), 0, linkVertices, vertexCount, entry.getValue().length);
+				vertexCount += entry.getValue().length;
+			}
+		}
+	}
+
+	/**
+	 *  Renders this tread path.  The movement of the tread is used to pick the baked phase to render.
+	 *  All phases are baked into their displayLists the first time this method is called.
+	 */
+	public void render(PartGroundDeviceTread treadPart, float partialTicks){
+		if(phaseDisplayLists[0] == 0){
+			bakePhases();
+		}
+		float treadMovementPercentage = (float) ((treadPart.angularPosition + treadPart.angularVelocity*partialTicks)*treadPart.getHeight()/Math.PI%treadPart.definition.tread.spacing/treadPart.definition.tread.spacing);
+		if(treadMovementPercentage < 0){
+			treadMovementPercentage += 1;
+		}
+		int phase = ((int) (treadMovementPercentage*MOVEMENT_PHASES))%MOVEMENT_PHASES;
+		if(relativeToPart){
+			GL11.glPushMatrix();
+			GL11.glTranslated(0, treadPart.offset.y, treadPart.offset.z);
+			GL11.glCallList(phaseDisplayLists[phase]);
+			GL11.glPopMatrix();
+		}else{
+			GL11.glCallList(phaseDisplayLists[phase]);
+		}
+	}
+
+	/**Used to clear out the rendering caches in dev mode to allow the re-loading of models.**/
+	public void clearCaches(){
+		if(phaseDisplayLists[0] != 0){
+			GL11.glDeleteLists(phaseDisplayLists[0], MOVEMENT_PHASES);
+			for(int i=0; i<MOVEMENT_PHASES; ++i){
+				phaseDisplayLists[i] = 0;
+			}
+		}
+	}
+
+	/**
+	 *  Bakes all the links on the path into a single mesh per phase.  Each link vertex is rotated about
+	 *  the X-axis by the link's angle and then moved to the link's position.  Normals get the same rotation.
+	 */
+	private void bakePhases(){
+		int firstList = GL11.glGenLists(MOVEMENT_PHASES);
+		for(int phase=0; phase<MOVEMENT_PHASES; ++phase){
+			phaseDisplayLists[phase] = firstList + phase;
+			GL11.glNewList(phaseDisplayLists[phase], GL11.GL_COMPILE);
+			GL11.glBegin(GL11.GL_TRIANGLES);
+			for(float[] link : linkTransforms[phase]){
+				double sin = Math.sin(Math.toRadians(link[2]));
+				double cos = Math.cos(Math.toRadians(link[2]));
+				for(int i=0; i<linkVertices.length; i+=OBJParserSystem.VERTEX_SIZE){
+					GL11.glTexCoord2f(linkVertices[i + 3], linkVertices[i + 4]);
+					GL11.glNormal3f(linkVertices[i + 5], (float) (linkVertices[i + 6]*cos - linkVertices[i + 7]*sin), (float) (linkVertices[i + 6]*sin + linkVertices[i + 7]*cos));
+					GL11.glVertex3f(linkVertices[i], (float) (linkVertices[i + 1]*cos - linkVertices[i + 2]*sin + link[0]), (float) (linkVertices[i + 1]*sin + linkVertices[i + 2]*cos + link[1]));
+				}
+			}
+			GL11.glEnd();
+			GL11.glEndList();
+		}
+	}
+
+	/**
+	 *  Creates a tread path using the manual system.  Points are defined by pack authors and are located in the
+	 *  vehicle JSON.  This method is more cumbersome for the authors, but allows for precise path control.
+	 *  The resulting path is relative to the tread part's offset.
+	 */
+	public static RenderVehicle_TreadPath createManualPath(PartGroundDeviceTread treadPart, Map<String, float[]> parsedLinkModel){
+		final float[] treadYPoints = treadPart.packVehicleDef.treadYPoints;
+		final float[] treadZPoints = treadPart.packVehicleDef.treadZPoints;
+		final float[] treadAngles = treadPart.packVehicleDef.treadAngles;
+
+		//First calculate the total distance the treads need to be rendered.
+		float totalDistance = 0;
+		float lastY = treadYPoints[0];
+		float lastZ = treadZPoints[0];
+		for(byte i=1; i<treadYPoints.length; ++i){
+			totalDistance += Math.hypot((treadYPoints[i] - lastY), (treadYPoints[i] - lastZ));
+			lastY = treadYPoints[i];
+			lastZ = treadZPoints[i];
+		}
+
+		//Now that we have the total distance, generate a set of points for the path.
+		//These points should be as far apart as the spacing parameter.
+		List<float[]> deltas = new ArrayList<float[]>();
+		final float spacing = treadPart.definition.tread.spacing;
+		byte pointIndex = 0;
+		float currentY = treadYPoints[pointIndex];
+		float currentZ = treadZPoints[pointIndex];
+		float nextY = treadYPoints[pointIndex + 1];
+		float nextZ = treadZPoints[pointIndex + 1];
+		float deltaYBeforeSegment = 0;
+		float deltaZBeforeSegment = 0;
+		float deltaBeforeSegment = 0;
+		float segmentDeltaY = (nextY - currentY);
+		float segmentDeltaZ = (nextZ - currentZ);
+		float segmentDeltaTotal = (float) Math.hypot(segmentDeltaY, segmentDeltaZ);
+		float angle = treadAngles[pointIndex];
+		float currentAngle = 0;
+
+		//Keep moving along the sets of points, making another set of evenly-spaced points.
+		//This set of points will be used for rendering.
+		while(totalDistance > 0){
+			//If we are further than the delta between points, go to the next one.
+			//Set the points to the next index set and increment delta and angle.
+			while(deltaBeforeSegment + segmentDeltaTotal < spacing){
+				++pointIndex;
+				//If we run out of points go back to the start of the point set.
+				//If we are out again, exit the loop.
+				if(pointIndex + 1 == treadYPoints.length){
+					currentY = treadYPoints[pointIndex];
+					currentZ = treadZPoints[pointIndex];
+					nextY = treadYPoints[0];
+					nextZ = treadZPoints[0];
+					//Ensure we rotate the angle by the correct amount for the joint.
+					//It's possible that we will add a negative angle here due to going from something like 270 to 0.
+					//This will cause a -270 rotation rather than the +30 we want.
+					float angleToAdd = treadAngles[0] - treadAngles[pointIndex];
+					while(angleToAdd < 0){
+						angleToAdd += 360;
+					}
+					angle += angleToAdd;
+				}else if(pointIndex + 1 > treadYPoints.length){
+					break;
+				}else{
+					currentY = treadYPoints[pointIndex];
+					currentZ = treadZPoints[pointIndex];
+					nextY = treadYPoints[pointIndex + 1];
+					nextZ = treadZPoints[pointIndex + 1];
+					angle += treadAngles[pointIndex] - treadAngles[pointIndex - 1];
+				}
+
+				//Update deltas.
+				deltaBeforeSegment += segmentDeltaTotal;
+				deltaYBeforeSegment += segmentDeltaY;
+				deltaZBeforeSegment += segmentDeltaZ;
+				segmentDeltaY = nextY - currentY;
+				segmentDeltaZ = nextZ - currentZ;
+				segmentDeltaTotal = (float) Math.hypot(segmentDeltaY, segmentDeltaZ);
+			}
+
+			//If we have enough distance for a segment, make one.
+			//Otherwise add the end distance and set the total to 0.
+			if(deltaBeforeSegment + segmentDeltaTotal >= spacing){
+				//We are now at a point where the distance between the current point and the next point
+				//are greater than the inter-point distance.  Use the slope of these two points to make a delta.
+				//If we have any delta before the point, make sure we take that into account when getting the new point.
+				float segmentPercentage = (spacing - deltaBeforeSegment)/segmentDeltaTotal;
+				float segmentY = deltaYBeforeSegment + segmentDeltaY*segmentPercentage;
+				float segmentZ = deltaZBeforeSegment + segmentDeltaZ*segmentPercentage;
+
+				//Normally we could add the point now, but since the link rotation changes the coordinate system
+				//we need to correct for that here.  Use trigonometry to rotate the segment before adding it.
+				currentAngle += angle;
+				float correctedZ = (float) (Math.cos(Math.toRadians(currentAngle))*segmentZ - Math.sin(Math.toRadians(currentAngle))*segmentY);
+				float correctedY = (float) (Math.sin(Math.toRadians(currentAngle))*segmentZ + Math.cos(Math.toRadians(currentAngle))*segmentY);
+				deltas.add(new float[]{correctedY, correctedZ, angle});
+				//Decrement distance traveled off the variables.
+				totalDistance -= spacing;
+				segmentDeltaTotal -= spacing;
+				segmentDeltaY -= segmentDeltaY*segmentPercentage;
+				segmentDeltaZ -= segmentDeltaZ*segmentPercentage;
+				deltaBeforeSegment = 0;
+				deltaYBeforeSegment = 0;
+				deltaZBeforeSegment = 0;
+				angle = 0;
+			}else{
+				//If we have half or more a link left, make an extra one before exiting.
+				if(deltaBeforeSegment + segmentDeltaTotal > spacing/2F){
+					deltas.add(deltas.get(deltas.size() - 1));
+				}
+				totalDistance = 0;
+			}
+		}
+
+		//Now bake the link positions for each phase.  The deltas are relative to the prior link,
+		//and in the coordinate system of the prior link, so we follow them with a running transform.
+		//Each link is placed part-way to its delta, and rotated back by the part of the angle not yet traveled.
+		float[][][] linkTransforms = new float[MOVEMENT_PHASES][deltas.size()][];
+		for(int phase=0; phase<MOVEMENT_PHASES; ++phase){
+			float movementPercentage = phase/(float) MOVEMENT_PHASES;
+			double pathAngle = 0;
+			double pathY = treadYPoints[0];
+			double pathZ = treadZPoints[0];
+			for(int i=0; i<deltas.size(); ++i){
+				float[] delta = deltas.get(i);
+				pathAngle += delta[2];
+				double sin = Math.sin(Math.toRadians(pathAngle));
+				double cos = Math.cos(Math.toRadians(pathAngle));
+				linkTransforms[phase][i] = new float[]{
+					(float) (pathY + (delta[0]*cos - delta[1]*sin)*movementPercentage),
+					(float) (pathZ + (delta[0]*sin + delta[1]*cos)*movementPercentage),
+					(float) (pathAngle - delta[2]*(1 - movementPercentage))
+				};
+				pathY += delta[0]*cos - delta[1]*sin;
+				pathZ += delta[0]*sin + delta[1]*cos;
+			}
+		}
+		return new RenderVehicle_TreadPath(linkTransforms, parsedLinkModel, true);
+	}
+
+	/**
+	 *  Creates a tread path using an automatic calculation system.  This system is good for simple treads,
+	 *  though will render oddly on complex paths.  The resulting path is relative to the vehicle.
+	 */
+	public static RenderVehicle_TreadPath createAutomaticPath(PartGroundDeviceTread treadPart, List<RenderVehicle_RotatablePart> vehicleRotatables, Map<String, float[]> parsedLinkModel){
+		//Search through rotatable parts on the vehicle and grab the rollers.
+		Map<Integer, RenderVehicle_TreadRoller> parsedRollers = new HashMap<Integer, RenderVehicle_TreadRoller>();
+		for(RenderVehicle_RotatablePart rotatable : vehicleRotatables){
+			if(rotatable.name.contains("roller")){
+				parsedRollers.put(Integer.valueOf(rotatable.name.substring(rotatable.name.lastIndexOf('_') + 1)), rotatable.createTreadRoller());
+			}
+		}
+
+		//Now that we have all the rollers, we can start calculating points.
+		//First calculate the endpoints on the rollers by calling the calculation method.
+		//We also transfer the rollers to an ordered array for convenience later.
+		RenderVehicle_TreadRoller[] rollers = new RenderVehicle_TreadRoller[parsedRollers.size()];
+		for(int i=0; i<parsedRollers.size(); ++ i){
+			if(i < parsedRollers.size() - 1){
+				parsedRollers.get(i).calculateEndpoints(parsedRollers.get(i + 1));
+			}else{
+				parsedRollers.get(i).calculateEndpoints(parsedRollers.get(0));
+			}
+			rollers[i] = parsedRollers.get(i);
+		}
+
+		//We need to ensure the endpoints are all angle-aligned.
+		//It's possible to have a start angle of -181 and end angle of
+		//181, which is really just 2 degress of angle (179-181).
+		//To do this, we set the end angle of roller 0 and start
+		//angle of roller 1 to be around 180, or downward-facing.
+		//From there, we add angles to align things.
+		//At the end, we should have an end angle of 540, or 180 + 360.
+		rollers[0].endAngle = 180;
+		for(int i=1; i<rollers.length; ++i){
+			RenderVehicle_TreadRoller roller = rollers[i];
+			roller.startAngle = rollers[i - 1].endAngle;
+			//End angle should be 0-360 greater than start angle, or within
+			//10 degrees less, as is the case for concave rollers.
+			while(roller.endAngle < roller.startAngle - 10){
+				roller.endAngle += 360;
+			}
+			while(roller.endAngle > roller.startAngle + 360){
+				roller.endAngle += 360;
+			}
+		}
+		//Set the end angle of the last roller, or start angle of the first roller, manually.
+		//Need to get it between the value of 360 + 0-180 as that's where we will connect.
+		while(rollers[0].startAngle < 0){
+			rollers[0].startAngle += 360;
+		}
+		if(rollers[0].startAngle > 180){
+			rollers[0].startAngle -= 360;
+		}
+		rollers[0].startAngle += 360;
+		rollers[rollers.length - 1].endAngle = rollers[0].startAngle;
+
+
+		//Now that the endpoints are set, we can calculate the path.
+		//Do this by following the start and end points at small increments.
+		List<double[]> points = new ArrayList<double[]>();
+		double deltaDist = treadPart.definition.tread.spacing;
+		double leftoverPathLength = 0;
+		for(int i=0; i<rollers.length; ++i){
+			RenderVehicle_TreadRoller roller = rollers[i];
+			//Follow the curve of the roller from the start and end point.
+			//Do this until we don't have enough roller path left to make a point.
+			//If we have any remaining path from a prior operation, we
+			//need to offset our first point on the roller path to account for it.
+			//It can very well be that this remainder will be more than the path length
+			//of the roller.  If so, we just skip the roller entirely.
+			//For the first roller we need to do some special math, as the angles will be inverted
+			//For start and end due to the tread making a full 360 path.
+			double rollerPathLength = 2*Math.PI*roller.radius*Math.abs(roller.endAngle - (i == 0 ? roller.startAngle - 360 : roller.startAngle))/360D;
+			double currentAngle = roller.startAngle;
+
+			//Add the first point here, and add more as we follow the path.
+			if(i == 0){
+				double yPoint = roller.yPos + roller.radius*Math.cos(Math.toRadians(currentAngle));
+				double zPoint = roller.zPos + roller.radius*Math.sin(Math.toRadians(currentAngle));
+				points.add(new double[]{yPoint, zPoint, currentAngle + 180});
+			}
+
+			//If we have any leftover straight path, account for it here to keep spacing consistent.
+			//We will need to interpolate the point that the straight path would have gone to, but
+			//take our rotation angle into account.  Only do this if we have enough of a path to do so.
+			//If not, we should just skip this roller as we can't put any points on it.
+			if(deltaDist - leftoverPathLength < rollerPathLength){
+				if(leftoverPathLength > 0){
+					//Make a new point that's along a line from the last point and the start of this roller.
+					//Then increment currentAngle to account for the new point made.
+					//Add an angle relative to the point on the roller.
+					double[] lastPoint = points.get(points.size() - 1);
+					double yPoint = roller.yPos + roller.radius*Math.cos(Math.toRadians(currentAngle));
+					double zPoint = roller.zPos + roller.radius*Math.sin(Math.toRadians(currentAngle));
+					double pointDist = Math.hypot(yPoint - lastPoint[0], zPoint - lastPoint[1]);
+					double normalizedY = (yPoint - lastPoint[0])/pointDist;
+					double normalizedZ = (zPoint - lastPoint[1])/pointDist;
+					double rollerAngleSpan = 360D*((deltaDist - leftoverPathLength)/roller.circumference);
+
+					points.add(new double[]{lastPoint[0] + deltaDist*normalizedY, lastPoint[1] + deltaDist*normalizedZ, lastPoint[2] + rollerAngleSpan});
+					currentAngle += rollerAngleSpan;
+					leftoverPathLength = 0;
+				}
+
+				while(rollerPathLength > deltaDist){
+					//Go to and add the next point on the roller path.
+					rollerPathLength -= deltaDist;
+					currentAngle += 360D*(deltaDist/roller.circumference);
+					double yPoint = roller.yPos + roller.radius*Math.cos(Math.toRadians(currentAngle));
+					double zPoint = roller.zPos + roller.radius*Math.sin(Math.toRadians(currentAngle));
+					points.add(new double[]{yPoint, zPoint, currentAngle + 180});
+				}
+
+				//Done following roller.  Set angle to end angle.
+				currentAngle = roller.endAngle;
+			}
+
+			//If we have any leftover roller path, account for it here to keep spacing consistent.
+			//We may also have leftover straight path length if we didn't do anything on a roller.
+			//If we are on the last roller, we need to get the first roller to complete the loop.
+			RenderVehicle_TreadRoller nextRoller = i == rollers.length - 1 ? rollers[0] : rollers[i + 1];
+			double straightPathLength = Math.hypot(nextRoller.startY - roller.endY, nextRoller.startZ - roller.endZ);
+			double normalizedY = (nextRoller.startY - roller.endY)/straightPathLength;
+			double normalizedZ = (nextRoller.startZ - roller.endZ)/straightPathLength;
+			double currentY = roller.endY - normalizedY*(leftoverPathLength + rollerPathLength);
+			double currentZ = roller.endZ - normalizedZ*(leftoverPathLength + rollerPathLength);
+			straightPathLength += leftoverPathLength + rollerPathLength;
+			while(straightPathLength > deltaDist){
+				//Go to and add the next point on the straight path.
+				straightPathLength -= deltaDist;
+				currentY += normalizedY*deltaDist;
+				currentZ += normalizedZ*deltaDist;
+				points.add(new double[]{currentY, currentZ, roller.endAngle + 180});
+			}
+			leftoverPathLength = straightPathLength;
+		}
+
+		//Add a final point to the list to account for the tread gap.
+		//This point is in the middle of the first and last point.
+		double[] firstPoint = points.get(0);
+		double[] lastPoint = points.get(points.size() - 1);
+		points.add(new double[]{lastPoint[0] + (firstPoint[0] - lastPoint[0])/2D, lastPoint[1] + (firstPoint[1] - lastPoint[1])/2D, lastPoint[2]});
+
+		//Now bake the link positions for each phase.  Each link sits between its prior point and its point,
+		//based on how far it has moved.  Point 0 uses the last point as its prior point as it's a joint between two differing angles.
+		//Note that the model needs to be flipped 180 on the X-axis due to all our points assuming a YZ coordinate
+		//system with 0 degrees rotation being in +Y.  This is why 180 is added to all points cached in the operations above.
+		float[][][] linkTransforms = new float[MOVEMENT_PHASES][points.size() - 1][];
+		for(int phase=0; phase<MOVEMENT_PHASES; ++phase){
+			float movementPercentage = phase/(float) MOVEMENT_PHASES;
+			double[] priorPoint = points.get(points.size() - 1);
+			for(int i=0; i<points.size() - 1; ++i){
+				double[] point = points.get(i);
+				double angleDelta = point[2] - priorPoint[2];
+				//If our angle delta is greater than 180, we can assume that we're inverted.
+				//This happens when we cross the 360 degree rotation barrier.
+				if(angleDelta > 180){
+					angleDelta -= 360;
+				}else if(angleDelta < -180){
+					angleDelta += 360;
+				}
+				linkTransforms[phase][i] = new float[]{
+					(float) (priorPoint[0] + (point[0] - priorPoint[0])*movementPercentage),
+					(float) (priorPoint[1] + (point[1] - priorPoint[1])*movementPercentage),
+					(float) (priorPoint[2] + angleDelta*movementPercentage)
+				};
+				priorPoint = point;
+			}
+		}
+		return new RenderVehicle_TreadPath(linkTransforms, parsedLinkModel, false);
+	}
+}
@@ -13,8 +13,10 @@ import minecrafttransportsimulator.items.packs.parts.ItemPartCustom;
 import minecrafttransportsimulator.jsondefs.JSONVehicle.PackInstrument;
 import minecrafttransportsimulator.packets.vehicles.PacketVehicleInteract;
 import minecrafttransportsimulator.radio.RadioManager;
-import minecrafttransportsimulator.radio.RadioThread;
-import minecrafttransportsimulator.rendering.vehicles.RenderInstrument;
+import minecrafttransportsimulator.radio.RadioScheduler;
+import minecrafttransportsimulator.rendering.vehicles.RenderInstrumentAtlas;
+import minecrafttransportsimulator.rendering.vehicles.RenderLightGeometry;
+import minecrafttransportsimulator.rendering.vehicles.RenderProfiler;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
 import minecrafttransportsimulator.vehicles.parts.PartSeat;
 import minecrafttransportsimulator.wrappers.WrapperGUI;
@@ -38,6 +40,7 @@ import net.minecraftforge.client.event.RenderPlayerEvent;
 import net.minecraftforge.client.event.RenderWorldLastEvent;
 import net.minecraftforge.event.entity.player.AttackEntityEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
+import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.InputEvent;
@@ -55,7 +58,6 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 @SideOnly(Side.CLIENT)
 public final class ClientEventSystem{
     private static final Minecraft minecraft = Minecraft.getMinecraft();
-    private static final RadioThread radioThread = new RadioThread();
     
     /**
      * Fired when the player right-clicks an entity.  Check to see if the entity clicked is a vehicle.  If so,
@@ -165,11 +167,10 @@ public final class ClientEventSystem{
     			}
         	}else{
         		//We are on the client.  Do update logic.
-        		//First update the radio threa.
-        		if(!radioThread.isAlive()){
-                	radioThread.start();
-                }else{
-                	radioThread.setListenerPosition(event.player.posX, event.player.posY, event.player.posZ, !minecraft.isGamePaused());	
+        		//First update the radio scheduler.
+        		RadioScheduler.setListenerPosition(event.player.posX, event.player.posY, event.player.posZ, event.player.rotationYaw, VehicleSoundSystem.isPlayerInsideEnclosedVehicle(), !minecraft.isGamePaused());
+        		if(!RadioScheduler.isRunning()){
+                	RadioScheduler.start();
                 }
         		
         		//If we are riding a vehicle, do rotation and control operation.
@@ -247,7 +248,8 @@ public final class ClientEventSystem{
      * Used to force rendering of aircraft above the world height limit, as
      * newer versions suppress this as part of the chunk visibility
      * feature.  Also causes lights to render, as rendering them during regular calls
-     * results in water being invisible.
+     * results in water being invisible.  Vehicle sounds are updated as vehicles render,
+     * so voices are balanced once they all have been.
      */
     @SubscribeEvent
     public static void on(RenderWorldLastEvent event){
@@ -256,6 +258,10 @@ public final class ClientEventSystem{
             	minecraft.getRenderManager().getEntityRenderObject(entity).doRender(entity, 0, 0, 0, 0, event.getPartialTicks());
             }
         }
+        VehicleSoundSystem.updateVoices();
+        //Render all light beams queued by vehicles and poles this frame in one pass.
+        RenderLightGeometry.renderBeams();
+        RenderProfiler.endFrame();
     }
 
     /**
@@ -318,10 +324,15 @@ public final class ClientEventSystem{
     }
 
     /**
-     * Renders the HUD on vehicles.  We don't use the GUI here as it would lock inputs.
+     * Renders the HUD on vehicles, and the render profiler if enabled.  We don't use the GUI here as it would lock inputs.
      */
     @SubscribeEvent
-    public static void on(RenderGameOverlayEvent.Post event){    	
+    public static void on(RenderGameOverlayEvent.Post event){
+    	//Render the profiler overlay if it's active.
+    	if(event.getType().equals(RenderGameOverlayEvent.ElementType.TEXT)){
+    		RenderProfiler.renderOverlay();
+    	}
+    	
     	boolean inFirstPerson = minecraft.gameSettings.thirdPersonView == 0;
         if(minecraft.player.getRidingEntity() instanceof EntityVehicleE_Powered && (inFirstPerson ? ConfigSystem.configObject.client.renderHUD_1P.value : ConfigSystem.configObject.client.renderHUD_3P.value)){
             if(event.getType().equals(RenderGameOverlayEvent.ElementType.HOTBAR)){
@@ -357,7 +368,7 @@ public final class ClientEventSystem{
                 				GL11.glPushMatrix();
                 				GL11.glTranslated(guiLeft + packInstrument.hudX, guiTop + packInstrument.hudY, 0);
                 				GL11.glScalef(packInstrument.hudScale, packInstrument.hudScale, packInstrument.hudScale);
-                				RenderInstrument.drawInstrument(vehicle.instruments.get(instrumentNumber), packInstrument.optionalPartNumber, vehicle);
+                				RenderInstrumentAtlas.drawInstrument(vehicle, instrumentNumber);
                 				GL11.glPopMatrix();
                 			}
                 		}
@@ -372,6 +383,29 @@ public final class ClientEventSystem{
         }
     }
     
+    /**
+     * Checks for pack changes in dev mode every tick.
+     */
+    @SubscribeEvent
+    public static void on(TickEvent.ClientTickEvent event){
+    	if(event.phase.equals(Phase.END)){
+    		DevModeReloadSystem.update();
+    	}
+    }
+    
+    /**
+     * Stops all radios when the client world is unloaded.  The radio scheduler is
+     * started again on the first tick of the next world.  Also clears the instrument
+     * atlas so it doesn't hold on to vehicles from the old world.
+     */
+    @SubscribeEvent
+    public static void on(WorldEvent.Unload event){
+    	if(event.getWorld().isRemote){
+    		RadioScheduler.shutdown();
+    		RenderInstrumentAtlas.clearCaches();
+    	}
+    }
+    
     /**
      * Renders a warning on the MTS core creative tab if there is no pack data.
      */
@@ -51,6 +51,7 @@ public final class ConfigSystem{
 		if(configObject == null){
 			configObject = new JSONConfig();
 		}else{
+			LoadTimingSystem.Timer overrideTimer = LoadTimingSystem.start("craftingOverrides");
 			for(String craftingOverridePackID : configObject.crafting.overrides.keySet()){
 				if(MTSRegistry.packItemMap.containsKey(craftingOverridePackID)){
 					for(String craftingOverrideSystemName : configObject.crafting.overrides.get(craftingOverridePackID).keySet()){
@@ -60,6 +61,7 @@ public final class ConfigSystem{
 					}
 				}
 			}
+			overrideTimer.stop();
 		}
 		
 		//After parsing the config save it.  This allows new entries to be populated.
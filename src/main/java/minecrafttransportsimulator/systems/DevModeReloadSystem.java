@@ -0,0 +1,402 @@
+package minecrafttransportsimulator.systems;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import minecrafttransportsimulator.MTS;
+import minecrafttransportsimulator.blocks.core.TileEntityDecor;
+import minecrafttransportsimulator.dataclasses.MTSRegistry;
+import minecrafttransportsimulator.dataclasses.PackItemCatalog;
+import minecrafttransportsimulator.dataclasses.PackRecipeCache;
+import minecrafttransportsimulator.items.packs.AItemPack;
+import minecrafttransportsimulator.jsondefs.AJSONItem;
+import minecrafttransportsimulator.jsondefs.JSONDecor;
+import minecrafttransportsimulator.jsondefs.JSONInstrument;
+import minecrafttransportsimulator.jsondefs.JSONPart;
+import minecrafttransportsimulator.jsondefs.JSONVehicle;
+import minecrafttransportsimulator.rendering.blocks.RenderDecor;
+import minecrafttransportsimulator.rendering.vehicles.RenderInstrument;
+import minecrafttransportsimulator.rendering.vehicles.RenderInstrumentAtlas;
+import minecrafttransportsimulator.rendering.vehicles.RenderVehicle;
+import minecrafttransportsimulator.systems.PackParserSystem.ItemClassification;
+import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
+import minecrafttransportsimulator.vehicles.parts.APart;
+import net.minecraft.client.Minecraft;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.text.TextComponentString;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**Reloads pack JSON and OBJ models when they change on disk.  Only active in dev mode, and only for
+ * packs that are loaded from folders rather than jars, as is the case when a pack is run from a dev
+ * environment.  The jsondefs and objmodels folders of those packs are watched with a {@link WatchService}
+ * on a background thread.
+ * <br><br>
+ * Changes are applied on the client thread once no files have changed for {@link #SETTLE_TIME} ms, as
+ * editors often write files more than once.  Only the changed definitions and models are reloaded.
+ * New definitions are swapped into the existing items by {@link PackParserSystem#reloadDefinition(String, String, String, ItemClassification)},
+ * and then all loaded vehicles and decors have their definitions updated and their render caches cleared.
+ * This is done for the integrated server's worlds as well, on the server thread.
+ * <br><br>
+ * Items can't be registered after startup, so new pack items still need a restart.  Vehicles also keep
+ * the parts they were placed with, so changes to part positions need the vehicle to be placed again.
+ *
+ * @author don_bruce
+ */
+@SideOnly(Side.CLIENT)
+public final class DevModeReloadSystem{
+	/**Time to wait after the last change before reloading.**/
+	private static final long SETTLE_TIME = 500;
+	private static final Minecraft minecraft = Minecraft.getMinecraft();
+
+	private static boolean running;
+	private static WatchService watchService;
+	/**Folders being watched, keyed by their watch key.**/
+	private static final Map<WatchKey, PackFolder> watchedFolders = new ConcurrentHashMap<WatchKey, PackFolder>();
+	/**Files that have changed since the last reload.  Synchronize on this before using it.**/
+	private static final Map<Path, PackFolder> changedFiles = new LinkedHashMap<Path, PackFolder>();
+	private static long lastChangeTime;
+
+	/**
+	 *  Called every client tick.  Starts or stops watching packs if dev mode was toggled, and applies
+	 *  any changes that have settled.
+	 */
+	public static void update(){
+		boolean devMode = ConfigSystem.configObject.client.devMode.value;
+		if(devMode && !running){
+			start();
+		}else if(!devMode && running){
+			stop();
+		}
+		if(running){
+			List<Entry<Path, PackFolder>> changes;
+			synchronized(changedFiles){
+				if(changedFiles.isEmpty() || System.currentTimeMillis() - lastChangeTime < SETTLE_TIME){
+					return;
+				}
+				changes = new ArrayList<Entry<Path, PackFolder>>(changedFiles.entrySet());
+				changedFiles.clear();
+			}
+			applyChanges(changes);
+		}
+	}
+
+	private static void start(){
+		running = true;
+		try{
+			watchService = FileSystems.getDefault().newWatchService();
+		}catch(IOException e){
+			MTS.MTSLog.error("ERROR: Could not create file watcher for dev mode.  Packs won't be reloaded when they change.");
+			MTS.MTSLog.error(e.getMessage());
+			return;
+		}
+
+		//Find all packs that are in folders, and watch their jsondefs and objmodels folders.
+		Set<String> packIDs = new HashSet<String>(MTSRegistry.packItemMap.keySet());
+		packIDs.addAll(MTSRegistry.packSignMap.keySet());
+		for(String packID : packIDs){
+			URL packURL = DevModeReloadSystem.class.getResource("/assets/" + packID + "/");
+			if(packURL != null && packURL.getProtocol().equals("file")){
+				try{
+					Path packRoot = Paths.get(packURL.toURI());
+					for(String folderName : new String[]{"jsondefs", "objmodels"}){
+						Path folder = packRoot.resolve(folderName);
+						if(Files.isDirectory(folder)){
+							registerFolderTree(watchService, packID, packRoot, folder);
+						}
+					}
+				}catch(Exception e){
+					MTS.MTSLog.error("ERROR: Could not watch pack " + packID + " for changes.");
+					MTS.MTSLog.error(e.getMessage());
+				}
+			}
+		}
+		if(watchedFolders.isEmpty()){
+			MTS.MTSLog.info("Dev mode is on, but no packs are loaded from folders.  Packs will not be reloaded when they change.");
+			return;
+		}
+
+		Thread watchThread = new Thread(new Runnable(){
+			@Override
+			public void run(){
+				watchFiles(watchService);
+			}
+		}, "MTS Dev Mode Watcher");
+		watchThread.setDaemon(true);
+		watchThread.start();
+		MTS.MTSLog.info("Dev mode is watching " + watchedFolders.size() + " pack folders for changes.");
+	}
+
+	private static void stop(){
+		running = false;
+		if(watchService != null){
+			try{
+				watchService.close();
+			}catch(IOException e){
+				//We're done with it, so we don't care if it didn't close cleanly.
+			}
+			watchService = null;
+		}
+		watchedFolders.clear();
+		synchronized(changedFiles){
+			changedFiles.clear();
+		}
+	}
+
+	/**Watches for file changes until the passed-in service is closed.  Runs on the watcher thread.**/
+	private static void watchFiles(WatchService service){
+		try{
+			while(true){
+				WatchKey key = service.take();
+				PackFolder folder = watchedFolders.get(key);
+				if(folder != null){
+					for(WatchEvent<?> event : key.pollEvents()){
+						if(event.kind().equals(StandardWatchEventKinds.OVERFLOW)){
+							continue;
+						}
+						Path file = folder.path.resolve((Path) event.context());
+						if(Files.isDirectory(file)){
+							//New folders need to be watched too, as WatchService doesn't watch sub-folders.
+							if(event.kind().equals(StandardWatchEventKinds.ENTRY_CREATE)){
+								try{
+									registerFolderTree(service, folder.packID, folder.packRoot, file);
+								}catch(IOException e){
+									MTS.MTSLog.error("ERROR: Could not watch new folder " + file + " for changes.");
+								}
+							}
+						}else{
+							synchronized(changedFiles){
+								changedFiles.put(file, folder);
+								lastChangeTime = System.currentTimeMillis();
+							}
+						}
+					}
+				}
+				key.reset();
+			}
+		}catch(ClosedWatchServiceException e){
+			//Dev mode was turned off.  This can be thrown by take() or by registering a new folder.  Stop watching.
+		}catch(InterruptedException e){
+			//Game is closing.  Stop watching.
+		}
+	}
+
+	/**
+	 *  Watches the passed-in folder and all its sub-folders with the passed-in service.  The service is passed in
+	 *  rather than taken from {@link #watchService}, as {@link #stop()} may clear that while the watcher thread is
+	 *  in here.  If the service is closed, this throws a {@link ClosedWatchServiceException}.
+	 */
+	private static void registerFolderTree(final WatchService service, final String packID, final Path packRoot, Path folder) throws IOException{
+		Files.walkFileTree(folder, new SimpleFileVisitor<Path>(){
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException{
+				WatchKey key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+				watchedFolders.put(key, new PackFolder(packID, packRoot, dir));
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	/**Reloads all the passed-in changed files, and updates everything that used them.**/
+	private static void applyChanges(List<Entry<Path, PackFolder>> changes){
+		LoadTimingSystem.Timer timer = LoadTimingSystem.start("devModeReload");
+		List<AItemPack<? extends AJSONItem<?>>> reloadedItems = new ArrayList<AItemPack<? extends AJSONItem<?>>>();
+		Set<ResourceLocation> reloadedModels = new HashSet<ResourceLocation>();
+		int errors = 0;
+		for(Entry<Path, PackFolder> change : changes){
+			Path file = change.getKey();
+			PackFolder folder = change.getValue();
+			//Files that are deleted, or are temp files from editors, are ignored.
+			if(!Files.isRegularFile(file)){
+				continue;
+			}
+			Path relativePath = folder.packRoot.relativize(file);
+			String fileName = file.getFileName().toString();
+			if(relativePath.getName(0).toString().equals("jsondefs") && relativePath.getNameCount() >= 3 && fileName.endsWith(".json")){
+				ItemClassification classification = getClassification(relativePath.getName(1).toString());
+				if(classification != null){
+					try{
+						String jsonText = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+						reloadedItems.addAll(PackParserSystem.reloadDefinition(jsonText, fileName.substring(0, fileName.length() - ".json".length()), folder.packID, classification));
+					}catch(Exception e){
+						MTS.MTSLog.error("ERROR: Could not reload " + folder.packID + ":" + relativePath + ".  The old definition will be kept.");
+						MTS.MTSLog.error(e.getMessage());
+						++errors;
+					}
+				}
+			}else if(relativePath.getName(0).toString().equals("objmodels") && fileName.endsWith(".obj")){
+				reloadedModels.add(new ResourceLocation(folder.packID, relativePath.toString().replace(File.separatorChar, '/')));
+			}
+		}
+
+		//Re-build the systems that depend on the definitions.
+		if(!reloadedItems.isEmpty()){
+			PackItemCatalog.build();
+			PackRecipeCache.compile();
+		}
+
+		//Update the client world.  This also clears the render caches for any vehicles
+		//that had their definitions or models changed.
+		boolean decorsChanged = false;
+		for(AItemPack<? extends AJSONItem<?>> item : reloadedItems){
+			decorsChanged = decorsChanged || item.definition instanceof JSONDecor;
+		}
+		for(ResourceLocation modelLocation : reloadedModels){
+			decorsChanged = decorsChanged || modelLocation.getResourcePath().startsWith("objmodels/decors/");
+		}
+		if(decorsChanged){
+			RenderDecor.clearCaches();
+		}
+		
+		//Instruments cache their component variables, and the atlas caches cells by instrument slot.
+		//Both go stale if an instrument's components or a vehicle's instrument slots change.
+		boolean instrumentsChanged = false;
+		for(AItemPack<? extends AJSONItem<?>> item : reloadedItems){
+			instrumentsChanged = instrumentsChanged || item.definition instanceof JSONInstrument || item.definition instanceof JSONVehicle;
+		}
+		if(instrumentsChanged){
+			RenderInstrument.clearCaches();
+			RenderInstrumentAtlas.clearCaches();
+		}
+		Set<String> clearedVehicles = new HashSet<String>();
+		if(minecraft.world != null){
+			for(EntityVehicleE_Powered vehicle : updateDefinitions(minecraft.world)){
+				//Always clear caches for vehicles that use changed models, even if their definitions are the same.
+				if(!clearedVehicles.contains(vehicle.definition.genericName)){
+					RenderVehicle.clearVehicleCaches(vehicle);
+					clearedVehicles.add(vehicle.definition.genericName);
+				}
+			}
+			for(Entity entity : minecraft.world.loadedEntityList){
+				if(entity instanceof EntityVehicleE_Powered && ((EntityVehicleE_Powered) entity).definition != null){
+					EntityVehicleE_Powered vehicle = (EntityVehicleE_Powered) entity;
+					if(!clearedVehicles.contains(vehicle.definition.genericName) && reloadedModels.contains(new ResourceLocation(vehicle.definition.packID, "objmodels/vehicles/" + vehicle.definition.genericName + ".obj"))){
+						RenderVehicle.clearVehicleCaches(vehicle);
+						clearedVehicles.add(vehicle.definition.genericName);
+					}
+				}
+			}
+		}
+		for(ResourceLocation modelLocation : reloadedModels){
+			RenderVehicle.clearPartCaches(modelLocation);
+		}
+
+		//Update the integrated server's worlds, if we have one.  This needs to be done on the server thread.
+		final MinecraftServer server = minecraft.getIntegratedServer();
+		if(server != null && !reloadedItems.isEmpty()){
+			server.addScheduledTask(new Runnable(){
+				@Override
+				public void run(){
+					for(World world : server.worlds){
+						updateDefinitions(world);
+					}
+				}
+			});
+		}
+		timer.stop();
+		LoadTimingSystem.writeReport("devModeReload");
+
+		String message = "MTS dev mode: reloaded " + reloadedItems.size() + " definitions and " + reloadedModels.size() + " models.";
+		if(errors > 0){
+			message += "  " + errors + " files had errors, check the log for details.";
+		}
+		MTS.MTSLog.info(message);
+		if(minecraft.ingameGUI != null){
+			minecraft.ingameGUI.getChatGUI().printChatMessage(new TextComponentString(message));
+		}
+	}
+
+	/**
+	 *  Updates the definitions of all vehicles, parts, and decors in the passed-in world to the current definitions
+	 *  of their items.  Returns all vehicles that had their definition, or the definition of one of their parts, changed.
+	 *  This must be called on the thread that owns the world.
+	 */
+	private static List<EntityVehicleE_Powered> updateDefinitions(World world){
+		List<EntityVehicleE_Powered> changedVehicles = new ArrayList<EntityVehicleE_Powered>();
+		for(Entity entity : world.loadedEntityList){
+			if(entity instanceof EntityVehicleE_Powered && ((EntityVehicleE_Powered) entity).definition != null){
+				EntityVehicleE_Powered vehicle = (EntityVehicleE_Powered) entity;
+				boolean changed = false;
+				AJSONItem<?> currentDefinition = getCurrentDefinition(vehicle.definition);
+				if(currentDefinition != vehicle.definition){
+					vehicle.definition = (JSONVehicle) currentDefinition;
+					changed = true;
+				}
+				for(APart part : vehicle.getVehicleParts()){
+					currentDefinition = getCurrentDefinition(part.definition);
+					if(currentDefinition != part.definition){
+						part.definition = (JSONPart) currentDefinition;
+						changed = true;
+					}
+				}
+				if(changed){
+					changedVehicles.add(vehicle);
+				}
+			}
+		}
+		for(TileEntity tile : world.loadedTileEntityList){
+			if(tile instanceof TileEntityDecor && ((TileEntityDecor) tile).definition != null){
+				((TileEntityDecor) tile).definition = (JSONDecor) getCurrentDefinition(((TileEntityDecor) tile).definition);
+			}
+		}
+		return changedVehicles;
+	}
+
+	/**Returns the current definition of the item for the passed-in definition.  If there's no item, the passed-in definition is returned.**/
+	private static AJSONItem<?> getCurrentDefinition(AJSONItem<?> definition){
+		if(MTSRegistry.packItemMap.containsKey(definition.packID)){
+			AItemPack<? extends AJSONItem<?>> item = MTSRegistry.packItemMap.get(definition.packID).get(definition.systemName);
+			if(item != null){
+				return item.definition;
+			}
+		}
+		return definition;
+	}
+
+	private static ItemClassification getClassification(String assetFolder){
+		for(ItemClassification classification : ItemClassification.values()){
+			if(classification.assetFolder.equals(assetFolder)){
+				return classification;
+			}
+		}
+		return null;
+	}
+
+	private static final class PackFolder{
+		private final String packID;
+		private final Path packRoot;
+		private final Path path;
+
+		private PackFolder(String packID, Path packRoot, Path path){
+			this.packID = packID;
+			this.packRoot = packRoot;
+			this.path = path;
+		}
+	}
+}
@@ -0,0 +1,198 @@
+package minecrafttransportsimulator.systems;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gson.stream.JsonWriter;
+
+import minecrafttransportsimulator.MTS;
+
+/**Records how long each phase of loading takes.  Code that loads things calls {@link #start(String, String)}
+ * at the start of a phase, and {@link Timer#stop()} at the end.  Each phase records wall time, CPU time, and
+ * bytes allocated, for the thread that ran it.  Phases with the same name and pack are added together, so
+ * things like per-file parsing are reported as one phase per pack.
+ * <br><br>
+ * {@link #writeReport(String)} writes all phases recorded since the last report to a JSON file in the config
+ * folder, and then clears them.  This is done after startup and after dev-mode reloads, so load times can
+ * be tracked without having to read through logs.  The report is a JSON object with the following fields:
+ * <ul>
+ * <li>trigger: what caused the report, such as "startup"</li>
+ * <li>timestamp: time the report was written, in ms since the epoch</li>
+ * <li>cpuTimeSupported, allocationSupported: if false, the respective values in the phases are always 0</li>
+ * <li>phases: array of objects with the phase name, packID (if the phase is for a pack), number of times it ran,
+ * and the wall time, CPU time, and allocated bytes for all runs</li>
+ * </ul>
+ * Phases run on worker threads, such as pack and model parsing, may overlap, so the sum of phase times may
+ * be more than the total wall time.
+ *
+ * @author don_bruce
+ */
+public final class LoadTimingSystem{
+	private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+	private static final boolean cpuTimeSupported;
+	private static final boolean allocationSupported;
+	/**Recorded phases, keyed by name and packID.  Kept in the order the phases first ran.**/
+	private static final Map<String, PhaseRecord> phases = new LinkedHashMap<String, PhaseRecord>();
+
+	static{
+		boolean cpuTime = false;
+		try{
+			if(threadBean.isCurrentThreadCpuTimeSupported()){
+				if(!threadBean.isThreadCpuTimeEnabled()){
+					threadBean.setThreadCpuTimeEnabled(true);
+				}
+				cpuTime = true;
+			}
+		}catch(Exception e){
+			//JVM doesn't let us turn on CPU time.  Leave it off.
+		}
+		cpuTimeSupported = cpuTime;
+
+		//Allocation tracking is a HotSpot extension, so it may not exist on all JVMs.
+		boolean allocation = false;
+		try{
+			if(threadBean instanceof com.sun.management.ThreadMXBean){
+				com.sun.management.ThreadMXBean hotspotBean = (com.sun.management.ThreadMXBean) threadBean;
+				if(hotspotBean.isThreadAllocatedMemorySupported()){
+					if(!hotspotBean.isThreadAllocatedMemoryEnabled()){
+						hotspotBean.setThreadAllocatedMemoryEnabled(true);
+					}
+					allocation = true;
+				}
+			}
+		}catch(Throwable e){
+			//No HotSpot extensions on this JVM.  Leave allocation tracking off.
+		}
+		allocationSupported = allocation;
+	}
+
+	/**
+	 *  Starts timing a phase that isn't for any one pack.
+	 */
+	public static Timer start(String phase){
+		return new Timer(phase, null);
+	}
+
+	/**
+	 *  Starts timing a phase for the passed-in pack.  The returned timer must be stopped on the same thread
+	 *  that started it, or the CPU time and allocated bytes will be wrong.
+	 */
+	public static Timer start(String phase, String packID){
+		return new Timer(phase, packID);
+	}
+
+	/**
+	 *  Writes all phases recorded since the last report to the report file, and clears them.
+	 *  Does nothing if the config folder isn't known yet.
+	 */
+	public static synchronized void writeReport(String trigger){
+		if(MTS.configDir == null){
+			return;
+		}
+		File reportFile = new File(MTS.configDir, "mtsloadtimes.json");
+		File tempFile = new File(MTS.configDir, "mtsloadtimes.json.tmp");
+		try{
+			JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), StandardCharsets.UTF_8)));
+			try{
+				writer.setIndent("\t");
+				writer.beginObject();
+				writer.name("trigger").value(trigger);
+				writer.name("timestamp").value(System.currentTimeMillis());
+				writer.name("modVersion").value(MTS.MODVER);
+				writer.name("cpuTimeSupported").value(cpuTimeSupported);
+				writer.name("allocationSupported").value(allocationSupported);
+				writer.name("phases");
+				writer.beginArray();
+				for(PhaseRecord record : phases.values()){
+					writer.beginObject();
+					writer.name("phase").value(record.phase);
+					if(record.packID != null){
+						writer.name("packID").value(record.packID);
+					}
+					writer.name("runs").value(record.runs);
+					writer.name("wallMs").value(record.wallNanos/1000000D);
+					writer.name("cpuMs").value(record.cpuNanos/1000000D);
+					writer.name("allocatedBytes").value(record.allocatedBytes);
+					writer.endObject();
+				}
+				writer.endArray();
+				writer.endObject();
+			}finally{
+				writer.close();
+			}
+			Files.move(tempFile.toPath(), reportFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			phases.clear();
+		}catch(Exception e){
+			MTS.MTSLog.error("ERROR: Could not write load timing report to: " + reportFile.getAbsolutePath());
+			MTS.MTSLog.error(e.getMessage());
+			tempFile.delete();
+		}
+	}
+
+	private static synchronized void record(String phase, String packID, long wallNanos, long cpuNanos, long allocatedBytes){
+		String key = packID != null ? phase + ":" + packID : phase;
+		PhaseRecord record = phases.get(key);
+		if(record == null){
+			record = new PhaseRecord(phase, packID);
+			phases.put(key, record);
+		}
+		++record.runs;
+		record.wallNanos += wallNanos;
+		record.cpuNanos += cpuNanos;
+		record.allocatedBytes += allocatedBytes;
+	}
+
+	private static long getCpuNanos(){
+		return cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : 0;
+	}
+
+	private static long getAllocatedBytes(){
+		return allocationSupported ? ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+	}
+
+	/**Timer for a single run of a phase.  Made by {@link LoadTimingSystem#start(String, String)}.**/
+	public static final class Timer{
+		private final String phase;
+		private final String packID;
+		private final long startWallNanos;
+		private final long startCpuNanos;
+		private final long startAllocatedBytes;
+
+		private Timer(String phase, String packID){
+			this.phase = phase;
+			this.packID = packID;
+			this.startCpuNanos = getCpuNanos();
+			this.startAllocatedBytes = getAllocatedBytes();
+			this.startWallNanos = System.nanoTime();
+		}
+
+		/**Stops this timer and records its times.  Stopping a timer more than once records it more than once.**/
+		public void stop(){
+			long wallNanos = System.nanoTime() - startWallNanos;
+			record(phase, packID, wallNanos, getCpuNanos() - startCpuNanos, getAllocatedBytes() - startAllocatedBytes);
+		}
+	}
+
+	private static final class PhaseRecord{
+		private final String phase;
+		private final String packID;
+		private int runs;
+		private long wallNanos;
+		private long cpuNanos;
+		private long allocatedBytes;
+
+		private PhaseRecord(String phase, String packID){
+			this.phase = phase;
+			this.packID = packID;
+		}
+	}
+}
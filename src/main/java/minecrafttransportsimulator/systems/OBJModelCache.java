@@ -0,0 +1,191 @@
+package minecrafttransportsimulator.systems;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import minecrafttransportsimulator.MTS;
+
+/**Disk cache for parsed OBJ models.  Every model parsed by {@link OBJParserSystem} is saved in a
+ * binary file in the config folder, along with a SHA-1 hash of the OBJ it came from.  When the model
+ * is requested again, the hash of the OBJ is checked against the cached one, and if they match the
+ * cached arrays are loaded with a memory-mapped read rather than parsing the OBJ again.  If the OBJ
+ * has changed, the cache file is re-written after the OBJ is parsed.  Cache files are named after
+ * a SHA-1 hash of the pack and location of their model, so every model gets its own file.
+ * <br><br>
+ * The cache file format is as follows.  All values are big-endian.
+ * <ul>
+ * <li>int: {@link #MAGIC}</li>
+ * <li>int: {@link #VERSION}</li>
+ * <li>byte[20]: SHA-1 hash of the source OBJ</li>
+ * <li>int: number of objects</li>
+ * <li>For each object:
+ * 	<ul>
+ * 	<li>int + byte[]: length and UTF-8 bytes of the object name</li>
+ * 	<li>int + float[]: length and data of the object's vertex array, in the format of {@link OBJParserSystem#parseOBJModel(String, String)}</li>
+ * 	</ul>
+ * </li>
+ * </ul>
+ * Bump {@link #VERSION} if this format or the format of the parsed arrays ever changes.
+ *
+ * @author don_bruce
+ */
+public final class OBJModelCache{
+	/**Magic number at the start of all cache files.  This is "MTSM" in ASCII.**/
+	private static final int MAGIC = 0x4D54534D;
+	/**Version of the cache format.  Files with other versions are ignored and re-written.**/
+	private static final int VERSION = 2;
+	private static final int HASH_LENGTH = 20;
+	private static final int HEADER_LENGTH = 4 + 4 + HASH_LENGTH;
+
+	/**
+	 *  Loads the model at the passed-in location from the cache.  data is the raw OBJ data, and is used
+	 *  to check if the cached model is still valid.  Returns null if the model isn't cached, if the cached
+	 *  model is out of date, or if the cache file couldn't be read.
+	 */
+	public static Map<String, float[]> loadModel(String packID, String modelLocation, byte[] data){
+		return loadModel(getCacheFile(packID, modelLocation), modelLocation, data);
+	}
+
+	/**
+	 *  Loads a model from the passed-in cache file.  Package-private so tests can use their own cache files.
+	 */
+	static Map<String, float[]> loadModel(File cacheFile, String modelLocation, byte[] data){
+		if(!cacheFile.exists()){
+			return null;
+		}
+
+		try{
+			RandomAccessFile file = new RandomAccessFile(cacheFile, "r");
+			try{
+				//Read the header first without mapping the file.  This way we don't hold a mapping
+				//to a file we're going to re-write, which isn't allowed on some systems.
+				FileChannel channel = file.getChannel();
+				ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+				while(header.hasRemaining() && channel.read(header) != -1);
+				header.flip();
+				if(header.remaining() != HEADER_LENGTH || header.getInt() != MAGIC || header.getInt() != VERSION){
+					return null;
+				}
+				byte[] cachedHash = new byte[HASH_LENGTH];
+				header.get(cachedHash);
+				if(!Arrays.equals(cachedHash, getHash(data))){
+					return null;
+				}
+
+				//Header is good, map the file and read the objects.
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				buffer.position(HEADER_LENGTH);
+				int objectCount = buffer.getInt();
+				Map<String, float[]> partMap = new HashMap<String, float[]>();
+				for(int i=0; i<objectCount; ++i){
+					byte[] nameBytes = new byte[buffer.getInt()];
+					buffer.get(nameBytes);
+					float[] vertices = new float[buffer.getInt()];
+					buffer.asFloatBuffer().get(vertices);
+					buffer.position(buffer.position() + vertices.length*4);
+					partMap.put(new String(nameBytes, StandardCharsets.UTF_8), vertices);
+				}
+				return partMap;
+			}finally{
+				file.close();
+			}
+		}catch(Exception e){
+			MTS.MTSLog.error("ERROR: Could not read cached model for: " + modelLocation + ".  The model will be re-parsed.");
+			MTS.MTSLog.error(e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 *  Saves the passed-in parsed model to the cache.  data is the raw OBJ data the model was parsed from.
+	 *  The cache is written to a temporary file first, so a failed write won't leave a corrupted cache file.
+	 *  Each save gets its own temporary file, so two parses of the same model saving at once can't mix their data.
+	 */
+	public static void saveModel(String packID, String modelLocation, byte[] data, Map<String, float[]> partMap){
+		saveModel(getCacheFile(packID, modelLocation), modelLocation, data, partMap);
+	}
+
+	/**
+	 *  Saves a model to the passed-in cache file.  Package-private so tests can use their own cache files.
+	 */
+	static void saveModel(File cacheFile, String modelLocation, byte[] data, Map<String, float[]> partMap){
+		File tempFile = null;
+		try{
+			cacheFile.getParentFile().mkdirs();
+			tempFile = File.createTempFile(cacheFile.getName(), ".tmp", cacheFile.getParentFile());
+			DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+			try{
+				stream.writeInt(MAGIC);
+				stream.writeInt(VERSION);
+				stream.write(getHash(data));
+				stream.writeInt(partMap.size());
+				for(Entry<String, float[]> partEntry : partMap.entrySet()){
+					byte[] nameBytes = partEntry.getKey().getBytes(StandardCharsets.UTF_8);
+					float[] vertices = partEntry.getValue();
+					stream.writeInt(nameBytes.length);
+					stream.write(nameBytes);
+					stream.writeInt(vertices.length);
+					for(float vertex : vertices){
+						stream.writeFloat(vertex);
+					}
+				}
+			}finally{
+				stream.close();
+			}
+			Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}catch(Exception e){
+			MTS.MTSLog.error("ERROR: Could not save cached model for: " + modelLocation + ".  The model will be re-parsed next load.");
+			MTS.MTSLog.error(e.getMessage());
+			if(tempFile != null){
+				tempFile.delete();
+			}
+		}
+	}
+
+	/**
+	 *  Returns the cache file for the passed-in model.
+	 */
+	private static File getCacheFile(String packID, String modelLocation){
+		return new File(new File(MTS.configDir, "mtsmodelcache"), getCacheFileName(packID, modelLocation));
+	}
+
+	/**
+	 *  Returns the name of the cache file for the passed-in model.  This is the hex SHA-1 hash of the pack and location,
+	 *  so different models can't share a file, even if their paths only differ in characters that aren't allowed in file names.
+	 *  Models on disk (null packID) are kept apart from models in packs, as they may have the same path.
+	 *  Package-private so tests can check names.
+	 */
+	static String getCacheFileName(String packID, String modelLocation){
+		//Pack IDs and paths can't have newlines, so this can't be the same for two different models.
+		String key = (packID != null ? "pack:" + packID : "file") + "\n" + modelLocation;
+		StringBuilder fileName = new StringBuilder();
+		for(byte hashByte : getHash(key.getBytes(StandardCharsets.UTF_8))){
+			fileName.append(Character.forDigit((hashByte >> 4) & 0xF, 16)).append(Character.forDigit(hashByte & 0xF, 16));
+		}
+		return fileName.append(".bin").toString();
+	}
+
+	private static byte[] getHash(byte[] data){
+		try{
+			return MessageDigest.getInstance("SHA-1").digest(data);
+		}catch(NoSuchAlgorithmException e){
+			//All Java platforms are required to support SHA-1, so this should never happen.
+			throw new IllegalStateException("ERROR: SHA-1 is not supported on this platform.  This should never happen.");
+		}
+	}
+}
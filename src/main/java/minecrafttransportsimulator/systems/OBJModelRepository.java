@@ -0,0 +1,310 @@
+package minecrafttransportsimulator.systems;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.lwjgl.opengl.GL11;
+
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**Central repository for OBJ models on the client.  All code that needs a model should get it from here
+ * rather than calling {@link OBJParserSystem} directly, as this class makes sure every model is only parsed
+ * and uploaded once no matter how many things use it.
+ * <br><br>
+ * Models are parsed on worker threads.  Code that can skip rendering a frame should call
+ * {@link #isModelReady(String, String)} to start the parse and check if it's done, while code that needs
+ * the model right away can call {@link #getModel(String, String)} which will wait for the parse to finish.
+ * Parsed models are kept in an LRU cache, which drops the least-recently-used models once more than
+ * {@link #MAX_RESIDENT_BYTES} of model data is loaded.  Only models that are used through DisplayLists and bounds,
+ * like GUI previews, are dropped.  Models returned by {@link #getModel(String, String)} are kept, as the code
+ * that asked for them holds on to their arrays, and dropping them would only make a second copy if they're requested again.
+ * <br><br>
+ * Whole-model DisplayLists are reference-counted.  Each call to {@link #acquireDisplayList(String, String, boolean)}
+ * must be matched with a call to {@link #releaseDisplayList(int)} once the DisplayList is no longer needed.
+ * DisplayLists with no references are kept in an LRU cache of {@link #MAX_IDLE_DISPLAY_LISTS} entries,
+ * so GUIs that are closed and re-opened don't need to re-create them.
+ * <br><br>
+ * Apart from the parsing itself, this class is not thread-safe.  All methods should be called from the client thread.
+ *
+ * @author don_bruce
+ */
+@SideOnly(Side.CLIENT)
+public final class OBJModelRepository{
+	/**Max bytes of parsed model data to keep loaded.  Models currently being parsed can push us over this.**/
+	private static final long MAX_RESIDENT_BYTES = 64L*1024L*1024L;
+	/**Max number of DisplayLists to keep once they have no references.**/
+	private static final int MAX_IDLE_DISPLAY_LISTS = 32;
+
+	private static final ExecutorService parser = Executors.newFixedThreadPool(2, new ThreadFactory(){
+		@Override
+		public Thread newThread(Runnable runnable){
+			Thread thread = new Thread(runnable, "MTS Model Parser");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	/**Parsed models, keyed by packID and location.  Kept in access-order for the LRU cache.**/
+	private static final Map<String, ModelEntry> models = new LinkedHashMap<String, ModelEntry>(16, 0.75F, true);
+	/**DisplayLists with references, keyed by model key.**/
+	private static final Map<String, DisplayListEntry> displayLists = new HashMap<String, DisplayListEntry>();
+	/**DisplayLists without references, keyed by model key.  Kept in access-order for the LRU cache.**/
+	private static final Map<String, DisplayListEntry> idleDisplayLists = new LinkedHashMap<String, DisplayListEntry>(16, 0.75F, true);
+	/**All DisplayLists, keyed by GL ID.  Used for releasing.**/
+	private static final Map<Integer, DisplayListEntry> displayListIDs = new HashMap<Integer, DisplayListEntry>();
+
+	private static int hits;
+	private static int misses;
+	private static long residentBytes;
+	private static long totalParseNanos;
+
+	/**
+	 *  Returns true if the passed-in model has been parsed.  If the model isn't parsed, and isn't being parsed,
+	 *  this starts parsing it on a worker thread.  Errors during parsing are thrown from {@link #getModel(String, String)}.
+	 */
+	public static boolean isModelReady(String packID, String modelLocation){
+		return getEntry(packID, modelLocation).parsedModel.isDone();
+	}
+
+	/**
+	 *  Returns the parsed model in the format of {@link OBJParserSystem#parseOBJModel(String, String)}.
+	 *  If the model isn't parsed yet, this waits for it to be.  The returned map and arrays are shared,
+	 *  so they should NOT be modified.
+	 */
+	public static Map<String, float[]> getModel(String packID, String modelLocation){
+		return getParsedModel(packID, modelLocation, true).objects;
+	}
+
+	/**
+	 *  Returns the bounding box of the passed-in model as minX, minY, minZ, maxX, maxY, maxZ.
+	 *  If the model isn't parsed yet, this waits for it to be.
+	 */
+	public static float[] getBounds(String packID, String modelLocation){
+		return getParsedModel(packID, modelLocation, false).bounds;
+	}
+
+	/**
+	 *  Returns a DisplayList that renders the whole passed-in model, creating it if required.  If mirrored is
+	 *  true, the X-axis of the model is flipped, as is done for GUI rendering.  The returned DisplayList must
+	 *  be released with {@link #releaseDisplayList(int)} when it's no longer needed.
+	 */
+	public static int acquireDisplayList(String packID, String modelLocation, boolean mirrored){
+		String key = getKey(packID, modelLocation) + (mirrored ? "#mirrored" : "");
+		DisplayListEntry entry = displayLists.get(key);
+		if(entry == null){
+			entry = idleDisplayLists.remove(key);
+			if(entry == null){
+				entry = new DisplayListEntry(key, createDisplayList(getParsedModel(packID, modelLocation, false).objects, mirrored));
+				displayListIDs.put(entry.displayListID, entry);
+			}
+			displayLists.put(key, entry);
+		}
+		++entry.references;
+		return entry.displayListID;
+	}
+
+	/**
+	 *  Releases a DisplayList obtained from {@link #acquireDisplayList(String, String, boolean)}.
+	 *  Once a DisplayList has no references, it's moved to the idle cache, and may be deleted at any time.
+	 */
+	public static void releaseDisplayList(int displayListID){
+		DisplayListEntry entry = displayListIDs.get(displayListID);
+		if(entry == null || entry.references == 0){
+			throw new IllegalStateException("ERROR: Attempted to release DisplayList " + displayListID + " but it has no references.  This is a bug in the code releasing it.");
+		}
+		if(--entry.references == 0){
+			if(entry.invalidated){
+				//Model was invalidated while this DisplayList was in use.  Nothing can get it again, so delete it.
+				displayListIDs.remove(entry.displayListID);
+				GL11.glDeleteLists(entry.displayListID, 1);
+				return;
+			}
+			displayLists.remove(entry.key);
+			idleDisplayLists.put(entry.key, entry);
+			Iterator<DisplayListEntry> iterator = idleDisplayLists.values().iterator();
+			while(idleDisplayLists.size() > MAX_IDLE_DISPLAY_LISTS){
+				DisplayListEntry eldestEntry = iterator.next();
+				iterator.remove();
+				displayListIDs.remove(eldestEntry.displayListID);
+				GL11.glDeleteLists(eldestEntry.displayListID, 1);
+			}
+		}
+	}
+
+	/**
+	 *  Removes the passed-in model from the repository, so it will be re-parsed the next time it's requested.
+	 *  If the model is still being parsed, the parse is cancelled.  Idle DisplayLists for the model are deleted.
+	 *  DisplayLists with references stay valid until they are released, and are deleted then.  New requests
+	 *  for the model get a new DisplayList.  Used in dev mode to allow re-loading models.
+	 */
+	public static void invalidateModel(String packID, String modelLocation){
+		String key = getKey(packID, modelLocation);
+		ModelEntry entry = models.remove(key);
+		if(entry != null){
+			entry.parsedModel.cancel(true);
+			if(entry.bytes > 0){
+				residentBytes -= entry.bytes;
+			}
+		}
+		for(String displayListKey : new String[]{key, key + "#mirrored"}){
+			DisplayListEntry displayListEntry = idleDisplayLists.remove(displayListKey);
+			if(displayListEntry != null){
+				displayListIDs.remove(displayListEntry.displayListID);
+				GL11.glDeleteLists(displayListEntry.displayListID, 1);
+			}
+			displayListEntry = displayLists.remove(displayListKey);
+			if(displayListEntry != null){
+				displayListEntry.invalidated = true;
+			}
+		}
+	}
+
+	/**
+	 *  Returns a line of text with the repository stats.  Used for debugging.
+	 */
+	public static String getStats(){
+		return String.format("models: %d loaded (%.1f MB), %d/%d lists, %d hits, %d misses, %d ms parsing", models.size(), residentBytes/1048576F, displayLists.size(), idleDisplayLists.size(), hits, misses, totalParseNanos/1000000);
+	}
+
+	private static ModelEntry getEntry(final String packID, final String modelLocation){
+		String key = getKey(packID, modelLocation);
+		ModelEntry entry = models.get(key);
+		if(entry == null){
+			++misses;
+			entry = new ModelEntry(parser.submit(new Callable<ParsedModel>(){
+				@Override
+				public ParsedModel call(){
+					long startTime = System.nanoTime();
+					LoadTimingSystem.Timer timer = LoadTimingSystem.start("modelParse", packID);
+					Map<String, float[]> objects = OBJParserSystem.parseOBJModel(packID, modelLocation);
+					timer.stop();
+					return new ParsedModel(objects, System.nanoTime() - startTime);
+				}
+			}));
+			models.put(key, entry);
+		}
+		return entry;
+	}
+
+	/**
+	 *  Returns the parsed model, waiting for it if required.  Pass true for keep if the caller will hold on to the
+	 *  model's arrays.  Such models are never dropped from the LRU cache, as that wouldn't free their memory.
+	 */
+	private static ParsedModel getParsedModel(String packID, String modelLocation, boolean keep){
+		String key = getKey(packID, modelLocation);
+		if(models.containsKey(key)){
+			++hits;
+		}
+		ModelEntry entry = getEntry(packID, modelLocation);
+		ParsedModel parsedModel;
+		try{
+			parsedModel = entry.parsedModel.get();
+		}catch(ExecutionException e){
+			//Remove the model so we try again next time, and pass the parsing error on.
+			models.remove(key);
+			if(e.getCause() instanceof RuntimeException){
+				throw (RuntimeException) e.getCause();
+			}else{
+				throw new IllegalStateException("ERROR: Could not parse model: " + key, e.getCause());
+			}
+		}catch(InterruptedException e){
+			throw new IllegalStateException("ERROR: Interrupted while waiting for model: " + key);
+		}
+
+		//If this is the first time we've seen this model since it was parsed, add it to the stats.
+		//If we have too much model data loaded, drop the least-recently-used models that aren't kept.
+		entry.keep |= keep;
+		if(entry.bytes < 0){
+			entry.bytes = parsedModel.bytes;
+			residentBytes += parsedModel.bytes;
+			totalParseNanos += parsedModel.parseNanos;
+			Iterator<Map.Entry<String, ModelEntry>> iterator = models.entrySet().iterator();
+			while(residentBytes > MAX_RESIDENT_BYTES && iterator.hasNext()){
+				ModelEntry eldestEntry = iterator.next().getValue();
+				if(eldestEntry != entry && !eldestEntry.keep && eldestEntry.bytes > 0){
+					residentBytes -= eldestEntry.bytes;
+					iterator.remove();
+				}
+			}
+		}
+		return parsedModel;
+	}
+
+	private static int createDisplayList(Map<String, float[]> objects, boolean mirrored){
+		float xFactor = mirrored ? -1 : 1;
+		int displayListID = GL11.glGenLists(1);
+		GL11.glNewList(displayListID, GL11.GL_COMPILE);
+		GL11.glBegin(GL11.GL_TRIANGLES);
+		for(float[] vertices : objects.values()){
+			for(int i=0; i<vertices.length; i+=OBJParserSystem.VERTEX_SIZE){
+				GL11.glTexCoord2f(vertices[i + 3], vertices[i + 4]);
+				GL11.glNormal3f(vertices[i + 5], vertices[i + 6], vertices[i + 7]);
+				GL11.glVertex3f(xFactor*vertices[i], vertices[i + 1], vertices[i + 2]);
+			}
+		}
+		GL11.glEnd();
+		GL11.glEndList();
+		return displayListID;
+	}
+
+	private static String getKey(String packID, String modelLocation){
+		return packID + ":" + modelLocation;
+	}
+
+	private static final class ModelEntry{
+		private final Future<ParsedModel> parsedModel;
+		/**Bytes of model data, or -1 if the model hasn't been seen on the client thread yet.**/
+		private long bytes = -1;
+		/**True if the model's arrays were returned by {@link OBJModelRepository#getModel(String, String)}.**/
+		private boolean keep;
+
+		private ModelEntry(Future<ParsedModel> parsedModel){
+			this.parsedModel = parsedModel;
+		}
+	}
+
+	private static final class ParsedModel{
+		private final Map<String, float[]> objects;
+		private final float[] bounds = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+		private final long parseNanos;
+		private final long bytes;
+
+		private ParsedModel(Map<String, float[]> objects, long parseNanos){
+			this.objects = objects;
+			this.parseNanos = parseNanos;
+			long totalBytes = 0;
+			for(float[] vertices : objects.values()){
+				totalBytes += vertices.length*4L;
+				for(int i=0; i<vertices.length; i+=OBJParserSystem.VERTEX_SIZE){
+					for(int j=0; j<3; ++j){
+						bounds[j] = Math.min(bounds[j], vertices[i + j]);
+						bounds[j + 3] = Math.max(bounds[j + 3], vertices[i + j]);
+					}
+				}
+			}
+			this.bytes = totalBytes;
+		}
+	}
+
+	private static final class DisplayListEntry{
+		private final String key;
+		private final int displayListID;
+		private int references;
+		/**True if the model was invalidated while this DisplayList had references.**/
+		private boolean invalidated;
+
+		private DisplayListEntry(String key, int displayListID){
+			this.key = key;
+			this.displayListID = displayListID;
+		}
+	}
+}
@@ -1,225 +1,463 @@
 package minecrafttransportsimulator.systems;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**Class responsible for parsing OBJ models into arrays that can be fed to the GPU.
  * Much more versatile than the Forge system.
- * 
+ * <br><br>
+ * Models are read into a single byte array and parsed in-place with a hand-rolled
+ * number tokenizer, so no Strings are created for lines or numbers.  Each object in
+ * the model is returned as a packed float array, with {@link #VERTEX_SIZE} floats
+ * per vertex in the order X, Y, Z, U, V, nX, nY, nZ.  Every three vertices make
+ * up a triangle.  Parsed models are stored in the {@link OBJModelCache}, so
+ * models are only parsed again when they change.
+ *
  * @author don_bruce
  */
 public final class OBJParserSystem{
-	public static Map<String, Float[][]> parseOBJModel(String packID, String modelLocation){
-		Map<String, Float[][]> partMap = new HashMap<String, Float[][]>();
-		BufferedReader reader;
-		if(packID != null){
-			try{
-				reader = new BufferedReader(new InputStreamReader(OBJParserSystem.class.getResourceAsStream("/assets/" + packID + "/" + modelLocation)));
-			}catch(Exception e){
-				throw new NullPointerException("ERROR: Attempted to parse the OBJ model at: " + "/assets/" + packID + "/" + modelLocation + " but could not find it.  Check the path and try again.");
-			}
-		}else{
-			try{
-				reader = new BufferedReader(new FileReader(new File(modelLocation)));
-			}catch(Exception e){
-				throw new NullPointerException("ERROR: Attempted to parse the OBJ model at: " + modelLocation + " but could not find it.  Check the path and try again.");
-			}
-		}
-		
+	/**Number of floats per vertex in the parsed arrays.**/
+	public static final int VERTEX_SIZE = 8;
+	/**Powers of ten that can be exactly represented as doubles.  Used for number parsing.**/
+	/**Largest mantissa the fast float path takes.  Anything bigger might not be an exact double.**/
+	private static final long MAX_FAST_MANTISSA = 1L << 53;
+	/**The bits of a double's mantissa that are cut off when it's rounded to a float, and their value when
+	 * the double is exactly half-way between two floats.**/
+	private static final long FLOAT_HALFWAY_MASK = (1L << 29) - 1;
+	private static final long FLOAT_HALFWAY_BITS = 1L << 28;
+	private static final double[] POWERS_OF_TEN = {1E0, 1E1, 1E2, 1E3, 1E4, 1E5, 1E6, 1E7, 1E8, 1E9, 1E10, 1E11, 1E12, 1E13, 1E14, 1E15, 1E16, 1E17, 1E18, 1E19, 1E20, 1E21, 1E22};
+	/**UVs for windows.  Windows have their UVs overridden to map the glass texture to every triangle pair.**/
+	private static final float[] WINDOW_UVS = {0.0F, 1.0F, 1.0F, 1.0F, 1.0F, 0.0F, 0.0F, 1.0F, 1.0F, 0.0F, 0.0F, 0.0F};
+
+	public static Map<String, float[]> parseOBJModel(String packID, String modelLocation){
+		//Check the model cache before parsing.  If the cache doesn't have this model, or the
+		//model has changed since it was cached, parse it and store it in the cache.
+		byte[] data = readModelData(packID, modelLocation);
+		boolean useCache = ConfigSystem.configObject.client.modelCache.value;
+		if(useCache){
+			Map<String, float[]> cachedModel = OBJModelCache.loadModel(packID, modelLocation, data);
+			if(cachedModel != null){
+				return cachedModel;
+			}
+		}
+		Map<String, float[]> partMap = parseOBJData(data, modelLocation);
+		if(useCache){
+			OBJModelCache.saveModel(packID, modelLocation, data, partMap);
+		}
+		return partMap;
+	}
+	
+	/**
+	 *  Parses the passed-in OBJ model data.  modelLocation is only used for error messages.
+	 *  Package-private so the benchmarks and tests can parse without going through the cache.
+	 */
+	static Map<String, float[]> parseOBJData(byte[] data, String modelLocation){
+		Map<String, float[]> partMap = new HashMap<String, float[]>();
+		OBJReader reader = new OBJReader(data);
+
 		String partName = null;
-		final List<Float[]> vertexList = new ArrayList<Float[]>();
-		final List<Float[]> normalList = new ArrayList<Float[]>();
-		final List<Float[]> textureList = new ArrayList<Float[]>();
-		final List<String> faceList = new ArrayList<String>();
-		
-		try{
-			int lineNumber = 0;
-			while(reader.ready()){
-				String line = reader.readLine();
-				++lineNumber;
-				if(line.isEmpty()){
-					continue;
+		final FloatList vertexList = new FloatList();
+		final FloatList normalList = new FloatList();
+		final FloatList textureList = new FloatList();
+		final IntList faceList = new IntList();
+
+		while(reader.nextLine()){
+			if(reader.lineStartsWith('o')){
+				//Declaration of an object.
+				//Save current part we are parsing (if any) and start new part.
+				if(partName != null){
+					partMap.put(partName, compileVertexArray(vertexList, normalList, textureList, faceList, partName.toLowerCase().contains("window"), modelLocation));
+					vertexList.clear();
+					normalList.clear();
+					textureList.clear();
+					faceList.clear();
+				}
+				partName = reader.getLineRemainder(1);
+				if(partName.isEmpty()){
+					throw new IllegalArgumentException("ERROR: Object found with no name at line: " + reader.lineNumber + " of: " + modelLocation + ".  Make sure your model exporter isn't making things into groups rather than objects.");
 				}
-				if(line.startsWith("o")){
-					//Declaration of an object.
-					//Save current part we are parsing (if any) and start new part.
-					if(partName != null){
-						partMap.put(partName, compileVertexArray(vertexList, normalList, textureList, faceList, partName.toLowerCase().contains("window")));
-						vertexList.clear();
-						normalList.clear();
-						textureList.clear();
-						faceList.clear();
+			}
+			if(partName != null){
+				if(reader.lineStartsWith('v', ' ')){
+					try{
+						reader.skip(2);
+						vertexList.add(reader.nextFloat());
+						vertexList.add(reader.nextFloat());
+						vertexList.add(reader.nextFloat());
+					}catch(Exception e){
+						throw new NumberFormatException("ERROR: Could not parse vertex info at line: " + reader.lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex lines must consist of only three numbers (X, Y, Z).");
 					}
+				}else if(reader.lineStartsWith('v', 't')){
 					try{
-						partName = line.trim().substring(2, line.length());
+						reader.skip(3);
+						textureList.add(reader.nextFloat());
+						textureList.add(1 - reader.nextFloat());
 					}catch(Exception e){
-						throw new IllegalArgumentException("ERROR: Object found with no name at line: " + lineNumber + " of: " + modelLocation + ".  Make sure your model exporter isn't making things into groups rather than objects.");
+						throw new NumberFormatException("ERROR: Could not parse vertex texture info at line: " + reader.lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex texture lines must consist of only two numbers (U, V).");
 					}
-				}
-				if(partName != null){
-					if(line.startsWith("v ")){
-						try{
-							Float[] coords = new Float[3];
-							line = line.trim().substring(2, line.trim().length()).trim();
-							coords[0] = Float.valueOf(line.substring(0, line.indexOf(' ')));
-							coords[1] = Float.valueOf(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-							coords[2] = Float.valueOf(line.substring(line.lastIndexOf(' ') + 1, line.length()));
-							vertexList.add(coords);
-						}catch(Exception e){
-							throw new NumberFormatException("ERROR: Could not parse vertex info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex lines must consist of only three numbers (X, Y, Z).");
-						}
-					}else if(line.startsWith("vt ")){
-						try{
-							Float[] coords = new Float[2];
-							line = line.trim().substring(3, line.trim().length()).trim();
-							int space = line.indexOf(' ');
-							int vertexEnd = line.lastIndexOf(' ') == space ? line.length() : line.lastIndexOf(' ');
-							coords[0] = Float.valueOf(line.substring(0, space));
-							coords[1] = 1 - Float.valueOf(line.substring(space + 1, vertexEnd));
-							textureList.add(coords);
-						}catch(Exception e){
-							throw new NumberFormatException("ERROR: Could not parse vertex texture info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex texture lines must consist of only two numbers (U, V).");
-						}
-					}else if(line.startsWith("vn ")){
-						try{
-							Float[] coords = new Float[3];
-							line = line.trim().substring(2, line.trim().length()).trim();
-							coords[0] = Float.valueOf(line.substring(0, line.indexOf(' ')));
-							coords[1] = Float.valueOf(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-							coords[2] = Float.valueOf(line.substring(line.lastIndexOf(' ') + 1, line.length()));
-							normalList.add(coords);
-						}catch(Exception e){
-							throw new NumberFormatException("ERROR: Could not parse normals info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Normals lines must consist of only three numbers (Xn, Yn, Zn).");
-						}
-					}else if(line.startsWith("f ")){
-						faceList.add(line.trim().substring(2, line.trim().length()));
+				}else if(reader.lineStartsWith('v', 'n')){
+					try{
+						reader.skip(3);
+						normalList.add(reader.nextFloat());
+						normalList.add(reader.nextFloat());
+						normalList.add(reader.nextFloat());
+					}catch(Exception e){
+						throw new NumberFormatException("ERROR: Could not parse normals info at line: " + reader.lineNumber + " of: " + modelLocation + " due to bad formatting.  Normals lines must consist of only three numbers (Xn, Yn, Zn).");
+					}
+				}else if(reader.lineStartsWith('f', ' ')){
+					try{
+						reader.skip(2);
+						parseFace(reader, faceList);
+					}catch(Exception e){
+						throw new IllegalArgumentException("ERROR: Could not parse face info at line: " + reader.lineNumber + " of: " + modelLocation + ".  This is likely due to missing UV mapping on some or all faces.");
 					}
 				}
 			}
-			
-			//End of file.  Save the last part in process and close the file.
-			try{
-				partMap.put(partName, compileVertexArray(vertexList, normalList, textureList, faceList, partName.toLowerCase().contains("window")));
-			}catch(Exception e){
-				throw new IllegalArgumentException("ERROR: Could not compile points of: " + modelLocation + ".  This is likely due to missing UV mapping on some or all faces.");
+		}
+
+		//End of file.  Save the last part in process.
+		if(partName == null){
+			throw new IllegalArgumentException("ERROR: Could not compile points of: " + modelLocation + ".  No objects were found in the model.");
+		}
+		partMap.put(partName, compileVertexArray(vertexList, normalList, textureList, faceList, partName.toLowerCase().contains("window"), modelLocation));
+		return partMap;
+	}
+
+	/**
+	 *  Reads the entire model into a byte array.  If packID is null, modelLocation is a file on disk.
+	 *  Otherwise, it's a resource in the assets folder of the pack.
+	 */
+	static byte[] readModelData(String packID, String modelLocation){
+		String fullLocation = packID != null ? "/assets/" + packID + "/" + modelLocation : modelLocation;
+		InputStream stream;
+		try{
+			stream = packID != null ? OBJParserSystem.class.getResourceAsStream(fullLocation) : new FileInputStream(new File(modelLocation));
+		}catch(Exception e){
+			stream = null;
+		}
+		if(stream == null){
+			throw new NullPointerException("ERROR: Attempted to parse the OBJ model at: " + fullLocation + " but could not find it.  Check the path and try again.");
+		}
+
+		try{
+			byte[] data = new byte[Math.max(stream.available(), 8192)];
+			int length = 0;
+			int bytesRead;
+			while((bytesRead = stream.read(data, length, data.length - length)) != -1){
+				length += bytesRead;
+				if(length == data.length){
+					byte[] newData = new byte[data.length*2];
+					System.arraycopy(data, 0, newData, 0, length);
+					data = newData;
+				}
+			}
+			stream.close();
+			if(length != data.length){
+				byte[] trimmedData = new byte[length];
+				System.arraycopy(data, 0, trimmedData, 0, length);
+				data = trimmedData;
 			}
-			reader.close();
-			return partMap;
-			
+			return data;
 		}catch(IOException e){
 			throw new IllegalStateException("ERROR: Could not finish parsing: " + modelLocation + " due to IOException error.  Did the file change state during parsing?");
 		}
 	}
-	
-	private static Float[][] compileVertexArray(List<Float[]> vertexList, List<Float[]> normalList, List<Float[]> textureList, List<String> faceList, boolean isWindow){
-		List<Integer[]> vertexDataSets = new ArrayList<Integer[]>();
-		for(String faceString : faceList){
-			List<Integer[]> faceVertexData = new ArrayList<Integer[]>();	
-			while(!faceString.isEmpty()){
-				//Get the face string in format X/Y/Z.  Use the space as a separator between vertices making up the face.
-				int defEnd = faceString.indexOf(' ');
-				String faceDef;
-				if(defEnd != -1){
-					//Take the faceDef from the faceString and store it.
-					faceDef = faceString.substring(0, defEnd);
-					faceString = faceString.substring(defEnd + 1);
-				}else{
-					//We are at the last face vertex here, so just mark the face as the existing string.
-					faceDef = faceString;
-					faceString = "";
-				}
-				
-				//Vertex number is the first entry before the slash.
-				//Texture number is the second entry between the two slashes.
-				//Normal number is the third entry after the second slash.
-				//Parse all these out and store them in the array.
-				int firstSlash = faceDef.indexOf('/');
-				int secondSlash = faceDef.lastIndexOf('/');
-				int vertexNumber = Integer.valueOf(faceDef.substring(0, firstSlash)) - 1;
-				int textureNumber = Integer.valueOf(faceDef.substring(firstSlash + 1, secondSlash)) - 1;
-				int normalNumber = Integer.valueOf(faceDef.substring(secondSlash + 1)) - 1;
-				
-				//If we have three or more points in faceValues, it means we need to make a triangle out of this shape.
-				//Add the first point, the most recent point, and this point to make a triangle.
-				//Otherwise, just add the face as-is.
-				if(faceVertexData.size() >= 3){
-					faceVertexData.add(faceVertexData.get(0));
-					faceVertexData.add(faceVertexData.get(faceVertexData.size() - 2));
-				}
-				faceVertexData.add(new Integer[]{vertexNumber, textureNumber, normalNumber});
+
+	/**
+	 *  Parses the face on the reader's current line.  Faces are in the format of X/Y/Z, where
+	 *  X is the vertex number, Y is the texture number, and Z is the normal number.  Faces with
+	 *  more than three points are split into a fan of triangles.  The vertex, texture, and normal
+	 *  number of each triangle point are added to the face list.
+	 */
+	private static void parseFace(OBJReader reader, IntList faceList){
+		int faceStart = faceList.size;
+		int points = 0;
+		while(reader.hasNextToken()){
+			//If we have three or more points in the face, it means we need to make a triangle out of this shape.
+			//Add the first point, the most recent point, and this point to make a triangle.
+			if(points >= 3){
+				int recentPoint = faceList.size - 3;
+				faceList.add(faceList.data[faceStart]);
+				faceList.add(faceList.data[faceStart + 1]);
+				faceList.add(faceList.data[faceStart + 2]);
+				faceList.add(faceList.data[recentPoint]);
+				faceList.add(faceList.data[recentPoint + 1]);
+				faceList.add(faceList.data[recentPoint + 2]);
 			}
-			vertexDataSets.addAll(faceVertexData);
+			faceList.add(reader.nextInt() - 1);
+			reader.expect('/');
+			faceList.add(reader.nextInt() - 1);
+			reader.expect('/');
+			faceList.add(reader.nextInt() - 1);
+			++points;
 		}
-		
+	}
+
+	private static float[] compileVertexArray(FloatList vertexList, FloatList normalList, FloatList textureList, IntList faceList, boolean isWindow, String modelLocation){
 		//Get the correct offset for face values in the lists.
 		//Find the smallest face number and use that as the offset.
 		int vertexOffset = Integer.MAX_VALUE;
 		int textureOffset = Integer.MAX_VALUE;
 		int normalOffset = Integer.MAX_VALUE;
-		for(Integer[] vertexData : vertexDataSets){
-			vertexOffset = Math.min(vertexOffset, vertexData[0]);
-			textureOffset = Math.min(textureOffset, vertexData[1]);
-			normalOffset = Math.min(normalOffset, vertexData[2]);
-		}
-		
-		//Populate the vertex array in order of the vertices used in the faces.
-		List<Float[]> vertexArray = new ArrayList<Float[]>();
-		for(Integer[] vertexData : vertexDataSets){
-			vertexArray.add(vertexList.get(vertexData[0] - vertexOffset));
-		}
-		
-		//Now populate the texture array.
+		for(int i=0; i<faceList.size; i+=3){
+			vertexOffset = Math.min(vertexOffset, faceList.data[i]);
+			textureOffset = Math.min(textureOffset, faceList.data[i + 1]);
+			normalOffset = Math.min(normalOffset, faceList.data[i + 2]);
+		}
+
+		//Populate the array in order of the vertices used in the faces.
 		//If we are parsing windows override the texture coords.
-		List<Float[]> textureArray = new ArrayList<Float[]>();
-		if(isWindow){
-			for(int i=0; i<vertexDataSets.size(); i+=3){
-				textureArray.add(new Float[]{0.0F, 1.0F});
-				textureArray.add(new Float[]{1.0F, 1.0F});
-				textureArray.add(new Float[]{1.0F, 0.0F});
-				//If we have only 3 points, it means this window is just a single triangle.
-				//Don't add the 4th fake point and just end compilation here.
-				if(vertexArray.size() > 3){
-					textureArray.add(new Float[]{0.0F, 1.0F});
-					textureArray.add(new Float[]{1.0F, 0.0F});
-					textureArray.add(new Float[]{0.0F, 0.0F});
+		int vertexCount = faceList.size/3;
+		float[] compiledArray = new float[vertexCount*VERTEX_SIZE];
+		for(int i=0; i<vertexCount; ++i){
+			int vertexIndex = (faceList.data[i*3] - vertexOffset)*3;
+			int textureIndex = (faceList.data[i*3 + 1] - textureOffset)*2;
+			int normalIndex = (faceList.data[i*3 + 2] - normalOffset)*3;
+			if(vertexIndex + 3 > vertexList.size || normalIndex + 3 > normalList.size || (!isWindow && textureIndex + 2 > textureList.size)){
+				throw new IllegalArgumentException("ERROR: Could not compile points of: " + modelLocation + ".  This is likely due to missing UV mapping on some or all faces.");
+			}
+			int offset = i*VERTEX_SIZE;
+			compiledArray[offset] = vertexList.data[vertexIndex];
+			compiledArray[offset + 1] = vertexList.data[vertexIndex + 1];
+			compiledArray[offset + 2] = vertexList.data[vertexIndex + 2];
+			if(isWindow){
+				compiledArray[offset + 3] = WINDOW_UVS[(i%6)*2];
+				compiledArray[offset + 4] = WINDOW_UVS[(i%6)*2 + 1];
+			}else{
+				compiledArray[offset + 3] = textureList.data[textureIndex];
+				compiledArray[offset + 4] = textureList.data[textureIndex + 1];
+			}
+			compiledArray[offset + 5] = normalList.data[normalIndex];
+			compiledArray[offset + 6] = normalList.data[normalIndex + 1];
+			compiledArray[offset + 7] = normalList.data[normalIndex + 2];
+		}
+		return compiledArray;
+	}
+
+	/**Cursor over the model data.  Tracks the current line and position in the line.**/
+	private static final class OBJReader{
+		private final byte[] data;
+		private int lineNumber;
+		private int lineStart;
+		private int lineEnd;
+		private int position;
+
+		private OBJReader(byte[] data){
+			this.data = data;
+			this.lineEnd = -1;
+		}
+
+		/**Advances to the next non-empty line.  Returns false if there are no more lines.**/
+		private boolean nextLine(){
+			do{
+				lineStart = lineEnd + 1;
+				if(lineStart >= data.length){
+					return false;
+				}
+				lineEnd = lineStart;
+				while(lineEnd < data.length && data[lineEnd] != '\n'){
+					++lineEnd;
+				}
+				++lineNumber;
+			}while(getTrimmedEnd() == lineStart);
+			position = lineStart;
+			return true;
+		}
+
+		private boolean lineStartsWith(char first){
+			return data[lineStart] == first;
+		}
+
+		private boolean lineStartsWith(char first, char second){
+			return lineStart + 2 < lineEnd && data[lineStart] == first && data[lineStart + 1] == second && (second == ' ' || data[lineStart + 2] == ' ');
+		}
+
+		private void skip(int count){
+			position += count;
+		}
+
+		/**Returns the rest of the line after the passed-in number of characters, with whitespace trimmed.**/
+		private String getLineRemainder(int offset){
+			int start = lineStart + offset;
+			int end = getTrimmedEnd();
+			while(start < end && isWhitespace(data[start])){
+				++start;
+			}
+			return start < end ? new String(data, start, end - start, StandardCharsets.UTF_8) : "";
+		}
+
+		/**Returns true if there is another whitespace-separated token on this line.**/
+		private boolean hasNextToken(){
+			skipWhitespace();
+			return position < lineEnd;
+		}
+
+		/**Checks that the next character is the passed-in character and moves past it.**/
+		private void expect(char character){
+			if(position >= lineEnd || data[position] != character){
+				throw new NumberFormatException();
+			}
+			++position;
+		}
+
+		private int nextInt(){
+			skipWhitespace();
+			boolean negative = false;
+			if(position < lineEnd && data[position] == '-'){
+				negative = true;
+				++position;
+			}
+			int start = position;
+			int value = 0;
+			while(position < lineEnd && data[position] >= '0' && data[position] <= '9'){
+				value = value*10 + (data[position++] - '0');
+			}
+			if(position == start){
+				throw new NumberFormatException();
+			}
+			return negative ? -value : value;
+		}
+
+		/**
+		 *  Parses the next float on the line.  Plain decimal numbers with up to 15 significant digits and small
+		 *  exponents are parsed into a long and scaled by a power of ten, which gives the exact same float as
+		 *  {@link Float#parseFloat(String)}.  Anything else, such as long numbers, NaN, or Infinity, is handed off
+		 *  to {@link Float#parseFloat(String)} so we never give a different answer than it would.
+		 */
+		private float nextFloat(){
+			skipWhitespace();
+			int start = position;
+			boolean negative = false;
+			if(position < lineEnd && (data[position] == '-' || data[position] == '+')){
+				negative = data[position] == '-';
+				++position;
+			}
+
+			long mantissa = 0;
+			int exponent = 0;
+			boolean foundDigit = false;
+			boolean inFraction = false;
+			boolean fastPath = true;
+			while(position < lineEnd){
+				byte character = data[position];
+				if(character >= '0' && character <= '9'){
+					foundDigit = true;
+					if(fastPath){
+						mantissa = mantissa*10 + (character - '0');
+						if(inFraction){
+							--exponent;
+						}
+						if(mantissa > MAX_FAST_MANTISSA){
+							fastPath = false;
+						}
+					}
+				}else if(character == '.' && !inFraction){
+					inFraction = true;
 				}else{
 					break;
 				}
+				++position;
+			}
+			if(position < lineEnd && foundDigit && (data[position] == 'e' || data[position] == 'E')){
+				++position;
+				boolean negativeExponent = false;
+				if(position < lineEnd && (data[position] == '-' || data[position] == '+')){
+					negativeExponent = data[position] == '-';
+					++position;
+				}
+				int exponentStart = position;
+				int exponentValue = 0;
+				while(position < lineEnd && data[position] >= '0' && data[position] <= '9'){
+					if(exponentValue < 1000){
+						exponentValue = exponentValue*10 + (data[position] - '0');
+					}
+					++position;
+				}
+				if(position == exponentStart){
+					fastPath = false;
+				}
+				exponent += negativeExponent ? -exponentValue : exponentValue;
 			}
-		}else{
-			for(Integer[] face : vertexDataSets){
-				textureArray.add(textureList.get(face[1] - textureOffset));
-			}
-		}
-		
-		//Finally, populate the normal array.
-		List<Float[]> normalArray = new ArrayList<Float[]>();
-		for(Integer[] face : vertexDataSets){
-			normalArray.add(normalList.get(face[2] - normalOffset));
-		}
-
-		//Compile arrays and return.
-		List<Float[]> compiledArray = new ArrayList<Float[]>();
-		for(int i=0; i<vertexArray.size(); ++i){
-			compiledArray.add(new Float[]{
-				vertexArray.get(i)[0],
-				vertexArray.get(i)[1],
-				vertexArray.get(i)[2],
-				textureArray.get(i)[0],
-				textureArray.get(i)[1],
-				normalArray.get(i)[0],
-				normalArray.get(i)[1],
-				normalArray.get(i)[2]
-			});
-		}
-		
-		return compiledArray.toArray(new Float[compiledArray.size()][8]);
+			if(!foundDigit || (position < lineEnd && !isWhitespace(data[position]) && data[position] != '/')){
+				fastPath = false;
+			}
+
+			if(fastPath && exponent >= -22 && exponent <= 22){
+				//Both the mantissa and the power of ten are exact doubles, so this is the correctly rounded double.
+				double value = exponent < 0 ? mantissa/POWERS_OF_TEN[-exponent] : mantissa*POWERS_OF_TEN[exponent];
+				//Rounding that double to a float only differs from rounding the exact value to a float if the
+				//double landed exactly half-way between two floats.  That's rare, so let Java sort those out.
+				if(value == 0 || (value >= Float.MIN_NORMAL && value <= Float.MAX_VALUE && (Double.doubleToRawLongBits(value) & FLOAT_HALFWAY_MASK) != FLOAT_HALFWAY_BITS)){
+					return (float) (negative ? -value : value);
+				}
+			}
+
+			//Not a number we can parse exactly.  Move to the end of the token and let Java parse it.
+			while(position < lineEnd && !isWhitespace(data[position]) && data[position] != '/'){
+				++position;
+			}
+			return Float.parseFloat(new String(data, start, position - start, StandardCharsets.US_ASCII));
+		}
+
+		private void skipWhitespace(){
+			while(position < lineEnd && isWhitespace(data[position])){
+				++position;
+			}
+		}
+
+		private int getTrimmedEnd(){
+			int end = lineEnd;
+			while(end > lineStart && isWhitespace(data[end - 1])){
+				--end;
+			}
+			return end;
+		}
+
+		private static boolean isWhitespace(byte character){
+			return character == ' ' || character == '\t' || character == '\r';
+		}
+	}
+
+	/**Growable list of primitive floats.**/
+	private static final class FloatList{
+		private float[] data = new float[1024];
+		private int size;
+
+		private void add(float value){
+			if(size == data.length){
+				float[] newData = new float[data.length*2];
+				System.arraycopy(data, 0, newData, 0, size);
+				data = newData;
+			}
+			data[size++] = value;
+		}
+
+		private void clear(){
+			size = 0;
+		}
+	}
+
+	/**Growable list of primitive ints.**/
+	private static final class IntList{
+		private int[] data = new int[1024];
+		private int size;
+
+		private void add(int value){
+			if(size == data.length){
+				int[] newData = new int[data.length*2];
+				System.arraycopy(data, 0, newData, 0, size);
+				data = newData;
+			}
+			data[size++] = value;
+		}
+
+		private void clear(){
+			size = 0;
+		}
 	}
 }
@@ -2,11 +2,23 @@ package minecrafttransportsimulator.systems;
 
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.gson.Gson;
 
+import minecrafttransportsimulator.MTS;
+import minecrafttransportsimulator.dataclasses.CompiledVehicleDefinition;
 import minecrafttransportsimulator.dataclasses.CreativeTabPack;
 import minecrafttransportsimulator.dataclasses.MTSRegistry;
 import minecrafttransportsimulator.items.packs.AItemPack;
@@ -77,6 +89,10 @@ import net.minecraft.world.World;
 /**
  * Class responsible for parsing content pack data.  Gets properties from the text files that other parts
  * of the code can use.
+ * <br><br>
+ * Pack loading is done in two phases.  When a pack adds a definition, the JSON is read and then parsed
+ * on a pool of worker threads.  Once all definitions are needed, {@link #finishPackLoading()} waits for
+ * the parsing to finish and registers the items in the order the definitions were added.
  *
  * @author don_bruce
  */
@@ -85,6 +101,24 @@ public final class PackParserSystem{
 	/**List of log entries to be added to the log.  Saved here as the log won't be ready till preInit, which
 	 * runs after this parsing operation.*/
 	public static List<String> logEntries = new ArrayList<String>();
+	
+	/**Number of threads to parse pack JSON on.**/
+	private static final int PARSER_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+	/**Gson instance for all pack parsing.  Gson is thread-safe, so this is shared by all parser threads.**/
+	private static final Gson gson = new Gson();
+	/**Definitions that have been queued for parsing, in the order they were added.**/
+	private static final List<PendingDefinition> pendingDefinitions = new ArrayList<PendingDefinition>();
+	private static ExecutorService definitionParser;
+	private static long readNanos;
+	private static final AtomicLong parseNanos = new AtomicLong();
+	
+	static{
+		//Create the type adapters for all definitions up-front, rather than having
+		//the parser threads all try to create them at once for the first files.
+		for(Class<?> definitionClass : new Class<?>[]{JSONVehicle.class, JSONPart.class, JSONInstrument.class, JSONSign.class, JSONDecor.class, JSONItem.class, JSONBooklet.class}){
+			gson.getAdapter(definitionClass);
+		}
+	}
     
     
     //-----START OF INIT LOGIC-----
@@ -99,120 +133,317 @@ public final class PackParserSystem{
     
     /**Packs should call this upon load to add their vehicles to the mod.**/
     public static void addVehicleDefinition(InputStreamReader jsonReader, String jsonFileName, String packID){
-    	try{
-    		JSONVehicle mainDefinition = new Gson().fromJson(jsonReader, JSONVehicle.class);
-    		mainDefinition.genericName = jsonFileName;
-    		for(VehicleDefinition subDefinition : mainDefinition.definitions){
-    			//Need to copy the JSON into a new instance to allow differing systemNames.
-    			JSONVehicle mainDefinitionCopy = new JSONVehicle();
-    			mainDefinitionCopy.packID = mainDefinition.packID;
-    			mainDefinitionCopy.classification = mainDefinition.classification;
-    			mainDefinitionCopy.genericName = mainDefinition.genericName;
-    			//Need to copy general too, as we need to set the name for each general section to be unique.
-    			mainDefinitionCopy.general = mainDefinition.new VehicleGeneral();
-    			mainDefinitionCopy.general.name = subDefinition.name;
-    			mainDefinitionCopy.general.description = mainDefinition.general.description;
-    			mainDefinitionCopy.general.materials = mainDefinition.general.materials;
-    			mainDefinitionCopy.general.openTop = mainDefinition.general.openTop;
-    			mainDefinitionCopy.general.emptyMass = mainDefinition.general.emptyMass;
-    			mainDefinitionCopy.general.type = mainDefinition.general.type;
-    			
-    			//Copy the rest of the parameters as-is.
-    			mainDefinitionCopy.definitions = mainDefinition.definitions;
-    			mainDefinitionCopy.motorized = mainDefinition.motorized;
-    			mainDefinitionCopy.plane = mainDefinition.plane;
-    			mainDefinitionCopy.blimp = mainDefinition.blimp;
-    			mainDefinitionCopy.car = mainDefinition.car;
-    			mainDefinitionCopy.parts = mainDefinition.parts;
-    			mainDefinitionCopy.collision = mainDefinition.collision;
-    			mainDefinitionCopy.rendering = mainDefinition.rendering;
-    			
-    			ItemVehicle vehicle = new ItemVehicle(mainDefinitionCopy, subDefinition.subName);
-    			setupItem(vehicle, jsonFileName + subDefinition.subName, packID, ItemClassification.VEHICLE);
-    			List<String> materials = new ArrayList<String>();
-				for(String material : mainDefinitionCopy.general.materials){
-					materials.add(material);
-				}
-				for(String material : subDefinition.extraMaterials){
-					materials.add(material);
-				}
-				//Need to set this again to account for the extraMaterials.
-				MTSRegistry.packCraftingMap.put(vehicle, materials.toArray(new String[materials.size()]));
-    		}
-    		
-    	}catch(Exception e){
-    		logEntries.add("AN ERROR WAS ENCOUNTERED WHEN TRY TO PARSE: " + packID + ":" + jsonFileName);
-    		logEntries.add(e.getMessage());
-    	}
+    	queueDefinition(jsonReader, jsonFileName, packID, ItemClassification.VEHICLE, JSONVehicle.class);
     }
     
     /**Packs should call this upon load to add their parts to the mod.**/
     public static void addPartDefinition(InputStreamReader jsonReader, String jsonFileName, String packID){
-    	try{
-    		setupItem(createPartItem(new Gson().fromJson(jsonReader, JSONPart.class)), jsonFileName, packID, ItemClassification.PART);
-    	}catch(Exception e){
-    		logEntries.add("AN ERROR WAS ENCOUNTERED WHEN TRY TO PARSE: " + packID + ":" + jsonFileName);
-    		logEntries.add(e.getMessage());
-    	}
+    	queueDefinition(jsonReader, jsonFileName, packID, ItemClassification.PART, JSONPart.class);
     }
     
     /**Packs should call this upon load to add their instrument set to the mod.**/
     public static void addInstrumentDefinition(InputStreamReader jsonReader, String jsonFileName, String packID){
-    	try{
-    		setupItem(new ItemInstrument(new Gson().fromJson(jsonReader, JSONInstrument.class)), jsonFileName, packID, ItemClassification.INSTRUMENT);
-    	}catch(Exception e){
-    		logEntries.add("AN ERROR WAS ENCOUNTERED WHEN TRY TO PARSE: " + packID + ":" + jsonFileName);
-    		logEntries.add(e.getMessage());
-    	}
+    	queueDefinition(jsonReader, jsonFileName, packID, ItemClassification.INSTRUMENT, JSONInstrument.class);
     }
     
     /**Packs should call this upon load to add their signs to the mod.**/
     public static void addSignDefinition(InputStreamReader jsonReader, String jsonFileName, String packID){
-    	try{
-    		//Signs are a special-case as they don't have items or crafting materials.
-	    	//Instead, they are just definitions that sit by themselves.
-    		JSONSign definition =  new Gson().fromJson(jsonReader, JSONSign.class);
-	    	definition.packID = packID;
-	    	definition.classification = ItemClassification.SIGN;
-	    	definition.systemName = jsonFileName;
-	    	
-	    	if(!MTSRegistry.packSignMap.containsKey(packID)){
-	    		MTSRegistry.packSignMap.put(packID, new LinkedHashMap<String, JSONSign>());
-	    	}
-	    	MTSRegistry.packSignMap.get(packID).put(jsonFileName, definition);
-    	}catch(Exception e){
-    		logEntries.add("AN ERROR WAS ENCOUNTERED WHEN TRY TO PARSE: " + packID + ":" + jsonFileName);
-    		logEntries.add(e.getMessage());
-    	}
+    	queueDefinition(jsonReader, jsonFileName, packID, ItemClassification.SIGN, JSONSign.class);
     }
     
     /**Packs should call this upon load to add their decor blocks to the mod.**/
     public static void addDecorDefinition(InputStreamReader jsonReader, String jsonFileName, String packID){
-    	try{
-    		setupItem(new ItemDecor(new Gson().fromJson(jsonReader, JSONDecor.class)), jsonFileName, packID, ItemClassification.DECOR);
-    	}catch(Exception e){
-    		logEntries.add("AN ERROR WAS ENCOUNTERED WHEN TRY TO PARSE: " + packID + ":" + jsonFileName);
-    		logEntries.add(e.getMessage());
-    	}
+    	queueDefinition(jsonReader, jsonFileName, packID, ItemClassification.DECOR, JSONDecor.class);
     }
     
     /**Packs should call this upon load to add their crafting items to the mod.**/
     public static void addItemDefinition(InputStreamReader jsonReader, String jsonFileName, String packID){
-    	try{
-	    	setupItem(new ItemItem(new Gson().fromJson(jsonReader, JSONItem.class)), jsonFileName, packID, ItemClassification.ITEM);
-    	}catch(Exception e){
-    		logEntries.add("AN ERROR WAS ENCOUNTERED WHEN TRY TO PARSE: " + packID + ":" + jsonFileName);
-    		logEntries.add(e.getMessage());
-    	}
+    	queueDefinition(jsonReader, jsonFileName, packID, ItemClassification.ITEM, JSONItem.class);
     }
     
     /**Packs should call this upon load to add their booklets to the mod.**/
     public static void addBookletDefinition(InputStreamReader jsonReader, String jsonFileName, String packID){
+    	queueDefinition(jsonReader, jsonFileName, packID, ItemClassification.BOOKLET, JSONBooklet.class);
+    }
+    
+    /**Reads the JSON from the passed-in reader and queues it to be parsed on the worker pool.
+     * The JSON is read here as packs may close the reader once this call returns.**/
+    private static void queueDefinition(InputStreamReader jsonReader, String jsonFileName, String packID, ItemClassification classification, Class<? extends AJSONItem<?>> definitionClass){
     	try{
-    		setupItem(new ItemBooklet(new Gson().fromJson(jsonReader, JSONBooklet.class)), jsonFileName, packID, ItemClassification.BOOKLET);
+    		long startTime = System.nanoTime();
+    		LoadTimingSystem.Timer timer = LoadTimingSystem.start("packRead", packID);
+    		StringBuilder jsonBuilder = new StringBuilder();
+    		char[] buffer = new char[8192];
+    		int charsRead;
+    		while((charsRead = jsonReader.read(buffer)) != -1){
+    			jsonBuilder.append(buffer, 0, charsRead);
+    		}
+    		PendingDefinition pending = new PendingDefinition(jsonFileName, packID, classification, definitionClass, jsonBuilder.toString());
+    		readNanos += System.nanoTime() - startTime;
+    		timer.stop();
+    		pending.parsedDefinition = submitParse(pending);
+    		pendingDefinitions.add(pending);
     	}catch(Exception e){
-    		logEntries.add("AN ERROR WAS ENCOUNTERED WHEN TRY TO PARSE: " + packID + ":" + jsonFileName);
-    		logEntries.add(e.getMessage());
+    		logError("AN ERROR WAS ENCOUNTERED WHEN TRY TO PARSE: " + packID + ":" + jsonFileName);
+    		logError(e.getMessage());
+    	}
+    }
+    
+    /**Waits for all queued definitions to be parsed, and registers them in the order they were added.
+     * This keeps the contents of {@link MTSRegistry#packItemMap} the same no matter how the parsing
+     * was scheduled.  This must be called before anything uses the pack maps in {@link MTSRegistry}.
+     * Calling it when there are no queued definitions does nothing.**/
+    public static void finishPackLoading(){
+    	if(pendingDefinitions.isEmpty()){
+    		return;
+    	}
+    	
+    	//Wait for all parsing to finish.
+    	LoadTimingSystem.Timer loadingTimer = LoadTimingSystem.start("packLoading");
+    	LoadTimingSystem.Timer waitTimer = LoadTimingSystem.start("packParseWait");
+    	long startTime = System.nanoTime();
+    	for(PendingDefinition pending : pendingDefinitions){
+    		try{
+    			pending.definition = pending.parsedDefinition.get();
+    		}catch(ExecutionException e){
+    			logError("AN ERROR WAS ENCOUNTERED WHEN TRY TO PARSE: " + pending.packID + ":" + pending.jsonFileName);
+    			logError(e.getCause().getMessage());
+    		}catch(InterruptedException e){
+    			logError("AN ERROR WAS ENCOUNTERED WHEN TRY TO PARSE: " + pending.packID + ":" + pending.jsonFileName);
+    			logError(e.getMessage());
+    		}
+    	}
+    	long waitNanos = System.nanoTime() - startTime;
+    	waitTimer.stop();
+    	
+    	//Now register all definitions in the order they were added.
+    	startTime = System.nanoTime();
+    	for(PendingDefinition pending : pendingDefinitions){
+    		if(pending.definition != null){
+    			LoadTimingSystem.Timer registerTimer = LoadTimingSystem.start("packRegister", pending.packID);
+	    		try{
+	    			registerDefinition(pending.definition, pending.jsonFileName, pending.packID, pending.classification);
+	    		}catch(Exception e){
+	    			logError("AN ERROR WAS ENCOUNTERED WHEN TRY TO PARSE: " + pending.packID + ":" + pending.jsonFileName);
+	    			logError(e.getMessage());
+	    		}
+	    		registerTimer.stop();
+    		}
+    	}
+    	long registerNanos = System.nanoTime() - startTime;
+    	
+    	//Log the time spent in each phase.  Parsing is summed over all workers, so it may be more than the wall time.
+    	String timingMessage = String.format("Loaded %d pack definitions.  Read: %d ms, parse: %d ms on %d threads, waiting on parse: %d ms, registration: %d ms.", pendingDefinitions.size(), readNanos/1000000, parseNanos.get()/1000000, PARSER_THREADS, waitNanos/1000000, registerNanos/1000000);
+    	if(MTS.MTSLog != null){
+    		MTS.MTSLog.info(timingMessage);
+    	}else{
+    		logEntries.add(timingMessage);
+    	}
+    	loadingTimer.stop();
+    	pendingDefinitions.clear();
+    	readNanos = 0;
+    	parseNanos.set(0);
+    	if(definitionParser != null){
+	    	definitionParser.shutdown();
+	    	definitionParser = null;
+    	}
+    }
+    
+    /**Submits the passed-in definition to be parsed on the worker pool.**/
+    private static Future<AJSONItem<?>> submitParse(final PendingDefinition pending){
+    	if(definitionParser == null){
+			definitionParser = Executors.newFixedThreadPool(PARSER_THREADS, new ThreadFactory(){
+				@Override
+				public Thread newThread(Runnable runnable){
+					Thread thread = new Thread(runnable, "MTS Pack Parser");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return definitionParser.submit(new Callable<AJSONItem<?>>(){
+			@Override
+			public AJSONItem<?> call(){
+				long startTime = System.nanoTime();
+				LoadTimingSystem.Timer timer = LoadTimingSystem.start("packParse", pending.packID);
+				AJSONItem<?> definition = gson.fromJson(pending.jsonText, pending.definitionClass);
+				timer.stop();
+				parseNanos.addAndGet(System.nanoTime() - startTime);
+				return definition;
+			}
+		});
+    }
+    
+    /**Registers the parsed definition.  This creates the items for the definition and sets them up.**/
+    private static void registerDefinition(AJSONItem<?> parsedDefinition, String jsonFileName, String packID, ItemClassification classification){
+    	switch(classification){
+    		case VEHICLE: {
+    			JSONVehicle mainDefinition = (JSONVehicle) parsedDefinition;
+        		mainDefinition.genericName = jsonFileName;
+        		for(VehicleDefinition subDefinition : mainDefinition.definitions){
+        			JSONVehicle mainDefinitionCopy = createVehicleDefinition(mainDefinition, subDefinition);
+        			ItemVehicle vehicle = new ItemVehicle(mainDefinitionCopy, subDefinition.subName);
+        			setupItem(vehicle, jsonFileName + subDefinition.subName, packID, ItemClassification.VEHICLE);
+    				//Need to set this again to account for the extraMaterials.
+    				MTSRegistry.packCraftingMap.put(vehicle, getVehicleMaterials(mainDefinitionCopy, subDefinition));
+        		}
+        		break;
+    		}
+    		case PART: setupItem(createPartItem((JSONPart) parsedDefinition), jsonFileName, packID, classification); break;
+    		case INSTRUMENT: setupItem(new ItemInstrument((JSONInstrument) parsedDefinition), jsonFileName, packID, classification); break;
+    		case SIGN: {
+    			//Signs are a special-case as they don't have items or crafting materials.
+    	    	//Instead, they are just definitions that sit by themselves.
+        		JSONSign definition = (JSONSign) parsedDefinition;
+    	    	definition.packID = packID;
+    	    	definition.classification = ItemClassification.SIGN;
+    	    	definition.systemName = jsonFileName;
+    	    	
+    	    	if(!MTSRegistry.packSignMap.containsKey(packID)){
+    	    		MTSRegistry.packSignMap.put(packID, new LinkedHashMap<String, JSONSign>());
+    	    	}
+    	    	MTSRegistry.packSignMap.get(packID).put(jsonFileName, definition);
+    	    	break;
+    		}
+    		case DECOR: setupItem(new ItemDecor((JSONDecor) parsedDefinition), jsonFileName, packID, classification); break;
+    		case ITEM: setupItem(new ItemItem((JSONItem) parsedDefinition), jsonFileName, packID, classification); break;
+    		case BOOKLET: setupItem(new ItemBooklet((JSONBooklet) parsedDefinition), jsonFileName, packID, classification); break;
+    	}
+    }
+    
+    /**Creates the definition for one of the sub-definitions of the passed-in vehicle.**/
+    private static JSONVehicle createVehicleDefinition(JSONVehicle mainDefinition, VehicleDefinition subDefinition){
+		//Need to copy the JSON into a new instance to allow differing systemNames.
+		JSONVehicle mainDefinitionCopy = new JSONVehicle();
+		mainDefinitionCopy.packID = mainDefinition.packID;
+		mainDefinitionCopy.classification = mainDefinition.classification;
+		mainDefinitionCopy.genericName = mainDefinition.genericName;
+		//Need to copy general too, as we need to set the name for each general section to be unique.
+		mainDefinitionCopy.general = mainDefinition.new VehicleGeneral();
+		mainDefinitionCopy.general.name = subDefinition.name;
+		mainDefinitionCopy.general.description = mainDefinition.general.description;
+		mainDefinitionCopy.general.materials = mainDefinition.general.materials;
+		mainDefinitionCopy.general.openTop = mainDefinition.general.openTop;
+		mainDefinitionCopy.general.emptyMass = mainDefinition.general.emptyMass;
+		mainDefinitionCopy.general.type = mainDefinition.general.type;
+		
+		//Copy the rest of the parameters as-is.
+		mainDefinitionCopy.definitions = mainDefinition.definitions;
+		mainDefinitionCopy.motorized = mainDefinition.motorized;
+		mainDefinitionCopy.plane = mainDefinition.plane;
+		mainDefinitionCopy.blimp = mainDefinition.blimp;
+		mainDefinitionCopy.car = mainDefinition.car;
+		mainDefinitionCopy.parts = mainDefinition.parts;
+		mainDefinitionCopy.collision = mainDefinition.collision;
+		mainDefinitionCopy.rendering = mainDefinition.rendering;
+		
+		//All sub-definitions share the same parts and collision, so they can share the compiled data too.
+		if(mainDefinition.compiled == null){
+			mainDefinition.compiled = new CompiledVehicleDefinition(mainDefinition);
+		}
+		mainDefinitionCopy.compiled = mainDefinition.compiled;
+		return mainDefinitionCopy;
+    }
+    
+    /**Returns the crafting materials for the passed-in vehicle definition, including the extraMaterials of its sub-definition.**/
+    private static String[] getVehicleMaterials(JSONVehicle vehicleDefinition, VehicleDefinition subDefinition){
+    	List<String> materials = new ArrayList<String>();
+		for(String material : vehicleDefinition.general.materials){
+			materials.add(material);
+		}
+		for(String material : subDefinition.extraMaterials){
+			materials.add(material);
+		}
+		return materials.toArray(new String[materials.size()]);
+    }
+    
+    /**Re-parses the passed-in JSON and swaps the new definitions into the existing items.  Used by dev-mode
+     * reloading.  Items can't be registered after startup, so this throws an exception if the JSON would
+     * add an item that doesn't already exist, or change the type of an existing part.  All definitions are
+     * checked before any are swapped, so a failed reload leaves the old definitions in place.
+     * Returns all items that had their definitions swapped.  Must be called on the client thread.**/
+    public static List<AItemPack<? extends AJSONItem<?>>> reloadDefinition(String jsonText, String jsonFileName, String packID, ItemClassification classification){
+    	AJSONItem<?> parsedDefinition = gson.fromJson(jsonText, getDefinitionClass(classification));
+    	
+    	//Signs don't have items, so just replace the sign definition.
+    	if(classification.equals(ItemClassification.SIGN)){
+    		JSONSign definition = (JSONSign) parsedDefinition;
+	    	definition.packID = packID;
+	    	definition.classification = ItemClassification.SIGN;
+	    	definition.systemName = jsonFileName;
+	    	if(!MTSRegistry.packSignMap.containsKey(packID) || !MTSRegistry.packSignMap.get(packID).containsKey(jsonFileName)){
+	    		throw new IllegalArgumentException("ERROR: " + packID + ":" + jsonFileName + " is a new sign.  New signs can't be added until the game is restarted.");
+	    	}
+	    	MTSRegistry.packSignMap.get(packID).put(jsonFileName, definition);
+	    	return new ArrayList<AItemPack<? extends AJSONItem<?>>>();
+    	}
+    	
+    	//Get the new definitions for all items, keyed by systemName.
+    	Map<String, AJSONItem<?>> newDefinitions = new LinkedHashMap<String, AJSONItem<?>>();
+    	Map<String, String[]> newVehicleMaterials = new HashMap<String, String[]>();
+    	if(classification.equals(ItemClassification.VEHICLE)){
+    		JSONVehicle mainDefinition = (JSONVehicle) parsedDefinition;
+    		mainDefinition.genericName = jsonFileName;
+    		for(VehicleDefinition subDefinition : mainDefinition.definitions){
+    			JSONVehicle mainDefinitionCopy = createVehicleDefinition(mainDefinition, subDefinition);
+    			newDefinitions.put(jsonFileName + subDefinition.subName, mainDefinitionCopy);
+    			newVehicleMaterials.put(jsonFileName + subDefinition.subName, getVehicleMaterials(mainDefinitionCopy, subDefinition));
+    		}
+    	}else{
+    		newDefinitions.put(jsonFileName, parsedDefinition);
+    	}
+    	
+    	//Make sure all the items exist and are compatible before we swap anything.
+    	for(Entry<String, AJSONItem<?>> definitionEntry : newDefinitions.entrySet()){
+    		String systemName = definitionEntry.getKey();
+    		AJSONItem<?> definition = definitionEntry.getValue();
+    		definition.packID = packID;
+    		definition.classification = classification;
+    		definition.systemName = systemName;
+    		if(!MTSRegistry.packItemMap.containsKey(packID) || !MTSRegistry.packItemMap.get(packID).containsKey(systemName)){
+    			throw new IllegalArgumentException("ERROR: " + packID + ":" + systemName + " is a new item.  New items can't be added until the game is restarted.");
+    		}
+    		AItemPack<? extends AJSONItem<?>> item = MTSRegistry.packItemMap.get(packID).get(systemName);
+    		if(definition instanceof JSONPart && !((JSONPart) definition).general.type.equals(((JSONPart) item.definition).general.type)){
+    			throw new IllegalArgumentException("ERROR: The type of part " + packID + ":" + systemName + " was changed.  Part types can't be changed until the game is restarted.");
+    		}
+    	}
+    	
+    	//Now swap the definitions.
+    	List<AItemPack<? extends AJSONItem<?>>> reloadedItems = new ArrayList<AItemPack<? extends AJSONItem<?>>>();
+    	for(Entry<String, AJSONItem<?>> definitionEntry : newDefinitions.entrySet()){
+    		AItemPack<? extends AJSONItem<?>> item = MTSRegistry.packItemMap.get(packID).get(definitionEntry.getKey());
+    		item.setDefinition(definitionEntry.getValue());
+    		if(newVehicleMaterials.containsKey(definitionEntry.getKey())){
+    			MTSRegistry.packCraftingMap.put(item, newVehicleMaterials.get(definitionEntry.getKey()));
+    		}else if(item.definition.general instanceof AJSONCraftable.General){
+        		MTSRegistry.packCraftingMap.put(item, ((AJSONCraftable<?>.General) item.definition.general).materials);
+        	}
+    		reloadedItems.add(item);
+    	}
+    	return reloadedItems;
+    }
+    
+    /**Returns the definition class for the passed-in classification.**/
+    private static Class<? extends AJSONItem<?>> getDefinitionClass(ItemClassification classification){
+    	switch(classification){
+    		case VEHICLE: return JSONVehicle.class;
+    		case PART: return JSONPart.class;
+    		case INSTRUMENT: return JSONInstrument.class;
+    		case SIGN: return JSONSign.class;
+    		case DECOR: return JSONDecor.class;
+    		case ITEM: return JSONItem.class;
+    		case BOOKLET: return JSONBooklet.class;
+    		default: throw new IllegalArgumentException("ERROR: " + classification + " is not a valid classification.");
+    	}
+    }
+    
+    /**Logs the error, or saves it in {@link #logEntries} if the log isn't ready yet.**/
+    private static void logError(String message){
+    	if(MTS.MTSLog != null){
+    		MTS.MTSLog.error(message);
+    	}else{
+    		logEntries.add(message);
     	}
     }
     
@@ -324,6 +555,26 @@ public final class PackParserSystem{
 		}
     }
     
+    private static final class PendingDefinition{
+    	private final String jsonFileName;
+    	private final String packID;
+    	private final ItemClassification classification;
+    	private final Class<? extends AJSONItem<?>> definitionClass;
+    	private final String jsonText;
+    	/**Parse of the JSON, if it's being parsed on the worker pool.**/
+    	private Future<AJSONItem<?>> parsedDefinition;
+    	/**The definition, once it's been parsed.**/
+    	private AJSONItem<?> definition;
+    	
+    	private PendingDefinition(String jsonFileName, String packID, ItemClassification classification, Class<? extends AJSONItem<?>> definitionClass, String jsonText){
+    		this.jsonFileName = jsonFileName;
+    		this.packID = packID;
+    		this.classification = classification;
+    		this.definitionClass = definitionClass;
+    		this.jsonText = jsonText;
+    	}
+    }
+    
     public enum ItemClassification{
     	VEHICLE,
     	PART,
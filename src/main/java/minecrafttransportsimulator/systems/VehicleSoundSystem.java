@@ -5,12 +5,18 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import minecrafttransportsimulator.MTS;
 import minecrafttransportsimulator.baseclasses.VehicleSound;
@@ -19,9 +25,9 @@ import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
 import minecrafttransportsimulator.vehicles.parts.APartEngine;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.audio.SoundManager;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.math.Vec3d;
-import net.minecraftforge.client.event.RenderWorldLastEvent;
 import net.minecraftforge.client.event.sound.SoundLoadEvent;
 import net.minecraftforge.client.event.sound.SoundSetupEvent;
 import net.minecraftforge.event.world.WorldEvent;
@@ -50,7 +56,36 @@ public final class VehicleSoundSystem{
 	private static final URLStreamHandler fileStreamHandler = new FileStreamHandler();
 	private static final URLStreamHandler resourceStreamHandler = new ResourceStreamHandler();
 	
-	private static final List<String> playingSounds = new ArrayList<String>();
+	//Voice limits.  Scores are explained in getVoiceScore.
+	private static final int MIN_VOICES = 4;
+	private static final float RIDING_SCORE = 1000F;
+	private static final float VOICE_KEEP_FACTOR = 1.25F;
+	
+	//Change thresholds.  Looping sources are only updated if their values change by more than these.
+	private static final float VOLUME_THRESHOLD = 0.01F;
+	private static final float PITCH_THRESHOLD = 0.005F;
+	private static final float POSITION_THRESHOLD = 0.05F;
+	
+	/**URLs for all sounds that have been played, keyed by sound name.  Sounds that don't exist map to null.**/
+	private static final Map<String, URL> soundURLs = new HashMap<String, URL>();
+	//Orphan sweep interval, in ticks.  Sources are normally released when their vehicle dies, so this is just a safety net.
+	private static final int SWEEP_INTERVAL = 40;
+	
+	/**Active looping sources, keyed by the entity ID of their vehicle, then their source ID.
+	 * Only some of these have voices in the SoundSystem at a time.**/
+	private static final Map<Integer, Map<String, SoundSource>> vehicleSources = new HashMap<Integer, Map<String, SoundSource>>();
+	/**List for sorting sources when balancing voices.  Kept to avoid making a new one every frame.**/
+	private static final List<Entry<String, SoundSource>> rankedSources = new ArrayList<Entry<String, SoundSource>>();
+	/**Sorts sources from highest to lowest ranking score.  Ties go to the lowest source ID, so the order doesn't depend on the map.**/
+	private static final Comparator<Entry<String, SoundSource>> voiceComparator = new Comparator<Entry<String, SoundSource>>(){
+		@Override
+		public int compare(Entry<String, SoundSource> entry1, Entry<String, SoundSource> entry2){
+			int scoreComparison = Float.compare(entry2.getValue().getRankingScore(), entry1.getValue().getRankingScore());
+			return scoreComparison != 0 ? scoreComparison : entry1.getKey().compareTo(entry2.getKey());
+		}
+	};
+	private static int voicesInUse;
+	private static long lastSweepTime;
 	private static SoundManager mcSoundManager;
 	private static SoundSystem mcSoundSystem;
 	private static byte soundSystemStartupDelay = 0;
@@ -79,7 +114,8 @@ public final class VehicleSoundSystem{
 	public static void on(SoundLoadEvent event){
 		mcSoundSystem = null;
 		soundSystemStartupDelay = 50;
-		playingSounds.clear();
+		vehicleSources.clear();
+		voicesInUse = 0;
 	}
 	
 	/**
@@ -88,38 +124,50 @@ public final class VehicleSoundSystem{
 	@SubscribeEvent
 	public static void on(WorldEvent.Unload event){
 		if(event.getWorld().isRemote){
-			for(String soundID : playingSounds){
-				if(mcSoundSystem.playing(soundID)){
-					mcSoundSystem.stop(soundID);
+			for(Map<String, SoundSource> sources : vehicleSources.values()){
+				for(Entry<String, SoundSource> soundEntry : sources.entrySet()){
+					if(soundEntry.getValue().hasVoice){
+						mcSoundSystem.removeSource(soundEntry.getKey());
+					}
 				}
 			}
-			playingSounds.clear();
+			vehicleSources.clear();
+			voicesInUse = 0;
 		}
 	}
 	
+	
+	//--------------------START OF CUSTOM METHODS--------------------//
 	/**
-	 * Check for orphaned sounds, and delete them if they are present.
-	 * We do this by verifying there is an entity with the given ID still present,
-	 * and if the entity is still alive.  The not being alive will happen if the
-	 * vehicle is removed, but the change in ID should NEVER happen as that'll
-	 * break all sorts of packet code that depends on the ID being the same
-	 * on servers and clients.  Usually other mods messing with things.
+	 * Gives voices to the most important sources.  Also checks for orphaned sounds every
+	 * {@link #SWEEP_INTERVAL} ticks, and deletes them if they are present.  Sounds are normally
+	 * released when their vehicle dies, but vehicles in unloaded chunks don't die, they just go away.
+	 * We check this by verifying there is an entity with the given ID still present, and if the entity
+	 * is still alive.  The change in ID should NEVER happen as that'll break all sorts of packet code
+	 * that depends on the ID being the same on servers and clients.  Usually other mods messing with things.
+	 * This is called by {@link ClientEventSystem} once all vehicles have been rendered and had their sounds
+	 * updated for the frame, so the voices go to this frame's sources rather than last frame's.
 	 */
-	@SubscribeEvent
-    public static void on(RenderWorldLastEvent event){
-		Iterator<String> soundIterator = playingSounds.iterator();
-		while(soundIterator.hasNext()){
-			String soundID = soundIterator.next();
-			int entityID = Integer.valueOf(soundID.substring(0, soundID.indexOf('_')));
-			if(Minecraft.getMinecraft().world.getEntityByID(entityID) == null || Minecraft.getMinecraft().world.getEntityByID(entityID).isDead){
-				mcSoundSystem.stop(soundID);
-				soundIterator.remove();
+	public static void updateVoices(){
+		if(mcSoundSystem == null){
+			return;
+		}
+		long worldTime = Minecraft.getMinecraft().world.getTotalWorldTime();
+		if(worldTime - lastSweepTime >= SWEEP_INTERVAL || worldTime < lastSweepTime){
+			lastSweepTime = worldTime;
+			Iterator<Entry<Integer, Map<String, SoundSource>>> vehicleIterator = vehicleSources.entrySet().iterator();
+			while(vehicleIterator.hasNext()){
+				Entry<Integer, Map<String, SoundSource>> vehicleEntry = vehicleIterator.next();
+				Entity vehicle = Minecraft.getMinecraft().world.getEntityByID(vehicleEntry.getKey());
+				if(vehicle == null || vehicle.isDead){
+					releaseSources(vehicleEntry.getValue());
+					vehicleIterator.remove();
+				}
 			}
 		}
-    }
-	
+		balanceVoices();
+	}
 	
-	//--------------------START OF CUSTOM METHODS--------------------//
 	/**
 	 * Plays a single sound.  Format of soundName should be modID:soundFileName.  If this sound
 	 * came from a vehicle, pass it in as a parameter.  This lets the system do volume calculations
@@ -140,8 +188,8 @@ public final class VehicleSoundSystem{
 				//Also set the position to 5 blocks from the player in the direction of the sound.
 				//Don't worry about motion as that's used in the sound itself for the pitch.
 				//We should worry if the sound doesn't exist.  Playing things that don't exist will fault the SoundSystem. 
-				URL soundURL = new URL(null, "mtssounds:" + soundName + ".ogg", resourceStreamHandler);
-				if(soundURL.openStream() != null){
+				URL soundURL = getSoundURL(soundName);
+				if(soundURL != null){
 					EntityPlayer player = Minecraft.getMinecraft().player;
 					Vec3d soundNormalizedPosition = new Vec3d(soundPosition.x - player.posX, soundPosition.y - player.posY, soundPosition.z - player.posZ).normalize().scale(5).add(player.getPositionVector());
 					String soundTempName = mcSoundSystem.quickPlay(false, soundURL, soundURL.getFile(), false, (float) soundNormalizedPosition.x, (float) soundNormalizedPosition.y, (float) soundNormalizedPosition.z, SoundSystemConfig.ATTENUATION_LINEAR, 16.0F);
@@ -188,47 +236,235 @@ public final class VehicleSoundSystem{
 		}
 		
 		EntityPlayer player = Minecraft.getMinecraft().player;
+		boolean gamePaused = Minecraft.getMinecraft().isGamePaused();
+		Map<String, SoundSource> sources = vehicleSources.get(vehicle.getEntityId());
 		for(VehicleSound sound : vehicle.getSounds()){
 			String soundID = sound.getSoundUniqueName();
+			SoundSource source = sources != null ? sources.get(soundID) : null;
 			
 			//First check to see if this source is active.
 			if(sound.isSoundSourceActive() && sound.isSoundActive()){
-				//If we haven't created the sound, and we should be playing it, create it now.
-				if(!playingSounds.contains(soundID) && !Minecraft.getMinecraft().isGamePaused()){
-					try{
-						//Format of soundName should be modID:soundFileName.
-						//Need to add the mtssounds: prefix as the URL will trim off the first section, leading to a bad parse.
-						URL soundURL = new URL(null, "mtssounds:" + sound.getSoundName() + ".ogg", resourceStreamHandler);
-						mcSoundSystem.newSource(false, soundID, soundURL, soundURL.getFile(), true, (float) sound.getPosX(), (float) sound.getPosY(), (float) sound.getPosZ(), SoundSystemConfig.ATTENUATION_LINEAR, 16.0F);
-						mcSoundSystem.play(soundID);
-						playingSounds.add(soundID);
-					}catch(Exception e){
-						MTS.MTSLog.error("COULD NOT PLAY LOOPING VEHICLE SOUND:" + sound.getSoundName());
-						throw new RuntimeException(e);
+				//If we haven't got a source for the sound, and we should be playing it, add one now.
+				if(source == null){
+					if(gamePaused){
+						continue;
+					}
+					//If the sound doesn't exist, don't try to play it, as that will fault the SoundSystem.
+					URL soundURL = getSoundURL(sound.getSoundName());
+					if(soundURL == null){
+						continue;
+					}
+					if(sources == null){
+						sources = new HashMap<String, SoundSource>();
+						vehicleSources.put(vehicle.getEntityId(), sources);
 					}
+					source = new SoundSource(soundURL);
+					sources.put(soundID, source);
 				}
 				
-				//If the sound is created, update it.
-				if(playingSounds.contains(soundID)){
-					mcSoundSystem.setVolume(soundID, sound.getVolume());
-					mcSoundSystem.setPitch(soundID, sound.getPitch());
-					//Set the position to 5 blocks from the player in the direction of the sound.
-					//Don't worry about motion as that's used in the sound itself for the pitch.
-					Vec3d soundNormalizedPosition = new Vec3d(sound.getPosX() - player.posX, sound.getPosY() - player.posY, sound.getPosZ() - player.posZ).normalize().scale(5).add(player.getPositionVector());
-					mcSoundSystem.setPosition(soundID, (float) soundNormalizedPosition.x, (float) soundNormalizedPosition.y, (float) soundNormalizedPosition.z);
-					if(Minecraft.getMinecraft().isGamePaused()){
-						mcSoundSystem.pause(soundID);
-					}else{
-						mcSoundSystem.play(soundID);
+				//Get the current values for the source.  These are sent to the SoundSystem if the source has a voice.
+				//Set the position to 5 blocks from the player in the direction of the sound.
+				//Don't worry about motion as that's used in the sound itself for the pitch.
+				source.volume = sound.getVolume();
+				source.pitch = sound.getPitch();
+				double deltaX = sound.getPosX() - player.posX;
+				double deltaY = sound.getPosY() - player.posY;
+				double deltaZ = sound.getPosZ() - player.posZ;
+				double distance = Math.sqrt(deltaX*deltaX + deltaY*deltaY + deltaZ*deltaZ);
+				source.posX = (float) (distance < 1.0E-4D ? player.posX : player.posX + deltaX*5D/distance);
+				source.posY = (float) (distance < 1.0E-4D ? player.posY : player.posY + deltaY*5D/distance);
+				source.posZ = (float) (distance < 1.0E-4D ? player.posZ : player.posZ + deltaZ*5D/distance);
+				source.score = getVoiceScore(sound.getSoundType(), source.volume, sound.isPlayerRidingSource());
+				
+				//Give the source a voice if one is free.  If not, it waits for the next re-balance.
+				if(!source.hasVoice && !gamePaused && voicesInUse < getMaxVoices()){
+					addVoice(soundID, source);
+				}
+				if(source.hasVoice){
+					sendChanges(soundID, source, gamePaused);
+				}
+			}else if(source != null){
+				//If we aren't supposed to be playing this source, and it's still around, delete it.
+				if(source.hasVoice){
+					removeVoice(soundID, source);
+				}
+				sources.remove(soundID);
+			}
+		}
+	}
+	
+	/**
+	 * Releases all sources for the passed-in vehicle.  Called when the vehicle dies so
+	 * we don't have to wait for the orphan sweep to find its sounds.
+	 */
+	public static void releaseVehicleSounds(EntityVehicleE_Powered vehicle){
+		Map<String, SoundSource> sources = vehicleSources.remove(vehicle.getEntityId());
+		if(sources != null){
+			releaseSources(sources);
+		}
+	}
+	
+	/**
+	 * Removes the voices of all passed-in sources.
+	 */
+	private static void releaseSources(Map<String, SoundSource> sources){
+		for(Entry<String, SoundSource> soundEntry : sources.entrySet()){
+			if(soundEntry.getValue().hasVoice){
+				removeVoice(soundEntry.getKey(), soundEntry.getValue());
+			}
+		}
+	}
+	
+	/**
+	 * Returns the priority of a looping source.  Sources with higher scores get voices first.
+	 * Sources on the vehicle the player is riding always come first, followed by the loudest
+	 * sources, with sirens and horns getting a boost over engines as they are used as signals.
+	 * Volume already includes the distance to the player, so distant sources score lower.
+	 */
+	public static float getVoiceScore(SoundTypes soundType, float volume, boolean playerRiding){
+		float typeFactor;
+		switch(soundType){
+			case SIREN: typeFactor = 1.5F; break;
+			case HORN: typeFactor = 1.25F; break;
+			default: typeFactor = 1.0F;
+		}
+		return (playerRiding ? RIDING_SCORE : 0) + volume*typeFactor;
+	}
+	
+	/**
+	 * Returns the max number of looping sources that can have voices at once.  This is half of the
+	 * SoundSystem's normal channels, which leaves the rest for MC sounds and our single sounds.
+	 */
+	private static int getMaxVoices(){
+		return Math.max(MIN_VOICES, SoundSystemConfig.getNumberNormalChannels()/2);
+	}
+	
+	/**
+	 * Gives the passed-in source a voice by creating it in the SoundSystem.
+	 */
+	private static void addVoice(String soundID, SoundSource source){
+		mcSoundSystem.newSource(false, soundID, source.url, source.url.getFile(), true, source.posX, source.posY, source.posZ, SoundSystemConfig.ATTENUATION_LINEAR, 16.0F);
+		mcSoundSystem.play(soundID);
+		source.hasVoice = true;
+		source.sentVolume = Float.MAX_VALUE;
+		source.sentPitch = Float.MAX_VALUE;
+		source.sentPosX = source.posX;
+		source.sentPosY = source.posY;
+		source.sentPosZ = source.posZ;
+		source.paused = false;
+		++voicesInUse;
+	}
+	
+	/**
+	 * Takes the voice away from the passed-in source.  The source is still tracked, so it can get a voice again later.
+	 */
+	private static void removeVoice(String soundID, SoundSource source){
+		mcSoundSystem.removeSource(soundID);
+		source.hasVoice = false;
+		--voicesInUse;
+	}
+	
+	/**
+	 * Sends the values of the passed-in source to the SoundSystem.  Each command is queued to the SoundSystem
+	 * thread, so only the values that changed by more than their thresholds are sent.  Volume changes to or
+	 * from 0 are always sent, so sources go silent when they should, and don't stay silent when they shouldn't.
+	 */
+	private static void sendChanges(String soundID, SoundSource source, boolean gamePaused){
+		if((source.volume == 0) != (source.sentVolume == 0) || Math.abs(source.volume - source.sentVolume) > VOLUME_THRESHOLD){
+			mcSoundSystem.setVolume(soundID, source.volume);
+			source.sentVolume = source.volume;
+		}
+		if(Math.abs(source.pitch - source.sentPitch) > PITCH_THRESHOLD){
+			mcSoundSystem.setPitch(soundID, source.pitch);
+			source.sentPitch = source.pitch;
+		}
+		if(Math.abs(source.posX - source.sentPosX) > POSITION_THRESHOLD || Math.abs(source.posY - source.sentPosY) > POSITION_THRESHOLD || Math.abs(source.posZ - source.sentPosZ) > POSITION_THRESHOLD){
+			mcSoundSystem.setPosition(soundID, source.posX, source.posY, source.posZ);
+			source.sentPosX = source.posX;
+			source.sentPosY = source.posY;
+			source.sentPosZ = source.posZ;
+		}
+		if(gamePaused != source.paused){
+			if(gamePaused){
+				mcSoundSystem.pause(soundID);
+			}else{
+				mcSoundSystem.play(soundID);
+			}
+			source.paused = gamePaused;
+		}
+	}
+	
+	/**
+	 * Gives voices to the highest-scoring sources, and takes them away from the rest.
+	 * Sources that have a voice get a bonus to keep them from swapping every frame
+	 * when two sources have about the same score.
+	 */
+	private static void balanceVoices(){
+		rankedSources.clear();
+		for(Map<String, SoundSource> sources : vehicleSources.values()){
+			rankedSources.addAll(sources.entrySet());
+		}
+		int voicedSources = rankSources(rankedSources, getMaxVoices());
+		//Remove voices first so we never have more than the max.
+		for(int i=voicedSources; i<rankedSources.size(); ++i){
+			if(rankedSources.get(i).getValue().hasVoice){
+				removeVoice(rankedSources.get(i).getKey(), rankedSources.get(i).getValue());
+			}
+		}
+		boolean gamePaused = Minecraft.getMinecraft().isGamePaused();
+		if(!gamePaused){
+			for(int i=0; i<voicedSources; ++i){
+				if(!rankedSources.get(i).getValue().hasVoice){
+					addVoice(rankedSources.get(i).getKey(), rankedSources.get(i).getValue());
+					sendChanges(rankedSources.get(i).getKey(), rankedSources.get(i).getValue(), gamePaused);
+				}
+			}
+		}
+		rankedSources.clear();
+	}
+	
+	/**
+	 * Orders the passed-in sources so the ones that should have voices come first, and returns how many
+	 * of them should have voices.  This is never more than maxVoices.  Sources are only sorted if there are
+	 * more of them than voices, as otherwise they all get one.  This only decides which sources get voices,
+	 * it doesn't give or take any, so it doesn't need the SoundSystem.
+	 */
+	static int rankSources(List<Entry<String, SoundSource>> sources, int maxVoices){
+		if(sources.size() > maxVoices){
+			Collections.sort(sources, voiceComparator);
+			return maxVoices;
+		}else{
+			return sources.size();
+		}
+	}
+	
+	/**
+	 * Returns the URL for the passed-in sound, or null if the sound doesn't exist.  Format of soundName
+	 * should be modID:soundFileName.  Each sound is only looked up once, so after the first time a sound
+	 * is played this doesn't do any I/O.  This includes sounds that don't exist, which are only logged once.
+	 */
+	private static URL getSoundURL(String soundName){
+		if(!soundURLs.containsKey(soundName)){
+			URL soundURL = null;
+			int packIDEnd = soundName.indexOf(':');
+			if(packIDEnd != -1){
+				//Check the resource is there without opening a stream to it.  The SoundSystem will open its own.
+				if(VehicleSoundSystem.class.getResource("/assets/" +  soundName.substring(0, packIDEnd) + "/sounds/" + soundName.substring(packIDEnd + 1) + ".ogg") != null){
+					try{
+						//Need to add the mtssounds: prefix as the URL will trim off the first section, leading to a bad parse.
+						soundURL = new URL(null, "mtssounds:" + soundName + ".ogg", resourceStreamHandler);
+					}catch(MalformedURLException e){
+						MTS.MTSLog.error("ERROR: Could not create URL for sound: " + soundName);
 					}
+				}else{
+					MTS.MTSLog.error("ERROR: Could not find sound: " + soundName + ".  It will not be played.");
 				}
-				
-			}else if(mcSoundSystem.playing(soundID)){
-				//If we aren't supposed to be playing this source, and it's still playing, delete it. 
-				mcSoundSystem.stop(soundID);
-				playingSounds.remove(soundID);
+			}else{
+				MTS.MTSLog.error("ERROR: Invalid sound name: " + soundName + ".  Sound names must be in the format of modID:soundFileName.");
 			}
+			soundURLs.put(soundName, soundURL);
 		}
+		return soundURLs.get(soundName);
 	}
 	
 	/**
@@ -278,6 +514,38 @@ public final class VehicleSoundSystem{
 	
 	
 	
+	//--------------------START OF SOUND SOURCE CLASS--------------------//
+	/**A looping source.  Holds the current values of the source, and the last values sent to the
+	 * SoundSystem if the source has a voice.  Sent values start out invalid so the first update always sends them.
+	 */
+	static final class SoundSource{
+		private final URL url;
+		boolean hasVoice;
+		float score;
+		
+		private float volume;
+		private float pitch;
+		private float posX;
+		private float posY;
+		private float posZ;
+		
+		private float sentVolume;
+		private float sentPitch;
+		private float sentPosX;
+		private float sentPosY;
+		private float sentPosZ;
+		private boolean paused;
+		
+		SoundSource(URL url){
+			this.url = url;
+		}
+		
+		private float getRankingScore(){
+			return hasVoice ? score*VOICE_KEEP_FACTOR : score;
+		}
+	}
+	
+	
 	//--------------------START OF STREAM HANDLERS--------------------//
 	private static class FileStreamHandler extends URLStreamHandler{
 		public FileStreamHandler(){}
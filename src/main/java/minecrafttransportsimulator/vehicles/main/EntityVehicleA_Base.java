@@ -9,6 +9,7 @@ import java.util.Map.Entry;
 import com.google.common.collect.ImmutableList;
 
 import minecrafttransportsimulator.MTS;
+import minecrafttransportsimulator.dataclasses.CompiledVehicleDefinition;
 import minecrafttransportsimulator.dataclasses.MTSRegistry;
 import minecrafttransportsimulator.items.packs.parts.AItemPart;
 import minecrafttransportsimulator.jsondefs.JSONPart;
@@ -216,20 +217,10 @@ abstract class EntityVehicleA_Base extends Entity{
 	 * Gets the pack definition at the specified location.
 	 */
 	public VehiclePart getPackDefForLocation(double offsetX, double offsetY, double offsetZ){
-		//Check to see if this is a main part.
-		for(VehiclePart packPart : definition.parts){
-			if(packPart.pos[0] == offsetX && packPart.pos[1] == offsetY && packPart.pos[2] == offsetZ){
-				return packPart;
-			}
-			
-			//Not a main part.  Check if this is an additional part.
-			while(packPart.additionalPart != null){
-				if(packPart.additionalPart.pos[0] == offsetX && packPart.additionalPart.pos[1] == offsetY && packPart.additionalPart.pos[2] == offsetZ){
-					return packPart.additionalPart;
-				}else{
-					packPart = packPart.additionalPart;
-				}
-			}
+		//Check to see if this is a main part or an additional part.
+		VehiclePart slotPart = definition.compiled.slots.get(CompiledVehicleDefinition.getSlotKey(offsetX, offsetY, offsetZ));
+		if(slotPart != null){
+			return slotPart;
 		}
 		
 		//If this is not a main part or an additional part, check the sub-parts.
@@ -190,19 +190,15 @@ abstract class EntityVehicleC_Colliding extends EntityVehicleB_Existing{
 	private void updateCollisionBoxes(){
 		if(this.definition != null){
 			//Get all collision boxes and set the bounding collective to encompass all of them.
+			//The box offsets and frame size don't change with rotation, so they come from the compiled definition.
 			collisionBoxes.clear();
-			double furthestWidth = 0;
-			double furthestHeight = 0;
-			for(VehicleCollisionBox box : definition.collision){
-				Vec3d boxOffset = new Vec3d(box.pos[0], box.pos[1], box.pos[2]);
-				Vec3d offset = RotationSystem.getRotatedPoint(boxOffset, rotationPitch, rotationYaw, rotationRoll);
-				VehicleAxisAlignedBB newBox = new VehicleAxisAlignedBB(this.getPositionVector().add(offset), boxOffset, box.width, box.height, box.isInterior, box.collidesWithLiquids);
-				collisionBoxes.add(newBox);
-				furthestWidth = (float) Math.max(furthestWidth, Math.abs(newBox.rel.x) + box.width/2F);
-				furthestHeight = (float) Math.max(furthestHeight, Math.abs(newBox.rel.y) + box.height/2F);
-				furthestWidth = (float) Math.max(furthestWidth, Math.abs(newBox.rel.z) + box.width/2F);
+			Vec3d[] boxOffsets = definition.compiled.collisionOffsets;
+			for(int i=0; i<boxOffsets.length; ++i){
+				VehicleCollisionBox box = definition.collision.get(i);
+				Vec3d offset = RotationSystem.getRotatedPoint(boxOffsets[i], rotationPitch, rotationYaw, rotationRoll);
+				collisionBoxes.add(new VehicleAxisAlignedBB(this.getPositionVector().add(offset), boxOffsets[i], box.width, box.height, box.isInterior, box.collidesWithLiquids));
 			}
-			this.collisionFrame = new VehicleAxisAlignedBBCollective((EntityVehicleE_Powered) this, (float) furthestWidth*2F+0.5F, (float) furthestHeight*2F+0.5F, collisionBoxes);
+			this.collisionFrame = new VehicleAxisAlignedBBCollective((EntityVehicleE_Powered) this, definition.compiled.collisionFrameWidth, definition.compiled.collisionFrameHeight, collisionBoxes);
 			
 			//Add all part boxes to the part box list.
 			//If the part is a seat, and there is a rider in that seat, don't add it.
@@ -5,21 +5,24 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import minecrafttransportsimulator.MTS;
 import minecrafttransportsimulator.baseclasses.VehicleSound;
 import minecrafttransportsimulator.baseclasses.VehicleSound.SoundTypes;
+import minecrafttransportsimulator.dataclasses.CompiledVehicleDefinition;
 import minecrafttransportsimulator.dataclasses.DamageSources.DamageSourceCrash;
 import minecrafttransportsimulator.dataclasses.MTSRegistry;
 import minecrafttransportsimulator.items.packs.ItemInstrument;
 import minecrafttransportsimulator.jsondefs.JSONVehicle;
-import minecrafttransportsimulator.jsondefs.JSONVehicle.VehiclePart;
 import minecrafttransportsimulator.radio.RadioContainer;
 import minecrafttransportsimulator.systems.ConfigSystem;
 import minecrafttransportsimulator.vehicles.parts.APart;
 import minecrafttransportsimulator.vehicles.parts.APartEngine;
 import minecrafttransportsimulator.vehicles.parts.APartGroundDevice;
 import minecrafttransportsimulator.vehicles.parts.PartBarrel;
+import net.minecraft.client.Minecraft;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.math.Vec3d;
@@ -167,6 +170,15 @@ public abstract class EntityVehicleE_Powered extends EntityVehicleD_Moving imple
 		}
 	}
 	
+	@Override
+	public void setDead(){
+		super.setDead();
+		//Release our sounds now rather than waiting for the sound system to find them orphaned.
+		if(world.isRemote){
+			MTS.proxy.releaseVehicleSounds(this);
+		}
+	}
+	
 	@Override
 	protected float getCurrentMass(){
 		return (float) (super.getCurrentMass() + this.fuel/50);
@@ -176,19 +188,10 @@ public abstract class EntityVehicleE_Powered extends EntityVehicleD_Moving imple
 	public void addPart(APart part, boolean ignoreCollision){
 		super.addPart(part, ignoreCollision);
 		if(part instanceof APartEngine){
-			//Because parts is a list, the #1 engine will always come before the #2 engine.
-			//We can use this to determine where in the list this engine needs to go.
-			byte engineNumber = 0;
-			for(VehiclePart packPart : definition.parts){
-				for(String type : packPart.types){
-					if(type.startsWith("engine")){
-						if(part.offset.x == packPart.pos[0] && part.offset.y == packPart.pos[1] && part.offset.z == packPart.pos[2]){
-							engines.put(engineNumber, (APartEngine) part);
-							return;
-						}
-						++engineNumber;
-					}
-				}
+			//The engine number for each slot is worked out when the definition is compiled.
+			Byte engineNumber = definition.compiled.engineNumbers.get(CompiledVehicleDefinition.getSlotKey(part.offset.x, part.offset.y, part.offset.z));
+			if(engineNumber != null){
+				engines.put(engineNumber, (APartEngine) part);
 			}
 		}else if(part instanceof APartGroundDevice){
 			if(((APartGroundDevice) part).canBeDrivenByEngine()){
@@ -200,17 +203,10 @@ public abstract class EntityVehicleE_Powered extends EntityVehicleD_Moving imple
 	@Override
 	public void removePart(APart part, boolean playBreakSound){
 		super.removePart(part, playBreakSound);
-		byte engineNumber = 0;
-		for(VehiclePart packPart : definition.parts){
-			for(String type : packPart.types){
-				if(type.startsWith("engine")){
-					if(part.offset.x == packPart.pos[0] && part.offset.y == packPart.pos[1] && part.offset.z == packPart.pos[2]){
-						engines.remove(engineNumber);
-						return;
-					}
-					++engineNumber;
-				}
-			}
+		Byte engineNumber = definition.compiled.engineNumbers.get(CompiledVehicleDefinition.getSlotKey(part.offset.x, part.offset.y, part.offset.z));
+		if(engineNumber != null){
+			engines.remove(engineNumber);
+			return;
 		}
 		if(wheels.contains(part)){
 			wheels.remove(part);
@@ -300,16 +296,22 @@ public abstract class EntityVehicleE_Powered extends EntityVehicleD_Moving imple
 	//-----START OF RADIO CODE-----
 	@Override
 	public double getDistanceTo(double x, double y, double z){
-		//Check to see if the listener is a passenger of this vehicle.
-		//If so, we should return a distance of 0.
-		for(Entity entity : getPassengers()){
-			if(entity.posX == x && entity.posY == y && entity.posZ == z){
-				return 0;
-			}
-		}
 		return Math.sqrt(Math.pow(this.posX - x, 2) + Math.pow(this.posY - y, 2) + Math.pow(this.posZ - z, 2));
 	}
 	
+	@Override
+	public double getYawFrom(double x, double z){
+		return Math.toDegrees(Math.atan2(-(this.posX - x), this.posZ - z));
+	}
+	
+	@Override
+	@SideOnly(Side.CLIENT)
+	public boolean isListenerRiding(){
+		//Called from the radio thread, so get the player once in case it changes.
+		EntityPlayer player = Minecraft.getMinecraft().player;
+		return player != null && this.equals(player.getRidingEntity());
+	}
+	
 	@Override
 	public boolean isValid(){
 		return !this.isDead;
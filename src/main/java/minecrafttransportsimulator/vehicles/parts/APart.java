@@ -35,7 +35,8 @@ public abstract class APart{
 	public final Vec3d offset;
 	public final EntityVehicleE_Powered vehicle;
 	public final VehiclePart packVehicleDef;
-	public final JSONPart definition;
+	/**Not final, as dev-mode reloading swaps in new definitions.**/
+	public JSONPart definition;
 	public final Vec3d partRotation;
 	public final boolean inverseMirroring;
 	public final boolean disableMirroring;
@@ -1,14 +1,13 @@
 package minecrafttransportsimulator.vehicles.parts;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 
 import minecrafttransportsimulator.MTS;
 import minecrafttransportsimulator.items.packs.parts.ItemPartBullet;
 import minecrafttransportsimulator.packets.general.PacketBulletHit;
+import minecrafttransportsimulator.systems.OBJModelRepository;
 import minecrafttransportsimulator.systems.OBJParserSystem;
 import minecrafttransportsimulator.systems.RotationSystem;
 import minecrafttransportsimulator.vehicles.main.EntityVehicleE_Powered;
@@ -17,7 +16,6 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.particle.Particle;
 import net.minecraft.client.renderer.BufferBuilder;
 import net.minecraft.entity.Entity;
-import net.minecraft.util.ResourceLocation;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
@@ -43,7 +41,7 @@ public final class PartBullet extends Particle{
 	private final int playerID;
 	private final EntityVehicleE_Powered vehicle;
 	
-	private final Map<ItemPartBullet, Map<String, Float[][]>> parsedBulletModels = new HashMap<ItemPartBullet, Map<String, Float[][]>>();
+	private final String modelLocation;
 	
     public PartBullet(World world, double x, double y, double z, double motionX, double motionY, double motionZ, ItemPartBullet bulletItem, int playerID, EntityVehicleE_Powered vehicle){
     	super(world, x, y, z);
@@ -60,6 +58,7 @@ public final class PartBullet extends Particle{
         this.setBoundingBox(new AxisAlignedBB(posX - width/2F, posY - height/2F, posZ - width/2F, posX + width/2F, posY + height/2F, posZ + width/2F));
         this.playerID = playerID;
         this.vehicle = vehicle;
+        this.modelLocation = "objmodels/parts/" + (bulletItem.definition.general.modelName != null ? bulletItem.definition.general.modelName : bulletItem.definition.systemName) + ".obj";
     }
 	
 	@Override
@@ -156,15 +155,9 @@ public final class PartBullet extends Particle{
         int skyLight = brightness >> 16 & 65535;
         int blockLight = brightness & 65535;
         
-        //Parse the model if we haven't already.
-        if(!parsedBulletModels.containsKey(bulletItem)){
-        	ResourceLocation modelLocation;
-        	if(bulletItem.definition.general.modelName != null){
-				modelLocation = new ResourceLocation(bulletItem.definition.packID, "objmodels/parts/" + bulletItem.definition.general.modelName + ".obj");
-			}else{
-				modelLocation = new ResourceLocation(bulletItem.definition.packID, "objmodels/parts/" + bulletItem.definition.systemName + ".obj");
-			}
-        	parsedBulletModels.put(bulletItem, OBJParserSystem.parseOBJModel(modelLocation.getResourceDomain(), modelLocation.getResourcePath()));
+        //Get the model.  Models are parsed in the background, so don't render anything until ours is ready.
+        if(!OBJModelRepository.isModelReady(bulletItem.definition.packID, modelLocation)){
+        	return;
         }
         
         //Render the parsed model.
@@ -174,11 +167,12 @@ public final class PartBullet extends Particle{
         byte index = 1;
         double yaw = -Math.toDegrees(Math.atan2(motionX, motionZ));
         double pitch = -Math.toDegrees(Math.asin(motionY/Math.sqrt(motionX*motionX+motionY*motionY+motionZ*motionZ)));
-        for(Entry<String, Float[][]> modelObjects : parsedBulletModels.get(bulletItem).entrySet()){
-        	for(Float[] modelPoints : modelObjects.getValue()){
+        for(Entry<String, float[]> modelObjects : OBJModelRepository.getModel(bulletItem.definition.packID, modelLocation).entrySet()){
+        	float[] modelPoints = modelObjects.getValue();
+        	for(int i=0; i<modelPoints.length; i+=OBJParserSystem.VERTEX_SIZE){
         		if(index != 4 && index != 6){
-	        		Vec3d rotatedCoords = RotationSystem.getRotatedPoint(new Vec3d(modelPoints[0], modelPoints[1], modelPoints[2]), (float) pitch, (float) yaw, 0);
-	        		worldRendererIn.pos(renderPosX + rotatedCoords.x, renderPosY + rotatedCoords.y, renderPosZ + rotatedCoords.z).tex(particleTexture.getMinU() + (particleTexture.getMaxU() - particleTexture.getMinU())*modelPoints[3], particleTexture.getMinV() + (particleTexture.getMaxV() - particleTexture.getMinV())*modelPoints[4]).color(this.particleRed, this.particleGreen, this.particleBlue, this.particleAlpha).lightmap(skyLight, blockLight).endVertex();
+	        		Vec3d rotatedCoords = RotationSystem.getRotatedPoint(new Vec3d(modelPoints[i], modelPoints[i + 1], modelPoints[i + 2]), (float) pitch, (float) yaw, 0);
+	        		worldRendererIn.pos(renderPosX + rotatedCoords.x, renderPosY + rotatedCoords.y, renderPosZ + rotatedCoords.z).tex(particleTexture.getMinU() + (particleTexture.getMaxU() - particleTexture.getMinU())*modelPoints[i + 3], particleTexture.getMinV() + (particleTexture.getMaxV() - particleTexture.getMinV())*modelPoints[i + 4]).color(this.particleRed, this.particleGreen, this.particleBlue, this.particleAlpha).lightmap(skyLight, blockLight).endVertex();
         		}
         		index = (byte) (index == 6 ? 1 : index + 1);
         	}
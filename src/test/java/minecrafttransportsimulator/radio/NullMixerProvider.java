@@ -0,0 +1,285 @@
+package minecrafttransportsimulator.radio;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Control;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.Line;
+import javax.sound.sampled.LineListener;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.Mixer;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.spi.MixerProvider;
+
+/**Mixer for headless tests.  Build servers don't have sound cards, so BasicPlayer can't get a line to play on.
+ * This provides one that throws away all audio it's given, and counts the bytes so tests can check how much
+ * audio was decoded.  It's registered in META-INF/services, so Java Sound finds it like any other mixer.
+ *
+ * @author don_bruce
+ */
+public class NullMixerProvider extends MixerProvider{
+	private static final Mixer.Info MIXER_INFO = new Mixer.Info("MTS Null Mixer", "MTS", "Discards all audio.  Used for headless tests.", "1.0"){};
+	private static final NullMixer MIXER = new NullMixer();
+	/**Bytes written to all lines from this mixer.**/
+	public static final AtomicLong bytesWritten = new AtomicLong();
+
+	@Override
+	public Mixer.Info[] getMixerInfo(){
+		return new Mixer.Info[]{MIXER_INFO};
+	}
+
+	@Override
+	public Mixer getMixer(Mixer.Info info){
+		if(MIXER_INFO.equals(info)){
+			return MIXER;
+		}
+		throw new IllegalArgumentException("Mixer not supported: " + info);
+	}
+
+	private static class NullMixer implements Mixer{
+		private static final DataLine.Info LINE_INFO = new DataLine.Info(SourceDataLine.class, new AudioFormat[]{new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, AudioSystem.NOT_SPECIFIED, 16, AudioSystem.NOT_SPECIFIED, AudioSystem.NOT_SPECIFIED, AudioSystem.NOT_SPECIFIED, false)}, AudioSystem.NOT_SPECIFIED, AudioSystem.NOT_SPECIFIED);
+
+		@Override
+		public Mixer.Info getMixerInfo(){
+			return MIXER_INFO;
+		}
+
+		@Override
+		public Line.Info[] getSourceLineInfo(){
+			return new Line.Info[]{LINE_INFO};
+		}
+
+		@Override
+		public Line.Info[] getTargetLineInfo(){
+			return new Line.Info[0];
+		}
+
+		@Override
+		public Line.Info[] getSourceLineInfo(Line.Info info){
+			return isLineSupported(info) ? getSourceLineInfo() : new Line.Info[0];
+		}
+
+		@Override
+		public Line.Info[] getTargetLineInfo(Line.Info info){
+			return new Line.Info[0];
+		}
+
+		@Override
+		public boolean isLineSupported(Line.Info info){
+			return info.matches(LINE_INFO);
+		}
+
+		@Override
+		public Line getLine(Line.Info info) throws LineUnavailableException{
+			if(!isLineSupported(info)){
+				throw new IllegalArgumentException("Line not supported: " + info);
+			}
+			//Lines report the format they were asked for until they are opened, like real lines.
+			return new NullLine(((DataLine.Info) info).getFormats()[0]);
+		}
+
+		@Override
+		public int getMaxLines(Line.Info info){
+			return isLineSupported(info) ? AudioSystem.NOT_SPECIFIED : 0;
+		}
+
+		@Override
+		public Line[] getSourceLines(){
+			return new Line[0];
+		}
+
+		@Override
+		public Line[] getTargetLines(){
+			return new Line[0];
+		}
+
+		@Override
+		public void synchronize(Line[] lines, boolean maintainSync){
+			throw new IllegalArgumentException("Synchronization not supported.");
+		}
+
+		@Override
+		public void unsynchronize(Line[] lines){
+			throw new IllegalArgumentException("Synchronization not supported.");
+		}
+
+		@Override
+		public boolean isSynchronizationSupported(Line[] lines, boolean maintainSync){
+			return false;
+		}
+
+		@Override
+		public Line.Info getLineInfo(){
+			return new Line.Info(Mixer.class);
+		}
+
+		@Override
+		public void open(){}
+
+		@Override
+		public void close(){}
+
+		@Override
+		public boolean isOpen(){
+			return true;
+		}
+
+		@Override
+		public Control[] getControls(){
+			return new Control[0];
+		}
+
+		@Override
+		public boolean isControlSupported(Control.Type control){
+			return false;
+		}
+
+		@Override
+		public Control getControl(Control.Type control){
+			throw new IllegalArgumentException("Control not supported: " + control);
+		}
+
+		@Override
+		public void addLineListener(LineListener listener){}
+
+		@Override
+		public void removeLineListener(LineListener listener){}
+	}
+
+	private static class NullLine implements SourceDataLine{
+		private AudioFormat format;
+		private int bufferSize;
+		private boolean open;
+		private boolean running;
+		private long framesWritten;
+
+		private NullLine(AudioFormat format){
+			this.format = format;
+		}
+
+		@Override
+		public void open(AudioFormat format, int bufferSize){
+			this.format = format;
+			this.bufferSize = bufferSize > 0 ? bufferSize : (int) (format.getFrameRate()*format.getFrameSize()/2);
+			this.open = true;
+		}
+
+		@Override
+		public void open(AudioFormat format){
+			open(format, AudioSystem.NOT_SPECIFIED);
+		}
+
+		@Override
+		public void open(){
+			throw new IllegalStateException("Line must be opened with a format.");
+		}
+
+		@Override
+		public int write(byte[] bytes, int offset, int length){
+			int bytesToWrite = length - length%format.getFrameSize();
+			bytesWritten.addAndGet(bytesToWrite);
+			framesWritten += bytesToWrite/format.getFrameSize();
+			return bytesToWrite;
+		}
+
+		@Override
+		public void drain(){}
+
+		@Override
+		public void flush(){}
+
+		@Override
+		public void start(){
+			running = true;
+		}
+
+		@Override
+		public void stop(){
+			running = false;
+		}
+
+		@Override
+		public boolean isRunning(){
+			return running;
+		}
+
+		@Override
+		public boolean isActive(){
+			return running;
+		}
+
+		@Override
+		public AudioFormat getFormat(){
+			return format;
+		}
+
+		@Override
+		public int getBufferSize(){
+			return bufferSize;
+		}
+
+		@Override
+		public int available(){
+			return bufferSize;
+		}
+
+		@Override
+		public int getFramePosition(){
+			return (int) framesWritten;
+		}
+
+		@Override
+		public long getLongFramePosition(){
+			return framesWritten;
+		}
+
+		@Override
+		public long getMicrosecondPosition(){
+			return (long) (framesWritten*1000000D/format.getFrameRate());
+		}
+
+		@Override
+		public float getLevel(){
+			return AudioSystem.NOT_SPECIFIED;
+		}
+
+		@Override
+		public Line.Info getLineInfo(){
+			return NullMixer.LINE_INFO;
+		}
+
+		@Override
+		public void close(){
+			open = false;
+			running = false;
+		}
+
+		@Override
+		public boolean isOpen(){
+			return open;
+		}
+
+		@Override
+		public Control[] getControls(){
+			return new Control[0];
+		}
+
+		@Override
+		public boolean isControlSupported(Control.Type control){
+			return false;
+		}
+
+		@Override
+		public Control getControl(Control.Type control){
+			throw new IllegalArgumentException("Control not supported: " + control);
+		}
+
+		@Override
+		public void addLineListener(LineListener listener){}
+
+		@Override
+		public void removeLineListener(LineListener listener){}
+	}
+}
@@ -0,0 +1,169 @@
+package minecrafttransportsimulator.radio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**Tests for {@link RadioFilter}.  Runs the filter on synthetic 16-bit PCM, and checks the gain ramp,
+ * the low-pass filter used for occlusion, and the stereo pan.
+ *
+ * @author don_bruce
+ */
+public class RadioFilterTest{
+	private static final float SAMPLE_RATE = 44100F;
+	/**Frames in one ramp time of the filter.  Ramps get 1-1/e of the way to their target in this time.**/
+	private static final int RAMP_FRAMES = (int) (0.05F*SAMPLE_RATE);
+	/**Frames it takes for ramps to finish, for all intents and purposes.**/
+	private static final int SETTLE_FRAMES = RAMP_FRAMES*12;
+	private static final short AMPLITUDE = 10000;
+
+	@Test
+	public void testGainRampsUp(){
+		RadioFilter filter = new RadioFilter();
+		filter.setTargets(1, 0, 0);
+		short[] output = process(filter, constant(SETTLE_FRAMES, 1), 1);
+		//Gain should never jump or overshoot as it ramps.
+		for(int i=1; i<output.length; ++i){
+			assertTrue("Gain went down at frame " + i + ".", output[i] >= output[i - 1]);
+			assertTrue("Gain overshot at frame " + i + ".", output[i] <= AMPLITUDE);
+		}
+		assertTrue("Gain jumped at the start of the ramp.", output[0] < AMPLITUDE/100);
+		assertEquals("Gain should be 1-1/e of the way up after one ramp time.", AMPLITUDE*(1 - Math.exp(-1)), output[RAMP_FRAMES - 1], AMPLITUDE*0.01);
+		assertEquals(AMPLITUDE, output[output.length - 1], 1);
+	}
+
+	@Test
+	public void testGainRampsDown(){
+		RadioFilter filter = new RadioFilter();
+		filter.setTargets(1, 0, 0);
+		process(filter, constant(SETTLE_FRAMES, 1), 1);
+		filter.setTargets(0.25F, 0, 0);
+		short[] output = process(filter, constant(SETTLE_FRAMES, 1), 1);
+		assertTrue("Gain dropped without a ramp.", output[0] > AMPLITUDE*0.99);
+		assertEquals(AMPLITUDE*(0.25 + 0.75*Math.exp(-1)), output[RAMP_FRAMES - 1], AMPLITUDE*0.01);
+		assertEquals(AMPLITUDE*0.25, output[output.length - 1], 1);
+	}
+
+	@Test
+	public void testGainIsClamped(){
+		RadioFilter filter = new RadioFilter();
+		filter.setTargets(5, 0, 0);
+		short[] output = process(filter, constant(SETTLE_FRAMES, 1), 1);
+		assertEquals("Gain over 1 should be clamped to 1.", AMPLITUDE, output[output.length - 1], 1);
+	}
+
+	@Test
+	public void testOcclusionAttenuatesHighFrequencies(){
+		RadioFilter filter = new RadioFilter();
+		filter.setTargets(1, 0, 1);
+		process(filter, sine(SETTLE_FRAMES, 1, 10000), 1);
+		double highRatio = getRMS(process(filter, sine(SETTLE_FRAMES, 1, 10000), 1))/getRMS(sine(SETTLE_FRAMES, 1, 10000));
+		double lowRatio = getRMS(process(filter, sine(SETTLE_FRAMES, 1, 100), 1))/getRMS(sine(SETTLE_FRAMES, 1, 100));
+		assertTrue("10 kHz should be muffled when occluded, but was at " + highRatio + ".", highRatio < 0.15);
+		assertTrue("100 Hz should pass when occluded, but was at " + lowRatio + ".", lowRatio > 0.95);
+	}
+
+	@Test
+	public void testNoOcclusionPassesHighFrequencies(){
+		RadioFilter filter = new RadioFilter();
+		filter.setTargets(1, 0, 0);
+		process(filter, sine(SETTLE_FRAMES, 1, 10000), 1);
+		double highRatio = getRMS(process(filter, sine(SETTLE_FRAMES, 1, 10000), 1))/getRMS(sine(SETTLE_FRAMES, 1, 10000));
+		assertEquals("10 kHz should pass when not occluded.", 1, highRatio, 0.01);
+	}
+
+	@Test
+	public void testPan(){
+		assertPan(0, AMPLITUDE, AMPLITUDE);
+		assertPan(1, 0, AMPLITUDE);
+		assertPan(-1, AMPLITUDE, 0);
+		assertPan(0.5F, AMPLITUDE/2, AMPLITUDE);
+		assertPan(-0.5F, AMPLITUDE, AMPLITUDE/2);
+	}
+
+	@Test
+	public void testMonoIsNotPanned(){
+		RadioFilter filter = new RadioFilter();
+		filter.setTargets(1, 1, 0);
+		short[] output = process(filter, constant(SETTLE_FRAMES, 1), 1);
+		assertEquals("Mono streams shouldn't be panned.", AMPLITUDE, output[output.length - 1], 1);
+	}
+
+	@Test
+	public void testOffsetAndLengthAreRespected(){
+		RadioFilter filter = new RadioFilter();
+		filter.setTargets(0, 0, 0);
+		short[] samples = constant(100, 2);
+		byte[] data = toBytes(samples);
+		//Only filter frames 10-19.  The rest of the buffer shouldn't be touched.
+		filter.process(data, 10*4, 10*4, SAMPLE_RATE, 2);
+		short[] output = toShorts(data);
+		for(int i=0; i<output.length; ++i){
+			if(i >= 20 && i < 40){
+				assertTrue("Sample " + i + " wasn't filtered.", output[i] < AMPLITUDE);
+			}else{
+				assertEquals("Sample " + i + " was outside the range to filter.", AMPLITUDE, output[i]);
+			}
+		}
+	}
+
+	private static void assertPan(float pan, double expectedLeft, double expectedRight){
+		RadioFilter filter = new RadioFilter();
+		filter.setTargets(1, pan, 0);
+		short[] output = process(filter, constant(SETTLE_FRAMES, 2), 2);
+		assertEquals("Left channel at pan " + pan + ".", expectedLeft, output[output.length - 2], 1);
+		assertEquals("Right channel at pan " + pan + ".", expectedRight, output[output.length - 1], 1);
+	}
+
+	/**Runs the passed-in samples through the filter and returns the filtered samples.**/
+	private static short[] process(RadioFilter filter, short[] samples, int channels){
+		byte[] data = toBytes(samples);
+		filter.process(data, 0, data.length, SAMPLE_RATE, channels);
+		return toShorts(data);
+	}
+
+	private static short[] constant(int frames, int channels){
+		short[] samples = new short[frames*channels];
+		for(int i=0; i<samples.length; ++i){
+			samples[i] = AMPLITUDE;
+		}
+		return samples;
+	}
+
+	private static short[] sine(int frames, int channels, float frequency){
+		short[] samples = new short[frames*channels];
+		for(int i=0; i<frames; ++i){
+			short sample = (short) Math.round(AMPLITUDE*Math.sin(2*Math.PI*frequency*i/SAMPLE_RATE));
+			for(int channel=0; channel<channels; ++channel){
+				samples[i*channels + channel] = sample;
+			}
+		}
+		return samples;
+	}
+
+	private static double getRMS(short[] samples){
+		double sum = 0;
+		for(short sample : samples){
+			sum += sample*(double) sample;
+		}
+		return Math.sqrt(sum/samples.length);
+	}
+
+	private static byte[] toBytes(short[] samples){
+		byte[] data = new byte[samples.length*2];
+		for(int i=0; i<samples.length; ++i){
+			data[i*2] = (byte) samples[i];
+			data[i*2 + 1] = (byte) (samples[i] >> 8);
+		}
+		return data;
+	}
+
+	private static short[] toShorts(byte[] data){
+		short[] samples = new short[data.length/2];
+		for(int i=0; i<samples.length; ++i){
+			samples[i] = (short) ((data[i*2] & 0xFF) | (data[i*2 + 1] << 8));
+		}
+		return samples;
+	}
+}
@@ -0,0 +1,257 @@
+package minecrafttransportsimulator.radio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**Tests for {@link RadioInputStream}.  A local socket server stands in for the radio station, and can be set
+ * to stall or drop the first connection part-way through, so the buffering and re-connect code can be tested
+ * without a network.  The data is random, so any bytes that are lost, repeated, or spliced in are caught.
+ *
+ * @author don_bruce
+ */
+public class RadioInputStreamTest{
+	private static final int DATA_LENGTH = 256*1024;
+	/**Where the first connection stalls or drops.**/
+	private static final int FAULT_POSITION = 100*1024;
+	private static final int BUFFER_SIZE = 32*1024;
+	private static final int TIMEOUT = 300;
+
+	private final byte[] data = new byte[DATA_LENGTH];
+	private TestServer server;
+
+	@Before
+	public void setup() throws IOException{
+		new Random(1).nextBytes(data);
+		server = new TestServer();
+	}
+
+	@After
+	public void tearDown() throws IOException{
+		server.close();
+	}
+
+	@Test
+	public void testReadsWholeFile() throws IOException{
+		RadioInputStream stream = new RadioInputStream(server.url, BUFFER_SIZE, TIMEOUT);
+		assertArrayEquals(data, readAll(stream, DATA_LENGTH));
+		assertEquals(1, server.requests.size());
+		assertEquals(0, stream.getReconnects());
+		assertEquals(0F, stream.getBufferFill(), 0F);
+		stream.close();
+	}
+
+	@Test
+	public void testShortStallDoesNotReconnect() throws IOException{
+		server.stallTime = TIMEOUT/3;
+		RadioInputStream stream = new RadioInputStream(server.url, BUFFER_SIZE, TIMEOUT);
+		assertArrayEquals(data, readAll(stream, DATA_LENGTH));
+		assertEquals("Stalls shorter than the timeout shouldn't re-connect.", 0, stream.getReconnects());
+		assertTrue("Reader should have waited on the network during the stall.", stream.getUnderruns() > 0);
+		stream.close();
+	}
+
+	@Test
+	public void testLongStallResumesFile() throws IOException{
+		server.stallTime = TIMEOUT*5;
+		RadioInputStream stream = new RadioInputStream(server.url, BUFFER_SIZE, TIMEOUT);
+		assertArrayEquals("Resumed file doesn't match the original.", data, readAll(stream, DATA_LENGTH));
+		assertEquals(1, stream.getReconnects());
+		assertEquals(2, server.requests.size());
+		assertEquals("bytes=" + FAULT_POSITION + "-", server.requests.get(1));
+		stream.close();
+	}
+
+	@Test
+	public void testDisconnectResumesFile() throws IOException{
+		server.disconnect = true;
+		RadioInputStream stream = new RadioInputStream(server.url, BUFFER_SIZE, TIMEOUT);
+		assertArrayEquals("Resumed file doesn't match the original.", data, readAll(stream, DATA_LENGTH));
+		assertEquals(1, stream.getReconnects());
+		assertEquals(2, server.requests.size());
+		assertNull("First request shouldn't ask for a range.", server.requests.get(0));
+		assertEquals("bytes=" + FAULT_POSITION + "-", server.requests.get(1));
+		stream.close();
+	}
+
+	@Test
+	public void testDisconnectWithoutRangeSupportEndsFile() throws IOException{
+		server.disconnect = true;
+		server.supportsRange = false;
+		RadioInputStream stream = new RadioInputStream(server.url, BUFFER_SIZE, TIMEOUT);
+		byte[] readData = readAll(stream, DATA_LENGTH);
+		assertArrayEquals("Stream should end where the connection dropped, not start over.", Arrays.copyOf(data, FAULT_POSITION), readData);
+		assertEquals(2, server.requests.size());
+		stream.close();
+	}
+
+	@Test
+	public void testDisconnectReconnectsLiveStream() throws IOException{
+		server.disconnect = true;
+		server.live = true;
+		RadioInputStream stream = new RadioInputStream(server.url, BUFFER_SIZE, TIMEOUT);
+		//Live streams are never done, so just read past the drop.  They join back at the live position, which here is the start.
+		byte[] readData = readAll(stream, FAULT_POSITION + 1024);
+		assertArrayEquals(Arrays.copyOf(data, FAULT_POSITION), Arrays.copyOf(readData, FAULT_POSITION));
+		assertArrayEquals(Arrays.copyOf(data, 1024), Arrays.copyOfRange(readData, FAULT_POSITION, FAULT_POSITION + 1024));
+		assertEquals(1, stream.getReconnects());
+		assertNull("Live streams can't be resumed, so they shouldn't ask for a range.", server.requests.get(1));
+		stream.close();
+	}
+
+	@Test
+	public void testCloseEndsReads() throws Exception{
+		server.stallTime = TIMEOUT*5;
+		final RadioInputStream stream = new RadioInputStream(server.url, BUFFER_SIZE, TIMEOUT);
+		readAll(stream, FAULT_POSITION);
+		//The server is stalled, so this read waits until the stream is closed.
+		Thread closeThread = new Thread(){
+			@Override
+			public void run(){
+				try{
+					Thread.sleep(TIMEOUT/3);
+				}catch(InterruptedException e){}
+				stream.close();
+			}
+		};
+		closeThread.start();
+		assertEquals(-1, stream.read(new byte[1024], 0, 1024));
+		closeThread.join();
+	}
+
+	/**Reads from the stream until it ends, or until the passed-in number of bytes are read.**/
+	private static byte[] readAll(RadioInputStream stream, int maxBytes) throws IOException{
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] readBuffer = new byte[3000];
+		while(output.size() < maxBytes){
+			int bytesRead = stream.read(readBuffer, 0, Math.min(readBuffer.length, maxBytes - output.size()));
+			if(bytesRead == -1){
+				break;
+			}
+			output.write(readBuffer, 0, bytesRead);
+		}
+		return output.toByteArray();
+	}
+
+	/**Minimal HTTP server that serves the test data.  The first connection stalls or drops at {@link #FAULT_POSITION}
+	 * if set to.  Range headers of requests are saved, with null for requests without one.**/
+	private class TestServer{
+		private final ServerSocket serverSocket;
+		private final URL url;
+		private final List<String> requests = new CopyOnWriteArrayList<String>();
+		private final AtomicInteger connections = new AtomicInteger();
+		private volatile int stallTime;
+		private volatile boolean disconnect;
+		private volatile boolean supportsRange = true;
+		private volatile boolean live;
+
+		private TestServer() throws IOException{
+			serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+			url = new URL("http://127.0.0.1:" + serverSocket.getLocalPort() + "/stream.mp3");
+			Thread acceptThread = new Thread("MTS Test Radio Server"){
+				@Override
+				public void run(){
+					try{
+						while(true){
+							final Socket socket = serverSocket.accept();
+							final boolean firstConnection = connections.getAndIncrement() == 0;
+							Thread connectionThread = new Thread("MTS Test Radio Connection"){
+								@Override
+								public void run(){
+									try{
+										serve(socket, firstConnection);
+									}catch(IOException e){
+										//Client went away.  Nothing to do.
+									}
+								}
+							};
+							connectionThread.setDaemon(true);
+							connectionThread.start();
+						}
+					}catch(Exception e){
+						//Server closed.
+					}
+				}
+			};
+			acceptThread.setDaemon(true);
+			acceptThread.start();
+		}
+
+		private void serve(Socket socket, boolean firstConnection) throws IOException{
+			try{
+				BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+				String range = null;
+				String line;
+				while((line = reader.readLine()) != null && !line.isEmpty()){
+					if(line.toLowerCase().startsWith("range:")){
+						range = line.substring("range:".length()).trim();
+					}
+				}
+				requests.add(range);
+
+				int start = 0;
+				StringBuilder header = new StringBuilder();
+				if(range != null && supportsRange && !live){
+					start = Integer.parseInt(range.substring("bytes=".length(), range.indexOf('-')));
+					header.append("HTTP/1.1 206 Partial Content\r\n");
+					header.append("Content-Range: bytes ").append(start).append('-').append(DATA_LENGTH - 1).append('/').append(DATA_LENGTH).append("\r\n");
+				}else{
+					header.append("HTTP/1.1 200 OK\r\n");
+				}
+				if(!live){
+					header.append("Content-Length: ").append(DATA_LENGTH - start).append("\r\n");
+				}
+				header.append("Content-Type: audio/mpeg\r\nConnection: close\r\n\r\n");
+
+				OutputStream output = socket.getOutputStream();
+				output.write(header.toString().getBytes(StandardCharsets.US_ASCII));
+				if(firstConnection && (stallTime > 0 || disconnect)){
+					output.write(data, start, FAULT_POSITION - start);
+					output.flush();
+					if(disconnect){
+						return;
+					}
+					try{
+						Thread.sleep(stallTime);
+					}catch(InterruptedException e){
+						return;
+					}
+					output.write(data, FAULT_POSITION, DATA_LENGTH - FAULT_POSITION);
+				}else{
+					output.write(data, start, DATA_LENGTH - start);
+				}
+				output.flush();
+			}catch(SocketException e){
+				//Client dropped the connection, like after a timeout.
+			}finally{
+				socket.close();
+			}
+		}
+
+		private void close() throws IOException{
+			serverSocket.close();
+		}
+	}
+}
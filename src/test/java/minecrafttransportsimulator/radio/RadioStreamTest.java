@@ -0,0 +1,199 @@
+package minecrafttransportsimulator.radio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**Tests for {@link RadioStream} playing from the internet, and for {@link Radio}s sharing them through the
+ * {@link RadioManager}.  An in-process HTTP server stands in for the radio station and serves a generated MP3,
+ * and the decoded audio is played on the {@link NullMixerProvider} mixer, so this runs headless without a
+ * sound card or a network.
+ *
+ * @author don_bruce
+ */
+public class RadioStreamTest{
+	/**Frames in the test MP3.  Each is 1152 samples, so this is about 5 seconds of audio.**/
+	private static final int MP3_FRAMES = 200;
+	/**Bytes of PCM each MP3 frame decodes to: 1152 samples, 2 channels, 2 bytes per sample.**/
+	private static final int PCM_BYTES_PER_FRAME = 1152*2*2;
+	private static final long TIMEOUT = 10000;
+
+	private final byte[] mp3Data = generateMP3(MP3_FRAMES);
+	private final AtomicInteger requests = new AtomicInteger();
+	private HttpServer server;
+	private URL mp3URL;
+
+	@Before
+	public void setup() throws IOException{
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/test.mp3", new HttpHandler(){
+			@Override
+			public void handle(HttpExchange exchange) throws IOException{
+				requests.incrementAndGet();
+				exchange.getResponseHeaders().set("Content-Type", "audio/mpeg");
+				exchange.sendResponseHeaders(200, mp3Data.length);
+				OutputStream responseStream = exchange.getResponseBody();
+				responseStream.write(mp3Data);
+				responseStream.close();
+			}
+		});
+		server.start();
+		mp3URL = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/test.mp3");
+		NullMixerProvider.bytesWritten.set(0);
+	}
+
+	@After
+	public void tearDown(){
+		server.stop(0);
+	}
+
+	@Test
+	public void testPlaysMP3FromServer() throws Exception{
+		RadioStream stream = new RadioStream("url:test", mp3URL, 64*1024, 2000);
+		try{
+			assertTrue("Stream didn't start playing.", stream.isPlaying());
+			waitForFinish(stream);
+			assertEquals("Stream should only connect to the server once.", 1, requests.get());
+			assertEquals("Stream shouldn't have re-connected.", 0, stream.getInternetStream().getReconnects());
+			//The decoder may drop a frame at the start or the end, so allow a couple frames of slack.
+			long expectedBytes = (long) MP3_FRAMES*PCM_BYTES_PER_FRAME;
+			long decodedBytes = NullMixerProvider.bytesWritten.get();
+			assertTrue("Decoded " + decodedBytes + " bytes of audio, expected about " + expectedBytes + ".", Math.abs(decodedBytes - expectedBytes) <= 2*PCM_BYTES_PER_FRAME);
+		}finally{
+			stream.stop();
+		}
+	}
+
+	@Test
+	public void testStopEndsStream() throws Exception{
+		RadioStream stream = new RadioStream("url:test", mp3URL, 64*1024, 2000);
+		stream.stop();
+		assertTrue("Stopped stream isn't finished.", stream.isFinished());
+		assertTrue("Stopped stream is still playing.", !stream.isPlaying());
+		stream.update(true);
+		assertTrue("Stopped stream started again.", !stream.isPlaying());
+	}
+
+	@Test
+	public void testMissingURLFails(){
+		try{
+			new RadioStream("url:missing", new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/missing.mp3"), 64*1024, 2000).stop();
+			fail("Stream for a missing file should fail to open.");
+		}catch(Exception e){
+			//Expected.
+		}
+	}
+
+	@Test
+	public void testRadiosShareStream() throws Exception{
+		Radio radio1 = new Radio(new TestContainer());
+		Radio radio2 = new Radio(new TestContainer());
+		try{
+			assertTrue(radio1.playInternet(mp3URL, 1, 64*1024, 2000));
+			assertTrue(radio2.playInternet(mp3URL, 2, 64*1024, 2000));
+			assertEquals("Radios on the same URL should share one connection.", 1, requests.get());
+			radio1.stopPlaying();
+			assertEquals("Radio stopped playing when another radio on its stream stopped.", mp3URL.toString(), radio2.getSource());
+			assertTrue("Radio stopped playing when another radio on its stream stopped.", radio2.getPlayState() != -1);
+		}finally{
+			radio1.stopPlaying();
+			radio2.stopPlaying();
+		}
+	}
+
+	@Test
+	public void testLeavingSharedStreamKeepsPlaying() throws Exception{
+		Radio radio1 = new Radio(new TestContainer());
+		Radio radio2 = new Radio(new TestContainer());
+		RadioStream stream = RadioManager.joinInternetStream(radio1, mp3URL, 64*1024, 2000);
+		try{
+			assertSame(stream, RadioManager.joinInternetStream(radio2, mp3URL, 64*1024, 2000));
+			assertEquals("Radios on the same URL should share one connection.", 1, requests.get());
+			RadioManager.leaveStream(radio1, stream);
+			assertFalse("Stream stopped when one of its radios left.", stream.isFinished());
+			//The radio that stayed should hear all the audio, with no gap or re-connect from the other one leaving.
+			waitForFinish(stream);
+			assertEquals(1, requests.get());
+			long expectedBytes = (long) MP3_FRAMES*PCM_BYTES_PER_FRAME;
+			long decodedBytes = NullMixerProvider.bytesWritten.get();
+			assertTrue("Decoded " + decodedBytes + " bytes of audio, expected about " + expectedBytes + ".", Math.abs(decodedBytes - expectedBytes) <= 2*PCM_BYTES_PER_FRAME);
+		}finally{
+			RadioManager.leaveStream(radio2, stream);
+		}
+	}
+
+	@Test
+	public void testLastRadioLeavingStopsStream() throws Exception{
+		Radio radio1 = new Radio(new TestContainer());
+		Radio radio2 = new Radio(new TestContainer());
+		RadioStream stream = RadioManager.joinInternetStream(radio1, mp3URL, 64*1024, 2000);
+		RadioManager.joinInternetStream(radio2, mp3URL, 64*1024, 2000);
+		RadioManager.leaveStream(radio1, stream);
+		RadioManager.leaveStream(radio2, stream);
+		assertTrue("Stream kept playing with no radios.", stream.isFinished());
+		//Stopped streams aren't shared, so the next radio gets a new one.
+		RadioStream newStream = RadioManager.joinInternetStream(radio1, mp3URL, 64*1024, 2000);
+		try{
+			assertNotSame(stream, newStream);
+			assertEquals(2, requests.get());
+		}finally{
+			RadioManager.leaveStream(radio1, newStream);
+		}
+	}
+
+	/**Waits for the stream to play all its audio, updating it like the radio thread does.**/
+	private static void waitForFinish(RadioStream stream) throws InterruptedException{
+		long endTime = System.currentTimeMillis() + TIMEOUT;
+		while(!stream.isFinished()){
+			if(System.currentTimeMillis() > endTime){
+				fail("Stream didn't finish playing in " + TIMEOUT + "ms.");
+			}
+			stream.update(true);
+			Thread.sleep(20);
+		}
+	}
+
+	/**Returns an MP3 of silent frames.  Frames are MPEG-1 Layer III, 128 kbit/s, 44.1 kHz, joint stereo,
+	 * and are 417 bytes long.  All-zero side info and main data decodes to silence.**/
+	private static byte[] generateMP3(int frames){
+		final int frameLength = 417;
+		byte[] data = new byte[frames*frameLength];
+		for(int i=0; i<frames; ++i){
+			data[i*frameLength] = (byte) 0xFF;
+			data[i*frameLength + 1] = (byte) 0xFB;
+			data[i*frameLength + 2] = (byte) 0x90;
+			data[i*frameLength + 3] = (byte) 0x64;
+		}
+		return data;
+	}
+
+	/**Container that's always valid, a few blocks from the listener.**/
+	private static final class TestContainer implements RadioContainer{
+		@Override
+		public double getDistanceTo(double x, double y, double z){
+			return 5;
+		}
+
+		@Override
+		public boolean isValid(){
+			return true;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package minecrafttransportsimulator.radio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**Tests for the gain and pan that {@link Radio}s get from their {@link RadioContainer}.
+ *
+ * @author don_bruce
+ */
+public class RadioTest{
+	/**Where the listener sits relative to the container.  Off to the +X side, and a bit up, like a seat in a car.**/
+	private static final double SEAT_X = 2;
+	private static final double SEAT_Y = 0.5;
+	private static final double SEAT_Z = 0;
+
+	@Test
+	public void testContainerWithoutYawIsCentered(){
+		//Containers made before radios had panning only have distance and validity.
+		Radio radio = new Radio(new RadioContainer(){
+			@Override
+			public double getDistanceTo(double x, double y, double z){
+				return 10;
+			}
+
+			@Override
+			public boolean isValid(){
+				return true;
+			}
+		});
+		assertEquals(0, radio.getPan(0, 0, 0, 0), 0);
+		assertEquals(0, radio.getPan(0, 0, 0, 90), 0);
+	}
+
+	@Test
+	public void testPanFollowsYaw(){
+		//Container at +X.  Entity yaw has 90 at -X, so it's at -90 from the origin.
+		Radio radio = new Radio(new RadioContainer(){
+			@Override
+			public double getDistanceTo(double x, double y, double z){
+				return Math.sqrt(Math.pow(10 - x, 2) + y*y + z*z);
+			}
+
+			@Override
+			public double getYawFrom(double x, double z){
+				return Math.toDegrees(Math.atan2(-(10 - x), 0 - z));
+			}
+
+			@Override
+			public boolean isValid(){
+				return true;
+			}
+		});
+		assertEquals("Radio straight ahead should be centered.", 0, radio.getPan(0, 0, 0, -90), 0.0001);
+		assertEquals("Radio to the left should be panned left.", -1, radio.getPan(0, 0, 0, 0), 0.0001);
+		assertEquals("Radio to the right should be panned right.", 1, radio.getPan(0, 0, 0, 180), 0.0001);
+	}
+
+	@Test
+	public void testRadioBeingRiddenIsCenteredAndClear(){
+		//The listener sits in a seat off to the side of the vehicle, so they aren't at its position.
+		Radio radio = new Radio(new SeatContainer(true));
+		assertEquals(1, radio.getGain(SEAT_X, SEAT_Y, SEAT_Z, true), 0);
+		assertEquals(0, radio.getPan(SEAT_X, SEAT_Y, SEAT_Z, 0), 0);
+		assertFalse(radio.isOccluded(SEAT_X, SEAT_Y, SEAT_Z, true));
+	}
+
+	@Test
+	public void testRadioNotBeingRiddenIsPannedAndMuffled(){
+		//Same spot as the seat, but the listener isn't riding this one, like a radio in a car parked next to theirs.
+		Radio radio = new Radio(new SeatContainer(false));
+		assertEquals(0.5/Math.sqrt(SEAT_X*SEAT_X + SEAT_Y*SEAT_Y + SEAT_Z*SEAT_Z), radio.getGain(SEAT_X, SEAT_Y, SEAT_Z, true), 0.0001);
+		assertEquals(1, radio.getPan(SEAT_X, SEAT_Y, SEAT_Z, 0), 0.0001);
+		assertTrue(radio.isOccluded(SEAT_X, SEAT_Y, SEAT_Z, true));
+	}
+
+	/**Container at the origin, with a seat at {@link #SEAT_X}, {@link #SEAT_Y}, {@link #SEAT_Z}.**/
+	private static final class SeatContainer implements RadioContainer{
+		private final boolean riding;
+
+		private SeatContainer(boolean riding){
+			this.riding = riding;
+		}
+
+		@Override
+		public double getDistanceTo(double x, double y, double z){
+			return Math.sqrt(x*x + y*y + z*z);
+		}
+
+		@Override
+		public double getYawFrom(double x, double z){
+			return Math.toDegrees(Math.atan2(x, -z));
+		}
+
+		@Override
+		public boolean isListenerRiding(){
+			return riding;
+		}
+
+		@Override
+		public boolean isValid(){
+			return true;
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package minecrafttransportsimulator.systems;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**Tests for {@link OBJModelCache}.  Models are parsed with {@link OBJParserSystem}, saved to a cache
+ * file in a temporary folder, and loaded back.  The loaded geometry has to match the parsed geometry exactly.
+ * No Minecraft classes are needed, so this runs headless.
+ *
+ * @author don_bruce
+ */
+public class OBJModelCacheTest{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File cacheFile;
+
+	@Before
+	public void setup() throws IOException{
+		cacheFile = new File(folder.newFolder("mtsmodelcache"), "test.bin");
+	}
+
+	@Test
+	public void testCachedModelMatchesParsed(){
+		for(int triangles : new int[]{2, 5000, 40000}){
+			byte[] data = SyntheticOBJ.generate(triangles, 16, triangles).getBytes(StandardCharsets.UTF_8);
+			Map<String, float[]> parsedModel = OBJParserSystem.parseOBJData(data, "synthetic");
+			OBJModelCache.saveModel(cacheFile, "synthetic", data, parsedModel);
+			Map<String, float[]> cachedModel = OBJModelCache.loadModel(cacheFile, "synthetic", data);
+			assertNotNull("Model with " + triangles + " triangles was not loaded from the cache.", cachedModel);
+			assertModelsEqual(parsedModel, cachedModel);
+		}
+	}
+
+	@Test
+	public void testCachedModelMatchesHandWrittenModel(){
+		//Single quad, which should be split into two triangles.
+		String model = "o Quad\n"
+				+ "v 0 0 0\nv 1 0 0\nv 1 1 0\nv 0 1 0\n"
+				+ "vt 0 0\nvt 1 0\nvt 1 1\nvt 0 1\n"
+				+ "vn 0 0 1\n"
+				+ "f 1/1/1 2/2/1 3/3/1 4/4/1\n";
+		byte[] data = model.getBytes(StandardCharsets.UTF_8);
+		Map<String, float[]> parsedModel = OBJParserSystem.parseOBJData(data, "quad");
+		float[] expected = {
+			0, 0, 0, 0, 1, 0, 0, 1,
+			1, 0, 0, 1, 1, 0, 0, 1,
+			1, 1, 0, 1, 0, 0, 0, 1,
+			0, 0, 0, 0, 1, 0, 0, 1,
+			1, 1, 0, 1, 0, 0, 0, 1,
+			0, 1, 0, 0, 0, 0, 0, 1
+		};
+		assertArrayEquals(expected, parsedModel.get("Quad"), 0);
+
+		OBJModelCache.saveModel(cacheFile, "quad", data, parsedModel);
+		assertModelsEqual(parsedModel, OBJModelCache.loadModel(cacheFile, "quad", data));
+	}
+
+	@Test
+	public void testChangedModelIsNotLoaded(){
+		byte[] data = SyntheticOBJ.generate(500, 4, 1).getBytes(StandardCharsets.UTF_8);
+		OBJModelCache.saveModel(cacheFile, "synthetic", data, OBJParserSystem.parseOBJData(data, "synthetic"));
+
+		byte[] changedData = SyntheticOBJ.generate(500, 4, 2).getBytes(StandardCharsets.UTF_8);
+		assertNull("Cache was loaded for a model that changed.", OBJModelCache.loadModel(cacheFile, "synthetic", changedData));
+	}
+
+	@Test
+	public void testMissingCacheIsNotLoaded(){
+		byte[] data = SyntheticOBJ.generate(500, 4, 1).getBytes(StandardCharsets.UTF_8);
+		assertNull(OBJModelCache.loadModel(cacheFile, "synthetic", data));
+	}
+
+	@Test
+	public void testCacheFileNamesAreUnique(){
+		//These all gave the same file name when names were made by replacing characters that aren't allowed in file names.
+		String[][] models = {
+			{"mts", "objmodels/vehicles/car.obj"},
+			{"mts", "objmodels_vehicles_car.obj"},
+			{"mts", "objmodels/vehicles car.obj"},
+			{"mts_objmodels", "vehicles/car.obj"},
+			{"file", "objmodels/vehicles/car.obj"},
+			{null, "objmodels/vehicles/car.obj"},
+		};
+		Set<String> fileNames = new HashSet<String>();
+		for(String[] model : models){
+			String fileName = OBJModelCache.getCacheFileName(model[0], model[1]);
+			assertTrue("Bad file name: " + fileName, fileName.matches("[0-9a-f]{40}\\.bin"));
+			assertTrue(model[0] + ":" + model[1] + " has the same cache file as another model.", fileNames.add(fileName));
+			assertEquals("Cache file names should be the same every time.", fileName, OBJModelCache.getCacheFileName(model[0], model[1]));
+		}
+	}
+
+	private static void assertModelsEqual(Map<String, float[]> expected, Map<String, float[]> actual){
+		assertEquals(expected.keySet(), actual.keySet());
+		for(Entry<String, float[]> partEntry : expected.entrySet()){
+			assertTrue(partEntry.getValue().length%OBJParserSystem.VERTEX_SIZE == 0);
+			assertArrayEquals("Geometry of " + partEntry.getKey() + " does not match.", partEntry.getValue(), actual.get(partEntry.getKey()), 0);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package minecrafttransportsimulator.systems;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**JMH benchmark of the packed OBJ parser against the old boxed parser in {@link LegacyOBJParser}.
+ * Both parse the same model from disk, and neither uses the model cache.  By default a synthetic model from
+ * {@link SyntheticOBJ} is used.  To bench a real model, such as one from a pack, pass its path with
+ * <code>-p modelPath=path/to/model.obj</code>.  Run with <code>gradlew jmh</code>, and add <code>-prof gc</code>
+ * to the JMH arguments to compare allocations.
+ *
+ * @author don_bruce
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OBJParserBenchmark{
+	/**Triangles in the synthetic model.  40,000 is about the size of a large airliner.**/
+	@Param({"5000", "40000"})
+	public int triangles;
+	/**Path of a model to bench instead of the synthetic one.  Empty to use the synthetic model.**/
+	@Param({""})
+	public String modelPath;
+
+	private String modelLocation;
+
+	@Setup
+	public void setup() throws IOException{
+		if(modelPath.isEmpty()){
+			modelLocation = SyntheticOBJ.writeTempModel(triangles, 16, 1).getPath();
+		}else{
+			modelLocation = new File(modelPath).getPath();
+		}
+	}
+
+	@Benchmark
+	public Map<String, float[]> packedParser(){
+		return OBJParserSystem.parseOBJData(OBJParserSystem.readModelData(null, modelLocation), modelLocation);
+	}
+
+	@Benchmark
+	public Map<String, Float[][]> legacyParser(){
+		return LegacyOBJParser.parseOBJModel(null, modelLocation);
+	}
+}
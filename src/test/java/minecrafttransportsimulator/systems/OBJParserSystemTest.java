@@ -0,0 +1,128 @@
+package minecrafttransportsimulator.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**Tests that {@link OBJParserSystem} gives the exact same geometry as the old parser in {@link LegacyOBJParser}.
+ * Both parse the same model files, and every float has to match bit-for-bit.  Models cover the synthetic
+ * models from {@link SyntheticOBJ}, and number formats exporters write, such as signed exponents.
+ *
+ * @author don_bruce
+ */
+public class OBJParserSystemTest{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testSyntheticModelsMatchLegacy() throws IOException{
+		for(int triangles : new int[]{2, 5000, 40000}){
+			assertMatchesLegacy(SyntheticOBJ.generate(triangles, 16, triangles));
+		}
+	}
+
+	@Test
+	public void testSignedExponentsMatchLegacy() throws IOException{
+		assertMatchesLegacy(makeModel(new String[]{
+			"1.5e+02", "0", "0",
+			"1.5E+02", "-2.5e-03", "+4E1",
+			"-1e0", "+0.0", "-0.0",
+			"3.0e+00", "1e-30", "-7.25E+10",
+			"1.0e-45", "3.4028235e38", "0.1234567890123456789",
+			"123456789012345678901234567890", ".5", "5.",
+		}));
+	}
+
+	@Test
+	public void testRandomNumberFormatsMatchLegacy() throws IOException{
+		Random random = new Random(1);
+		String[] formats = {"%.6f", "%.9f", "%.3e", "%.8E", "%+.7e", "%.17f", "%g"};
+		String[] values = new String[3000];
+		for(int i=0; i<values.length; ++i){
+			float value = (float) ((random.nextDouble() - 0.5)*Math.pow(10, random.nextInt(16) - 8));
+			switch(i%(formats.length + 2)){
+				case 0: values[i] = Float.toString(value); break;
+				case 1: values[i] = Double.toString(value); break;
+				default: values[i] = String.format(Locale.ROOT, formats[i%(formats.length + 2) - 2], value);
+			}
+		}
+		assertMatchesLegacy(makeModel(values));
+	}
+
+	@Test
+	public void testBadNumbersFail() throws IOException{
+		for(String badNumber : new String[]{"1.5e", "1.5e+", "1..5", "abc", "1.5x"}){
+			String model = makeModel(new String[]{badNumber, "0", "0"});
+			try{
+				OBJParserSystem.parseOBJData(model.getBytes(StandardCharsets.UTF_8), "bad");
+				fail("Vertex " + badNumber + " should not parse.");
+			}catch(NumberFormatException e){
+				//Expected.  The legacy parser also failed on these.
+			}
+		}
+	}
+
+	/**Parses the passed-in model with both parsers and checks they give the same parts with the same floats.**/
+	private void assertMatchesLegacy(String model) throws IOException{
+		File modelFile = folder.newFile();
+		OutputStream stream = new FileOutputStream(modelFile);
+		try{
+			stream.write(model.getBytes(StandardCharsets.UTF_8));
+		}finally{
+			stream.close();
+		}
+		Map<String, Float[][]> legacyModel = LegacyOBJParser.parseOBJModel(null, modelFile.getPath());
+		Map<String, float[]> parsedModel = OBJParserSystem.parseOBJData(model.getBytes(StandardCharsets.UTF_8), modelFile.getPath());
+		assertEquals(legacyModel.keySet(), parsedModel.keySet());
+		for(Entry<String, Float[][]> legacyEntry : legacyModel.entrySet()){
+			Float[][] legacyPart = legacyEntry.getValue();
+			float[] parsedPart = parsedModel.get(legacyEntry.getKey());
+			assertNotNull(parsedPart);
+			assertEquals("Vertex count of " + legacyEntry.getKey(), legacyPart.length*OBJParserSystem.VERTEX_SIZE, parsedPart.length);
+			for(int i=0; i<legacyPart.length; ++i){
+				for(int j=0; j<OBJParserSystem.VERTEX_SIZE; ++j){
+					float legacyValue = legacyPart[i][j];
+					float parsedValue = parsedPart[i*OBJParserSystem.VERTEX_SIZE + j];
+					if(Float.floatToRawIntBits(legacyValue) != Float.floatToRawIntBits(parsedValue)){
+						fail("Value " + j + " of vertex " + i + " of " + legacyEntry.getKey() + " was " + parsedValue + ", but the legacy parser gave " + legacyValue + ".");
+					}
+				}
+			}
+		}
+	}
+
+	/**Returns a model with one triangle for every three passed-in numbers.  The numbers are used for the
+	 * vertices, UVs, and normals, so every number goes through every float path of the parser.**/
+	private static String makeModel(String[] numbers){
+		StringBuilder builder = new StringBuilder();
+		builder.append("o Part\n");
+		int points = numbers.length/3;
+		for(int i=0; i<points; ++i){
+			builder.append("v ").append(numbers[i*3]).append(' ').append(numbers[i*3 + 1]).append(' ').append(numbers[i*3 + 2]).append('\n');
+			builder.append("vt ").append(numbers[i*3]).append(' ').append(numbers[i*3 + 1]).append('\n');
+			builder.append("vn ").append(numbers[i*3 + 2]).append(' ').append(numbers[i*3]).append(' ').append(numbers[i*3 + 1]).append('\n');
+		}
+		for(int i=0; i + 2<points; i+=3){
+			builder.append("f");
+			for(int j=i; j<i + 3; ++j){
+				builder.append(' ').append(j + 1).append('/').append(j + 1).append('/').append(j + 1);
+			}
+			builder.append('\n');
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,90 @@
+package minecrafttransportsimulator.systems;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+import minecrafttransportsimulator.jsondefs.AJSONItem;
+
+/**JMH benchmark of pack loading.  Parses every definition of a {@link SyntheticPack} on a worker pool,
+ * like {@link PackParserSystem} does.  The pack loading in {@link PackParserSystem#finishPackLoading()} can't be
+ * called directly, as it registers items, and that needs Minecraft to be running.
+ * Run with <code>gradlew jmh -PjmhArgs="PackLoadingBenchmark"</code>.
+ *
+ * @author don_bruce
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PackLoadingBenchmark{
+	@Param({"5000"})
+	public int definitions;
+	/**Parser threads.  4 is the most {@link PackParserSystem} uses.**/
+	@Param({"4"})
+	public int threads;
+
+	private final Gson gson = new Gson();
+	private SyntheticPack pack;
+	private ExecutorService pool;
+
+	@Setup
+	public void setup(){
+		pack = new SyntheticPack(definitions, 1);
+		pool = Executors.newFixedThreadPool(threads);
+	}
+
+	@TearDown
+	public void tearDown(){
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public List<AJSONItem<?>> parallelParse() throws Exception{
+		return waitForAll(submitParses(pack.jsonTexts));
+	}
+
+	private List<Future<AJSONItem<?>>> submitParses(List<String> jsonTexts){
+		List<Future<AJSONItem<?>>> parses = new ArrayList<Future<AJSONItem<?>>>();
+		for(int i=0; i<definitions; ++i){
+			final String jsonText = jsonTexts.get(i);
+			final Class<? extends AJSONItem<?>> definitionClass = pack.definitionClasses.get(i);
+			parses.add(pool.submit(new Callable<AJSONItem<?>>(){
+				@Override
+				public AJSONItem<?> call(){
+					return gson.fromJson(jsonText, definitionClass);
+				}
+			}));
+		}
+		return parses;
+	}
+
+	private static <T> List<T> waitForAll(List<Future<T>> futures) throws Exception{
+		List<T> results = new ArrayList<T>(futures.size());
+		for(Future<T> future : futures){
+			results.add(future.get());
+		}
+		return results;
+	}
+}
@@ -0,0 +1,95 @@
+package minecrafttransportsimulator.systems;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**Generates OBJ models for the OBJ benchmarks and tests.  Models are made of objects that are grids of quads,
+ * the same way most exporters write them, with their own vertices, UVs, and normals.  The last object is
+ * a window so the window UV path is covered.  The same seed always makes the same model.
+ *
+ * @author don_bruce
+ */
+public final class SyntheticOBJ{
+
+	/**Returns the text of a model with about the passed-in number of triangles, split over the passed-in number of objects.**/
+	public static String generate(int triangles, int objects, long seed){
+		Random random = new Random(seed);
+		StringBuilder builder = new StringBuilder(triangles*160);
+		builder.append("# Synthetic model\n");
+		int quadsPerObject = Math.max(1, triangles/2/objects);
+		int gridSize = (int) Math.ceil(Math.sqrt(quadsPerObject));
+		int vertexBase = 0;
+		int textureBase = 0;
+		int normalBase = 0;
+		for(int object=0; object<objects; ++object){
+			builder.append("o ").append(object == objects - 1 ? "Window_" : "Part_").append(object).append('\n');
+
+			//Vertices and UVs are on a grid, with a bit of noise so numbers aren't all short.
+			for(int row=0; row<=gridSize; ++row){
+				for(int column=0; column<=gridSize; ++column){
+					appendFloats(builder, "v", column*0.0625F + object, row*0.0625F + random.nextFloat()*0.01F, random.nextFloat() - 0.5F);
+				}
+			}
+			for(int row=0; row<=gridSize; ++row){
+				for(int column=0; column<=gridSize; ++column){
+					appendFloats(builder, "vt", column/(float) gridSize, row/(float) gridSize);
+				}
+			}
+			for(int normal=0; normal<4; ++normal){
+				float angle = random.nextFloat()*6.28F;
+				appendFloats(builder, "vn", (float) Math.cos(angle), 0, (float) Math.sin(angle));
+			}
+			builder.append("s off\n");
+
+			//One face per grid cell, as a quad that the parser has to split into two triangles.
+			int quads = 0;
+			for(int row=0; row<gridSize && quads<quadsPerObject; ++row){
+				for(int column=0; column<gridSize && quads<quadsPerObject; ++column){
+					int corner = row*(gridSize + 1) + column;
+					int normal = normalBase + quads%4 + 1;
+					builder.append("f");
+					appendPoint(builder, vertexBase + corner + 1, textureBase + corner + 1, normal);
+					appendPoint(builder, vertexBase + corner + 2, textureBase + corner + 2, normal);
+					appendPoint(builder, vertexBase + corner + gridSize + 3, textureBase + corner + gridSize + 3, normal);
+					appendPoint(builder, vertexBase + corner + gridSize + 2, textureBase + corner + gridSize + 2, normal);
+					builder.append('\n');
+					++quads;
+				}
+			}
+			vertexBase += (gridSize + 1)*(gridSize + 1);
+			textureBase += (gridSize + 1)*(gridSize + 1);
+			normalBase += 4;
+		}
+		return builder.toString();
+	}
+
+	/**Writes a model made by {@link #generate(int, int, long)} to a temporary file that's deleted on exit.**/
+	public static File writeTempModel(int triangles, int objects, long seed) throws IOException{
+		File modelFile = File.createTempFile("mtssynthetic", ".obj");
+		modelFile.deleteOnExit();
+		OutputStream stream = new FileOutputStream(modelFile);
+		try{
+			stream.write(generate(triangles, objects, seed).getBytes(StandardCharsets.UTF_8));
+		}finally{
+			stream.close();
+		}
+		return modelFile;
+	}
+
+	private static void appendFloats(StringBuilder builder, String prefix, float... values){
+		builder.append(prefix);
+		for(float value : values){
+			builder.append(' ').append(String.format(Locale.ROOT, "%.6f", value));
+		}
+		builder.append('\n');
+	}
+
+	private static void appendPoint(StringBuilder builder, int vertex, int texture, int normal){
+		builder.append(' ').append(vertex).append('/').append(texture).append('/').append(normal);
+	}
+}
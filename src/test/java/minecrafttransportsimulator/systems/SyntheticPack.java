@@ -0,0 +1,95 @@
+package minecrafttransportsimulator.systems;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import minecrafttransportsimulator.jsondefs.AJSONItem;
+import minecrafttransportsimulator.jsondefs.JSONPart;
+import minecrafttransportsimulator.jsondefs.JSONVehicle;
+
+/**Generates pack JSON for the pack loading benchmarks and tests.  One in ten definitions is a vehicle with
+ * parts, collision, and animated model objects.  The rest are engine parts.  JSON is pretty-printed with
+ * tabs like the JSON in most packs.  The same seed always makes the same pack.
+ *
+ * @author don_bruce
+ */
+public final class SyntheticPack{
+	public final List<String> jsonFileNames = new ArrayList<String>();
+	public final List<String> jsonTexts = new ArrayList<String>();
+	public final List<Class<? extends AJSONItem<?>>> definitionClasses = new ArrayList<Class<? extends AJSONItem<?>>>();
+
+	public SyntheticPack(int definitions, long seed){
+		Random random = new Random(seed);
+		for(int i=0; i<definitions; ++i){
+			if(i%10 == 0){
+				jsonFileNames.add("vehicle" + i);
+				jsonTexts.add(generateVehicle(random, i));
+				definitionClasses.add(JSONVehicle.class);
+			}else{
+				jsonFileNames.add("engine" + i);
+				jsonTexts.add(generateEngine(random, i));
+				definitionClasses.add(JSONPart.class);
+			}
+		}
+	}
+
+	private static String generateVehicle(Random random, int index){
+		StringBuilder builder = new StringBuilder(8192);
+		builder.append("{\n\t\"general\": {\n\t\t\"type\": \"car\",\n\t\t\"openTop\": false,\n\t\t\"emptyMass\": ").append(500 + random.nextInt(2000));
+		builder.append(",\n\t\t\"description\": \"Synthetic vehicle ").append(index).append(".\",\n\t\t\"materials\": [\"minecraft:iron_ingot:0:").append(1 + random.nextInt(32)).append("\", \"minecraft:glass_pane:0:4\"]\n\t},\n");
+		builder.append("\t\"definitions\": [\n");
+		for(int i=0; i<4; ++i){
+			builder.append("\t\t{\n\t\t\t\"subName\": \"_").append(i).append("\",\n\t\t\t\"name\": \"Vehicle ").append(index).append(" Color ").append(i).append("\",\n\t\t\t\"extraMaterials\": [\"minecraft:dye:").append(i).append(":2\"]\n\t\t}").append(i < 3 ? ",\n" : "\n");
+		}
+		builder.append("\t],\n\t\"motorized\": {\n\t\t\"fuelCapacity\": 5000,\n\t\t\"defaultFuelQty\": 0,\n\t\t\"hornSound\": \"mts:car_horn\",\n\t\t\"instruments\": [\n");
+		for(int i=0; i<6; ++i){
+			builder.append("\t\t\t{\n\t\t\t\t\"pos\": ").append(floats(random, 3)).append(",\n\t\t\t\t\"rot\": [0.0, 0.0, 0.0],\n\t\t\t\t\"scale\": 0.125,\n\t\t\t\t\"hudX\": ").append(random.nextInt(400)).append(",\n\t\t\t\t\"hudY\": ").append(random.nextInt(140)).append(",\n\t\t\t\t\"hudScale\": 0.75\n\t\t\t}").append(i < 5 ? ",\n" : "\n");
+		}
+		builder.append("\t\t]\n\t},\n\t\"car\": {\n\t\t\"isFrontWheelDrive\": true,\n\t\t\"axleRatio\": 3.55,\n\t\t\"dragCoefficient\": 0.3\n\t},\n\t\"parts\": [\n");
+		for(int i=0; i<12; ++i){
+			builder.append("\t\t{\n\t\t\t\"pos\": ").append(floats(random, 3)).append(",\n\t\t\t\"types\": [\"").append(i < 4 ? "wheel" : (i < 5 ? "engine_car" : "seat")).append("\"],\n\t\t\t\"minValue\": 0.5,\n\t\t\t\"maxValue\": 1.0");
+			if(i < 4){
+				builder.append(",\n\t\t\t\"turnsWithSteer\": true,\n\t\t\t\"defaultPart\": \"mts:wheel\"");
+			}else if(i == 4){
+				builder.append(",\n\t\t\t\"exhaustPos\": ").append(floats(random, 3)).append(",\n\t\t\t\"exhaustVelocity\": [0.0, 0.0, -0.1]");
+			}else{
+				builder.append(",\n\t\t\t\"isController\": ").append(i == 5).append(",\n\t\t\t\"dismountPos\": ").append(floats(random, 3));
+			}
+			builder.append("\n\t\t}").append(i < 11 ? ",\n" : "\n");
+		}
+		builder.append("\t],\n\t\"collision\": [\n");
+		for(int i=0; i<8; ++i){
+			builder.append("\t\t{\n\t\t\t\"pos\": ").append(floats(random, 3)).append(",\n\t\t\t\"width\": 1.5,\n\t\t\t\"height\": 1.5\n\t\t}").append(i < 7 ? ",\n" : "\n");
+		}
+		builder.append("\t],\n\t\"rendering\": {\n\t\t\"hudTexture\": \"mts:textures/hud/default.png\",\n\t\t\"rotatableModelObjects\": [\n");
+		for(int i=0; i<10; ++i){
+			builder.append("\t\t\t{\n\t\t\t\t\"partName\": \"door_").append(i).append("\",\n\t\t\t\t\"rotationPoint\": ").append(floats(random, 3)).append(",\n\t\t\t\t\"rotationAxis\": [0.0, 90.0, 0.0],\n\t\t\t\t\"rotationVariable\": \"door\"\n\t\t\t}").append(i < 9 ? ",\n" : "\n");
+		}
+		builder.append("\t\t]\n\t}\n}\n");
+		return builder.toString();
+	}
+
+	private static String generateEngine(Random random, int index){
+		StringBuilder builder = new StringBuilder(2048);
+		builder.append("{\n\t\"general\": {\n\t\t\"type\": \"engine_car\",\n\t\t\"name\": \"Engine ").append(index).append("\",\n\t\t\"description\": \"Synthetic engine ").append(index).append(".\",\n");
+		builder.append("\t\t\"materials\": [\"minecraft:iron_ingot:0:").append(1 + random.nextInt(32)).append("\", \"minecraft:piston:0:").append(1 + random.nextInt(8)).append("\"]\n\t},\n");
+		builder.append("\t\"engine\": {\n\t\t\"isAutomatic\": ").append(random.nextBoolean()).append(",\n\t\t\"starterPower\": 50,\n\t\t\"starterDuration\": 20,\n\t\t\"maxRPM\": ").append(3000 + random.nextInt(5000));
+		builder.append(",\n\t\t\"fuelConsumption\": ").append(String.format(Locale.ROOT, "%.3f", random.nextFloat())).append(",\n\t\t\"gearRatios\": ").append(floats(random, 6)).append(",\n\t\t\"fuelType\": \"gasoline\"\n\t},\n");
+		builder.append("\t\"rendering\": {\n\t\t\"rotatableModelObjects\": [\n");
+		for(int i=0; i<3; ++i){
+			builder.append("\t\t\t{\n\t\t\t\t\"partName\": \"fan_").append(i).append("\",\n\t\t\t\t\"rotationPoint\": ").append(floats(random, 3)).append(",\n\t\t\t\t\"rotationAxis\": [0.0, 0.0, 1.0],\n\t\t\t\t\"rotationVariable\": \"engine_rotation\"\n\t\t\t}").append(i < 2 ? ",\n" : "\n");
+		}
+		builder.append("\t\t]\n\t}\n}\n");
+		return builder.toString();
+	}
+
+	private static String floats(Random random, int count){
+		StringBuilder builder = new StringBuilder("[");
+		for(int i=0; i<count; ++i){
+			builder.append(i == 0 ? "" : ", ").append(String.format(Locale.ROOT, "%.4f", random.nextFloat()*8 - 4));
+		}
+		return builder.append(']').toString();
+	}
+}
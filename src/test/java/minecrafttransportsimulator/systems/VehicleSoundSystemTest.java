@@ -0,0 +1,239 @@
+package minecrafttransportsimulator.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import minecrafttransportsimulator.baseclasses.VehicleSound.SoundTypes;
+import minecrafttransportsimulator.systems.VehicleSoundSystem.SoundSource;
+
+/**Tests for {@link VehicleSoundSystem#getVoiceScore(SoundTypes, float, boolean)} and
+ * {@link VehicleSoundSystem#rankSources(List, int)}.  Scores decide which looping sources get voices, so these
+ * check the ordering the voice balancing relies on, and which sources win in synthetic layouts of sources around
+ * the listener.  Only the scorer and ranker are called, so the SoundSystem is never started and this runs headless.
+ *
+ * @author don_bruce
+ */
+public class VehicleSoundSystemTest{
+	private static final float DELTA = 0.0001F;
+	private static final int MAX_VOICES = 4;
+
+	@Test
+	public void testScoreValues(){
+		assertEquals(0.5F, VehicleSoundSystem.getVoiceScore(SoundTypes.ENGINE, 0.5F, false), DELTA);
+		assertEquals(0.625F, VehicleSoundSystem.getVoiceScore(SoundTypes.HORN, 0.5F, false), DELTA);
+		assertEquals(0.75F, VehicleSoundSystem.getVoiceScore(SoundTypes.SIREN, 0.5F, false), DELTA);
+		assertEquals(1000.5F, VehicleSoundSystem.getVoiceScore(SoundTypes.ENGINE, 0.5F, true), DELTA);
+		assertEquals(0F, VehicleSoundSystem.getVoiceScore(SoundTypes.SIREN, 0F, false), DELTA);
+	}
+
+	@Test
+	public void testRidingBeatsVolume(){
+		for(SoundTypes soundType : SoundTypes.values()){
+			for(SoundTypes otherType : SoundTypes.values()){
+				float ridingScore = VehicleSoundSystem.getVoiceScore(soundType, 0F, true);
+				float loudestScore = VehicleSoundSystem.getVoiceScore(otherType, 1F, false);
+				assertTrue("Silent riding " + soundType + " scored below a full volume " + otherType + ".", ridingScore > loudestScore);
+			}
+		}
+	}
+
+	@Test
+	public void testSignalsBeatEngines(){
+		for(float volume : new float[]{0.01F, 0.25F, 0.5F, 1F}){
+			for(boolean riding : new boolean[]{false, true}){
+				float engineScore = VehicleSoundSystem.getVoiceScore(SoundTypes.ENGINE, volume, riding);
+				float hornScore = VehicleSoundSystem.getVoiceScore(SoundTypes.HORN, volume, riding);
+				float sirenScore = VehicleSoundSystem.getVoiceScore(SoundTypes.SIREN, volume, riding);
+				assertTrue("Horn didn't beat engine at volume " + volume + ".", hornScore > engineScore);
+				assertTrue("Siren didn't beat horn at volume " + volume + ".", sirenScore > hornScore);
+			}
+		}
+	}
+
+	@Test
+	public void testLouderScoresHigher(){
+		for(SoundTypes soundType : SoundTypes.values()){
+			for(boolean riding : new boolean[]{false, true}){
+				float lastScore = -1;
+				for(int i=0; i<=10; ++i){
+					float score = VehicleSoundSystem.getVoiceScore(soundType, i/10F, riding);
+					assertTrue(soundType + " at volume " + i/10F + " didn't score above the quieter volume.", score > lastScore);
+					lastScore = score;
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testScoresAreDeterministic(){
+		for(SoundTypes soundType : SoundTypes.values()){
+			float score = VehicleSoundSystem.getVoiceScore(soundType, 0.37F, false);
+			for(int i=0; i<100; ++i){
+				assertEquals(score, VehicleSoundSystem.getVoiceScore(soundType, 0.37F, false), 0F);
+			}
+		}
+	}
+
+	@Test
+	public void testNearestSourcesGetVoices(){
+		//Engines along the X axis at 1 to 10 blocks from the listener, in a random order.
+		List<Layout> layouts = new ArrayList<Layout>();
+		for(int i=1; i<=10; ++i){
+			layouts.add(new Layout("engine" + i, SoundTypes.ENGINE, i, false));
+		}
+		Collections.shuffle(layouts, new Random(1));
+		assertEquals(new HashSet<String>(Arrays.asList("engine1", "engine2", "engine3", "engine4")), balance(layouts, 0));
+	}
+
+	@Test
+	public void testLoudestSourcesGetVoices(){
+		//Sirens and horns are louder than engines at the same spot, so they win over engines that are a bit closer.
+		List<Layout> layouts = new ArrayList<Layout>();
+		for(int i=0; i<6; ++i){
+			layouts.add(new Layout("engine" + i, SoundTypes.ENGINE, 4, false));
+		}
+		layouts.add(new Layout("siren", SoundTypes.SIREN, 5, false));
+		layouts.add(new Layout("horn", SoundTypes.HORN, 4.5, false));
+		Set<String> voiced = balance(layouts, 0);
+		assertTrue(voiced.contains("siren"));
+		assertTrue(voiced.contains("horn"));
+	}
+
+	@Test
+	public void testRiddenSourcesGetVoices(){
+		//The vehicle being ridden is far from where the listener is, like when in third person.  It still wins.
+		List<Layout> layouts = new ArrayList<Layout>();
+		for(int i=1; i<=10; ++i){
+			layouts.add(new Layout("engine" + i, SoundTypes.ENGINE, i, false));
+		}
+		layouts.add(new Layout("ridden", SoundTypes.ENGINE, 100, true));
+		assertEquals(new HashSet<String>(Arrays.asList("ridden", "engine1", "engine2", "engine3")), balance(layouts, 0));
+	}
+
+	@Test
+	public void testTiesGoToLowestID(){
+		//All sources are the same distance away.  The same ones should win no matter what order they come in.
+		List<Layout> layouts = new ArrayList<Layout>();
+		for(int i=0; i<10; ++i){
+			layouts.add(new Layout("engine" + i, SoundTypes.ENGINE, 3, false));
+		}
+		Set<String> expected = new HashSet<String>(Arrays.asList("engine0", "engine1", "engine2", "engine3"));
+		Random random = new Random(1);
+		for(int i=0; i<20; ++i){
+			Collections.shuffle(layouts, random);
+			assertEquals(expected, balance(layouts, 0));
+		}
+	}
+
+	@Test
+	public void testBudgetIsRespected(){
+		for(int sourceCount=0; sourceCount<=20; ++sourceCount){
+			for(int maxVoices=1; maxVoices<=8; ++maxVoices){
+				List<Entry<String, SoundSource>> sources = new ArrayList<Entry<String, SoundSource>>();
+				for(int i=0; i<sourceCount; ++i){
+					SoundSource source = new SoundSource(null);
+					source.score = VehicleSoundSystem.getVoiceScore(SoundTypes.ENGINE, 1F/(i + 1), false);
+					//Half of the sources already have voices, so more sources claim them than there are.
+					source.hasVoice = i%2 == 0;
+					sources.add(new SimpleEntry<String, SoundSource>("engine" + i, source));
+				}
+				assertEquals(sourceCount + " sources with " + maxVoices + " voices.", Math.min(sourceCount, maxVoices), VehicleSoundSystem.rankSources(sources, maxVoices));
+				assertEquals("Ranking shouldn't add or drop sources.", sourceCount, sources.size());
+			}
+		}
+	}
+
+	@Test
+	public void testSimilarSourcesDontSwap(){
+		//The fifth engine is only slightly closer than the fourth, so the fourth keeps its voice.
+		List<Layout> layouts = new ArrayList<Layout>();
+		for(int i=1; i<=4; ++i){
+			layouts.add(new Layout("engine" + i, SoundTypes.ENGINE, i, false));
+		}
+		layouts.add(new Layout("engine5", SoundTypes.ENGINE, 5, false));
+		Set<String> voiced = balance(layouts, 0);
+		layouts.get(4).position = 3.9;
+		assertEquals(voiced, balance(layouts, 0));
+		//Once it's a lot closer, it takes the voice.
+		layouts.get(4).position = 2.5;
+		assertEquals(new HashSet<String>(Arrays.asList("engine1", "engine2", "engine3", "engine5")), balance(layouts, 0));
+	}
+
+	@Test
+	public void testVoicesFollowListener(){
+		//Engines every 10 blocks along the X axis.  The listener drives past them all and back again.
+		List<Layout> layouts = new ArrayList<Layout>();
+		for(int i=0; i<20; ++i){
+			layouts.add(new Layout("engine" + (char) ('a' + i), SoundTypes.ENGINE, i*10, false));
+		}
+		for(int step=0; step<=190*2; ++step){
+			double listener = step <= 190 ? step : 190*2 - step;
+			Set<String> voiced = balance(layouts, listener);
+			assertEquals("Voice count at " + listener + ".", MAX_VOICES, voiced.size());
+			//Every voiced source should be close to the listener.  Kept voices can lag a bit, but not by much.
+			for(Layout layout : layouts){
+				if(voiced.contains(layout.soundID)){
+					assertTrue(layout.soundID + " still had a voice at " + listener + ".", Math.abs(layout.position - listener) < 35);
+				}else if(Math.abs(layout.position - listener) <= 10){
+					fail(layout.soundID + " didn't have a voice at " + listener + ".");
+				}
+			}
+		}
+		//Back at the start, the first engines have their voices back.
+		Set<String> voiced = balance(layouts, 0);
+		assertTrue(voiced.contains("enginea"));
+		assertFalse(voiced.contains("enginet"));
+	}
+
+	/**Scores the passed-in layouts for the listener at the passed-in X position, ranks them, and gives or takes voices
+	 * like {@link VehicleSoundSystem} does.  Returns the IDs of the sources that have voices afterwards.**/
+	private static Set<String> balance(List<Layout> layouts, double listener){
+		List<Entry<String, SoundSource>> sources = new ArrayList<Entry<String, SoundSource>>();
+		for(Layout layout : layouts){
+			//Volume falls off with distance, like engine sounds.  Ridden sources are always at full volume.
+			float volume = layout.riding ? 1F : (float) Math.min(1D, 1D/Math.abs(layout.position - listener));
+			layout.source.score = VehicleSoundSystem.getVoiceScore(layout.soundType, volume, layout.riding);
+			sources.add(new SimpleEntry<String, SoundSource>(layout.soundID, layout.source));
+		}
+		int voicedSources = VehicleSoundSystem.rankSources(sources, MAX_VOICES);
+		Set<String> voiced = new HashSet<String>();
+		for(int i=0; i<sources.size(); ++i){
+			sources.get(i).getValue().hasVoice = i < voicedSources;
+			if(i < voicedSources){
+				voiced.add(sources.get(i).getKey());
+			}
+		}
+		return voiced;
+	}
+
+	/**A source at a spot on the X axis.  The source is kept between calls to {@link #balance(List, double)},
+	 * so sources remember if they had a voice.**/
+	private static final class Layout{
+		private final String soundID;
+		private final SoundTypes soundType;
+		private final boolean riding;
+		private final SoundSource source = new SoundSource(null);
+		private double position;
+
+		private Layout(String soundID, SoundTypes soundType, double position, boolean riding){
+			this.soundID = soundID;
+			this.soundType = soundType;
+			this.position = position;
+			this.riding = riding;
+		}
+	}
+}